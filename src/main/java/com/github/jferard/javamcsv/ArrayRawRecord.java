@@ -0,0 +1,85 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * An immutable raw record backed by an array of strings.
+ */
+public class ArrayRawRecord implements RawRecord {
+    /**
+     * @param record a record, possibly reused by its tokenizer
+     * @return an immutable copy of the record (the record itself if it is already immutable)
+     */
+    public static RawRecord copyOf(RawRecord record) {
+        if (record instanceof CSVRecordRawRecord || record instanceof ArrayRawRecord) {
+            return record;
+        }
+        int size = record.size();
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = record.get(i);
+        }
+        return new ArrayRawRecord(values, record.getRecordNumber());
+    }
+
+    private final String[] values;
+    private final long recordNumber;
+
+    public ArrayRawRecord(String[] values, long recordNumber) {
+        this.values = values;
+        this.recordNumber = recordNumber;
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public String get(int i) {
+        return this.values[i];
+    }
+
+    @Override
+    public CharSequence getView(int i) {
+        return this.values[i];
+    }
+
+    @Override
+    public Reader getReader(int i) {
+        return new StringReader(this.values[i]);
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return this.recordNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "RawRecord [recordNumber=" + this.recordNumber + ", values=" +
+                Arrays.toString(this.values) + "]";
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread safe pool of direct buffers of the same size.
+ */
+public class ByteBufferPool {
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private final Queue<ByteBuffer> buffers;
+    private final AtomicInteger pooledBuffers;
+
+    /**
+     * @param bufferSize       the size of the buffers
+     * @param maxPooledBuffers the maximum number of buffers kept by the pool
+     */
+    public ByteBufferPool(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+        this.buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+        this.pooledBuffers = new AtomicInteger();
+    }
+
+    /**
+     * @return a cleared buffer, pooled or new
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = this.buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(this.bufferSize);
+        }
+        this.pooledBuffers.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * @param buffer a buffer returned by {@link #acquire()}, not used anymore
+     */
+    public void release(ByteBuffer buffer) {
+        if (this.pooledBuffers.incrementAndGet() <= this.maxPooledBuffers) {
+            this.buffers.offer(buffer);
+        } else {
+            this.pooledBuffers.decrementAndGet();
+        }
+    }
+}
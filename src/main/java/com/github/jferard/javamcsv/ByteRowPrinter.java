@@ -0,0 +1,409 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.FieldDescription;
+import com.github.jferard.javamcsv.processor.BooleanFieldProcessor;
+import com.github.jferard.javamcsv.processor.CurrencyDecimalFieldProcessor;
+import com.github.jferard.javamcsv.processor.CurrencyIntegerFieldProcessor;
+import com.github.jferard.javamcsv.processor.DateFieldProcessor;
+import com.github.jferard.javamcsv.processor.DecimalFieldProcessor;
+import com.github.jferard.javamcsv.processor.FieldProcessor;
+import com.github.jferard.javamcsv.processor.FloatFieldProcessor;
+import com.github.jferard.javamcsv.processor.IntegerFieldProcessor;
+import com.github.jferard.javamcsv.processor.PercentageDecimalFieldProcessor;
+import com.github.jferard.javamcsv.processor.PercentageFloatFieldProcessor;
+import com.github.jferard.javamcsv.processor.WriteProcessorProvider;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.QuoteMode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A backend that quotes and encodes the fields itself, and writes the bytes to a channel,
+ * without Writer nor CSVPrinter. The output is the output of a CSVPrinter with the same
+ * format (minimal quote mode), encoded like an OutputStreamWriter would.
+ *
+ * The encoding is limited to UTF-8 and the single-byte charsets. The values of the numeric,
+ * boolean and (common numeric patterns) date columns are not scanned for special chars when
+ * the description shows that they can't contain any.
+ */
+class ByteRowPrinter implements RowPrinter {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final char LF = '\n';
+    private static final char CR = '\r';
+    private static final char SP = ' ';
+    private static final char COMMENT = '#';
+    private static final String NUMBER_CHARS = "0123456789-+.ENaInfity ";
+
+    /**
+     * @param format  the CSV format
+     * @param charset the charset
+     * @return true if this backend produces the same output as a CSVPrinter.
+     */
+    static boolean isSupported(CSVFormat format, Charset charset) {
+        QuoteMode quoteMode = format.getQuoteMode();
+        return format.isQuoteCharacterSet() &&
+                (quoteMode == null || quoteMode == QuoteMode.MINIMAL) &&
+                !format.getTrim() && !format.getTrailingDelimiter() &&
+                format.getRecordSeparator() != null &&
+                (charset.equals(Util.UTF_8_CHARSET) ||
+                        SingleByteCharsetReader.createTable(charset) != null);
+    }
+
+    /**
+     * @param data          the data
+     * @param writeProvider the provider
+     * @param onError       what to do on a write error
+     * @param format        the CSV format
+     * @return for each column, true if the values have to be scanned for special chars.
+     */
+    static boolean[] createScanFlags(MetaCSVData data, WriteProcessorProvider writeProvider,
+                                     OnError onError, CSVFormat format) {
+        List<Integer> indices = data.getSortedColIndices();
+        if (indices.isEmpty()) {
+            return new boolean[0];
+        }
+        boolean[] scan = new boolean[indices.get(indices.size() - 1) + 1];
+        Arrays.fill(scan, true);
+        if (onError == OnError.TEXT) {
+            // a value of any type may be written as text
+            return scan;
+        }
+        String specialChars = new String(new char[]{LF, CR, format.getDelimiter(),
+                format.getQuoteCharacter()});
+        for (int c : indices) {
+            String alphabet = getAlphabet(data.getDescription(c),
+                    writeProvider.getFieldProcessor(c), data.getNullValue());
+            scan[c] = alphabet == null || containsAny(alphabet, specialChars);
+        }
+        return scan;
+    }
+
+    /**
+     * @return a superset of the chars of the formatted values, or null if it's unknown
+     */
+    private static String getAlphabet(FieldDescription<?> description,
+                                      FieldProcessor<?> processor, String nullValue) {
+        StringBuilder sb = new StringBuilder(nullValue == null ? "" : nullValue);
+        // the exact classes: a subclass may format the values in another way
+        Class<?> processorClass = processor.getClass();
+        if (processorClass == IntegerFieldProcessor.class ||
+                processorClass == FloatFieldProcessor.class ||
+                processorClass == DecimalFieldProcessor.class ||
+                processorClass == CurrencyIntegerFieldProcessor.class ||
+                processorClass == CurrencyDecimalFieldProcessor.class ||
+                processorClass == PercentageFloatFieldProcessor.class ||
+                processorClass == PercentageDecimalFieldProcessor.class) {
+            sb.append(NUMBER_CHARS);
+        } else if (processorClass == DateFieldProcessor.class &&
+                ((DateFieldProcessor) processor).hasFastFormat()) {
+            sb.append("0123456789");
+        } else if (processorClass != BooleanFieldProcessor.class) {
+            return null;
+        }
+        // the separators, the symbols, the boolean words and the date literals
+        try {
+            description.render(sb);
+        } catch (IOException e) {
+            // should not happen
+            return null;
+        }
+        return sb.toString();
+    }
+
+    private static boolean containsAny(String text, String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            if (text.indexOf(chars.charAt(i)) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final WritableByteChannel channel;
+    private final char delimiter;
+    private final char quoteChar;
+    private final String recordSeparator;
+    private final boolean[] scan;
+    private final boolean utf8;
+    private final short[] encodeTable;
+    private final CharsetEncoder encoder;
+    private final byte replacement;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private int pos;
+
+    /**
+     * @param channel the channel
+     * @param format  the CSV format, see {@link #isSupported(CSVFormat, Charset)}
+     * @param charset the charset, see {@link #isSupported(CSVFormat, Charset)}
+     * @param scan    for each column, true if the values have to be scanned for special chars.
+     *                The other columns are scanned.
+     */
+    ByteRowPrinter(WritableByteChannel channel, CSVFormat format, Charset charset,
+                   boolean[] scan) {
+        this(channel, format, charset, scan, BUFFER_SIZE);
+    }
+
+    ByteRowPrinter(WritableByteChannel channel, CSVFormat format, Charset charset,
+                   boolean[] scan, int bufferSize) {
+        this.channel = channel;
+        this.delimiter = format.getDelimiter();
+        this.quoteChar = format.getQuoteCharacter();
+        this.recordSeparator = format.getRecordSeparator();
+        this.scan = scan;
+        this.utf8 = charset.equals(Util.UTF_8_CHARSET);
+        if (this.utf8) {
+            this.encodeTable = null;
+            this.encoder = null;
+            this.replacement = '?';
+        } else {
+            this.encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.replacement = this.encoder.replacement()[0];
+            this.encodeTable = this.createEncodeTable(charset);
+        }
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.pos = 0;
+    }
+
+    /**
+     * @return a table char -> byte, -1 if the char was not encoded yet.
+     */
+    private short[] createEncodeTable(Charset charset) {
+        short[] table = new short[Character.MAX_VALUE + 1];
+        Arrays.fill(table, (short) -1);
+        char[] decodeTable = SingleByteCharsetReader.createTable(charset);
+        for (int b = 0; b < 256; b++) {
+            char c = decodeTable[b];
+            if (c != '\uFFFD' && table[c] == -1 && this.encodeSlow(c) == (byte) b) {
+                table[c] = (short) b;
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public void printRecord(List<String> values) throws IOException {
+        boolean newRecord = true;
+        for (String value : values) {
+            if (!newRecord) {
+                this.putChar(this.delimiter);
+            }
+            if (value != null) {
+                // a null value is not quoted
+                this.printField(value, 0, value.length(), newRecord, true);
+            }
+            newRecord = false;
+        }
+        this.putChars(this.recordSeparator, 0, this.recordSeparator.length());
+    }
+
+    @Override
+    public void printRow(CharSequence row, int[] fieldEnds, int count) throws IOException {
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                this.putChar(this.delimiter);
+            }
+            int end = fieldEnds[i];
+            this.printField(row, start, end, i == 0, i >= this.scan.length || this.scan[i]);
+            start = end;
+        }
+        this.putChars(this.recordSeparator, 0, this.recordSeparator.length());
+    }
+
+    /**
+     * The minimal quote mode of CSVFormat.printAndQuote (commons-csv 1.4).
+     */
+    private void printField(CharSequence value, int start, int end, boolean newRecord,
+                            boolean scan) throws IOException {
+        boolean quote = false;
+        if (start == end) {
+            // an empty first field is quoted, otherwise the line would be empty
+            quote = newRecord;
+        } else {
+            char c = value.charAt(start);
+            if (newRecord && (c < '0' || c > '9' && c < 'A' || c > 'Z' && c < 'a' || c > 'z')) {
+                quote = true;
+            } else if (c <= COMMENT) {
+                quote = true;
+            } else {
+                if (scan) {
+                    for (int i = start; i < end; i++) {
+                        c = value.charAt(i);
+                        if (c == LF || c == CR || c == this.quoteChar || c == this.delimiter) {
+                            quote = true;
+                            break;
+                        }
+                    }
+                }
+                if (!quote && value.charAt(end - 1) <= SP) {
+                    quote = true;
+                }
+            }
+        }
+        if (quote) {
+            this.putChar(this.quoteChar);
+            int chunkStart = start;
+            for (int i = start; i < end; i++) {
+                if (value.charAt(i) == this.quoteChar) {
+                    // the quote is written twice
+                    this.putChars(value, chunkStart, i + 1);
+                    chunkStart = i;
+                }
+            }
+            this.putChars(value, chunkStart, end);
+            this.putChar(this.quoteChar);
+        } else {
+            this.putChars(value, start, end);
+        }
+    }
+
+    private void putChar(char c) throws IOException {
+        if (c < 0x80) {
+            if (this.pos == this.bytes.length) {
+                this.flushBuffer();
+            }
+            this.bytes[this.pos++] = (byte) c;
+        } else {
+            this.putChars(String.valueOf(c), 0, 1);
+        }
+    }
+
+    private void putChars(CharSequence text, int start, int end) throws IOException {
+        if (this.utf8) {
+            this.putUtf8(text, start, end);
+        } else {
+            this.putSingleByte(text, start, end);
+        }
+    }
+
+    private void putUtf8(CharSequence text, int start, int end) throws IOException {
+        byte[] bytes = this.bytes;
+        int pos = this.pos;
+        for (int i = start; i < end; i++) {
+            if (pos + 4 > bytes.length) {
+                this.pos = pos;
+                this.flushBuffer();
+                pos = 0;
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[pos++] = (byte) (0xC0 | (c >> 6));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+                bytes[pos++] = (byte) (0xE0 | (c >> 12));
+                bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end &&
+                    Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                bytes[pos++] = (byte) (0xF0 | (cp >> 18));
+                bytes[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                // malformed
+                bytes[pos++] = this.replacement;
+            }
+        }
+        this.pos = pos;
+    }
+
+    private void putSingleByte(CharSequence text, int start, int end) throws IOException {
+        byte[] bytes = this.bytes;
+        short[] table = this.encodeTable;
+        int pos = this.pos;
+        for (int i = start; i < end; i++) {
+            if (pos == bytes.length) {
+                this.pos = pos;
+                this.flushBuffer();
+                pos = 0;
+            }
+            char c = text.charAt(i);
+            short b = table[c];
+            if (b == -1) {
+                if (Character.isHighSurrogate(c) && i + 1 < end &&
+                        Character.isLowSurrogate(text.charAt(i + 1))) {
+                    // a supplementary char is not mappable
+                    i++;
+                    bytes[pos++] = this.replacement;
+                    continue;
+                }
+                b = (short) (this.encodeSlow(c) & 0xFF);
+                if (!Character.isHighSurrogate(c) && !Character.isLowSurrogate(c)) {
+                    table[c] = b;
+                }
+            }
+            bytes[pos++] = (byte) b;
+        }
+        this.pos = pos;
+    }
+
+    private byte encodeSlow(char c) {
+        this.encoder.reset();
+        try {
+            ByteBuffer encoded = this.encoder.encode(CharBuffer.wrap(new char[]{c}));
+            return encoded.remaining() == 1 ? encoded.get() : this.replacement;
+        } catch (CharacterCodingException e) {
+            return this.replacement;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        this.buffer.clear();
+        this.buffer.put(this.bytes, 0, this.pos);
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.pos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flushBuffer();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
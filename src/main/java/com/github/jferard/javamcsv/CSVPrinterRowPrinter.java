@@ -0,0 +1,104 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The default backend: a commons-csv printer.
+ */
+class CSVPrinterRowPrinter implements RowPrinter {
+    private final CSVPrinter printer;
+    private final FieldView field;
+
+    CSVPrinterRowPrinter(CSVPrinter printer) {
+        this.printer = printer;
+        this.field = new FieldView();
+    }
+
+    @Override
+    public void printRecord(List<String> values) throws IOException {
+        this.printer.printRecord(values);
+    }
+
+    /**
+     * The fields are printed as views on the row: no String is created per field.
+     */
+    @Override
+    public void printRow(CharSequence row, int[] fieldEnds, int count) throws IOException {
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = fieldEnds[i];
+            this.field.set(row, start, end);
+            this.printer.print(this.field);
+            start = end;
+        }
+        this.printer.println();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.printer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.printer.close();
+    }
+
+    /**
+     * A mutable view on a field of the row.
+     */
+    private static class FieldView implements CharSequence {
+        private CharSequence row;
+        private int start;
+        private int end;
+
+        void set(CharSequence row, int start, int end) {
+            this.row = row;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return this.end - this.start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return this.row.charAt(this.start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return this.row.subSequence(this.start + start, this.start + end).toString();
+        }
+
+        @Override
+        public String toString() {
+            return this.row.subSequence(this.start, this.end).toString();
+        }
+    }
+}
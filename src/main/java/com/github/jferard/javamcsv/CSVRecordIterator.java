@@ -28,10 +28,14 @@ import java.util.Iterator;
 
 public class CSVRecordIterator implements Iterator<Object> {
     private int c;
-    private CSVRecord record;
+    private RawRecord record;
     private ReadProcessorProvider readProvider;
 
     public CSVRecordIterator(CSVRecord record, ReadProcessorProvider readProvider) {
+        this(new CSVRecordRawRecord(record), readProvider);
+    }
+
+    public CSVRecordIterator(RawRecord record, ReadProcessorProvider readProvider) {
         this.record = record;
         this.readProvider = readProvider;
         this.c = 0;
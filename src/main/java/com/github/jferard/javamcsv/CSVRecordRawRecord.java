@@ -0,0 +1,91 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Iterator;
+
+/**
+ * A raw record backed by a commons-csv record.
+ */
+public class CSVRecordRawRecord implements RawRecord {
+    /**
+     * @param csvIterator an iterator over commons-csv records
+     * @return an iterator over raw records
+     */
+    public static Iterator<RawRecord> wrap(final Iterator<CSVRecord> csvIterator) {
+        return new Iterator<RawRecord>() {
+            @Override
+            public boolean hasNext() {
+                return csvIterator.hasNext();
+            }
+
+            @Override
+            public RawRecord next() {
+                return new CSVRecordRawRecord(csvIterator.next());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
+    }
+
+    private final CSVRecord record;
+
+    public CSVRecordRawRecord(CSVRecord record) {
+        this.record = record;
+    }
+
+    @Override
+    public int size() {
+        return this.record.size();
+    }
+
+    @Override
+    public String get(int i) {
+        return this.record.get(i);
+    }
+
+    @Override
+    public CharSequence getView(int i) {
+        return this.record.get(i);
+    }
+
+    @Override
+    public Reader getReader(int i) {
+        return new StringReader(this.record.get(i));
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return this.record.getRecordNumber();
+    }
+
+    @Override
+    public String toString() {
+        return this.record.toString();
+    }
+}
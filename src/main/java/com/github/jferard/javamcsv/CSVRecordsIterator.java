@@ -37,7 +37,7 @@ public class CSVRecordsIterator implements Iterator<MetaCSVRecord> {
     public static final ReadFieldProcessor<?> SAFE_TEXT_PROCESSOR =
             new FieldProcessorFactory()
                     .toReadFieldProcessor(TextFieldDescription.INSTANCE, null, OnError.EXCEPTION);
-    public static CSVRecordProcessor HEADER_PROCESSOR = new CSVRecordProcessor(
+    public static final CSVRecordProcessor HEADER_PROCESSOR = new CSVRecordProcessor(
             new ProcessorProvider(null, null) {
                 @Override
                 public FieldProcessor<?> getProcessor(int c) {
@@ -48,12 +48,26 @@ public class CSVRecordsIterator implements Iterator<MetaCSVRecord> {
         public ReadFieldProcessor<?> getProcessor(int c) {
             return SAFE_TEXT_PROCESSOR;
         }
-    }, OnError.TEXT, Util.UTC_TIME_ZONE);
-    private final Iterator<CSVRecord> csvIterator;
+    }, Util.UTC_TIME_ZONE);
+    private final Iterator<RawRecord> csvIterator;
     private final CSVRecordProcessor processor;
     private boolean first;
 
     public CSVRecordsIterator(Iterator<CSVRecord> csvIterator, CSVRecordProcessor processor) {
+        this(processor, CSVRecordRawRecord.wrap(csvIterator));
+    }
+
+    /**
+     * The records are only valid until the next record is read.
+     *
+     * @param tokenizer the tokenizer
+     * @param processor the record processor
+     */
+    public CSVRecordsIterator(CSVTokenizer tokenizer, CSVRecordProcessor processor) {
+        this(processor, tokenizer.iterator());
+    }
+
+    private CSVRecordsIterator(CSVRecordProcessor processor, Iterator<RawRecord> csvIterator) {
         this.csvIterator = csvIterator;
         this.processor = processor;
         this.first = true;
@@ -66,7 +80,7 @@ public class CSVRecordsIterator implements Iterator<MetaCSVRecord> {
 
     @Override
     public MetaCSVRecord next() {
-        CSVRecord record = this.csvIterator.next();
+        RawRecord record = this.csvIterator.next();
         if (this.first) {
             this.first = false;
             return HEADER_PROCESSOR.createRecord(record);
@@ -0,0 +1,1030 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A CSV tokenizer that follows the rules of the commons-csv lexer, but stores the values of a
+ * record in a reused char buffer. The records are views over that buffer and are only valid
+ * until the next record is read.
+ * <p>
+ * In lazy mode, the tokenizer only looks for the end of the record, that is kept in the read
+ * buffer. The fields are split on demand, up to the highest accessed index: this is useful for
+ * very wide files when only a few columns are read.
+ * <p>
+ * A field longer than the maximum field size is an error. In eager mode, the fields longer than
+ * the spill threshold are written to a temporary file and can be streamed with
+ * {@link RawRecord#getReader(int)}. The temporary files are deleted when the next record is read.
+ * <p>
+ * If the bytes are counted (see {@link #countBytes(Charset, long)}), the tokenizer knows the byte
+ * offset after the last record, and can resume from that offset.
+ * <p>
+ * Comments are not supported (MetaCSV does not have comments).
+ */
+public class CSVTokenizer implements Iterable<RawRecord>, Closeable {
+    private static final int END_OF_STREAM = -1;
+    private static final int UNDEFINED = -2;
+    private static final int DISABLED = -3;
+    private static final int CR = '\r';
+    private static final int LF = '\n';
+
+    private static final int TOKEN = 0;
+    private static final int EORECORD = 1;
+    private static final int EOF = 2;
+    private static final int EOF_WITH_DATA = 3;
+
+    private final Reader reader;
+    private final int delimiter;
+    private final int quoteChar;
+    private final int escape;
+    private final boolean ignoreSurroundingSpaces;
+    private final boolean ignoreEmptyLines;
+    private final boolean lazy;
+    private final TokenizedRecord record;
+    private char[] readBuffer;
+    private int readPos;
+    private int readLimit;
+    private int lastChar;
+    private long lineNumber;
+    private long recordNumber;
+    private char[] chars;
+    private int length;
+    private int[] ends;
+    private int size;
+    private boolean storing;
+    private boolean replaying;
+    private int markPos;
+    private int recordEnd;
+    private int splitPos;
+    private int splitLastChar;
+    private boolean splitDone;
+    private final int maxFieldSize;
+    private final int spillThreshold;
+    private int fieldStart;
+    private int fieldLength;
+    private SpilledField[] spilledFields;
+    private int spilledCount;
+    private SpilledField spilledField;
+    private Writer spillWriter;
+    private final StringBuilder spillPending;
+    private boolean countingBytes;
+    private boolean utf8;
+    private int countedPos;
+    private long byteOffset;
+    private long checkpointByteOffset;
+    private long checkpointRecordNumber;
+    private List<String> header;
+    private RawRecord pendingHeader;
+
+    public CSVTokenizer(Reader reader, CSVFormat format) {
+        this(reader, format, false);
+    }
+
+    /**
+     * @param reader the reader
+     * @param format the format
+     * @param lazy   if true, split the fields on demand
+     */
+    public CSVTokenizer(Reader reader, CSVFormat format, boolean lazy) {
+        this(reader, format, lazy, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param reader         the reader
+     * @param format         the format
+     * @param lazy           if true, split the fields on demand
+     * @param maxFieldSize   the maximum size of a field, in chars
+     * @param spillThreshold the size above which a field is written to a temporary file (eager
+     *                       mode only)
+     */
+    public CSVTokenizer(Reader reader, CSVFormat format, boolean lazy, int maxFieldSize,
+                        int spillThreshold) {
+        this.reader = reader;
+        this.delimiter = format.getDelimiter();
+        this.quoteChar = toInt(format.getQuoteCharacter());
+        this.escape = toInt(format.getEscapeCharacter());
+        this.ignoreSurroundingSpaces = format.getIgnoreSurroundingSpaces();
+        this.ignoreEmptyLines = format.getIgnoreEmptyLines();
+        this.readBuffer = new char[8192];
+        this.record = new TokenizedRecord();
+        this.readPos = 0;
+        this.readLimit = 0;
+        this.lastChar = UNDEFINED;
+        this.chars = new char[256];
+        this.ends = new int[16];
+        this.lazy = lazy;
+        this.storing = true;
+        this.markPos = -1;
+        this.maxFieldSize = maxFieldSize;
+        this.spillThreshold = lazy ? Integer.MAX_VALUE : spillThreshold;
+        this.spilledFields = new SpilledField[16];
+        this.spillPending = new StringBuilder();
+    }
+
+    private static int toInt(Character c) {
+        return c == null ? DISABLED : c.charValue();
+    }
+
+    /**
+     * Count the bytes of the records. Must be called before the first record is read.
+     *
+     * @param charset    the encoding of the reader: UTF-8 or a single byte charset. The count is
+     *                   exact if the input is well formed.
+     * @param byteOffset the byte offset of the first char of the reader
+     * @throws IllegalArgumentException if the charset is not supported
+     */
+    public void countBytes(Charset charset, long byteOffset) {
+        this.utf8 = charset.name().equals("UTF-8");
+        if (!this.utf8 && SingleByteCharsetReader.createTable(charset) == null) {
+            throw new IllegalArgumentException("Can't count the bytes of " + charset);
+        }
+        this.countingBytes = true;
+        this.byteOffset = byteOffset;
+        this.checkpointByteOffset = byteOffset;
+    }
+
+    /**
+     * @return true if the bytes are counted
+     */
+    public boolean isCountingBytes() {
+        return this.countingBytes;
+    }
+
+    /**
+     * Resume a read: the reader is positioned after the given record.
+     *
+     * @param header       the header, returned as the first record
+     * @param recordNumber the number of records already read, header included
+     */
+    public void resume(List<String> header, long recordNumber) {
+        this.header = header;
+        this.pendingHeader = new ArrayRawRecord(header.toArray(new String[header.size()]), 1);
+        this.recordNumber = recordNumber;
+        this.checkpointRecordNumber = recordNumber;
+    }
+
+    /**
+     * @return the byte offset after the last record returned (by {@link #nextRecord()} or by the
+     * iterator), if the bytes are counted.
+     */
+    public long getCheckpointByteOffset() {
+        return this.checkpointByteOffset;
+    }
+
+    /**
+     * @return the number of the last record returned (by {@link #nextRecord()} or by the
+     * iterator), if the bytes are counted.
+     */
+    public long getCheckpointRecordNumber() {
+        return this.checkpointRecordNumber;
+    }
+
+    /**
+     * @return the header, if the bytes are counted and the header was read.
+     */
+    public List<String> getHeader() {
+        return this.header;
+    }
+
+    /**
+     * @return the next record (the same instance is reused) or null.
+     * @throws IOException if the reader fails or the CSV file is malformed.
+     */
+    public RawRecord nextRecord() throws IOException {
+        if (this.pendingHeader != null) {
+            RawRecord header = this.pendingHeader;
+            this.pendingHeader = null;
+            return header;
+        }
+        this.length = 0;
+        this.size = 0;
+        if (this.spilledCount > 0 || this.spillWriter != null) {
+            this.discardSpilledFields();
+        }
+        if (this.lazy) {
+            return this.nextLazyRecord();
+        }
+        this.splitDone = true;
+        int type;
+        do {
+            type = this.nextToken();
+            if (type != EOF) {
+                this.endField();
+            }
+        } while (type == TOKEN);
+        if (this.size == 0) {
+            return null;
+        }
+        this.endRecord();
+        return this.record;
+    }
+
+    private void endRecord() {
+        this.recordNumber++;
+        if (!this.countingBytes) {
+            return;
+        }
+        this.byteOffset += this.countBytes(this.countedPos, this.readPos);
+        this.countedPos = this.readPos;
+        this.checkpointByteOffset = this.byteOffset;
+        this.checkpointRecordNumber = this.recordNumber;
+        if (this.header == null) {
+            int size = this.record.size();
+            this.header = new ArrayList<String>(size);
+            for (int i = 0; i < size; i++) {
+                this.header.add(this.record.get(i));
+            }
+        }
+    }
+
+    private long countBytes(int from, int to) {
+        if (!this.utf8) {
+            return to - from;
+        }
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            char c = this.readBuffer[i];
+            if (c < 0x80) {
+                count++;
+            } else if (c < 0x800 ||
+                    (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)) {
+                count += 2; // a surrogate pair is 4 bytes
+            } else {
+                count += 3;
+            }
+        }
+        return count;
+    }
+
+    private RawRecord nextLazyRecord() throws IOException {
+        this.storing = false;
+        try {
+            if (!this.scanRecord()) {
+                this.markPos = -1;
+                return null;
+            }
+        } finally {
+            this.storing = true;
+        }
+        this.recordEnd = this.readPos;
+        this.splitPos = this.markPos;
+        this.splitLastChar = UNDEFINED;
+        this.splitDone = false;
+        this.endRecord();
+        return this.record;
+    }
+
+    /**
+     * Find the end of the next record. The start of the record is marked: it won't be discarded
+     * from the read buffer.
+     *
+     * @return false if there is no record
+     * @throws IOException if the reader fails or the CSV file is malformed.
+     */
+    private boolean scanRecord() throws IOException {
+        int last = this.lastChar;
+        this.markPos = this.readPos;
+        int c = this.read();
+        boolean eol = this.readEndOfLine(c);
+
+        if (this.ignoreEmptyLines) {
+            while (eol && isStartOfLine(last)) {
+                last = c;
+                this.markPos = this.readPos;
+                c = this.read();
+                eol = this.readEndOfLine(c);
+                if (c == END_OF_STREAM) {
+                    return false;
+                }
+            }
+        }
+
+        if (last == END_OF_STREAM || last != this.delimiter && c == END_OF_STREAM) {
+            return false;
+        }
+
+        while (this.parseToken(c, eol) == TOKEN) {
+            c = this.read();
+            eol = this.readEndOfLine(c);
+        }
+        return true;
+    }
+
+    /**
+     * Replay the lexer on the next field of the marked record.
+     */
+    private void splitNext() {
+        int savedPos = this.readPos;
+        int savedLimit = this.readLimit;
+        int savedLastChar = this.lastChar;
+        long savedLineNumber = this.lineNumber;
+        this.readPos = this.splitPos;
+        this.readLimit = this.recordEnd;
+        this.lastChar = this.splitLastChar;
+        this.replaying = true;
+        try {
+            int type = this.nextToken();
+            if (type != EOF) {
+                this.endField();
+            }
+            if (type != TOKEN) {
+                this.splitDone = true;
+            }
+        } catch (IOException e) {
+            // the record was already scanned
+            throw new IllegalStateException(e);
+        } finally {
+            this.splitPos = this.readPos;
+            this.splitLastChar = this.lastChar;
+            this.readPos = savedPos;
+            this.readLimit = savedLimit;
+            this.lastChar = savedLastChar;
+            this.lineNumber = savedLineNumber;
+            this.replaying = false;
+        }
+    }
+
+    private void ensureSplit(int i) {
+        while (this.size <= i && !this.splitDone) {
+            this.splitNext();
+        }
+    }
+
+    /**
+     * @return the number of records read so far.
+     */
+    public long getRecordNumber() {
+        return this.recordNumber;
+    }
+
+    /**
+     * The iterator reads ahead: the current record is invalid once `hasNext` was called.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<RawRecord> iterator() {
+        return new Iterator<RawRecord>() {
+            private RawRecord current;
+            private long currentByteOffset;
+            private long currentRecordNumber;
+
+            @Override
+            public boolean hasNext() {
+                if (this.current == null) {
+                    this.current = this.getNextRecord();
+                }
+                return this.current != null;
+            }
+
+            @Override
+            public RawRecord next() {
+                RawRecord next = this.current;
+                this.current = null;
+                if (next == null) {
+                    next = this.getNextRecord();
+                    if (next == null) {
+                        throw new NoSuchElementException("No more CSV records available");
+                    }
+                }
+                CSVTokenizer.this.checkpointByteOffset = this.currentByteOffset;
+                CSVTokenizer.this.checkpointRecordNumber = this.currentRecordNumber;
+                return next;
+            }
+
+            /**
+             * Read ahead, but keep the checkpoint of the last record returned by next.
+             */
+            private RawRecord getNextRecord() {
+                long byteOffset = CSVTokenizer.this.checkpointByteOffset;
+                long recordNumber = CSVTokenizer.this.checkpointRecordNumber;
+                try {
+                    RawRecord record = CSVTokenizer.this.nextRecord();
+                    this.currentByteOffset = CSVTokenizer.this.checkpointByteOffset;
+                    this.currentRecordNumber = CSVTokenizer.this.checkpointRecordNumber;
+                    return record;
+                } catch (IOException e) {
+                    throw new IllegalStateException(
+                            e.getClass().getSimpleName() + " reading next record: " + e, e);
+                } finally {
+                    CSVTokenizer.this.checkpointByteOffset = byteOffset;
+                    CSVTokenizer.this.checkpointRecordNumber = recordNumber;
+                }
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.discardSpilledFields();
+        this.reader.close();
+    }
+
+    private void discardSpilledFields() throws IOException {
+        if (this.spillWriter != null) {
+            this.spillWriter.close();
+            this.spillWriter = null;
+            this.spilledField.delete();
+            this.spilledField = null;
+        }
+        for (int i = 0; i < this.spilledCount; i++) {
+            SpilledField spilledField = this.spilledFields[i];
+            if (spilledField != null) {
+                spilledField.delete();
+                this.spilledFields[i] = null;
+            }
+        }
+        this.spilledCount = 0;
+    }
+
+    private int nextToken() throws IOException {
+        int last = this.lastChar;
+        int c = this.read();
+        boolean eol = this.readEndOfLine(c);
+
+        if (this.ignoreEmptyLines) {
+            while (eol && isStartOfLine(last)) {
+                last = c;
+                c = this.read();
+                eol = this.readEndOfLine(c);
+                if (c == END_OF_STREAM) {
+                    return EOF;
+                }
+            }
+        }
+
+        if (last == END_OF_STREAM || last != this.delimiter && c == END_OF_STREAM) {
+            return EOF;
+        }
+
+        return this.parseToken(c, eol);
+    }
+
+    private int parseToken(int c, boolean eol) throws IOException {
+        this.fieldStart = this.length;
+        this.fieldLength = 0;
+        if (this.ignoreSurroundingSpaces) {
+            while (this.isWhitespace(c) && !eol) {
+                c = this.read();
+                eol = this.readEndOfLine(c);
+            }
+        }
+
+        if (c == this.delimiter) {
+            return TOKEN;
+        } else if (eol) {
+            return EORECORD;
+        } else if (c == this.quoteChar) {
+            return this.parseEncapsulatedToken();
+        } else if (c == END_OF_STREAM) {
+            return EOF_WITH_DATA;
+        } else {
+            return this.parseSimpleToken(c);
+        }
+    }
+
+    private int parseSimpleToken(int c) throws IOException {
+        int start = this.length;
+        int type;
+        while (true) {
+            if (this.readEndOfLine(c)) {
+                type = EORECORD;
+                break;
+            } else if (c == END_OF_STREAM) {
+                type = EOF_WITH_DATA;
+                break;
+            } else if (c == this.delimiter) {
+                type = TOKEN;
+                break;
+            } else if (c == this.escape) {
+                this.appendEscaped(c);
+                c = this.read();
+            } else {
+                this.append(c);
+                c = this.read();
+            }
+        }
+
+        if (this.ignoreSurroundingSpaces) {
+            if (this.spillWriter != null) {
+                this.spillPending.setLength(0);
+            }
+            while (this.length > start && Character.isWhitespace(this.chars[this.length - 1])) {
+                this.length--;
+            }
+        }
+        return type;
+    }
+
+    private int parseEncapsulatedToken() throws IOException {
+        long startLineNumber = this.lineNumber;
+        int c;
+        while (true) {
+            c = this.read();
+
+            if (c == this.escape) {
+                this.appendEscaped(c);
+            } else if (c == this.quoteChar) {
+                if (this.lookAhead() == this.quoteChar) {
+                    this.append(this.read());
+                } else {
+                    while (true) {
+                        c = this.read();
+                        if (c == this.delimiter) {
+                            return TOKEN;
+                        } else if (c == END_OF_STREAM) {
+                            return EOF_WITH_DATA;
+                        } else if (this.readEndOfLine(c)) {
+                            return EORECORD;
+                        } else if (!this.isWhitespace(c)) {
+                            throw new IOException("(line " + this.lineNumber +
+                                    ") invalid char between encapsulated token and delimiter");
+                        }
+                    }
+                }
+            } else if (c == END_OF_STREAM) {
+                throw new IOException("(startline " + startLineNumber +
+                        ") EOF reached before encapsulated token finished");
+            } else {
+                this.append(c);
+            }
+        }
+    }
+
+    private void appendEscaped(int c) throws IOException {
+        int unescaped = this.readEscape();
+        if (unescaped == END_OF_STREAM) {
+            this.append(c);
+            this.append(this.lastChar);
+        } else {
+            this.append(unescaped);
+        }
+    }
+
+    private int readEscape() throws IOException {
+        int c = this.read();
+        switch (c) {
+            case 'r':
+                return CR;
+            case 'n':
+                return LF;
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case CR:
+            case LF:
+            case '\f':
+            case '\t':
+            case '\b':
+                return c;
+            case END_OF_STREAM:
+                throw new IOException("EOF whilst processing escape sequence");
+            default:
+                if (c == this.delimiter || c == this.escape || c == this.quoteChar) {
+                    return c;
+                }
+                return END_OF_STREAM;
+        }
+    }
+
+    private boolean readEndOfLine(int c) throws IOException {
+        if (c == CR && this.lookAhead() == LF) {
+            c = this.read();
+        }
+        return c == LF || c == CR;
+    }
+
+    private static boolean isStartOfLine(int c) {
+        return c == LF || c == CR || c == UNDEFINED;
+    }
+
+    private boolean isWhitespace(int c) {
+        return c != this.delimiter && Character.isWhitespace((char) c);
+    }
+
+    private int read() throws IOException {
+        if (this.readPos == this.readLimit && !this.fill()) {
+            this.lastChar = END_OF_STREAM;
+            return END_OF_STREAM;
+        }
+        int c = this.readBuffer[this.readPos++];
+        if (c == CR || c == LF && this.lastChar != CR) {
+            this.lineNumber++;
+        }
+        this.lastChar = c;
+        return c;
+    }
+
+    private int lookAhead() throws IOException {
+        if (this.readPos == this.readLimit && !this.fill()) {
+            return END_OF_STREAM;
+        }
+        return this.readBuffer[this.readPos];
+    }
+
+    private boolean fill() throws IOException {
+        if (this.replaying) {
+            return false;
+        }
+        if (this.countingBytes) {
+            int discardEnd = this.markPos >= 0 ? this.markPos : this.readLimit;
+            if (this.countedPos <= discardEnd) {
+                this.byteOffset += this.countBytes(this.countedPos, discardEnd);
+                this.countedPos = 0;
+            } else {
+                this.countedPos -= discardEnd;
+            }
+        }
+        int keep = 0;
+        if (this.markPos >= 0) {
+            keep = this.readLimit - this.markPos;
+            if (keep == this.readBuffer.length) {
+                char[] newReadBuffer = new char[this.readBuffer.length * 2];
+                System.arraycopy(this.readBuffer, 0, newReadBuffer, 0, keep);
+                this.readBuffer = newReadBuffer;
+            } else {
+                System.arraycopy(this.readBuffer, this.markPos, this.readBuffer, 0, keep);
+            }
+            this.markPos = 0;
+        }
+        this.readPos = keep;
+        this.readLimit = keep;
+        int count;
+        do {
+            count = this.reader.read(this.readBuffer, keep, this.readBuffer.length - keep);
+        } while (count == 0);
+        if (count == -1) {
+            return false;
+        }
+        this.readLimit = keep + count;
+        return true;
+    }
+
+    private void append(int c) throws IOException {
+        if (++this.fieldLength > this.maxFieldSize) {
+            throw new IOException("(line " + this.lineNumber + ") field exceeds the maximum size (" +
+                    this.maxFieldSize + " chars)");
+        }
+        if (!this.storing) {
+            return;
+        }
+        if (this.spillWriter != null) {
+            this.spill(c);
+            return;
+        }
+        if (this.fieldLength > this.spillThreshold && !this.replaying) {
+            this.startSpill();
+            this.spill(c);
+            return;
+        }
+        if (this.length == this.chars.length) {
+            char[] newChars = new char[this.chars.length * 2];
+            System.arraycopy(this.chars, 0, newChars, 0, this.length);
+            this.chars = newChars;
+        }
+        this.chars[this.length++] = (char) c;
+    }
+
+    private void startSpill() throws IOException {
+        int end = this.length;
+        if (this.ignoreSurroundingSpaces) {
+            while (end > this.fieldStart && Character.isWhitespace(this.chars[end - 1])) {
+                end--;
+            }
+        }
+        this.spilledField = new SpilledField(File.createTempFile("mcsv", ".field"));
+        this.spillWriter = new BufferedWriter(this.spilledField.openWriter());
+        this.spillWriter.write(this.chars, this.fieldStart, end - this.fieldStart);
+        this.spilledField.length = end - this.fieldStart;
+        this.spillPending.append(this.chars, end, this.length - end);
+        this.length = this.fieldStart;
+    }
+
+    private void spill(int c) throws IOException {
+        if (this.ignoreSurroundingSpaces && Character.isWhitespace((char) c)) {
+            this.spillPending.append((char) c);
+            return;
+        }
+        if (this.spillPending.length() > 0) {
+            this.spillWriter.append(this.spillPending);
+            this.spilledField.length += this.spillPending.length();
+            this.spillPending.setLength(0);
+        }
+        this.spillWriter.write(c);
+        this.spilledField.length++;
+    }
+
+    private void endField() throws IOException {
+        if (this.size == this.ends.length) {
+            int[] newEnds = new int[this.ends.length * 2];
+            System.arraycopy(this.ends, 0, newEnds, 0, this.size);
+            this.ends = newEnds;
+            SpilledField[] newSpilledFields = new SpilledField[this.ends.length];
+            System.arraycopy(this.spilledFields, 0, newSpilledFields, 0, this.size);
+            this.spilledFields = newSpilledFields;
+        }
+        if (this.spillWriter != null) {
+            this.spillWriter.append(this.spillPending);
+            this.spilledField.length += this.spillPending.length();
+            this.spillPending.setLength(0);
+            this.spillWriter.close();
+            this.spillWriter = null;
+            this.spilledFields[this.size] = this.spilledField;
+            this.spilledField = null;
+            this.spilledCount = this.size + 1;
+        }
+        this.ends[this.size++] = this.length;
+    }
+
+    private class TokenizedRecord implements RawRecord {
+        @Override
+        public int size() {
+            CSVTokenizer.this.ensureSplit(Integer.MAX_VALUE - 1);
+            return CSVTokenizer.this.size;
+        }
+
+        @Override
+        public String get(int i) {
+            int start = this.start(i);
+            SpilledField spilledField = this.getSpilledField(i);
+            if (spilledField != null) {
+                return spilledField.toString();
+            }
+            return new String(CSVTokenizer.this.chars, start, CSVTokenizer.this.ends[i] - start);
+        }
+
+        @Override
+        public CharSequence getView(int i) {
+            int start = this.start(i);
+            SpilledField spilledField = this.getSpilledField(i);
+            if (spilledField != null) {
+                return spilledField;
+            }
+            return new TextView(CSVTokenizer.this.chars, start,
+                    CSVTokenizer.this.ends[i] - start);
+        }
+
+        @Override
+        public Reader getReader(int i) throws IOException {
+            int start = this.start(i);
+            SpilledField spilledField = this.getSpilledField(i);
+            if (spilledField != null) {
+                return spilledField.openReader();
+            }
+            return new StringReader(
+                    new String(CSVTokenizer.this.chars, start, CSVTokenizer.this.ends[i] - start));
+        }
+
+        private SpilledField getSpilledField(int i) {
+            if (i < CSVTokenizer.this.spilledCount) {
+                return CSVTokenizer.this.spilledFields[i];
+            }
+            return null;
+        }
+
+        private int start(int i) {
+            if (i >= 0) {
+                CSVTokenizer.this.ensureSplit(i);
+            }
+            if (i < 0 || i >= CSVTokenizer.this.size) {
+                throw new ArrayIndexOutOfBoundsException(i);
+            }
+            return i == 0 ? 0 : CSVTokenizer.this.ends[i - 1];
+        }
+
+        @Override
+        public long getRecordNumber() {
+            return CSVTokenizer.this.recordNumber;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("RawRecord [recordNumber=")
+                    .append(CSVTokenizer.this.recordNumber).append(", values=[");
+            for (int i = 0; i < this.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(this.getView(i));
+            }
+            return sb.append("]]").toString();
+        }
+    }
+
+    /**
+     * A field stored in a temporary file. Every char is written as two bytes (big endian): the
+     * offset of a char is known without decoding, and lone surrogates are kept as is. The
+     * content is read back one window at a time.
+     */
+    private static class SpilledField implements CharSequence {
+        private static final int WINDOW_SIZE = 8192;
+
+        private final File file;
+        private int length;
+        private char[] window;
+        private int windowStart;
+        private int windowLength;
+
+        SpilledField(File file) {
+            this.file = file;
+        }
+
+        Writer openWriter() throws IOException {
+            return new SpilledWriter(new BufferedOutputStream(new FileOutputStream(this.file)));
+        }
+
+        Reader openReader() throws IOException {
+            return new SpilledReader(new BufferedInputStream(new FileInputStream(this.file)));
+        }
+
+        void delete() {
+            this.window = null;
+            if (!this.file.delete()) {
+                this.file.deleteOnExit();
+            }
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= this.length) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            this.moveWindow(index);
+            return this.window[index - this.windowStart];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > this.length || start > end) {
+                throw new IndexOutOfBoundsException("start: " + start + ", end: " + end);
+            }
+            return this.read(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return this.read(0, this.length);
+        }
+
+        private String read(int start, int end) {
+            StringBuilder sb = new StringBuilder(end - start);
+            int i = start;
+            while (i < end) {
+                this.moveWindow(i);
+                int n = Math.min(end, this.windowStart + this.windowLength) - i;
+                sb.append(this.window, i - this.windowStart, n);
+                i += n;
+            }
+            return sb.toString();
+        }
+
+        private void moveWindow(int index) {
+            if (this.window != null && index >= this.windowStart &&
+                    index < this.windowStart + this.windowLength) {
+                return;
+            }
+            int start = index - index % WINDOW_SIZE;
+            int count = Math.min(WINDOW_SIZE, this.length - start);
+            byte[] bytes = new byte[2 * count];
+            try {
+                RandomAccessFile raf = new RandomAccessFile(this.file, "r");
+                try {
+                    raf.seek(2L * start);
+                    raf.readFully(bytes);
+                } finally {
+                    raf.close();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if (this.window == null) {
+                this.window = new char[WINDOW_SIZE];
+            }
+            for (int j = 0; j < count; j++) {
+                this.window[j] = (char) (((bytes[2 * j] & 0xFF) << 8) | (bytes[2 * j + 1] & 0xFF));
+            }
+            this.windowStart = start;
+            this.windowLength = count;
+        }
+    }
+
+    /**
+     * Writes every char as two bytes (big endian).
+     */
+    private static class SpilledWriter extends Writer {
+        private final OutputStream out;
+
+        SpilledWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                char c = cbuf[i];
+                this.out.write(c >>> 8);
+                this.out.write(c);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.out.close();
+        }
+    }
+
+    /**
+     * Reads the chars written by a {@link SpilledWriter}.
+     */
+    private static class SpilledReader extends Reader {
+        private final InputStream in;
+
+        SpilledReader(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int count = 0;
+            while (count < len) {
+                int high = this.in.read();
+                if (high == -1) {
+                    break;
+                }
+                int low = this.in.read();
+                if (low == -1) {
+                    throw new EOFException("Truncated spilled field");
+                }
+                cbuf[off + count] = (char) ((high << 8) | low);
+                count++;
+            }
+            return count == 0 ? -1 : count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.in.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A writer that appends the CharSequences without creating Strings: {@link Writer#append}
+ * calls {@code subSequence(...).toString()} while the printer appends every field that way.
+ * The chars are copied into a reusable buffer instead.
+ */
+class CharSequenceWriter extends FilterWriter {
+    private char[] chars;
+
+    CharSequenceWriter(Writer out) {
+        super(out);
+        this.chars = new char[256];
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            this.out.write("null");
+            return this;
+        }
+        return this.append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            return this.append("null", start, end);
+        }
+        int len = end - start;
+        if (csq instanceof String) {
+            this.out.write((String) csq, start, len);
+            return this;
+        }
+        if (len > this.chars.length) {
+            this.chars = new char[Math.max(len, 2 * this.chars.length)];
+        }
+        if (csq instanceof StringBuilder) {
+            ((StringBuilder) csq).getChars(start, end, this.chars, 0);
+        } else {
+            for (int i = 0; i < len; i++) {
+                this.chars[i] = csq.charAt(start + i);
+            }
+        }
+        this.out.write(this.chars, 0, len);
+        return this;
+    }
+}
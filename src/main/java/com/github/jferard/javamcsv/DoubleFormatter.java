@@ -0,0 +1,433 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Format doubles directly into a buffer, with the thousands and decimal separators inserted
+ * while the digits are written.
+ *
+ * The shortest mode writes the shortest decimal that rounds to the double (and the closest
+ * one if there are several), using R. Giulietti's Schubfach algorithm. The layout is the
+ * layout of {@link Double#toString(double)}, but without the extra digits that some JDKs
+ * produce. The fixed mode writes the exact value of the double, rounded half even to a
+ * given number of decimals.
+ */
+public final class DoubleFormatter {
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long C_TINY = 3;
+    private static final int BQ_MASK = 0x7FF;
+    private static final long T_MASK = C_MIN - 1;
+    private static final long MASK_63 = 0x7FFFFFFFFFFFFFFFL;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    /**
+     * For k in [K_MIN, K_MAX], 10^-k = beta 2^r with 2^125 <= beta < 2^126, and
+     * g = floor(beta) + 1 = g1 2^63 + g0.
+     */
+    private static final long[] G = createG();
+    private static final long[] POW10 = createPow(10, 19);
+    private static final long[] POW5 = createPow(5, 28);
+
+    private static long[] createG() {
+        long[] g = new long[2 * (K_MAX - K_MIN + 1)];
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int r = flog2pow10(-k) - 125;
+            BigInteger num = k <= 0 ? BigInteger.TEN.pow(-k) : BigInteger.ONE;
+            BigInteger den = k > 0 ? BigInteger.TEN.pow(k) : BigInteger.ONE;
+            if (r < 0) {
+                num = num.shiftLeft(-r);
+            } else {
+                den = den.shiftLeft(r);
+            }
+            BigInteger value = num.divide(den).add(BigInteger.ONE);
+            int i = 2 * (k - K_MIN);
+            g[i] = value.shiftRight(63).longValue();
+            g[i + 1] = value.longValue() & MASK_63;
+        }
+        return g;
+    }
+
+    private static long[] createPow(int base, int count) {
+        long[] pows = new long[count];
+        long pow = 1;
+        for (int i = 0; i < count; i++) {
+            pows[i] = pow;
+            pow *= base;
+        }
+        return pows;
+    }
+
+    private DoubleFormatter() {
+    }
+
+    /**
+     * Append the shortest representation of a double that rounds to the double.
+     *
+     * @param out                the buffer
+     * @param v                  the value
+     * @param thousandsSeparator the thousands separator, may be null or empty
+     * @param decimalSeparator   the decimal separator, may be null for "."
+     */
+    public static void appendShortest(StringBuilder out, double v, String thousandsSeparator,
+                                      String decimalSeparator) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        if (bq == BQ_MASK) {
+            if (t != 0) {
+                out.append("NaN");
+            } else {
+                out.append(bits > 0 ? "Infinity" : "-Infinity");
+            }
+            return;
+        }
+        if (bits < 0) {
+            out.append('-');
+        }
+        if (bq != 0) {
+            // normal value, mq = -q
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            if (0 < mq && mq < P) {
+                // an integer value
+                long f = c >> mq;
+                if (f << mq == c) {
+                    appendDecimal(out, f, 0, thousandsSeparator, decimalSeparator);
+                    return;
+                }
+            }
+            toDecimal(out, -mq, c, 0, thousandsSeparator, decimalSeparator);
+        } else if (t != 0) {
+            // subnormal value
+            if (t < C_TINY) {
+                toDecimal(out, Q_MIN, 10 * t, -1, thousandsSeparator, decimalSeparator);
+            } else {
+                toDecimal(out, Q_MIN, t, 0, thousandsSeparator, decimalSeparator);
+            }
+        } else {
+            out.append('0').append(decimalSeparator == null ? "." : decimalSeparator)
+                    .append('0');
+        }
+    }
+
+    /**
+     * Append the value of a double, rounded half even to a given number of decimals.
+     *
+     * @param out                the buffer
+     * @param v                  the value
+     * @param precision          the number of decimals, non negative
+     * @param thousandsSeparator the thousands separator, may be null or empty
+     * @param decimalSeparator   the decimal separator, may be null for "."
+     */
+    public static void appendFixed(StringBuilder out, double v, int precision,
+                                   String thousandsSeparator, String decimalSeparator) {
+        if (precision < 0) {
+            throw new IllegalArgumentException("Negative precision: " + precision);
+        }
+        if (Double.isNaN(v)) {
+            out.append("NaN");
+            return;
+        } else if (Double.isInfinite(v)) {
+            out.append(v > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        long c;
+        int q;
+        if (bq != 0) {
+            c = C_MIN | t;
+            q = bq + Q_MIN - 1;
+        } else {
+            c = t;
+            q = Q_MIN;
+        }
+        long n = precision < POW10.length ? scaleRound(c, q, precision) : -1;
+        if (n == -1) {
+            appendFixedSlow(out, v, precision, thousandsSeparator, decimalSeparator);
+            return;
+        }
+        if (bits < 0 && n != 0) {
+            out.append('-');
+        }
+        long pow = POW10[precision];
+        Util.appendLong(out, n / pow, thousandsSeparator);
+        if (precision > 0) {
+            out.append(decimalSeparator == null ? "." : decimalSeparator);
+            long fraction = n % pow;
+            for (int i = precision - 1; i >= 0; i--) {
+                out.append((char) ('0' + fraction / POW10[i] % 10));
+            }
+        }
+    }
+
+    private static void appendFixedSlow(StringBuilder out, double v, int precision,
+                                        String thousandsSeparator, String decimalSeparator) {
+        BigDecimal bd = new BigDecimal(v).setScale(precision, RoundingMode.HALF_EVEN);
+        if (bd.signum() < 0) {
+            out.append('-');
+        }
+        String digits = bd.unscaledValue().abs().toString();
+        int intLen = digits.length() - precision;
+        if (intLen <= 0) {
+            out.append('0');
+        } else {
+            appendGrouped(out, digits, intLen, thousandsSeparator);
+        }
+        if (precision > 0) {
+            out.append(decimalSeparator == null ? "." : decimalSeparator);
+            for (int i = intLen; i < 0; i++) {
+                out.append('0');
+            }
+            out.append(digits, Math.max(intLen, 0), digits.length());
+        }
+    }
+
+    private static void appendGrouped(StringBuilder out, String digits, int intLen,
+                                      String thousandsSeparator) {
+        boolean grouped = thousandsSeparator != null && !thousandsSeparator.isEmpty();
+        for (int i = 0; i < intLen; i++) {
+            out.append(digits.charAt(i));
+            if (grouped && i < intLen - 1 && (intLen - 1 - i) % 3 == 0) {
+                out.append(thousandsSeparator);
+            }
+        }
+    }
+
+    /**
+     * @return round_half_even(c 2^q 10^p), or -1 if it does not fit in a long.
+     */
+    private static long scaleRound(long c, int q, int p) {
+        if (c == 0) {
+            return 0;
+        }
+        long f = POW5[p];
+        // c < 2^53 and f < 2^63: hi:lo = c 5^p < 2^116
+        long hi = multiplyHigh(c, f);
+        long lo = c * f;
+        int e = q + p;
+        if (e >= 0) {
+            if (hi != 0 || e >= 63 || (lo >>> (63 - e)) != 0) {
+                return -1;
+            }
+            return lo << e;
+        }
+        int s = -e;
+        long quotient;
+        int cmp; // compare the remainder to the half
+        if (s >= 128) {
+            return 0;
+        } else if (s < 64) {
+            if ((hi >>> s) != 0) {
+                return -1;
+            }
+            quotient = (lo >>> s) | (hi << (64 - s));
+            if (quotient < 0) {
+                return -1;
+            }
+            long remainder = lo & ((1L << s) - 1);
+            long half = 1L << (s - 1);
+            cmp = remainder < half ? -1 : (remainder == half ? 0 : 1);
+        } else {
+            int u = s - 64;
+            quotient = hi >>> u;
+            if (u == 0) {
+                cmp = lo >= 0 ? -1 : (lo == Long.MIN_VALUE ? 0 : 1);
+            } else {
+                long remainderHi = hi & ((1L << u) - 1);
+                long halfHi = 1L << (u - 1);
+                if (remainderHi < halfHi) {
+                    cmp = -1;
+                } else if (remainderHi > halfHi) {
+                    cmp = 1;
+                } else {
+                    cmp = lo == 0 ? 0 : 1;
+                }
+            }
+        }
+        if (cmp > 0 || cmp == 0 && (quotient & 1) == 1) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    /**
+     * The core of Schubfach: find the shortest decimal in the rounding interval of
+     * c 2^q.
+     */
+    private static void toDecimal(StringBuilder out, int q, long c, int dk,
+                                  String thousandsSeparator, String decimalSeparator) {
+        int parity = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // the interval is asymmetric
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        int i = 2 * (k - K_MIN);
+        long g1 = G[i];
+        long g0 = G[i + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // try a decimal with one digit less
+            long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + parity <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + parity <= vbr;
+            if (upin != wpin) {
+                appendDecimal(out, upin ? sp10 : tp10, k + dk, thousandsSeparator,
+                        decimalSeparator);
+                return;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + parity <= s << 2;
+        boolean win = (t << 2) + parity <= vbr;
+        long f;
+        if (uin != win) {
+            f = uin ? s : t;
+        } else {
+            // both or none in the interval: take the closest
+            long cmp = vb - ((s + t) << 1);
+            f = cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t;
+        }
+        appendDecimal(out, f, k + dk, thousandsSeparator, decimalSeparator);
+    }
+
+    /**
+     * @return the rounded to odd product of g = g1 2^63 + g0 and cp, divided by 2^127.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+    }
+
+    /**
+     * Append f 10^e, f > 0, with the layout of {@link Double#toString(double)}: plain
+     * notation between 10^-3 and 10^7, computerized scientific notation otherwise.
+     */
+    private static void appendDecimal(StringBuilder out, long f, int e,
+                                      String thousandsSeparator, String decimalSeparator) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int len = 1;
+        while (len < POW10.length && f >= POW10[len]) {
+            len++;
+        }
+        // f 10^e = 0.d1...dlen 10^exp
+        int exp = e + len;
+        String ds = decimalSeparator == null ? "." : decimalSeparator;
+        if (0 < exp && exp <= 7) {
+            boolean grouped = thousandsSeparator != null && !thousandsSeparator.isEmpty();
+            for (int i = 0; i < exp; i++) {
+                out.append(i < len ? digit(f, len, i) : '0');
+                if (grouped && i < exp - 1 && (exp - 1 - i) % 3 == 0) {
+                    out.append(thousandsSeparator);
+                }
+            }
+            out.append(ds);
+            if (len <= exp) {
+                out.append('0');
+            } else {
+                appendDigits(out, f, len, exp);
+            }
+        } else if (-3 < exp && exp <= 0) {
+            out.append('0').append(ds);
+            for (int i = exp; i < 0; i++) {
+                out.append('0');
+            }
+            appendDigits(out, f, len, 0);
+        } else {
+            out.append(digit(f, len, 0)).append(ds);
+            if (len == 1) {
+                out.append('0');
+            } else {
+                appendDigits(out, f, len, 1);
+            }
+            out.append('E').append(exp - 1);
+        }
+    }
+
+    private static void appendDigits(StringBuilder out, long f, int len, int from) {
+        for (int i = from; i < len; i++) {
+            out.append(digit(f, len, i));
+        }
+    }
+
+    private static char digit(long f, int len, int i) {
+        return (char) ('0' + f / POW10[len - 1 - i] % 10);
+    }
+
+    static int flog10pow2(int e) {
+        return (int) (e * 661971961083L >> 41);
+    }
+
+    static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661971961083L - 274743187321L >> 41);
+    }
+
+    static int flog2pow10(int e) {
+        return (int) (e * 913124641741L >> 38);
+    }
+
+    /**
+     * Math.multiplyHigh is not available before Java 9.
+     */
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+}
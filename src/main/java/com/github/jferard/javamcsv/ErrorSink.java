@@ -0,0 +1,54 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.IOException;
+
+/**
+ * A sink of the read errors (see {@link MetaCSVReaderBuilder#errorSink(ErrorSink)}): compact
+ * events instead of {@link ReadError} objects. The events of a rejected row are: the cell
+ * errors, in column order, then the row. The rows are numbered from 1 (the header is row 0)
+ * and the byte offsets are -1 if unknown.
+ */
+public interface ErrorSink {
+    /**
+     * @param header the header. Valid only during the call.
+     * @throws IOException if the sink can't handle the header
+     */
+    void onHeader(RawRecord header) throws IOException;
+
+    /**
+     * @param row        the row number
+     * @param col        the column index
+     * @param byteOffset the offset of the row
+     * @param raw        the text of the cell. Valid only during the call.
+     * @throws IOException if the sink can't handle the error
+     */
+    void onCellError(long row, int col, long byteOffset, CharSequence raw) throws IOException;
+
+    /**
+     * @param row        the row number
+     * @param byteOffset the offset of the row
+     * @param record     the raw row. Valid only during the call.
+     * @throws IOException if the sink can't handle the row
+     */
+    void onRejectedRow(long row, long byteOffset, RawRecord record) throws IOException;
+}
@@ -0,0 +1,149 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A reader that doesn't own a thread: every step reads a chunk of the file into a pooled buffer,
+ * pushes it to a {@link MetaCSVFeedParser}, and schedules the next step on the executor. Many
+ * readers share a small pool of threads and a few buffers, and the steps of the readers are
+ * interleaved.
+ * <p>
+ * The steps of a reader never run concurrently, hence the handler of a reader is called by one
+ * thread at a time. The channel is closed at the end.
+ */
+public class MetaCSVChannelReader implements Runnable {
+    private final FileChannel channel;
+    private final MetaCSVFeedParser parser;
+    private final Executor executor;
+    private final ByteBufferPool pool;
+    private final CountDownLatch terminated;
+    private long position;
+    private volatile boolean cancelled;
+    private volatile Exception error;
+
+    /**
+     * @param channel  the channel of the file
+     * @param parser   the parser
+     * @param executor the executor that runs the steps
+     * @param pool     the pool of buffers
+     */
+    public MetaCSVChannelReader(FileChannel channel, MetaCSVFeedParser parser,
+                                Executor executor, ByteBufferPool pool) {
+        this.channel = channel;
+        this.parser = parser;
+        this.executor = executor;
+        this.pool = pool;
+        this.terminated = new CountDownLatch(1);
+    }
+
+    /**
+     * Schedule the first step. If the executor rejects the step, the reader terminates and
+     * {@link #await()} throws.
+     */
+    public void start() {
+        this.schedule();
+    }
+
+    /**
+     * Stop reading after the current step.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Wait for the end of the file, an error or the cancellation.
+     *
+     * @throws MetaCSVReadException if a record can't be read or parsed
+     * @throws InterruptedException if the current thread was interrupted
+     */
+    public void await() throws MetaCSVReadException, InterruptedException {
+        this.terminated.await();
+        Exception error = this.error;
+        if (error instanceof MetaCSVReadException) {
+            throw (MetaCSVReadException) error;
+        } else if (error != null) {
+            throw new MetaCSVReadException(error);
+        }
+    }
+
+    @Override
+    public void run() {
+        if (this.cancelled) {
+            this.terminate();
+            return;
+        }
+        ByteBuffer buffer = this.pool.acquire();
+        try {
+            int count = this.channel.read(buffer, this.position);
+            if (count == -1) {
+                this.parser.endOfInput();
+                this.terminate();
+                return;
+            }
+            this.position += count;
+            buffer.flip();
+            this.parser.feed(buffer);
+        } catch (IOException e) {
+            this.error = e;
+            this.terminate();
+            return;
+        } catch (MetaCSVReadException e) {
+            this.error = e;
+            this.terminate();
+            return;
+        } catch (RuntimeException e) {
+            this.error = e;
+            this.terminate();
+            return;
+        } finally {
+            this.pool.release(buffer);
+        }
+        this.schedule();
+    }
+
+    private void schedule() {
+        try {
+            this.executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            this.error = e;
+            this.terminate();
+        }
+    }
+
+    private void terminate() {
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            if (this.error == null) {
+                this.error = e;
+            }
+        }
+        this.terminated.countDown();
+    }
+}
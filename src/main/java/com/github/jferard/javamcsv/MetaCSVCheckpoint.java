@@ -0,0 +1,93 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A point of a CSV file where a read can be resumed (see
+ * {@link MetaCSVReaderBuilder#resumeFrom(MetaCSVCheckpoint)}): the byte offset after the last
+ * record read, the number of this record (the header is record 1), the header and the BOM
+ * state.
+ */
+public class MetaCSVCheckpoint {
+    private final long byteOffset;
+    private final long recordNumber;
+    private final List<String> header;
+    private final boolean utf8BOM;
+
+    /**
+     * @param byteOffset   the offset of the next record, in bytes, BOM included
+     * @param recordNumber the number of the last record read, header included
+     * @param header       the header
+     * @param utf8BOM      true if the file has a BOM
+     */
+    public MetaCSVCheckpoint(long byteOffset, long recordNumber, List<String> header,
+                             boolean utf8BOM) {
+        this.byteOffset = byteOffset;
+        this.recordNumber = recordNumber;
+        this.header = Collections.unmodifiableList(new ArrayList<String>(header));
+        this.utf8BOM = utf8BOM;
+    }
+
+    public long getByteOffset() {
+        return this.byteOffset;
+    }
+
+    public long getRecordNumber() {
+        return this.recordNumber;
+    }
+
+    public List<String> getHeader() {
+        return this.header;
+    }
+
+    public boolean isUtf8BOM() {
+        return this.utf8BOM;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof MetaCSVCheckpoint)) {
+            return false;
+        }
+        MetaCSVCheckpoint other = (MetaCSVCheckpoint) o;
+        return this.byteOffset == other.byteOffset && this.recordNumber == other.recordNumber &&
+                this.header.equals(other.header) && this.utf8BOM == other.utf8BOM;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (this.byteOffset ^ (this.byteOffset >>> 32)) * 31 +
+                (int) this.recordNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "MetaCSVCheckpoint [byteOffset=" + this.byteOffset + ", recordNumber=" +
+                this.recordNumber + ", header=" + this.header + ", utf8BOM=" + this.utf8BOM + "]";
+    }
+}
@@ -51,15 +51,15 @@ public class MetaCSVData implements CSVParameters {
     private final char quoteChar;
     private final boolean skipInitialSpace;
     private final Map<Integer, FieldDescription<?>> descriptionByColIndex;
-    private String nullValue;
-    private String metaVersion;
-    private Map<String, String> meta;
-    private Charset encoding;
-    private char delimiter;
-    private boolean utf8BOM;
-    private String lineTerminator;
-    private Map<Integer, FieldProcessor<?>> processorByIndex;
-    private TextFieldProcessor textFieldProcessor;
+    private final String nullValue;
+    private final String metaVersion;
+    private final Map<String, String> meta;
+    private final Charset encoding;
+    private final char delimiter;
+    private final boolean utf8BOM;
+    private final String lineTerminator;
+    private final Map<Integer, FieldProcessor<?>> processorByIndex;
+    private final TextFieldProcessor textFieldProcessor;
 
     public MetaCSVData(String metaVersion, Map<String, String> meta,
                        Charset encoding, boolean utf8BOM,
@@ -160,6 +160,17 @@ public class MetaCSVData implements CSVParameters {
         return meta.get(key);
     }
 
+    /**
+     * @return the same dialect, without BOM and without column descriptions: all the columns
+     * are text columns.
+     */
+    public MetaCSVData toTextData() {
+        return new MetaCSVData(this.metaVersion, this.meta, this.encoding, false,
+                this.lineTerminator, this.delimiter, this.quoteChar, this.doubleQuote,
+                this.escapeChar, this.skipInitialSpace, this.nullValue,
+                new HashMap<Integer, FieldDescription<?>>());
+    }
+
     public ReadProcessorProvider toReadProcessorProvider(OnError onError) {
         return new ReadProcessorProvider(this.descriptionByColIndex, this.nullValue, onError);
     }
@@ -0,0 +1,206 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.processor.CSVRecordProcessor;
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A non-blocking parser: push the bytes as they arrive with {@link #feed(ByteBuffer)}, and
+ * {@link #endOfInput()} at the end. The complete records are passed to the handler, the
+ * partial record is kept until the next chunk.
+ * <p>
+ * A {@link StructuralScanner} finds the complete records on the bytes, then a
+ * {@link CSVTokenizer} splits them on the decoded chars: the tokenizer never waits for input.
+ * The encoding must be ASCII-compatible (see {@link StructuralScanner#isSupported(Charset)}).
+ * <p>
+ * Not thread safe: feed the chunks from one thread at a time.
+ */
+public class MetaCSVFeedParser {
+    private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final StructuralScanner scanner;
+    private final CharsetDecoder decoder;
+    private final FeedReader reader;
+    private final CSVTokenizer tokenizer;
+    private final CSVRecordProcessor processor;
+    private final RecordHandler handler;
+    private int bomCount;
+    private boolean first;
+
+    /**
+     * @param format    the format
+     * @param charset   the encoding
+     * @param utf8BOM   true if the input starts with a BOM
+     * @param processor the record processor
+     * @param handler   the handler
+     * @throws IllegalArgumentException if the charset or the format is not supported.
+     */
+    public MetaCSVFeedParser(CSVFormat format, Charset charset, boolean utf8BOM,
+                             CSVRecordProcessor processor, RecordHandler handler) {
+        if (!StructuralScanner.isSupported(charset)) {
+            throw new IllegalArgumentException("Not an ASCII-compatible encoding: " + charset);
+        }
+        this.scanner = new StructuralScanner(format);
+        this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.reader = new FeedReader();
+        this.tokenizer = new CSVTokenizer(this.reader, format);
+        this.processor = processor;
+        this.handler = handler;
+        this.bomCount = utf8BOM ? 0 : UTF_8_BOM.length;
+        this.first = true;
+    }
+
+    /**
+     * @param bytes the next chunk. The position is moved to the limit.
+     * @throws MetaCSVReadException if a record can't be parsed, or if the handler throws.
+     */
+    public void feed(ByteBuffer bytes) throws MetaCSVReadException {
+        while (this.bomCount < UTF_8_BOM.length && bytes.hasRemaining()) {
+            if (bytes.get() != UTF_8_BOM[this.bomCount++]) {
+                throw new MetaCSVReadException("BOM expected");
+            }
+        }
+        this.scanner.feed(bytes.duplicate());
+        this.reader.decode(bytes, false);
+        this.emitRecords();
+    }
+
+    /**
+     * Emit the last record, if any.
+     *
+     * @throws MetaCSVReadException if a record can't be parsed, or if the handler throws.
+     */
+    public void endOfInput() throws MetaCSVReadException {
+        this.reader.decode(EMPTY, true);
+        this.scanner.endOfInput();
+        this.emitRecords();
+    }
+
+    private void emitRecords() throws MetaCSVReadException {
+        try {
+            while (this.scanner.nextRecord()) {
+                RawRecord record = this.tokenizer.nextRecord();
+                if (record == null) {
+                    throw new MetaCSVReadException("Record expected");
+                }
+                record = ArrayRawRecord.copyOf(record);
+                if (this.first) {
+                    this.first = false;
+                    this.handler.onRecord(
+                            CSVRecordsIterator.HEADER_PROCESSOR.createRecord(record));
+                } else {
+                    this.handler.onRecord(this.processor.createRecord(record));
+                }
+            }
+        } catch (IOException e) {
+            throw new MetaCSVReadException(e);
+        }
+    }
+
+    /**
+     * The decoded chars, for the tokenizer. The scanner guarantees that a record and the char
+     * that follows it are decoded before the tokenizer reads the record.
+     */
+    private class FeedReader extends Reader {
+        private char[] chars = new char[8192];
+        private int pos;
+        private int limit;
+        private boolean ended;
+        private ByteBuffer leftover = EMPTY;
+
+        /**
+         * @param bytes      the bytes. The bytes of an incomplete char are kept for the next
+         *                   call.
+         * @param endOfInput true if there is no more bytes
+         */
+        void decode(ByteBuffer bytes, boolean endOfInput) {
+            if (this.leftover.hasRemaining()) {
+                ByteBuffer joined =
+                        ByteBuffer.allocate(this.leftover.remaining() + bytes.remaining());
+                joined.put(this.leftover).put(bytes).flip();
+                bytes = joined;
+            }
+            CharsetDecoder decoder = MetaCSVFeedParser.this.decoder;
+            CoderResult result;
+            do {
+                CharBuffer out = this.freeSpace();
+                result = decoder.decode(bytes, out, endOfInput);
+                this.limit = out.position();
+            } while (result.isOverflow());
+            if (endOfInput) {
+                do {
+                    CharBuffer out = this.freeSpace();
+                    result = decoder.flush(out);
+                    this.limit = out.position();
+                } while (result.isOverflow());
+                this.ended = true;
+            }
+            if (bytes.hasRemaining()) {
+                this.leftover = ByteBuffer.allocate(bytes.remaining());
+                this.leftover.put(bytes).flip();
+            } else {
+                this.leftover = EMPTY;
+            }
+        }
+
+        private CharBuffer freeSpace() {
+            System.arraycopy(this.chars, this.pos, this.chars, 0, this.limit - this.pos);
+            this.limit -= this.pos;
+            this.pos = 0;
+            if (this.limit == this.chars.length) {
+                char[] newChars = new char[2 * this.chars.length];
+                System.arraycopy(this.chars, 0, newChars, 0, this.limit);
+                this.chars = newChars;
+            }
+            return CharBuffer.wrap(this.chars, this.limit, this.chars.length - this.limit);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (this.pos == this.limit) {
+                if (this.ended) {
+                    return -1;
+                }
+                throw new IOException("Incomplete record");
+            }
+            int count = Math.min(length, this.limit - this.pos);
+            System.arraycopy(this.chars, this.pos, buffer, offset, count);
+            this.pos += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * A mapper between records and instances of a class. The fields of the class are bound once to
+ * the columns, by name or with the {@link MetaCSVColumn} annotation. The primitive fields are
+ * read with the primitive accessors of {@link MetaCSVRecord} and written with the writeXXX methods
+ * of {@link MetaCSVWriter}: the values are not boxed.
+ *
+ * @param <T> the class
+ */
+public class MetaCSVMapper<T> {
+    /**
+     * @param klass    the class, with a no arg constructor
+     * @param header   the header of the CSV file
+     * @param metaData the metadata
+     * @param <T>      the class
+     * @return the mapper
+     * @throws MetaCSVDataException if a field can't be bound
+     */
+    public static <T> MetaCSVMapper<T> create(Class<T> klass, List<String> header,
+                                              MetaCSVMetaData metaData)
+            throws MetaCSVDataException {
+        return create(klass, header, metaData, Util.UTC_TIME_ZONE);
+    }
+
+    /**
+     * @param klass    the class, with a no arg constructor
+     * @param header   the header of the CSV file
+     * @param metaData the metadata
+     * @param timeZone the time zone of the reader (see
+     *                 {@link MetaCSVReaderBuilder#timeZone(TimeZone)}): the epoch millis
+     *                 fields are shifted back to UTC on write.
+     * @param <T>      the class
+     * @return the mapper
+     * @throws MetaCSVDataException if a field can't be bound
+     */
+    public static <T> MetaCSVMapper<T> create(Class<T> klass, List<String> header,
+                                              MetaCSVMetaData metaData, TimeZone timeZone)
+            throws MetaCSVDataException {
+        int offset = Util.UTC_TIME_ZONE.getRawOffset() - timeZone.getRawOffset();
+        Constructor<T> constructor;
+        try {
+            constructor = klass.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new MetaCSVDataException("No arg constructor expected: " + klass);
+        }
+        constructor.setAccessible(true);
+        List<Binding> bindings = new ArrayList<Binding>();
+        for (Class<?> c = klass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) ||
+                        field.isSynthetic()) {
+                    continue;
+                }
+                int index = getIndex(field, header);
+                if (index == -1) {
+                    continue;
+                }
+                field.setAccessible(true);
+                bindings.add(createBinding(field, index, metaData.getDataType(index), offset));
+            }
+        }
+        Binding[] sortedBindings = bindings.toArray(new Binding[bindings.size()]);
+        Arrays.sort(sortedBindings, new Comparator<Binding>() {
+            @Override
+            public int compare(Binding b1, Binding b2) {
+                return b1.index < b2.index ? -1 : (b1.index == b2.index ? 0 : 1);
+            }
+        });
+        for (int i = 1; i < sortedBindings.length; i++) {
+            if (sortedBindings[i].index == sortedBindings[i - 1].index) {
+                throw new MetaCSVDataException(
+                        "Column " + sortedBindings[i].index + " is bound twice");
+            }
+        }
+        return new MetaCSVMapper<T>(constructor, header, sortedBindings);
+    }
+
+    private static int getIndex(Field field, List<String> header) throws MetaCSVDataException {
+        MetaCSVColumn column = field.getAnnotation(MetaCSVColumn.class);
+        if (column == null) {
+            return header.indexOf(field.getName());
+        }
+        if (column.index() >= 0) {
+            if (column.index() >= header.size()) {
+                throw new MetaCSVDataException("Unknown column index: " + column.index());
+            }
+            return column.index();
+        }
+        String name = column.name().isEmpty() ? field.getName() : column.name();
+        int index = header.indexOf(name);
+        if (index == -1) {
+            throw new MetaCSVDataException("Unknown column: " + name);
+        }
+        return index;
+    }
+
+    private static Binding createBinding(Field field, int index, DataType dataType,
+                                         int offset) throws MetaCSVDataException {
+        Class<?> type = field.getType();
+        Class<?> javaType = dataType.getDefaultDescription().getJavaType();
+        if (type == long.class || type == int.class) {
+            if (dataType == DataType.DATE || dataType == DataType.DATETIME) {
+                if (type == long.class) {
+                    return new EpochMillisBinding(field, index, dataType == DataType.DATE,
+                            offset);
+                }
+            } else if (javaType == Long.class) {
+                return new LongBinding(field, index);
+            }
+        } else if (type == double.class || type == float.class) {
+            if (javaType == Double.class) {
+                return new DoubleBinding(field, index);
+            }
+        } else if (type == boolean.class) {
+            if (dataType == DataType.BOOLEAN) {
+                return new BooleanBinding(field, index);
+            }
+        } else if (dataType == DataType.TEXT) {
+            if (type.isAssignableFrom(String.class)) {
+                return new TextBinding(field, index);
+            }
+        } else if (type.isAssignableFrom(javaType)) {
+            return new ObjectBinding(field, index, dataType);
+        }
+        throw new MetaCSVDataException(
+                "Can't bind field " + field.getName() + " (" + type.getName() + ") to column " +
+                        index + " (" + dataType + ")");
+    }
+
+    private final Constructor<T> constructor;
+    private final List<String> header;
+    private final Binding[] bindings;
+
+    private MetaCSVMapper(Constructor<T> constructor, List<String> header, Binding[] bindings) {
+        this.constructor = constructor;
+        this.header = header;
+        this.bindings = bindings;
+    }
+
+    /**
+     * @return the header
+     */
+    public List<String> getHeader() {
+        return Collections.unmodifiableList(this.header);
+    }
+
+    /**
+     * @param record the record
+     * @return a new instance
+     * @throws MetaCSVReadException if a value can't be read
+     */
+    public T read(MetaCSVRecord record) throws MetaCSVReadException {
+        T target;
+        try {
+            target = this.constructor.newInstance();
+        } catch (InstantiationException e) {
+            throw new MetaCSVReadException(e);
+        } catch (IllegalAccessException e) {
+            throw new MetaCSVReadException(e);
+        } catch (InvocationTargetException e) {
+            throw new MetaCSVReadException(e);
+        }
+        this.fill(record, target);
+        return target;
+    }
+
+    /**
+     * Fill an existing instance: useful to avoid the allocation of an instance per record.
+     *
+     * @param record the record
+     * @param target the instance
+     * @throws MetaCSVReadException if a value can't be read
+     */
+    public void fill(MetaCSVRecord record, T target) throws MetaCSVReadException {
+        try {
+            for (Binding binding : this.bindings) {
+                if (record.isNull(binding.index)) {
+                    binding.setNull(target);
+                } else {
+                    binding.read(record, target);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new MetaCSVReadException(e);
+        }
+    }
+
+    /**
+     * Write an instance. The columns that are not bound are null.
+     *
+     * @param writer the writer
+     * @param source the instance
+     * @throws IOException if the row can't be written
+     */
+    public void write(MetaCSVWriter writer, T source) throws IOException {
+        int size = this.header.size();
+        writer.startRow();
+        int col = 0;
+        try {
+            for (Binding binding : this.bindings) {
+                for (; col < binding.index; col++) {
+                    writer.writeNull();
+                }
+                binding.write(writer, source);
+                col++;
+            }
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        }
+        for (; col < size; col++) {
+            writer.writeNull();
+        }
+        writer.endRow();
+    }
+
+    private abstract static class Binding {
+        final Field field;
+        final int index;
+
+        Binding(Field field, int index) {
+            this.field = field;
+            this.index = index;
+        }
+
+        abstract void read(MetaCSVRecord record, Object target)
+                throws MetaCSVReadException, IllegalAccessException;
+
+        void setNull(Object target) throws IllegalAccessException {
+            this.field.set(target, null);
+        }
+
+        void write(MetaCSVWriter writer, Object source) throws IllegalAccessException {
+            writer.writeValue(this.field.get(source));
+        }
+    }
+
+    private static class LongBinding extends Binding {
+        LongBinding(Field field, int index) {
+            super(field, index);
+        }
+
+        @Override
+        void read(MetaCSVRecord record, Object target)
+                throws MetaCSVReadException, IllegalAccessException {
+            long value = record.getLong(this.index);
+            if (this.field.getType() == long.class) {
+                this.field.setLong(target, value);
+            } else if (value == (int) value) {
+                this.field.setInt(target, (int) value);
+            } else {
+                throw new MetaCSVCastException("Not an int: " + value);
+            }
+        }
+
+        @Override
+        void setNull(Object target) throws IllegalAccessException {
+            this.field.setInt(target, 0);
+        }
+
+        @Override
+        void write(MetaCSVWriter writer, Object source) throws IllegalAccessException {
+            writer.writeLong(this.field.getLong(source));
+        }
+    }
+
+    private static class EpochMillisBinding extends Binding {
+        private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+        private final boolean date;
+        private final int offset;
+
+        /**
+         * @param field  the field
+         * @param index  the column index
+         * @param date   true for a date column: the time of the day is not written
+         * @param offset the offset between UTC and the time zone, in millis
+         */
+        EpochMillisBinding(Field field, int index, boolean date, int offset) {
+            super(field, index);
+            this.date = date;
+            this.offset = offset;
+        }
+
+        @Override
+        void read(MetaCSVRecord record, Object target)
+                throws MetaCSVReadException, IllegalAccessException {
+            this.field.setLong(target, record.getEpochMillis(this.index));
+        }
+
+        @Override
+        void setNull(Object target) throws IllegalAccessException {
+            this.field.setLong(target, 0);
+        }
+
+        @Override
+        void write(MetaCSVWriter writer, Object source) throws IllegalAccessException {
+            long epochMillis = this.field.getLong(source) - this.offset;
+            if (this.date) {
+                epochMillis = Util.floorDiv(epochMillis, DAY_MILLIS) * DAY_MILLIS;
+            }
+            writer.writeEpochMillis(epochMillis);
+        }
+    }
+
+    private static class DoubleBinding extends Binding {
+        DoubleBinding(Field field, int index) {
+            super(field, index);
+        }
+
+        @Override
+        void read(MetaCSVRecord record, Object target)
+                throws MetaCSVReadException, IllegalAccessException {
+            if (this.field.getType() == double.class) {
+                this.field.setDouble(target, record.getDouble(this.index));
+            } else {
+                this.field.setFloat(target, (float) record.getDouble(this.index));
+            }
+        }
+
+        @Override
+        void setNull(Object target) throws IllegalAccessException {
+            this.field.setFloat(target, 0.0f);
+        }
+
+        @Override
+        void write(MetaCSVWriter writer, Object source) throws IllegalAccessException {
+            writer.writeDouble(this.field.getDouble(source));
+        }
+    }
+
+    private static class BooleanBinding extends Binding {
+        BooleanBinding(Field field, int index) {
+            super(field, index);
+        }
+
+        @Override
+        void read(MetaCSVRecord record, Object target)
+                throws MetaCSVReadException, IllegalAccessException {
+            this.field.setBoolean(target, record.getBoolean(this.index));
+        }
+
+        @Override
+        void setNull(Object target) throws IllegalAccessException {
+            this.field.setBoolean(target, false);
+        }
+
+        @Override
+        void write(MetaCSVWriter writer, Object source) throws IllegalAccessException {
+            writer.writeBoolean(this.field.getBoolean(source));
+        }
+    }
+
+    private static class TextBinding extends Binding {
+        TextBinding(Field field, int index) {
+            super(field, index);
+        }
+
+        @Override
+        void read(MetaCSVRecord record, Object target)
+                throws MetaCSVReadException, IllegalAccessException {
+            // the text may be a view: make a copy
+            this.field.set(target, record.getText(this.index).toString());
+        }
+
+        @Override
+        void write(MetaCSVWriter writer, Object source) throws IllegalAccessException {
+            Object value = this.field.get(source);
+            if (value == null || value instanceof CharSequence) {
+                writer.writeText((CharSequence) value);
+            } else {
+                writer.writeText(value.toString());
+            }
+        }
+    }
+
+    private static class ObjectBinding extends Binding {
+        private final DataType dataType;
+
+        ObjectBinding(Field field, int index, DataType dataType) {
+            super(field, index);
+            this.dataType = dataType;
+        }
+
+        @Override
+        void read(MetaCSVRecord record, Object target)
+                throws MetaCSVReadException, IllegalAccessException {
+            Object value;
+            if (this.dataType == DataType.DATE) {
+                value = record.getDate(this.index);
+            } else if (this.dataType == DataType.DATETIME) {
+                value = record.getDatetime(this.index);
+            } else {
+                value = record.getObject(this.index);
+            }
+            this.field.set(target, value);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Parallel formatting: the current thread gathers the rows in batches and hands them to a pool
+ * of workers. Each worker formats its batches with its own {@link MetaCSVWriter} into a byte
+ * array. The futures are queued in the sequence order: this is the reorder buffer, the byte
+ * arrays are written to the output in the original order whatever the order of completion.
+ * The output is the same as the output of the sequential writer.
+ * <p>
+ * A row that can't be formatted is dropped, as with the sequential writer. Its exception is
+ * thrown by the method that writes the previous rows to the output, and the next rows are
+ * written by the next calls. {@link #close()} writes all the rows and throws the first
+ * exception.
+ */
+public class MetaCSVParallelWriter implements Closeable {
+    private final OutputStream out;
+    private final MetaCSVData data;
+    private final OnError onError;
+    private final boolean byteEncoder;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final Queue<Future<FormattedBatch>> pendingBatches;
+    private final ThreadLocal<BatchFormatter> formatters;
+    private final List<BatchFormatter> allFormatters;
+    private List<Object[]> rows;
+    private FormattedBatch batch;
+
+    /**
+     * @param out               the CSV output
+     * @param data              the meta data
+     * @param onError           the behavior on a type error
+     * @param byteEncoder       true to format the batches with the byte encoder
+     * @param executor          the workers
+     * @param batchSize         the number of rows of a batch
+     * @param maxPendingBatches the maximum number of batches submitted and not written
+     */
+    MetaCSVParallelWriter(OutputStream out, MetaCSVData data, OnError onError,
+                          boolean byteEncoder, ExecutorService executor, int batchSize,
+                          int maxPendingBatches) {
+        this.out = out;
+        this.data = data;
+        this.onError = onError;
+        this.byteEncoder = byteEncoder;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+        this.pendingBatches = new LinkedList<Future<FormattedBatch>>();
+        this.formatters = new ThreadLocal<BatchFormatter>();
+        this.allFormatters = Collections.synchronizedList(new ArrayList<BatchFormatter>());
+        this.rows = new ArrayList<Object[]>(batchSize);
+    }
+
+    /**
+     * Format the header on the current thread.
+     *
+     * @param header the header
+     * @throws IOException if the previous batches can't be written
+     */
+    public void writeHeader(final List<String> header) throws IOException {
+        this.submitRows();
+        FutureTask<FormattedBatch> task =
+                new FutureTask<FormattedBatch>(new Callable<FormattedBatch>() {
+                    @Override
+                    public FormattedBatch call() throws IOException {
+                        BatchFormatter formatter = getFormatter();
+                        formatter.writeHeader(header);
+                        return formatter.toBatch();
+                    }
+                });
+        task.run();
+        this.pendingBatches.add(task);
+        this.writeFullBatches();
+    }
+
+    /**
+     * @param values the values of the row. The list is copied.
+     * @throws IOException if the previous batches can't be written
+     */
+    public void writeRow(List<Object> values) throws IOException {
+        this.rows.add(values.toArray());
+        if (this.rows.size() >= this.batchSize) {
+            this.submitRows();
+            this.writeFullBatches();
+        }
+    }
+
+    /**
+     * Write a batch of rows given as columns. A column is a {@code long[]}, an {@code int[]},
+     * a {@code double[]}, a {@code boolean[]} or an {@code Object[]}. The arrays are copied
+     * and all the rows are submitted at once.
+     *
+     * @param rowCount the number of rows
+     * @param columns  the columns, of length {@code rowCount} at least
+     * @throws IOException if the previous batches can't be written
+     */
+    public void writeColumns(int rowCount, Object... columns) throws IOException {
+        final Object[] copies = new Object[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            copies[c] = copyColumn(columns[c], rowCount);
+        }
+        this.submitRows();
+        for (int from = 0; from < rowCount; from += this.batchSize) {
+            final int start = from;
+            final int end = Math.min(rowCount, from + this.batchSize);
+            this.submit(new Callable<FormattedBatch>() {
+                @Override
+                public FormattedBatch call() throws IOException {
+                    BatchFormatter formatter = getFormatter();
+                    for (int r = start; r < end; r++) {
+                        formatter.writeColumnsRow(copies, r);
+                    }
+                    return formatter.toBatch();
+                }
+            });
+        }
+        this.writeFullBatches();
+    }
+
+    /**
+     * Format the pending rows and write all the batches.
+     *
+     * @throws IOException if the batches can't be written
+     */
+    public void flush() throws IOException {
+        this.submitRows();
+        while (this.hasPendingBatches()) {
+            this.writeBatch();
+        }
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        RuntimeException error = null;
+        try {
+            this.submitRows();
+            while (this.hasPendingBatches()) {
+                try {
+                    this.writeBatch();
+                } catch (RuntimeException e) {
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+            }
+            this.out.flush();
+        } finally {
+            this.executor.shutdownNow();
+            try {
+                this.closeFormatters();
+            } finally {
+                this.out.close();
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static Object copyColumn(Object column, int rowCount) {
+        if (column instanceof long[]) {
+            return Arrays.copyOf((long[]) column, rowCount);
+        } else if (column instanceof int[]) {
+            return Arrays.copyOf((int[]) column, rowCount);
+        } else if (column instanceof double[]) {
+            return Arrays.copyOf((double[]) column, rowCount);
+        } else if (column instanceof boolean[]) {
+            return Arrays.copyOf((boolean[]) column, rowCount);
+        } else if (column instanceof Object[]) {
+            return Arrays.copyOf((Object[]) column, rowCount);
+        } else {
+            throw new IllegalArgumentException("Unsupported column: " + column);
+        }
+    }
+
+    private void submitRows() {
+        if (this.rows.isEmpty()) {
+            return;
+        }
+        final List<Object[]> rows = this.rows;
+        this.rows = new ArrayList<Object[]>(this.batchSize);
+        this.submit(new Callable<FormattedBatch>() {
+            @Override
+            public FormattedBatch call() throws IOException {
+                BatchFormatter formatter = getFormatter();
+                for (Object[] row : rows) {
+                    formatter.writeRow(row);
+                }
+                return formatter.toBatch();
+            }
+        });
+    }
+
+    private void submit(Callable<FormattedBatch> callable) {
+        this.pendingBatches.add(this.executor.submit(callable));
+    }
+
+    private void writeFullBatches() throws IOException {
+        while (this.pendingBatches.size() > this.maxPendingBatches) {
+            this.writeBatch();
+        }
+    }
+
+    private boolean hasPendingBatches() {
+        return this.batch != null || !this.pendingBatches.isEmpty();
+    }
+
+    /**
+     * Write the head batch, up to its next failed row.
+     *
+     * @throws IOException if the bytes can't be written
+     */
+    private void writeBatch() throws IOException {
+        if (this.batch == null) {
+            this.batch = this.get(this.pendingBatches.poll());
+        }
+        RuntimeException error = this.batch.writeTo(this.out);
+        if (error == null) {
+            this.batch = null;
+        } else {
+            throw error;
+        }
+    }
+
+    private FormattedBatch get(Future<FormattedBatch> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Write interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private BatchFormatter getFormatter() throws IOException {
+        BatchFormatter formatter = this.formatters.get();
+        if (formatter == null) {
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            MetaCSVWriter writer = new MetaCSVWriterBuilder().out(sink).metaData(this.data)
+                    .onError(this.onError).byteEncoder(this.byteEncoder).build();
+            formatter = new BatchFormatter(sink, writer);
+            this.formatters.set(formatter);
+            this.allFormatters.add(formatter);
+        } else {
+            // drop the bytes of an interrupted batch
+            formatter.toBatch();
+        }
+        return formatter;
+    }
+
+    /**
+     * Close the writers of the threads. The entries of the worker threads end with the
+     * threads.
+     *
+     * @throws IOException if a writer can't be closed
+     */
+    private void closeFormatters() throws IOException {
+        this.formatters.remove();
+        synchronized (this.allFormatters) {
+            for (BatchFormatter formatter : this.allFormatters) {
+                formatter.writer.close();
+            }
+            this.allFormatters.clear();
+        }
+    }
+
+    /**
+     * The bytes of a batch and the failed rows.
+     */
+    private static class FormattedBatch {
+        private final byte[] bytes;
+        private final List<Integer> errorOffsets;
+        private final List<RuntimeException> errors;
+        private int written;
+        private int nextError;
+
+        FormattedBatch(byte[] bytes, List<Integer> errorOffsets,
+                       List<RuntimeException> errors) {
+            this.bytes = bytes;
+            this.errorOffsets = errorOffsets;
+            this.errors = errors;
+        }
+
+        /**
+         * @param out the output
+         * @return the exception of the next failed row, or null if the batch was written
+         * @throws IOException if the bytes can't be written
+         */
+        RuntimeException writeTo(OutputStream out) throws IOException {
+            if (this.nextError < this.errors.size()) {
+                int offset = this.errorOffsets.get(this.nextError);
+                out.write(this.bytes, this.written, offset - this.written);
+                this.written = offset;
+                return this.errors.get(this.nextError++);
+            }
+            out.write(this.bytes, this.written, this.bytes.length - this.written);
+            this.written = this.bytes.length;
+            return null;
+        }
+    }
+
+    /**
+     * A writer and its sink, owned by a thread.
+     */
+    private static class BatchFormatter {
+        private final ByteArrayOutputStream sink;
+        private final MetaCSVWriter writer;
+        private List<Integer> errorOffsets;
+        private List<RuntimeException> errors;
+
+        BatchFormatter(ByteArrayOutputStream sink, MetaCSVWriter writer) {
+            this.sink = sink;
+            this.writer = writer;
+            this.errorOffsets = new ArrayList<Integer>();
+            this.errors = new ArrayList<RuntimeException>();
+        }
+
+        void writeHeader(List<String> header) throws IOException {
+            try {
+                this.writer.writeHeader(header);
+            } catch (RuntimeException e) {
+                this.fail(e);
+            }
+        }
+
+        void writeRow(Object[] row) throws IOException {
+            try {
+                this.writer.startRow();
+                for (Object value : row) {
+                    this.writer.writeValue(value);
+                }
+                this.writer.endRow();
+            } catch (RuntimeException e) {
+                this.fail(e);
+            }
+        }
+
+        void writeColumnsRow(Object[] columns, int r) throws IOException {
+            try {
+                this.writer.startRow();
+                for (Object column : columns) {
+                    if (column instanceof long[]) {
+                        this.writer.writeLong(((long[]) column)[r]);
+                    } else if (column instanceof int[]) {
+                        this.writer.writeLong(((int[]) column)[r]);
+                    } else if (column instanceof double[]) {
+                        this.writer.writeDouble(((double[]) column)[r]);
+                    } else if (column instanceof boolean[]) {
+                        this.writer.writeBoolean(((boolean[]) column)[r]);
+                    } else {
+                        this.writer.writeValue(((Object[]) column)[r]);
+                    }
+                }
+                this.writer.endRow();
+            } catch (RuntimeException e) {
+                this.fail(e);
+            }
+        }
+
+        /**
+         * The failed row was not written: remember the exception and the position of the row.
+         */
+        private void fail(RuntimeException e) throws IOException {
+            this.writer.flush();
+            this.errorOffsets.add(this.sink.size());
+            this.errors.add(e);
+        }
+
+        /**
+         * @return the bytes and the failed rows of the batch. The sink is reset.
+         * @throws IOException never
+         */
+        FormattedBatch toBatch() throws IOException {
+            this.writer.flush();
+            FormattedBatch batch =
+                    new FormattedBatch(this.sink.toByteArray(), this.errorOffsets, this.errors);
+            this.sink.reset();
+            this.errorOffsets = new ArrayList<Integer>();
+            this.errors = new ArrayList<RuntimeException>();
+            return batch;
+        }
+    }
+}
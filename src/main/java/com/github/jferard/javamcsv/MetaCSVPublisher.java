@@ -0,0 +1,195 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A publisher of the records of a reader, header first. The records are read on the executor,
+ * only while the subscriber has an outstanding demand: there is no unbounded buffering and no
+ * thread blocked when the subscriber is slow. The reader is closed when the stream is
+ * complete, failed or cancelled.
+ * <p>
+ * A reader is read once: there is one subscriber at most. With text views, a record is only
+ * valid during the call to onNext.
+ */
+public class MetaCSVPublisher implements Flow.Publisher<MetaCSVRecord> {
+    private final MetaCSVReader reader;
+    private final Executor executor;
+    private final AtomicBoolean subscribed;
+
+    /**
+     * @param reader   the reader
+     * @param executor the executor that reads the records
+     */
+    public MetaCSVPublisher(MetaCSVReader reader, Executor executor) {
+        this.reader = reader;
+        this.executor = executor;
+        this.subscribed = new AtomicBoolean();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super MetaCSVRecord> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        if (!this.subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Already subscribed"));
+            return;
+        }
+        subscriber.onSubscribe(new RecordSubscription(subscriber));
+    }
+
+    private class RecordSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super MetaCSVRecord> subscriber;
+        private final AtomicLong demand;
+        private final AtomicInteger pendingRuns;
+        private volatile boolean cancelled;
+        private volatile Throwable requestError;
+        private boolean done;
+        private Iterator<MetaCSVRecord> iterator;
+
+        RecordSubscription(Flow.Subscriber<? super MetaCSVRecord> subscriber) {
+            this.subscriber = subscriber;
+            this.demand = new AtomicLong();
+            this.pendingRuns = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.requestError = new IllegalArgumentException("Non positive request: " + n);
+                this.schedule();
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = this.demand.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!this.demand.compareAndSet(current, next));
+            this.schedule();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.schedule();
+        }
+
+        private void schedule() {
+            if (this.pendingRuns.getAndIncrement() == 0) {
+                try {
+                    MetaCSVPublisher.this.executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // no run is active and pendingRuns stays positive: no run will ever start.
+                    if (this.cancelled) {
+                        this.done = true;
+                        this.closeReader();
+                    } else {
+                        this.fail(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Emit the records while there is a demand. The runs are serialized: a request during a
+         * run just adds a loop.
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                this.drain();
+                missed = this.pendingRuns.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (this.done) {
+                return;
+            }
+            if (this.requestError != null) {
+                this.fail(this.requestError);
+                return;
+            }
+            if (this.cancelled) {
+                this.done = true;
+                this.closeReader();
+                return;
+            }
+            try {
+                if (this.iterator == null) {
+                    this.iterator = MetaCSVPublisher.this.reader.iterator();
+                }
+                while (!this.cancelled && this.demand.get() > 0 && this.iterator.hasNext()) {
+                    MetaCSVRecord record = this.iterator.next();
+                    if (this.demand.get() != Long.MAX_VALUE) {
+                        this.demand.decrementAndGet();
+                    }
+                    this.subscriber.onNext(record);
+                }
+                if (this.cancelled) {
+                    this.done = true;
+                    this.closeReader();
+                } else if (!this.iterator.hasNext()) {
+                    this.done = true;
+                    MetaCSVPublisher.this.reader.close();
+                    this.subscriber.onComplete();
+                }
+            } catch (IOException e) {
+                this.fail(e);
+            } catch (RuntimeException e) {
+                this.fail(e);
+            }
+        }
+
+        private void fail(Throwable e) {
+            this.done = true;
+            this.closeReader();
+            this.subscriber.onError(e);
+        }
+
+        private void closeReader() {
+            try {
+                MetaCSVPublisher.this.reader.close();
+            } catch (IOException e) {
+                // ignore: the stream is already terminated
+            }
+        }
+    }
+}
@@ -28,6 +28,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 public class MetaCSVReader implements Iterable<MetaCSVRecord>, Closeable {
     public static MetaCSVReader create(File csvFile)
@@ -61,23 +64,177 @@ public class MetaCSVReader implements Iterable<MetaCSVRecord>, Closeable {
         return new MetaCSVReaderBuilder().csvIn(csvIn).metaData(data).build();
     }
 
+    /**
+     * Count the rows of a file without parsing the values (see {@link MetaCSVRowCounter}).
+     *
+     * @param csvFile the file, with its MetaCSV file
+     * @return the number of rows, header excluded.
+     */
+    public static long countRows(File csvFile)
+            throws IOException, MetaCSVParseException, MetaCSVDataException {
+        return new MetaCSVReaderBuilder().csvFile(csvFile)
+                .buildRowCounter(Runtime.getRuntime().availableProcessors()).countRows(csvFile);
+    }
+
     private final CSVParser parser;
+    private final CSVTokenizer tokenizer;
     private final CSVRecordProcessor processor;
     private MetaCSVMetaData metaData;
+    private ExecutorService typingExecutor;
+    private int typingBatchSize;
+    private int maxPendingBatches;
+    private boolean utf8BOM;
+    private ErrorSink errorSink;
 
     public MetaCSVReader(CSVParser parser, CSVRecordProcessor processor,
                          MetaCSVMetaData metaData) {
         this.parser = parser;
+        this.tokenizer = null;
+        this.processor = processor;
+        this.metaData = metaData;
+    }
+
+    /**
+     * A reader with text views: the records are only valid until the next record is read.
+     *
+     * @param tokenizer the tokenizer
+     * @param processor the record processor
+     * @param metaData  the metadata
+     */
+    public MetaCSVReader(CSVTokenizer tokenizer, CSVRecordProcessor processor,
+                         MetaCSVMetaData metaData) {
+        this.parser = null;
+        this.tokenizer = tokenizer;
         this.processor = processor;
         this.metaData = metaData;
     }
 
+    /**
+     * Pipelined typing: the values are decoded by the workers, in batches, and the records come
+     * back in order. The records are independent copies, even with text views.
+     *
+     * @param executor          the workers, shut down on close
+     * @param batchSize         the number of records of a batch
+     * @param maxPendingBatches the maximum number of batches submitted and not consumed
+     */
+    void setTypingExecutor(ExecutorService executor, int batchSize, int maxPendingBatches) {
+        this.typingExecutor = executor;
+        this.typingBatchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+    }
+
+    /**
+     * @param errorSink the sink of the rows that have errors. Those rows are not returned by
+     *                  the iterator.
+     */
+    void setErrorSink(ErrorSink errorSink) {
+        this.errorSink = errorSink;
+    }
+
+    /**
+     * @return the byte offset after the last record returned, or -1 if unknown.
+     */
+    long getRecordEndOffset() {
+        if (this.tokenizer == null || this.typingExecutor != null ||
+                !this.tokenizer.isCountingBytes()) {
+            return -1;
+        }
+        return this.tokenizer.getCheckpointByteOffset();
+    }
+
+    CSVRecordProcessor getProcessor() {
+        return this.processor;
+    }
+
+    void setUtf8BOM(boolean utf8BOM) {
+        this.utf8BOM = utf8BOM;
+    }
+
+    /**
+     * The checkpoints must be enabled (see {@link MetaCSVReaderBuilder#checkpoints(boolean)}).
+     *
+     * @return a checkpoint after the last record returned, header included.
+     * @throws IllegalStateException if the checkpoints are not enabled, if the typing is
+     *                               parallel or if the header was not read.
+     */
+    public MetaCSVCheckpoint getCheckpoint() {
+        if (this.tokenizer == null || this.typingExecutor != null) {
+            throw new IllegalStateException("Checkpoints are not enabled");
+        }
+        List<String> header = this.tokenizer.getHeader();
+        if (header == null) {
+            throw new IllegalStateException("Checkpoints are not enabled or header not read");
+        }
+        return new MetaCSVCheckpoint(this.tokenizer.getCheckpointByteOffset(),
+                this.tokenizer.getCheckpointRecordNumber(), header, this.utf8BOM);
+    }
+
     @Override
     public Iterator<MetaCSVRecord> iterator() {
+        if (this.errorSink != null) {
+            return new RejectingRecordsIterator(this.typedIterator(), this, this.errorSink);
+        }
+        return this.typedIterator();
+    }
+
+    private Iterator<MetaCSVRecord> typedIterator() {
+        if (this.typingExecutor != null) {
+            return new ParallelRecordsIterator(this.rawIterator(), this.processor,
+                    this.typingExecutor, this.typingBatchSize, this.maxPendingBatches);
+        }
+        if (this.tokenizer != null) {
+            return new CSVRecordsIterator(this.tokenizer, this.processor);
+        }
         return new CSVRecordsIterator(this.parser.iterator(), this.processor);
     }
 
+    /**
+     * Raw mode: iterate over the raw records, header included, without any processor. With
+     * text views (see {@link MetaCSVReaderBuilder#textViews(boolean)}), the record is reused
+     * and the values are views over the reader buffer.
+     * <p>
+     * Use either this iterator or the typed iterator, not both.
+     *
+     * @return the raw records
+     */
+    public Iterator<RawRecord> rawIterator() {
+        if (this.tokenizer != null) {
+            return this.tokenizer.iterator();
+        }
+        return CSVRecordRawRecord.wrap(this.parser.iterator());
+    }
+
+    /**
+     * Push the rows, header included, to a visitor. The values are decoded straight into the
+     * callbacks, without any record object.
+     *
+     * @param visitor the visitor
+     */
+    public void accept(RowVisitor visitor) {
+        Iterator<RawRecord> it = this.rawIterator();
+        if (!it.hasNext()) {
+            return;
+        }
+        new RowDispatcher(CSVRecordsIterator.HEADER_PROCESSOR, visitor).dispatch(0, it.next());
+        RowDispatcher dispatcher = new RowDispatcher(this.processor, visitor);
+        long row = 1;
+        while (it.hasNext()) {
+            dispatcher.dispatch(row++, it.next());
+        }
+    }
+
+    /**
+     * @param executor the executor that reads the records
+     * @return a publisher of the records (see {@link MetaCSVPublisher}).
+     */
+    public Flow.Publisher<MetaCSVRecord> toPublisher(Executor executor) {
+        return new MetaCSVPublisher(this, executor);
+    }
+
     public long getRow() {
+        if (this.tokenizer != null) {
+            return this.tokenizer.getRecordNumber() - 1;
+        }
         return this.parser.getRecordNumber() - 1;
     }
 
@@ -87,6 +244,13 @@ public class MetaCSVReader implements Iterable<MetaCSVRecord>, Closeable {
 
     @Override
     public void close() throws IOException {
+        if (this.typingExecutor != null) {
+            this.typingExecutor.shutdownNow();
+        }
+        if (this.tokenizer != null) {
+            this.tokenizer.close();
+            return;
+        }
         this.parser.close();
     }
 }
@@ -29,8 +29,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.util.Random;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
 
 public class MetaCSVReaderBuilder {
     private final MetaCSVParserBuilder parserBuilder;
@@ -39,11 +43,23 @@ public class MetaCSVReaderBuilder {
     private InputStream csvIn;
     private MetaCSVData data;
     private OnError onError;
+    private boolean textViews;
+    private boolean wideTable;
+    private int maxFieldSize;
+    private int spillThreshold;
+    private int typingThreads;
+    private int typingBatchSize;
+    private boolean checkpoints;
+    private MetaCSVCheckpoint resumeFrom;
+    private ErrorSink errorSink;
 
     public MetaCSVReaderBuilder() {
         this.parserBuilder = new MetaCSVParserBuilder();
         this.onError = OnError.WRAP;
         timeZone = Util.UTC_TIME_ZONE;
+        this.maxFieldSize = Integer.MAX_VALUE;
+        this.spillThreshold = Integer.MAX_VALUE;
+        this.typingBatchSize = 256;
     }
 
     public MetaCSVReaderBuilder csvFile(File csvFile) {
@@ -99,6 +115,107 @@ public class MetaCSVReaderBuilder {
         return this;
     }
 
+    /**
+     * @param textViews if true, the text values are views over the reader buffer, and the
+     *                  records are only valid until the next record is read.
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder textViews(boolean textViews) {
+        this.textViews = textViews;
+        return this;
+    }
+
+    /**
+     * @param wideTable if true, the fields are only split up to the highest accessed index.
+     *                  As with text views, the records are only valid until the next record
+     *                  is read.
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder wideTable(boolean wideTable) {
+        this.wideTable = wideTable;
+        return this;
+    }
+
+    /**
+     * @param maxFieldSize the maximum size of a field, in chars. A longer field is an error.
+     *                     As with text views, the records are only valid until the next
+     *                     record is read.
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder maxFieldSize(int maxFieldSize) {
+        this.maxFieldSize = maxFieldSize;
+        return this;
+    }
+
+    /**
+     * @param spillThreshold the size, in chars, above which a field is written to a temporary
+     *                       file (see {@link MetaCSVRecord#getCharacterStream(int)}). As with
+     *                       text views, the records are only valid until the next record is
+     *                       read. Ignored in wide table mode.
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder spillThreshold(int spillThreshold) {
+        this.spillThreshold = spillThreshold;
+        return this;
+    }
+
+    /**
+     * @param typingThreads if positive, the number of worker threads that decode the values
+     *                      while the current thread tokenizes the next records. The records
+     *                      come in the original order.
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder typingThreads(int typingThreads) {
+        this.typingThreads = typingThreads;
+        return this;
+    }
+
+    /**
+     * @param typingBatchSize the number of records handed to a worker at once (see
+     *                        {@link #typingThreads(int)}). Default is 256.
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder typingBatchSize(int typingBatchSize) {
+        this.typingBatchSize = typingBatchSize;
+        return this;
+    }
+
+    /**
+     * @param checkpoints if true, the reader counts the bytes and provides checkpoints (see
+     *                    {@link MetaCSVReader#getCheckpoint()}). The encoding must be UTF-8 or
+     *                    a single byte encoding.
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder checkpoints(boolean checkpoints) {
+        this.checkpoints = checkpoints;
+        return this;
+    }
+
+    /**
+     * Resume a read: the bytes before the checkpoint are skipped, not parsed. The first record
+     * is the header of the checkpoint. Implies {@link #checkpoints(boolean)}.
+     *
+     * @param checkpoint the checkpoint, taken on the same file
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder resumeFrom(MetaCSVCheckpoint checkpoint) {
+        this.resumeFrom = checkpoint;
+        this.checkpoints = true;
+        return this;
+    }
+
+    /**
+     * @param errorSink the sink of the rows that have at least one value that can't be decoded.
+     *                  Those rows are not returned by the iterator: they are sent to the
+     *                  sink, in raw form. The byte offsets are known if the checkpoints are
+     *                  enabled (see {@link #checkpoints(boolean)}).
+     * @return this for fluent style
+     */
+    public MetaCSVReaderBuilder errorSink(ErrorSink errorSink) {
+        this.errorSink = errorSink;
+        return this;
+    }
+
     public MetaCSVReader build()
             throws IOException, MetaCSVParseException, MetaCSVDataException, MetaCSVReadException {
         MetaCSVData data = getData();
@@ -117,18 +234,173 @@ public class MetaCSVReaderBuilder {
     }
 
     private MetaCSVReader create(InputStream csvIn, MetaCSVData data)
-            throws IOException, MetaCSVReadException {
-        if (data.isUtf8BOM()) {
+            throws IOException, MetaCSVReadException, MetaCSVDataException {
+        long byteOffset = 0;
+        if (this.resumeFrom != null) {
+            byteOffset = this.resumeFrom.getByteOffset();
+            skipBytes(csvIn, byteOffset);
+        } else if (data.isUtf8BOM()) {
             gobbleBOM(csvIn);
+            byteOffset = 3;
         }
-        InputStreamReader reader = new InputStreamReader(csvIn, data.getEncoding());
+        Reader reader = SingleByteCharsetReader.create(csvIn, data.getEncoding());
         CSVFormat format = CSVFormatHelper.getCSVFormat(data);
+        CSVRecordProcessor processor = this.createProcessor(data);
+        MetaCSVReader metaCSVReader;
+        if (this.checkpoints || this.textViews || this.wideTable ||
+                this.maxFieldSize != Integer.MAX_VALUE ||
+                this.spillThreshold != Integer.MAX_VALUE) {
+            CSVTokenizer tokenizer = new CSVTokenizer(reader, format, this.wideTable,
+                    this.maxFieldSize, this.spillThreshold);
+            if (this.checkpoints) {
+                try {
+                    tokenizer.countBytes(data.getEncoding(), byteOffset);
+                } catch (IllegalArgumentException e) {
+                    throw new MetaCSVDataException(
+                            "Can't checkpoint the encoding: " + data.getEncoding());
+                }
+                if (this.resumeFrom != null) {
+                    tokenizer.resume(this.resumeFrom.getHeader(),
+                            this.resumeFrom.getRecordNumber());
+                }
+            }
+            metaCSVReader = new MetaCSVReader(tokenizer, processor, data.getMetaData());
+            metaCSVReader.setUtf8BOM(data.isUtf8BOM());
+        } else {
+            metaCSVReader = new MetaCSVReader(format.parse(reader), processor, data.getMetaData());
+        }
+        if (this.errorSink != null) {
+            metaCSVReader.setErrorSink(this.errorSink);
+        }
+        if (this.typingThreads > 0) {
+            metaCSVReader.setTypingExecutor(
+                    ParallelRecordsIterator.createExecutor(this.typingThreads),
+                    this.typingBatchSize, 2 * this.typingThreads);
+        }
+        return metaCSVReader;
+    }
+
+    /**
+     * Build a non-blocking parser instead of a reader: the CSV bytes are pushed to the parser
+     * (the csv file and stream are ignored).
+     *
+     * @param handler the handler of the records
+     * @return the parser
+     * @throws MetaCSVDataException if the encoding is not ASCII-compatible.
+     */
+    public MetaCSVFeedParser buildFeedParser(RecordHandler handler)
+            throws IOException, MetaCSVParseException, MetaCSVDataException {
+        MetaCSVData data = this.getFeedableData();
+        return new MetaCSVFeedParser(CSVFormatHelper.getCSVFormat(data), data.getEncoding(),
+                data.isUtf8BOM(), this.createProcessor(data), handler);
+    }
+
+    /**
+     * Build a reader that doesn't own a thread (see {@link MetaCSVChannelReader}). The csv
+     * file is required.
+     *
+     * @param handler  the handler of the records
+     * @param executor the executor, shared by the readers
+     * @param pool     the pool of buffers, shared by the readers
+     * @return the reader, to start
+     * @throws MetaCSVDataException if the encoding is not ASCII-compatible.
+     */
+    public MetaCSVChannelReader buildChannelReader(RecordHandler handler, Executor executor,
+                                                   ByteBufferPool pool)
+            throws IOException, MetaCSVParseException, MetaCSVDataException {
+        MetaCSVFeedParser parser = this.buildFeedParser(handler);
+        FileChannel channel = new RandomAccessFile(this.csvFile, "r").getChannel();
+        return new MetaCSVChannelReader(channel, parser, executor, pool);
+    }
+
+    /**
+     * Build a tailer of the csv file (see {@link MetaCSVTailer}). The metadata is parsed once.
+     *
+     * @param handler the handler of the records
+     * @return the tailer
+     * @throws MetaCSVDataException if the encoding is not ASCII-compatible.
+     */
+    public MetaCSVTailer buildTailer(RecordHandler handler)
+            throws IOException, MetaCSVParseException, MetaCSVDataException {
+        MetaCSVData data = this.getFeedableData();
+        return new MetaCSVTailer(this.csvFile, CSVFormatHelper.getCSVFormat(data),
+                data.getEncoding(), data.isUtf8BOM(), this.createProcessor(data), handler);
+    }
+
+    /**
+     * Build a sampler of the csv file (see {@link MetaCSVSampler}). The csv file is required.
+     *
+     * @param random the random generator
+     * @return the sampler
+     * @throws MetaCSVDataException if the encoding is not ASCII-compatible.
+     */
+    public MetaCSVSampler buildSampler(Random random)
+            throws IOException, MetaCSVParseException, MetaCSVDataException {
+        MetaCSVData data = this.getFeedableData();
+        return new MetaCSVSampler(this.csvFile, CSVFormatHelper.getCSVFormat(data),
+                data.getEncoding(), data.isUtf8BOM(), this.createProcessor(data), random);
+    }
+
+    /**
+     * Build a row counter (see {@link MetaCSVRowCounter}).
+     *
+     * @param threads the number of threads
+     * @return the counter
+     * @throws MetaCSVDataException if the encoding is not ASCII-compatible.
+     */
+    public MetaCSVRowCounter buildRowCounter(int threads)
+            throws IOException, MetaCSVParseException, MetaCSVDataException {
+        MetaCSVData data = this.getFeedableData();
+        return new MetaCSVRowCounter(CSVFormatHelper.getCSVFormat(data), threads);
+    }
+
+    /**
+     * Build a validator of the csv file (see {@link MetaCSVValidator}). The csv file is
+     * required.
+     *
+     * @param threads       the number of worker threads
+     * @param maxViolations the maximum number of violations reported
+     * @return the validator
+     * @throws MetaCSVDataException if the encoding is not ASCII-compatible.
+     */
+    public MetaCSVValidator buildValidator(int threads, int maxViolations)
+            throws IOException, MetaCSVParseException, MetaCSVDataException {
+        MetaCSVData data = this.getFeedableData();
+        return new MetaCSVValidator(this.csvFile, CSVFormatHelper.getCSVFormat(data),
+                data.getEncoding(), data.isUtf8BOM(), this.createProcessor(data), threads,
+                maxViolations);
+    }
+
+    private MetaCSVData getFeedableData()
+            throws MetaCSVParseException, IOException, MetaCSVDataException {
+        MetaCSVData data = getData();
+        if (!StructuralScanner.isSupported(data.getEncoding())) {
+            throw new MetaCSVDataException(
+                    "Not an ASCII-compatible encoding: " + data.getEncoding());
+        }
+        return data;
+    }
+
+    private CSVRecordProcessor createProcessor(MetaCSVData data) {
         ProcessorProvider processorProvider = data.toProcessorProvider(data.getNullValue());
         ReadProcessorProvider readProcessorProvider =
                 data.toReadProcessorProvider(this.onError);
-        CSVRecordProcessor processor = new CSVRecordProcessor(
-                processorProvider, readProcessorProvider, this.onError, timeZone);
-        return new MetaCSVReader(format.parse(reader), processor, data.getMetaData());
+        return new CSVRecordProcessor(processorProvider, readProcessorProvider, timeZone);
+    }
+
+    private void skipBytes(InputStream csvIn, long count)
+            throws IOException, MetaCSVReadException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = csvIn.skip(remaining);
+            if (skipped <= 0) {
+                if (csvIn.read() == -1) {
+                    throw new MetaCSVReadException("Checkpoint after the end of file");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
     }
 
     private void gobbleBOM(InputStream csvIn) throws IOException, MetaCSVReadException {
@@ -20,40 +20,128 @@
 
 package com.github.jferard.javamcsv;
 
+import com.github.jferard.javamcsv.processor.DateFieldProcessor;
+import com.github.jferard.javamcsv.processor.FieldDecoder;
 import com.github.jferard.javamcsv.processor.FieldProcessor;
+import com.github.jferard.javamcsv.processor.FloatFieldProcessor;
+import com.github.jferard.javamcsv.processor.IntegerFieldProcessor;
 import com.github.jferard.javamcsv.processor.ProcessorProvider;
 import com.github.jferard.javamcsv.processor.ReadFieldProcessor;
 import com.github.jferard.javamcsv.processor.ReadProcessorProvider;
+import com.github.jferard.javamcsv.processor.TextFieldProcessor;
 import org.apache.commons.csv.CSVRecord;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Date;
-import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
 import static com.github.jferard.javamcsv.Util.UTC_TIME_ZONE;
 
 public class MetaCSVRecord implements Iterable<Object> {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
     private final int offset;
-    private CSVRecord record;
+    private RawRecord record;
     private ProcessorProvider provider;
     private ReadProcessorProvider readProvider;
-    private HashMap<Integer, ReadFieldProcessor<?>> processorByIndex;
+    private Object[] values;
+    private boolean hasErrors;
+
+    public MetaCSVRecord(CSVRecord record, ProcessorProvider provider,
+                         ReadProcessorProvider readProvider, TimeZone timeZone) {
+        this(new CSVRecordRawRecord(record), provider, readProvider,
+                UTC_TIME_ZONE.getRawOffset() - timeZone.getRawOffset());
+    }
 
+    public MetaCSVRecord(CSVRecord record, ProcessorProvider provider,
+                         ReadProcessorProvider readProvider, int offset) {
+        this(new CSVRecordRawRecord(record), provider, readProvider, offset);
+    }
+
+    /**
+     * @deprecated the map was ignored: use
+     * {@link #MetaCSVRecord(CSVRecord, ProcessorProvider, ReadProcessorProvider, TimeZone)}
+     */
+    @Deprecated
     public MetaCSVRecord(CSVRecord record, ProcessorProvider provider,
                          ReadProcessorProvider readProvider,
-                         HashMap<Integer, ReadFieldProcessor<?>> processorByIndex,
+                         Map<Integer, ReadFieldProcessor<?>> processorByIndex,
                          TimeZone timeZone) {
+        this(record, provider, readProvider, timeZone);
+    }
+
+    /**
+     * @deprecated the map was ignored: use
+     * {@link #MetaCSVRecord(CSVRecord, ProcessorProvider, ReadProcessorProvider, int)}
+     */
+    @Deprecated
+    public MetaCSVRecord(CSVRecord record, ProcessorProvider provider,
+                         ReadProcessorProvider readProvider,
+                         Map<Integer, ReadFieldProcessor<?>> processorByIndex,
+                         int offset) {
+        this(record, provider, readProvider, offset);
+    }
+
+    /**
+     * @param record           the record
+     * @param provider         the processor provider
+     * @param readProvider     the read processor provider
+     * @param offset           the offset between UTC and the time zone, in millis.
+     */
+    public MetaCSVRecord(RawRecord record, ProcessorProvider provider,
+                         ReadProcessorProvider readProvider, int offset) {
         this.record = record;
         this.provider = provider;
         this.readProvider = readProvider;
-        this.processorByIndex = processorByIndex;
-        this.offset = UTC_TIME_ZONE.getRawOffset() - timeZone.getRawOffset();
+        this.offset = offset;
+    }
+
+    /**
+     * Decode all the values now, e.g. in a worker thread (see
+     * {@link MetaCSVReaderBuilder#typingThreads(int)}): the accessors will return the decoded
+     * values, and throw the decoding errors. An invalid value is marked, the exception is
+     * created by the accessor.
+     */
+    public void decodeAll() {
+        int size = this.record.size();
+        Object[] values = new Object[size];
+        boolean hasErrors = false;
+        for (int c = 0; c < size; c++) {
+            Object value = this.provider.decode(c, this.record.get(c));
+            if (value == FieldDecoder.INVALID) {
+                hasErrors = true;
+            }
+            values[c] = value;
+        }
+        this.values = values;
+        this.hasErrors = hasErrors;
+    }
+
+    boolean isDecoded() {
+        return this.values != null;
+    }
+
+    /**
+     * @param c the column index
+     * @return true if the value can't be decoded. The record must be decoded.
+     */
+    boolean hasError(int c) {
+        return this.values[c] == FieldDecoder.INVALID;
+    }
+
+    boolean hasErrors() {
+        return this.hasErrors;
+    }
+
+    RawRecord getRawRecord() {
+        return this.record;
     }
 
     public Boolean getBoolean(int i) throws MetaCSVCastException, MetaCSVReadException {
@@ -73,30 +161,71 @@ public class MetaCSVRecord implements Iterable<Object> {
             return null;
         } else if (value instanceof Date) {
             Date date = (Date) value;
-            Calendar cal = GregorianCalendar.getInstance(UTC_TIME_ZONE);
-            cal.setTimeInMillis(date.getTime() + offset);
-            cal.set(Calendar.HOUR_OF_DAY, 0);
-            cal.set(Calendar.MINUTE, 0);
-            cal.set(Calendar.SECOND, 0);
-            cal.set(Calendar.MILLISECOND, 0);
-            return cal.getTime();
+            long epochMillis = date.getTime() + this.offset;
+            return new Date(epochMillis - Util.floorMod(epochMillis, DAY_MILLIS));
         } else {
             throw new MetaCSVCastException("Not a date: " + value);
         }
     }
 
+    /**
+     * An allocation-light version of getDate.
+     *
+     * @param i the column index
+     * @return the number of days since 1970-01-01
+     * @throws MetaCSVReadException if the value can't be parsed
+     * @throws NullPointerException if the value is null (see {@link #isNull(int)}).
+     */
+    public long getEpochDay(int i) throws MetaCSVReadException {
+        return Util.floorDiv(this.getEpochMillis(i), DAY_MILLIS);
+    }
+
     public Date getDatetime(int i) throws MetaCSVReadException {
         Object value = getValue(i);
         if (value == null) {
             return null;
         } else if (value instanceof Date) {
             Date date = (Date) value;
-            return new Date(date.getTime() + offset);
+            if (this.offset == 0) {
+                return date;
+            }
+            return new Date(date.getTime() + this.offset);
         } else {
             throw new MetaCSVCastException("Not a datetime: " + value);
         }
     }
 
+    /**
+     * An allocation-light version of getDatetime.
+     *
+     * @param i the column index
+     * @return the number of milliseconds since 1970-01-01T00:00:00
+     * @throws MetaCSVReadException if the value can't be parsed
+     * @throws NullPointerException if the value is null (see {@link #isNull(int)}).
+     */
+    public long getEpochMillis(int i) throws MetaCSVReadException {
+        FieldProcessor<?> processor = this.provider.getProcessor(i);
+        String text = this.record.get(i);
+        long epochMillis;
+        if (processor instanceof DateFieldProcessor && this.values == null) {
+            DateFieldProcessor dateProcessor = (DateFieldProcessor) processor;
+            if (dateProcessor.isNull(text)) {
+                throw new NullPointerException("Null value: " + i);
+            }
+            epochMillis = dateProcessor.toEpochMillis(text);
+        } else {
+            Object value = this.getValue(i);
+            if (value == null) {
+                throw new NullPointerException("Null value: " + i);
+            } else if (value instanceof Date) {
+                epochMillis = ((Date) value).getTime();
+            } else {
+                throw new MetaCSVCastException("Not a datetime: " + value);
+            }
+        }
+        return epochMillis + this.offset;
+    }
+
     public BigDecimal getDecimal(int i) throws MetaCSVReadException {
         Object value = getValue(i);
         if (value == null) {
@@ -130,7 +259,73 @@ public class MetaCSVRecord implements Iterable<Object> {
         }
     }
 
+    /**
+     * An allocation-light version of getInteger.
+     *
+     * @param i the column index
+     * @return the value
+     * @throws MetaCSVReadException if the value can't be parsed
+     * @throws NullPointerException if the value is null (see {@link #isNull(int)}).
+     */
+    public long getLong(int i) throws MetaCSVReadException {
+        FieldProcessor<?> processor = this.provider.getProcessor(i);
+        if (processor instanceof IntegerFieldProcessor) {
+            CharSequence text = this.record.getView(i);
+            if (this.isNullText(text)) {
+                throw new NullPointerException("Null value: " + i);
+            }
+            return ((IntegerFieldProcessor) processor).toLong(text);
+        }
+        return this.toNumber(i, processor.toObject(this.record.get(i))).longValue();
+    }
+
+    /**
+     * An allocation-light version of getFloat.
+     *
+     * @param i the column index
+     * @return the value
+     * @throws MetaCSVReadException if the value can't be parsed
+     * @throws NullPointerException if the value is null (see {@link #isNull(int)}).
+     */
+    public double getDouble(int i) throws MetaCSVReadException {
+        FieldProcessor<?> processor = this.provider.getProcessor(i);
+        if (processor instanceof FloatFieldProcessor) {
+            CharSequence text = this.record.getView(i);
+            if (this.isNullText(text)) {
+                throw new NullPointerException("Null value: " + i);
+            }
+            return ((FloatFieldProcessor) processor).toDouble(text);
+        }
+        return this.toNumber(i, processor.toObject(this.record.get(i))).doubleValue();
+    }
+
+    private Number toNumber(int i, Object value) throws MetaCSVCastException {
+        if (value == null) {
+            throw new NullPointerException("Null value: " + i);
+        } else if (value instanceof Number) {
+            return (Number) value;
+        } else {
+            throw new MetaCSVCastException("Not a number: " + value);
+        }
+    }
+
+    /**
+     * If the record was read with text views, the value is a view over the reader buffer
+     * that is only valid until the next record is read: use `toString()` to keep it.
+     *
+     * @param i the column index
+     * @return the text value
+     * @throws MetaCSVReadException if the value can't be parsed
+     */
     public CharSequence getText(int i) throws MetaCSVReadException {
+        FieldProcessor<?> processor = this.provider.getProcessor(i);
+        if (processor instanceof TextFieldProcessor) {
+            CharSequence text = this.record.getView(i);
+            if (isNullText(text)) {
+                return null;
+            }
+            return text;
+        }
         Object value = getValue(i);
         if (value == null) {
             return null;
@@ -141,6 +336,30 @@ public class MetaCSVRecord implements Iterable<Object> {
         }
     }
 
+    /**
+     * Stream a value. If the reader was built with a spill threshold, a huge text field is read
+     * from a temporary file.
+     *
+     * @param i the column index
+     * @return a reader on the value (the typed value for non text columns), or null
+     * @throws MetaCSVReadException if the value can't be read
+     */
+    public Reader getCharacterStream(int i) throws MetaCSVReadException {
+        FieldProcessor<?> processor = this.provider.getProcessor(i);
+        if (!(processor instanceof TextFieldProcessor)) {
+            Object value = getValue(i);
+            return value == null ? null : new StringReader(value.toString());
+        }
+        if (this.isNull(i)) {
+            return null;
+        }
+        try {
+            return this.record.getReader(i);
+        } catch (IOException e) {
+            throw new MetaCSVReadException(e);
+        }
+    }
+
     public Object getObject(int i) throws MetaCSVReadException {
         return getValue(i);
     }
@@ -149,7 +368,22 @@ public class MetaCSVRecord implements Iterable<Object> {
         return this.record.size();
     }
 
+    /**
+     * @param i the column index
+     * @return true if the value is the null value
+     */
+    public boolean isNull(int i) {
+        return this.isNullText(this.record.getView(i));
+    }
+
+    private boolean isNullText(CharSequence text) {
+        return text == null || Util.contentEquals(text, this.provider.getNullValue());
+    }
+
     private Object getValue(int i) throws MetaCSVReadException {
+        if (this.values != null && this.values[i] != FieldDecoder.INVALID) {
+            return this.values[i];
+        }
         FieldProcessor<?> processor = this.provider.getProcessor(i);
         String text = record.get(i);
         return processor.toObject(text);
@@ -159,6 +393,10 @@ public class MetaCSVRecord implements Iterable<Object> {
         int size = this.record.size();
         List<Object> ret = new ArrayList<Object>(size);
         for (int c = 0; c < size; c++) {
+            if (this.values != null && this.values[c] != FieldDecoder.INVALID) {
+                ret.add(this.values[c]);
+                continue;
+            }
             String text = record.get(c);
             ReadFieldProcessor<?> processor = this.readProvider.getProcessor(c);
             ret.add(processor.toObject(text));
@@ -173,6 +411,9 @@ public class MetaCSVRecord implements Iterable<Object> {
 
     @Override
     public Iterator<Object> iterator() {
+        if (this.values != null) {
+            return this.toList().iterator();
+        }
         return new CSVRecordIterator(this.record, this.readProvider);
     }
 }
@@ -0,0 +1,267 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Count the rows of a file without building the records: only the structural bytes are
+ * visited (see {@link StructuralScanner}), with the quotes and the escape char of the format.
+ * <p>
+ * A large file is split in chunks, at line breaks, that are counted in parallel. Since a line
+ * break may be inside a quoted field, every chunk is counted twice, speculatively: from a record
+ * start and from a quoted field. The chunks are then chained, and the end state of a chunk
+ * gives the start state of the next chunk.
+ * <p>
+ * The counts are cached, by file path, size, last modification time and format.
+ */
+public class MetaCSVRowCounter {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final long MIN_CHUNK_SIZE = 8 << 20;
+    private static final int CHUNKS_BY_THREAD = 4;
+    private static final int CACHE_SIZE = 64;
+    private static final int RECORD_START = 0;
+    private static final int QUOTED_FIELD = 1;
+    private static final int SIMPLE_FIELD = 2;
+
+    private static final Map<String, Long> CACHE =
+            new LinkedHashMap<String, Long>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                    return this.size() > CACHE_SIZE;
+                }
+            };
+
+    private final CSVFormat format;
+    private final int threads;
+    private final long minChunkSize;
+    private final ByteBufferPool pool;
+
+    /**
+     * @param format  the format
+     * @param threads the number of threads
+     * @throws IllegalArgumentException if a structural char is not ASCII or if the format has
+     *                                  a comment marker.
+     */
+    public MetaCSVRowCounter(CSVFormat format, int threads) {
+        this(format, threads, BUFFER_SIZE, MIN_CHUNK_SIZE);
+    }
+
+    MetaCSVRowCounter(CSVFormat format, int threads, int bufferSize, long minChunkSize) {
+        StructuralIndex.create(format); // fail fast
+        this.format = format;
+        this.threads = threads;
+        this.minChunkSize = minChunkSize;
+        this.pool = new ByteBufferPool(bufferSize, 2 * threads);
+    }
+
+    /**
+     * @param file the file
+     * @return the number of rows, header excluded.
+     * @throws IOException if the file can't be read
+     */
+    public long countRows(File file) throws IOException {
+        String key = file.getCanonicalPath() + "|" + file.length() + "|" + file.lastModified() +
+                "|" + this.format;
+        synchronized (CACHE) {
+            Long rows = CACHE.get(key);
+            if (rows != null) {
+                return rows;
+            }
+        }
+        long records = this.countRecords(file);
+        long rows = records == 0 ? 0 : records - 1;
+        synchronized (CACHE) {
+            CACHE.put(key, rows);
+        }
+        return rows;
+    }
+
+    private long countRecords(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            long[] bounds = this.split(channel);
+            if (bounds.length == 2) {
+                return this.count(channel, 0, bounds[1], RECORD_START, true).count;
+            }
+            ExecutorService executor =
+                    ParallelRecordsIterator.createExecutor(this.threads, "mcsv-count-");
+            try {
+                return this.countChunks(channel, bounds, executor);
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * @param channel the channel
+     * @return the bounds of the chunks: a chunk starts after a line break.
+     */
+    private long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunks = Math.min((long) CHUNKS_BY_THREAD * this.threads, size / this.minChunkSize);
+        List<Long> bounds = new ArrayList<Long>();
+        bounds.add(0L);
+        for (long i = 1; i < chunks; i++) {
+            long bound = this.nextLineStart(channel, size * i / chunks, size);
+            if (bound > bounds.get(bounds.size() - 1) && bound < size) {
+                bounds.add(bound);
+            }
+        }
+        bounds.add(size);
+        long[] ret = new long[bounds.size()];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = bounds.get(i);
+        }
+        return ret;
+    }
+
+    private long nextLineStart(FileChannel channel, long position, long size)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long p = position;
+        while (p < size) {
+            buffer.clear();
+            int count = channel.read(buffer, p);
+            if (count <= 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                if (buffer.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += count;
+        }
+        return size;
+    }
+
+    private long countChunks(FileChannel channel, long[] bounds, ExecutorService executor)
+            throws IOException {
+        int chunks = bounds.length - 1;
+        List<Future<ChunkCount>> fromRecordStart = new ArrayList<Future<ChunkCount>>(chunks);
+        List<Future<ChunkCount>> fromQuotedField = new ArrayList<Future<ChunkCount>>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            boolean last = i == chunks - 1;
+            fromRecordStart.add(executor.submit(
+                    this.countTask(channel, bounds[i], bounds[i + 1], RECORD_START, last)));
+            fromQuotedField.add(i == 0 ? null : executor.submit(
+                    this.countTask(channel, bounds[i], bounds[i + 1], QUOTED_FIELD, last)));
+        }
+        long total = 0;
+        int state = RECORD_START;
+        for (int i = 0; i < chunks; i++) {
+            ChunkCount chunkCount;
+            if (state == RECORD_START) {
+                chunkCount = this.get(fromRecordStart.get(i));
+            } else if (state == QUOTED_FIELD) {
+                chunkCount = this.get(fromQuotedField.get(i));
+            } else { // an escaped line break: rare, not speculated
+                chunkCount = this.count(channel, bounds[i], bounds[i + 1], state,
+                        i == chunks - 1);
+            }
+            total += chunkCount.count;
+            state = chunkCount.endState;
+        }
+        return total;
+    }
+
+    private ChunkCount get(Future<ChunkCount> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Count interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private Callable<ChunkCount> countTask(final FileChannel channel, final long start,
+                                           final long end, final int startState,
+                                           final boolean last) {
+        return new Callable<ChunkCount>() {
+            @Override
+            public ChunkCount call() throws IOException {
+                return MetaCSVRowCounter.this.count(channel, start, end, startState, last);
+            }
+        };
+    }
+
+    private ChunkCount count(FileChannel channel, long start, long end, int startState,
+                             boolean last) throws IOException {
+        ByteBuffer buffer = this.pool.acquire();
+        try {
+            StructuralScanner scanner =
+                    new StructuralScanner(channel, start, end, this.format, buffer);
+            if (startState != RECORD_START) {
+                scanner.startInField(startState == QUOTED_FIELD);
+            }
+            long count = scanner.countRecords(!last);
+            int endState;
+            if (scanner.isAtRecordStart()) {
+                endState = RECORD_START;
+            } else if (scanner.isInQuotedField()) {
+                endState = QUOTED_FIELD;
+            } else {
+                endState = SIMPLE_FIELD;
+            }
+            return new ChunkCount(count, endState);
+        } finally {
+            this.pool.release(buffer);
+        }
+    }
+
+    private static class ChunkCount {
+        private final long count;
+        private final int endState;
+
+        ChunkCount(long count, int endState) {
+            this.count = count;
+            this.endState = endState;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.processor.CSVRecordProcessor;
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Draw random rows of a file without reading the whole file: seek to a random byte offset, find
+ * the next record boundary and decode this record only.
+ * <p>
+ * The boundary is quote-safe: the bytes after the offset tell whether the offset is inside a
+ * quoted field (a quote between a delimiter and a non delimiter is an opening quote, a quote
+ * between a non delimiter and a delimiter is a closing quote), and the boundary is the first
+ * line break outside the quotes. The candidate is then checked by parsing a few records: they
+ * must have as many fields as the header.
+ * <p>
+ * The sample is approximately uniform: the probability of a row is proportional to the size of
+ * the previous row. The rows are distinct, and the rows that don't have as many fields as the
+ * header are never drawn. For non-seekable inputs, see
+ * {@link #reservoirSample(MetaCSVReader, int, Random)}.
+ */
+public class MetaCSVSampler {
+    private static final int WINDOW_SIZE = 65536;
+    private static final int VERIFIED_RECORDS = 3;
+    private static final int MAX_ATTEMPTS_FACTOR = 10;
+    private static final int OUTSIDE = 0;
+    private static final int INSIDE = 1;
+    private static final int UNKNOWN = 2;
+    private static final int NONE = -1;
+
+    /**
+     * Algorithm L: the n rows are drawn uniformly in one pass, and the number of rows to skip
+     * is drawn, so that the random generator is called O(n log(N/n)) times. The skipped rows
+     * are tokenized, but only the drawn rows are decoded.
+     *
+     * @param reader the reader. Header excluded, the rows are consumed.
+     * @param n      the size of the sample
+     * @param random the random generator
+     * @return at most n rows, in no particular order
+     */
+    public static List<MetaCSVRecord> reservoirSample(MetaCSVReader reader, int n,
+                                                      Random random) {
+        List<MetaCSVRecord> records = new ArrayList<MetaCSVRecord>();
+        Iterator<RawRecord> it = reader.rawIterator();
+        if (n <= 0 || !it.hasNext()) {
+            return records;
+        }
+        it.next(); // header
+        RawRecord[] reservoir = new RawRecord[n];
+        int count = 0;
+        while (count < n && it.hasNext()) {
+            reservoir[count++] = ArrayRawRecord.copyOf(it.next());
+        }
+        if (count == n) {
+            double w = Math.exp(Math.log(1 - random.nextDouble()) / n);
+            boolean more = true;
+            while (more) {
+                double skip = Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - w));
+                for (long i = 0; i < skip && more; i++) {
+                    more = it.hasNext();
+                    if (more) {
+                        it.next();
+                    }
+                }
+                more = more && it.hasNext();
+                if (more) {
+                    reservoir[random.nextInt(n)] = ArrayRawRecord.copyOf(it.next());
+                    w *= Math.exp(Math.log(1 - random.nextDouble()) / n);
+                }
+            }
+        }
+        CSVRecordProcessor processor = reader.getProcessor();
+        for (int i = 0; i < count; i++) {
+            records.add(processor.createRecord(reservoir[i]));
+        }
+        return records;
+    }
+
+    private final File file;
+    private final CSVFormat format;
+    private final Charset charset;
+    private final boolean utf8BOM;
+    private final CSVRecordProcessor processor;
+    private final Random random;
+    private final int quote;
+    private final int escape;
+    private final int delimiter;
+    private final byte[] window;
+
+    /**
+     * @param file      the file
+     * @param format    the format
+     * @param charset   the encoding: UTF-8 or a single byte ASCII-compatible encoding
+     * @param utf8BOM   true if the file starts with a BOM
+     * @param processor the record processor
+     * @param random    the random generator
+     */
+    public MetaCSVSampler(File file, CSVFormat format, Charset charset, boolean utf8BOM,
+                          CSVRecordProcessor processor, Random random) {
+        this.file = file;
+        this.format = format;
+        this.charset = charset;
+        this.utf8BOM = utf8BOM;
+        this.processor = processor;
+        this.random = random;
+        Character quote = format.getQuoteCharacter();
+        this.quote = quote == null ? NONE : StructuralIndex.toByte(quote);
+        Character escape = format.getEscapeCharacter();
+        this.escape = escape == null ? NONE : StructuralIndex.toByte(escape);
+        this.delimiter = StructuralIndex.toByte(format.getDelimiter());
+        // one more byte to see the end of a CRLF on the window boundary
+        this.window = new byte[WINDOW_SIZE + 1];
+    }
+
+    /**
+     * @param n the size of the sample
+     * @return at most n distinct rows, header excluded, in the order of the draws. The record
+     * numbers of the rows are unknown.
+     * @throws IOException          if the file can't be read
+     * @throws MetaCSVReadException if the header can't be read
+     */
+    public List<MetaCSVRecord> sample(int n) throws IOException, MetaCSVReadException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            long length = channel.size();
+            CSVTokenizer tokenizer = this.createTokenizer(channel, this.utf8BOM ? 3 : 0);
+            RawRecord header = tokenizer.nextRecord();
+            if (header == null) {
+                throw new MetaCSVReadException("Missing header");
+            }
+            int headerSize = header.size();
+            long dataStart = tokenizer.getCheckpointByteOffset();
+
+            List<MetaCSVRecord> records = new ArrayList<MetaCSVRecord>();
+            Set<Long> drawn = new HashSet<Long>();
+            int maxAttempts = MAX_ATTEMPTS_FACTOR * (n + 1);
+            for (int attempt = 0; records.size() < n && attempt < maxAttempts; attempt++) {
+                // dataStart - 1 is the end of the header: the first row may be drawn
+                long offset = dataStart - 1 +
+                        (long) (this.random.nextDouble() * (length - dataStart + 1));
+                RawRecord record = this.recordAfter(channel, offset, headerSize, drawn);
+                if (record != null) {
+                    records.add(this.processor.createRecord(record));
+                }
+            }
+            return records;
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private RawRecord recordAfter(FileChannel channel, long offset, int headerSize,
+                                  Set<Long> drawn) throws IOException {
+        int length = this.readWindow(channel, offset);
+        int state = this.inferState(length);
+        RawRecord record = this.recordAfter(channel, offset, length, state != INSIDE,
+                headerSize, drawn);
+        if (record == null && state == UNKNOWN) {
+            record = this.recordAfter(channel, offset, length, false, headerSize, drawn);
+        }
+        return record;
+    }
+
+    private RawRecord recordAfter(FileChannel channel, long offset, int length,
+                                  boolean outside, int headerSize, Set<Long> drawn)
+            throws IOException {
+        int start = this.findRecordStart(length, outside);
+        if (start == NONE) {
+            return null;
+        }
+        CSVTokenizer tokenizer = this.createTokenizer(channel, offset + start);
+        try {
+            RawRecord first = tokenizer.nextRecord();
+            if (first == null || first.size() != headerSize) {
+                return null;
+            }
+            RawRecord copy = ArrayRawRecord.copyOf(first);
+            long end = tokenizer.getCheckpointByteOffset();
+            for (int i = 1; i < VERIFIED_RECORDS; i++) {
+                RawRecord next = tokenizer.nextRecord();
+                if (next == null) {
+                    break;
+                }
+                if (next.size() != headerSize) {
+                    return null;
+                }
+            }
+            if (!drawn.add(end)) {
+                return null;
+            }
+            return copy;
+        } catch (IOException e) {
+            // not a record boundary
+            return null;
+        }
+    }
+
+    private int readWindow(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(this.window);
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, offset + buffer.position());
+            if (count <= 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    /**
+     * @param length the length of the window
+     * @return the state at the start of the window, given by the first quote that is clearly
+     * an opening or a closing quote.
+     */
+    private int inferState(int length) {
+        int quotes = 0;
+        for (int i = 0; i < length; i++) {
+            int b = this.window[i] & 0xFF;
+            if (b == this.escape) {
+                i++;
+            } else if (b == this.quote) {
+                if (i + 1 < length && (this.window[i + 1] & 0xFF) == this.quote) {
+                    i++; // an escaped quote or an empty field: no change
+                    continue;
+                }
+                if (i > 0 && i + 1 < length) {
+                    boolean afterSeparator = this.isSeparator(this.window[i - 1]);
+                    boolean beforeSeparator = this.isSeparator(this.window[i + 1]);
+                    if (afterSeparator != beforeSeparator) {
+                        boolean evenQuotes = quotes % 2 == 0;
+                        return afterSeparator == evenQuotes ? OUTSIDE : INSIDE;
+                    }
+                }
+                quotes++;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private boolean isSeparator(byte b) {
+        return b == this.delimiter || b == '\r' || b == '\n';
+    }
+
+    /**
+     * @param length  the length of the window, with the byte that follows
+     * @param outside the state at the start of the window
+     * @return the index of the first record start of the window, or NONE. The index may be the
+     * length of the window if the newline is the last byte.
+     */
+    private int findRecordStart(int length, boolean outside) {
+        boolean inside = !outside;
+        int limit = Math.min(length, WINDOW_SIZE);
+        for (int i = 0; i < limit; i++) {
+            int b = this.window[i] & 0xFF;
+            if (b == this.escape) {
+                i++;
+            } else if (b == this.quote) {
+                inside = !inside;
+            } else if (!inside && (b == '\n' || b == '\r')) {
+                if (b == '\r' && i + 1 < length && this.window[i + 1] == '\n') {
+                    i++;
+                }
+                return i + 1;
+            }
+        }
+        return NONE;
+    }
+
+    private CSVTokenizer createTokenizer(FileChannel channel, long position)
+            throws IOException {
+        // the stream is not closed: it would close the channel
+        Reader reader = SingleByteCharsetReader
+                .create(Channels.newInputStream(channel.position(position)), this.charset);
+        CSVTokenizer tokenizer = new CSVTokenizer(reader, this.format, false);
+        tokenizer.countBytes(this.charset, position);
+        return tokenizer;
+    }
+}
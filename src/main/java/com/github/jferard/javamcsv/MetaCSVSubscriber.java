@@ -0,0 +1,133 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A subscriber that writes the rows to a writer: the first row is the header. A row is any
+ * iterable, e.g. a list or a {@link MetaCSVRecord} of a {@link MetaCSVPublisher}. The rows are
+ * requested by batches, so that the publisher never has to buffer more than a batch. The
+ * writer is closed when the stream is complete or failed.
+ */
+public class MetaCSVSubscriber implements Flow.Subscriber<Iterable<?>> {
+    private final MetaCSVWriter writer;
+    private final int batchSize;
+    private final CountDownLatch terminated;
+    private Flow.Subscription subscription;
+    private int received;
+    private boolean first;
+    private volatile Throwable error;
+
+    /**
+     * @param writer    the writer
+     * @param batchSize the number of rows requested at once
+     */
+    public MetaCSVSubscriber(MetaCSVWriter writer, int batchSize) {
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.terminated = new CountDownLatch(1);
+        this.first = true;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(this.batchSize);
+    }
+
+    @Override
+    public void onNext(Iterable<?> row) {
+        if (this.error != null) {
+            return;
+        }
+        try {
+            if (this.first) {
+                this.first = false;
+                List<String> header = new ArrayList<String>();
+                for (Object name : row) {
+                    header.add(String.valueOf(name));
+                }
+                this.writer.writeHeader(header);
+            } else {
+                this.writer.startRow();
+                for (Object value : row) {
+                    this.writer.writeValue(value);
+                }
+                this.writer.endRow();
+            }
+        } catch (IOException e) {
+            this.subscription.cancel();
+            this.onError(e);
+            return;
+        }
+        if (++this.received == this.batchSize) {
+            this.received = 0;
+            this.subscription.request(this.batchSize);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.error = throwable;
+        this.closeWriter();
+        this.terminated.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        this.closeWriter();
+        this.terminated.countDown();
+    }
+
+    /**
+     * Wait for the end of the stream.
+     *
+     * @throws IOException          if the stream failed
+     * @throws InterruptedException if the current thread was interrupted
+     */
+    public void await() throws IOException, InterruptedException {
+        this.terminated.await();
+        Throwable error = this.error;
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error != null) {
+            throw new IOException(error);
+        }
+    }
+
+    private void closeWriter() {
+        try {
+            this.writer.close();
+        } catch (IOException e) {
+            if (this.error == null) {
+                this.error = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.processor.CSVRecordProcessor;
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Follow a file that another process appends to, like tail -F. Every poll reads the bytes
+ * appended since the last poll and pushes them to a {@link MetaCSVFeedParser}: the file is never
+ * rescanned, and a partial last line stays in the parser until it is complete.
+ * <p>
+ * If the file was truncated or rotated (shorter file, different first bytes, or different bytes
+ * just before the current position), the tailer starts again from the beginning of the new file:
+ * the handler receives the header again. Checking the bytes before the position detects a
+ * rotated file that starts with the same header and is already longer. A missing file (during a
+ * rotation) is just polled again.
+ */
+public class MetaCSVTailer implements Closeable {
+    private static final int BUFFER_SIZE = 65536;
+    private static final int CHECK_SIZE = 64;
+
+    private final File file;
+    private final CSVFormat format;
+    private final Charset charset;
+    private final boolean utf8BOM;
+    private final CSVRecordProcessor processor;
+    private final RecordHandler handler;
+    private final ByteBuffer buffer;
+    private final byte[] prefix;
+    private int prefixLength;
+    private final byte[] tail;
+    private int tailLength;
+    private MetaCSVFeedParser parser;
+    private long position;
+    private volatile boolean closed;
+
+    /**
+     * @param file      the file
+     * @param format    the format
+     * @param charset   the encoding
+     * @param utf8BOM   true if the file starts with a BOM
+     * @param processor the record processor
+     * @param handler   the handler
+     */
+    public MetaCSVTailer(File file, CSVFormat format, Charset charset, boolean utf8BOM,
+                         CSVRecordProcessor processor, RecordHandler handler) {
+        this.file = file;
+        this.format = format;
+        this.charset = charset;
+        this.utf8BOM = utf8BOM;
+        this.processor = processor;
+        this.handler = handler;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.prefix = new byte[CHECK_SIZE];
+        this.tail = new byte[CHECK_SIZE];
+        this.reset();
+    }
+
+    /**
+     * Read the bytes appended since the last poll.
+     *
+     * @return true if some bytes were read
+     * @throws IOException          if the file can't be read
+     * @throws MetaCSVReadException if a record can't be parsed or if the handler throws.
+     */
+    public boolean poll() throws IOException, MetaCSVReadException {
+        RandomAccessFile randomAccessFile;
+        try {
+            randomAccessFile = new RandomAccessFile(this.file, "r");
+        } catch (FileNotFoundException e) {
+            return false;
+        }
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            long size = channel.size();
+            if (size < this.position || !this.hasSameBytes(channel)) {
+                this.reset();
+            }
+            boolean read = false;
+            while (this.position < size) {
+                this.buffer.clear();
+                int count = channel.read(this.buffer, this.position);
+                if (count <= 0) {
+                    break;
+                }
+                this.buffer.flip();
+                this.storePrefix();
+                this.storeTail();
+                this.position += count;
+                this.parser.feed(this.buffer);
+                read = true;
+            }
+            return read;
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Poll until the tailer is closed.
+     *
+     * @param pollMillis the delay between two polls that did not read anything
+     * @throws IOException          if the file can't be read
+     * @throws MetaCSVReadException if a record can't be parsed or if the handler throws.
+     * @throws InterruptedException if the current thread was interrupted
+     */
+    public void follow(long pollMillis)
+            throws IOException, MetaCSVReadException, InterruptedException {
+        while (!this.closed) {
+            if (!this.poll()) {
+                Thread.sleep(pollMillis);
+            }
+        }
+    }
+
+    /**
+     * Stop following. The partial last line, if any, is not emitted.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+    }
+
+    private void reset() {
+        this.parser = new MetaCSVFeedParser(this.format, this.charset, this.utf8BOM,
+                this.processor, this.handler);
+        this.position = 0;
+        this.prefixLength = 0;
+        this.tailLength = 0;
+    }
+
+    private boolean hasSameBytes(FileChannel channel) throws IOException {
+        return this.hasBytes(channel, 0, this.prefix, this.prefixLength) &&
+                this.hasBytes(channel, this.position - this.tailLength, this.tail,
+                        this.tailLength);
+    }
+
+    private boolean hasBytes(FileChannel channel, long offset, byte[] bytes, int length)
+            throws IOException {
+        if (length == 0) {
+            return true;
+        }
+        ByteBuffer current = ByteBuffer.allocate(length);
+        while (current.hasRemaining()) {
+            if (channel.read(current, offset + current.position()) <= 0) {
+                return false;
+            }
+        }
+        current.flip();
+        return current.equals(ByteBuffer.wrap(bytes, 0, length));
+    }
+
+    private void storePrefix() {
+        if (this.position >= CHECK_SIZE) {
+            return;
+        }
+        int count = (int) Math.min(CHECK_SIZE - this.position, this.buffer.remaining());
+        this.buffer.duplicate().get(this.prefix, (int) this.position, count);
+        this.prefixLength = (int) this.position + count;
+    }
+
+    private void storeTail() {
+        int count = Math.min(CHECK_SIZE, this.buffer.remaining());
+        int kept = Math.min(this.tailLength, CHECK_SIZE - count);
+        System.arraycopy(this.tail, this.tailLength - kept, this.tail, 0, kept);
+        ByteBuffer last = this.buffer.duplicate();
+        last.position(last.limit() - count);
+        last.get(this.tail, kept, count);
+        this.tailLength = kept + count;
+    }
+}
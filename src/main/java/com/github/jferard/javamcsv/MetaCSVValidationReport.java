@@ -0,0 +1,174 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a validation (see {@link MetaCSVValidator}): counts, and the first violations,
+ * in file order.
+ */
+public class MetaCSVValidationReport {
+    public enum ViolationType {
+        /**
+         * A value that doesn't match the description of the column.
+         */
+        VALUE,
+        /**
+         * A row that doesn't have as many fields as the header.
+         */
+        COLUMN_COUNT,
+        /**
+         * A row that can't be parsed (e.g. a char between a closing quote and a delimiter). The
+         * next rows of the batch are not checked.
+         */
+        PARSE
+    }
+
+    /**
+     * A violation: a position, not a value.
+     */
+    public static class Violation {
+        private final ViolationType type;
+        private final long row;
+        private final long byteOffset;
+        private final int column;
+
+        /**
+         * @param type       the type
+         * @param row        the row (the header is row 0)
+         * @param byteOffset the offset of the row in the file
+         * @param column     the column, or -1 if the violation is not a value violation
+         */
+        public Violation(ViolationType type, long row, long byteOffset, int column) {
+            this.type = type;
+            this.row = row;
+            this.byteOffset = byteOffset;
+            this.column = column;
+        }
+
+        public ViolationType getType() {
+            return this.type;
+        }
+
+        public long getRow() {
+            return this.row;
+        }
+
+        public long getByteOffset() {
+            return this.byteOffset;
+        }
+
+        public int getColumn() {
+            return this.column;
+        }
+
+        @Override
+        public String toString() {
+            return "Violation [type=" + this.type + ", row=" + this.row + ", byteOffset=" +
+                    this.byteOffset + ", column=" + this.column + "]";
+        }
+    }
+
+    private final long rowCount;
+    private final long[] valueErrorCounts;
+    private final long columnCountErrorCount;
+    private final long parseErrorCount;
+    private final List<Violation> violations;
+
+    /**
+     * @param rowCount              the number of rows, header excluded
+     * @param valueErrorCounts      the number of value errors, by column
+     * @param columnCountErrorCount the number of rows with a wrong number of fields
+     * @param parseErrorCount       the number of parse errors
+     * @param violations            the first violations
+     */
+    public MetaCSVValidationReport(long rowCount, long[] valueErrorCounts,
+                                   long columnCountErrorCount, long parseErrorCount,
+                                   List<Violation> violations) {
+        this.rowCount = rowCount;
+        this.valueErrorCounts = valueErrorCounts;
+        this.columnCountErrorCount = columnCountErrorCount;
+        this.parseErrorCount = parseErrorCount;
+        this.violations = Collections.unmodifiableList(violations);
+    }
+
+    /**
+     * @return true if there is no violation
+     */
+    public boolean isValid() {
+        if (this.columnCountErrorCount > 0 || this.parseErrorCount > 0) {
+            return false;
+        }
+        for (long count : this.valueErrorCounts) {
+            if (count > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * @param column the column index
+     * @return the number of values of this column that don't match the description
+     */
+    public long getValueErrorCount(int column) {
+        if (column < this.valueErrorCounts.length) {
+            return this.valueErrorCounts[column];
+        }
+        return 0;
+    }
+
+    public long getColumnCountErrorCount() {
+        return this.columnCountErrorCount;
+    }
+
+    public long getParseErrorCount() {
+        return this.parseErrorCount;
+    }
+
+    /**
+     * @return the first violations, in file order
+     */
+    public List<Violation> getViolations() {
+        return this.violations;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("MetaCSVValidationReport [rowCount=")
+                .append(this.rowCount).append(", valueErrorCounts=[");
+        for (int c = 0; c < this.valueErrorCounts.length; c++) {
+            if (c > 0) {
+                sb.append(", ");
+            }
+            sb.append(this.valueErrorCounts[c]);
+        }
+        return sb.append("], columnCountErrorCount=").append(this.columnCountErrorCount)
+                .append(", parseErrorCount=").append(this.parseErrorCount)
+                .append(", violations=").append(this.violations).append("]").toString();
+    }
+}
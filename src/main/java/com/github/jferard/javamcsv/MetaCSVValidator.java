@@ -0,0 +1,354 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.processor.CSVRecordProcessor;
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Check every cell of a file against the descriptions of the columns, without keeping any typed
+ * value or {@link ReadError}.
+ * <p>
+ * The current thread finds the record boundaries with a {@link StructuralScanner} and hands
+ * batches of records (byte ranges) to the workers. A worker decodes and tokenizes its batch,
+ * checks the number of fields and pushes the values to a {@link RowDispatcher}: a value that
+ * can't be decoded is counted, and its position is kept if it is one of the first violations.
+ */
+public class MetaCSVValidator {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int BATCH_SIZE = 4096;
+    private static final int MAX_BATCH_BYTES = 1 << 20;
+
+    private final File file;
+    private final CSVFormat format;
+    private final Charset charset;
+    private final boolean utf8BOM;
+    private final CSVRecordProcessor processor;
+    private final int threads;
+    private final int maxViolations;
+
+    /**
+     * @param file          the file
+     * @param format        the format
+     * @param charset       the encoding, ASCII-compatible
+     * @param utf8BOM       true if the file starts with a BOM
+     * @param processor     the record processor
+     * @param threads       the number of worker threads. If less than 2, the current thread
+     *                      does the whole job.
+     * @param maxViolations the maximum number of violations reported
+     */
+    public MetaCSVValidator(File file, CSVFormat format, Charset charset, boolean utf8BOM,
+                            CSVRecordProcessor processor, int threads, int maxViolations) {
+        this.file = file;
+        this.format = format;
+        this.charset = charset;
+        this.utf8BOM = utf8BOM;
+        this.processor = processor;
+        this.threads = threads;
+        this.maxViolations = maxViolations;
+    }
+
+    /**
+     * @return the report
+     * @throws IOException if the file can't be read
+     */
+    public MetaCSVValidationReport validate() throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "r");
+        ExecutorService executor = null;
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            StructuralScanner scanner = new StructuralScanner(channel, this.utf8BOM ? 3 : 0,
+                    channel.size(), this.format, ByteBuffer.allocateDirect(BUFFER_SIZE));
+            Counts total = new Counts(this.maxViolations);
+            if (!scanner.nextRecord()) {
+                return total.toReport();
+            }
+            int headerSize = scanner.getFieldCount();
+            if (this.threads > 1) {
+                executor = ParallelRecordsIterator.createExecutor(this.threads,
+                        "mcsv-validation-");
+            }
+            Queue<Future<Counts>> pending = new LinkedList<Future<Counts>>();
+            long row = 1;
+            boolean more = scanner.nextRecord();
+            while (more) {
+                long[] starts = new long[BATCH_SIZE];
+                int count = 0;
+                long batchStart = scanner.getRecordStart();
+                long batchEnd;
+                do {
+                    starts[count++] = scanner.getRecordStart();
+                    batchEnd = scanner.getRecordEnd();
+                    more = scanner.nextRecord();
+                } while (more && count < BATCH_SIZE &&
+                        scanner.getRecordEnd() - batchStart <= MAX_BATCH_BYTES);
+                Callable<Counts> task = new BatchTask(channel, batchStart, batchEnd, starts,
+                        count, row, headerSize);
+                row += count;
+                if (executor == null) {
+                    total.add(this.call(task));
+                } else {
+                    if (pending.size() >= 2 * this.threads) {
+                        total.add(this.get(pending.remove()));
+                    }
+                    pending.add(executor.submit(task));
+                }
+            }
+            while (!pending.isEmpty()) {
+                total.add(this.get(pending.remove()));
+            }
+            return total.toReport();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            randomAccessFile.close();
+        }
+    }
+
+    private Counts call(Callable<Counts> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Counts get(Future<Counts> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Validation interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Validate a batch of records.
+     */
+    private class BatchTask implements Callable<Counts> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final long[] recordStarts;
+        private final int recordCount;
+        private final long firstRow;
+        private final int headerSize;
+
+        BatchTask(FileChannel channel, long start, long end, long[] recordStarts,
+                  int recordCount, long firstRow, int headerSize) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.recordStarts = recordStarts;
+            this.recordCount = recordCount;
+            this.firstRow = firstRow;
+            this.headerSize = headerSize;
+        }
+
+        @Override
+        public Counts call() throws IOException {
+            ByteBuffer bytes = ByteBuffer.allocate((int) (this.end - this.start));
+            while (bytes.hasRemaining()) {
+                if (this.channel.read(bytes, this.start + bytes.position()) == -1) {
+                    break;
+                }
+            }
+            int length = bytes.position();
+            CSVTokenizer tokenizer = this.createTokenizer(bytes.array(), 0, length);
+            Counts counts = new Counts(MetaCSVValidator.this.maxViolations);
+            RowDispatcher dispatcher = new RowDispatcher(MetaCSVValidator.this.processor, counts);
+            for (int i = 0; i < this.recordCount; i++) {
+                long row = this.firstRow + i;
+                counts.byteOffset = this.recordStarts[i];
+                RawRecord record;
+                try {
+                    record = tokenizer.nextRecord();
+                } catch (IOException e) {
+                    counts.parseErrorCount++;
+                    counts.addViolation(MetaCSVValidationReport.ViolationType.PARSE, row, -1);
+                    if (i + 1 == this.recordCount) {
+                        break;
+                    }
+                    // the scanner knows where the next record starts
+                    int offset = (int) (this.recordStarts[i + 1] - this.start);
+                    tokenizer = this.createTokenizer(bytes.array(), offset, length - offset);
+                    continue;
+                }
+                if (record == null) {
+                    break;
+                }
+                counts.rowCount++;
+                if (record.size() != this.headerSize) {
+                    counts.columnCountErrorCount++;
+                    counts.addViolation(MetaCSVValidationReport.ViolationType.COLUMN_COUNT, row,
+                            -1);
+                }
+                dispatcher.dispatch(row, record);
+            }
+            return counts;
+        }
+
+        private CSVTokenizer createTokenizer(byte[] bytes, int offset, int length) {
+            return new CSVTokenizer(SingleByteCharsetReader.create(
+                    new ByteArrayInputStream(bytes, offset, length),
+                    MetaCSVValidator.this.charset), MetaCSVValidator.this.format, false);
+        }
+    }
+
+    /**
+     * The counts of a batch, or of the file. Only the errors are handled.
+     */
+    private static class Counts implements RowVisitor {
+        private final int maxViolations;
+        private final List<MetaCSVValidationReport.Violation> violations;
+        private long rowCount;
+        private long[] valueErrorCounts;
+        private long columnCountErrorCount;
+        private long parseErrorCount;
+        private long row;
+        private long byteOffset;
+
+        Counts(int maxViolations) {
+            this.maxViolations = maxViolations;
+            this.violations = new ArrayList<MetaCSVValidationReport.Violation>();
+            this.valueErrorCounts = new long[0];
+        }
+
+        @Override
+        public void startRow(long row) {
+            this.row = row;
+        }
+
+        @Override
+        public void onLong(int col, long value) {
+            // valid
+        }
+
+        @Override
+        public void onDouble(int col, double value) {
+            // valid
+        }
+
+        @Override
+        public void onBoolean(int col, boolean value) {
+            // valid
+        }
+
+        @Override
+        public void onEpochMillis(int col, long epochMillis) {
+            // valid
+        }
+
+        @Override
+        public void onText(int col, char[] chars, int offset, int length) {
+            // valid
+        }
+
+        @Override
+        public void onObject(int col, Object value) {
+            // valid
+        }
+
+        @Override
+        public void onNull(int col) {
+            // valid
+        }
+
+        @Override
+        public void onError(int col, CharSequence raw) {
+            this.ensureColumns(col + 1);
+            this.valueErrorCounts[col]++;
+            this.addViolation(MetaCSVValidationReport.ViolationType.VALUE, this.row, col);
+        }
+
+        @Override
+        public void endRow() {
+            // nothing to do
+        }
+
+        private void addViolation(MetaCSVValidationReport.ViolationType type, long row,
+                                  int col) {
+            if (this.violations.size() < this.maxViolations) {
+                this.violations.add(
+                        new MetaCSVValidationReport.Violation(type, row, this.byteOffset, col));
+            }
+        }
+
+        private void ensureColumns(int size) {
+            if (size > this.valueErrorCounts.length) {
+                long[] newCounts = new long[size];
+                System.arraycopy(this.valueErrorCounts, 0, newCounts, 0,
+                        this.valueErrorCounts.length);
+                this.valueErrorCounts = newCounts;
+            }
+        }
+
+        /**
+         * @param other the counts of the next batch
+         */
+        void add(Counts other) {
+            this.rowCount += other.rowCount;
+            this.ensureColumns(other.valueErrorCounts.length);
+            for (int c = 0; c < other.valueErrorCounts.length; c++) {
+                this.valueErrorCounts[c] += other.valueErrorCounts[c];
+            }
+            this.columnCountErrorCount += other.columnCountErrorCount;
+            this.parseErrorCount += other.parseErrorCount;
+            for (MetaCSVValidationReport.Violation violation : other.violations) {
+                if (this.violations.size() >= this.maxViolations) {
+                    break;
+                }
+                this.violations.add(violation);
+            }
+        }
+
+        MetaCSVValidationReport toReport() {
+            return new MetaCSVValidationReport(this.rowCount, this.valueErrorCounts,
+                    this.columnCountErrorCount, this.parseErrorCount, this.violations);
+        }
+    }
+}
@@ -20,7 +20,12 @@
 
 package com.github.jferard.javamcsv;
 
-import com.github.jferard.javamcsv.processor.WriteFieldProcessor;
+import com.github.jferard.javamcsv.processor.DateFieldProcessor;
+import com.github.jferard.javamcsv.processor.DecimalFieldProcessor;
+import com.github.jferard.javamcsv.processor.FieldProcessor;
+import com.github.jferard.javamcsv.processor.FloatFieldProcessor;
+import com.github.jferard.javamcsv.processor.IntegerFieldProcessor;
+import com.github.jferard.javamcsv.processor.TextFieldProcessor;
 import com.github.jferard.javamcsv.processor.WriteProcessorProvider;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
@@ -31,10 +36,13 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.util.ArrayList;
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.List;
 
 public class MetaCSVWriter implements Closeable {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
     public static MetaCSVWriter create(File csvFile, MetaCSVData data) throws IOException {
         return new MetaCSVWriterBuilder().csvFile(csvFile).metaData(data).build();
     }
@@ -54,29 +62,202 @@ public class MetaCSVWriter implements Closeable {
     }
 
     private final WriteProcessorProvider writeProvider;
-    private final CSVPrinter printer;
+    private final RowPrinter printer;
+    private final StringBuilder row;
+    private int[] fieldEnds;
+    private int col;
+    private boolean inRow;
 
     protected MetaCSVWriter(CSVPrinter printer, WriteProcessorProvider writeProvider) {
+        this(new CSVPrinterRowPrinter(printer), writeProvider);
+    }
+
+    MetaCSVWriter(RowPrinter printer, WriteProcessorProvider writeProvider) {
         this.printer = printer;
         this.writeProvider = writeProvider;
+        this.row = new StringBuilder();
+        this.fieldEnds = new int[16];
     }
 
     public void close() throws IOException {
         this.printer.close();
     }
 
+    /**
+     * Write the pending bytes.
+     *
+     * @throws IOException if the bytes can't be written
+     */
+    public void flush() throws IOException {
+        this.printer.flush();
+    }
+
     public void writeHeader(List<String> header) throws IOException {
         printer.printRecord(header);
     }
 
+    /**
+     * Write a row. Each value is appended by the precompiled processor of its column into a
+     * reusable row buffer, that is passed to the printer: no String is created per value.
+     * If a value can't be converted, nothing is written.
+     *
+     * @param values the values
+     * @throws IOException if the row can't be written
+     */
     public void writeRow(List<Object> values) throws IOException {
-        List<String> formattedValues = new ArrayList<String>(values.size());
-        for (int i = 0; i < values.size(); i++) {
-            Object value = values.get(i);
-            WriteFieldProcessor processor = writeProvider.getProcessor(i);
-            String formattedValue = processor.toString(value);
-            formattedValues.add(formattedValue);
+        this.startRow();
+        int size = values.size();
+        for (int i = 0; i < size; i++) {
+            this.writeValue(values.get(i));
+        }
+        this.endRow();
+    }
+
+    /**
+     * Start a row that will be written cell by cell with the writeXXX methods, then
+     * {@link #endRow()}. The primitive values are formatted without boxing when the type of
+     * the column matches; otherwise they are boxed and converted like in
+     * {@link #writeRow(List)}. If a value can't be converted, the row is dropped.
+     */
+    public void startRow() {
+        if (this.inRow) {
+            throw new IllegalStateException("Row already started");
+        }
+        this.inRow = true;
+        this.row.setLength(0);
+        this.col = 0;
+    }
+
+    public void writeValue(Object value) {
+        this.checkInRow();
+        try {
+            this.writeProvider.getProcessor(this.col).appendTo(this.row, value);
+        } catch (RuntimeException e) {
+            this.inRow = false;
+            throw e;
+        }
+        this.endCell();
+    }
+
+    public void writeLong(long value) {
+        FieldProcessor<?> processor = this.getFieldProcessor();
+        if (processor instanceof IntegerFieldProcessor) {
+            ((IntegerFieldProcessor) processor).appendLong(this.row, value);
+        } else if (processor instanceof TextFieldProcessor) {
+            this.row.append(value);
+        } else {
+            this.writeValue(value);
+            return;
+        }
+        this.endCell();
+    }
+
+    public void writeDouble(double value) {
+        FieldProcessor<?> processor = this.getFieldProcessor();
+        if (processor instanceof FloatFieldProcessor) {
+            ((FloatFieldProcessor) processor).appendDouble(this.row, value);
+        } else if (processor instanceof TextFieldProcessor) {
+            this.row.append(value);
+        } else {
+            this.writeValue(value);
+            return;
+        }
+        this.endCell();
+    }
+
+    public void writeBoolean(boolean value) {
+        this.writeValue(Boolean.valueOf(value));
+    }
+
+    /**
+     * @param unscaled the unscaled value
+     * @param scale    the scale: the value is unscaled 10^-scale
+     */
+    public void writeDecimal(long unscaled, int scale) {
+        FieldProcessor<?> processor = this.getFieldProcessor();
+        if (processor instanceof DecimalFieldProcessor) {
+            ((DecimalFieldProcessor) processor).appendDecimal(this.row, unscaled, scale);
+        } else {
+            this.writeValue(BigDecimal.valueOf(unscaled, scale));
+            return;
+        }
+        this.endCell();
+    }
+
+    /**
+     * @param epochDay the number of days since 1970-01-01
+     */
+    public void writeEpochDay(long epochDay) {
+        FieldProcessor<?> processor = this.getFieldProcessor();
+        if (processor instanceof DateFieldProcessor) {
+            ((DateFieldProcessor) processor).appendEpochDay(this.row, epochDay);
+        } else {
+            this.writeValue(new Date(epochDay * DAY_MILLIS));
+            return;
+        }
+        this.endCell();
+    }
+
+    /**
+     * @param epochMillis the number of milliseconds since 1970-01-01T00:00:00Z
+     */
+    public void writeEpochMillis(long epochMillis) {
+        FieldProcessor<?> processor = this.getFieldProcessor();
+        if (processor instanceof DateFieldProcessor) {
+            ((DateFieldProcessor) processor).appendEpochMillis(this.row, epochMillis);
+        } else {
+            this.writeValue(new Date(epochMillis));
+            return;
+        }
+        this.endCell();
+    }
+
+    /**
+     * @param text the text, null for a null value
+     */
+    public void writeText(CharSequence text) {
+        FieldProcessor<?> processor = this.getFieldProcessor();
+        if (text != null && processor instanceof TextFieldProcessor) {
+            this.row.append(text);
+        } else {
+            this.writeValue(text == null ? null : text.toString());
+            return;
+        }
+        this.endCell();
+    }
+
+    public void writeNull() {
+        this.writeValue(null);
+    }
+
+    /**
+     * Print the row.
+     *
+     * @throws IOException if the row can't be written
+     */
+    public void endRow() throws IOException {
+        this.checkInRow();
+        this.inRow = false;
+        this.printer.printRow(this.row, this.fieldEnds, this.col);
+    }
+
+    private FieldProcessor<?> getFieldProcessor() {
+        this.checkInRow();
+        return this.writeProvider.getFieldProcessor(this.col);
+    }
+
+    private void checkInRow() {
+        if (!this.inRow) {
+            throw new IllegalStateException("Row not started");
+        }
+    }
+
+    private void endCell() {
+        if (this.col == this.fieldEnds.length) {
+            int[] newFieldEnds = new int[2 * this.col];
+            System.arraycopy(this.fieldEnds, 0, newFieldEnds, 0, this.col);
+            this.fieldEnds = newFieldEnds;
         }
-        printer.printRecord(formattedValues);
+        this.fieldEnds[this.col++] = this.row.length();
     }
 }
@@ -29,6 +29,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
 public class MetaCSVWriterBuilder {
     private File csvFile;
@@ -39,9 +41,13 @@ public class MetaCSVWriterBuilder {
     private MetaCSVRenderer metaRenderer;
     private Appendable writer;
     private OnError onError;
+    private boolean byteEncoder;
+    private int formattingThreads;
+    private int formattingBatchSize;
 
     MetaCSVWriterBuilder() {
         onError = OnError.EXCEPTION;
+        this.formattingBatchSize = 1024;
     }
 
     public MetaCSVWriterBuilder csvFile(File csvFile) {
@@ -80,17 +86,88 @@ public class MetaCSVWriterBuilder {
         return this;
     }
 
+    /**
+     * Use a backend that quotes and encodes the values itself and writes the bytes to a
+     * channel, instead of an OutputStreamWriter and a CSVPrinter. The output is the same.
+     * Ignored if the encoding is neither UTF-8 nor a single-byte charset, or if there is no
+     * quote char.
+     *
+     * @param byteEncoder true to use the byte encoder
+     * @return this for fluent style
+     */
+    public MetaCSVWriterBuilder byteEncoder(boolean byteEncoder) {
+        this.byteEncoder = byteEncoder;
+        return this;
+    }
+
+    /**
+     * @param formattingThreads the number of worker threads of a parallel writer (see
+     *                          {@link #buildParallel()}). Default is the number of
+     *                          processors.
+     * @return this for fluent style
+     */
+    public MetaCSVWriterBuilder formattingThreads(int formattingThreads) {
+        this.formattingThreads = formattingThreads;
+        return this;
+    }
+
+    /**
+     * @param formattingBatchSize the number of rows handed to a worker at once (see
+     *                            {@link #buildParallel()}). Default is 1024.
+     * @return this for fluent style
+     */
+    public MetaCSVWriterBuilder formattingBatchSize(int formattingBatchSize) {
+        this.formattingBatchSize = formattingBatchSize;
+        return this;
+    }
+
+    /**
+     * Build a writer that formats the rows on a pool of workers and writes them in the
+     * original order. The output is the same as the output of {@link #build()}.
+     *
+     * @return the parallel writer
+     * @throws IOException if the meta data can't be written
+     */
+    public MetaCSVParallelWriter buildParallel() throws IOException {
+        this.writeData();
+        if (this.out == null) {
+            this.out = new FileOutputStream(this.csvFile);
+        }
+        int threads = this.formattingThreads;
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        return new MetaCSVParallelWriter(this.out, this.data, this.onError, this.byteEncoder,
+                ParallelRecordsIterator.createExecutor(threads, "mcsv-formatting-"),
+                this.formattingBatchSize, 2 * threads);
+    }
+
     public MetaCSVWriter build() throws IOException {
         this.writeData();
+        CSVFormat format = CSVFormatHelper.getCSVFormat(data);
+        WriteProcessorProvider writeProvider = data.toWriteProcessorProvider(onError);
+        if (this.writer == null && this.byteEncoder &&
+                ByteRowPrinter.isSupported(format, data.getEncoding())) {
+            if (this.out == null) {
+                this.out = new FileOutputStream(this.csvFile);
+            }
+            WritableByteChannel channel;
+            if (this.out instanceof FileOutputStream) {
+                channel = ((FileOutputStream) this.out).getChannel();
+            } else {
+                channel = Channels.newChannel(this.out);
+            }
+            boolean[] scan = ByteRowPrinter.createScanFlags(data, writeProvider, onError, format);
+            return new MetaCSVWriter(
+                    new ByteRowPrinter(channel, format, data.getEncoding(), scan), writeProvider);
+        }
         if (this.writer == null) {
             if (this.out == null) {
                 this.out = new FileOutputStream(this.csvFile);
             }
-            this.writer = new OutputStreamWriter(out, data.getEncoding());
+            this.writer = new CharSequenceWriter(new OutputStreamWriter(out, data.getEncoding()));
         }
-        CSVFormat format = CSVFormatHelper.getCSVFormat(data);
         CSVPrinter printer = new CSVPrinter(writer, format);
-        WriteProcessorProvider writeProvider = data.toWriteProcessorProvider(onError);
         return new MetaCSVWriter(printer, writeProvider);
     }
 
@@ -0,0 +1,165 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.processor.CSVRecordProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipelined typing: the current thread tokenizes the records in order and hands batches of raw
+ * records to a pool of workers that decode the values (see {@link MetaCSVRecord#decodeAll()}).
+ * The futures are queued in the sequence order: this is the reorder buffer, the batches come
+ * back in the original order whatever the order of completion.
+ */
+class ParallelRecordsIterator implements Iterator<MetaCSVRecord> {
+    /**
+     * @param threads the number of threads
+     * @return a pool of daemon threads
+     */
+    static ExecutorService createExecutor(int threads) {
+        return createExecutor(threads, "mcsv-typing-");
+    }
+
+    /**
+     * @param threads the number of threads
+     * @param prefix  the prefix of the thread names
+     * @return a pool of daemon threads
+     */
+    static ExecutorService createExecutor(int threads, final String prefix) {
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private final Iterator<RawRecord> rawIterator;
+    private final CSVRecordProcessor processor;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final Queue<Future<List<MetaCSVRecord>>> pendingBatches;
+    private Iterator<MetaCSVRecord> batch;
+
+    /**
+     * @param rawIterator       the raw records, header included
+     * @param processor         the record processor
+     * @param executor          the workers
+     * @param batchSize         the number of records of a batch
+     * @param maxPendingBatches the maximum number of batches submitted and not consumed
+     */
+    ParallelRecordsIterator(Iterator<RawRecord> rawIterator, CSVRecordProcessor processor,
+                            ExecutorService executor, int batchSize,
+                            int maxPendingBatches) {
+        this.rawIterator = rawIterator;
+        this.processor = processor;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+        this.pendingBatches = new LinkedList<Future<List<MetaCSVRecord>>>();
+        if (rawIterator.hasNext()) {
+            this.batch = Collections.singletonList(CSVRecordsIterator.HEADER_PROCESSOR
+                    .createRecord(ArrayRawRecord.copyOf(rawIterator.next()))).iterator();
+        } else {
+            this.batch = Collections.<MetaCSVRecord>emptyList().iterator();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!this.batch.hasNext()) {
+            this.submitBatches();
+            Future<List<MetaCSVRecord>> future = this.pendingBatches.poll();
+            if (future == null) {
+                return false;
+            }
+            this.batch = this.get(future).iterator();
+            this.submitBatches();
+        }
+        return true;
+    }
+
+    @Override
+    public MetaCSVRecord next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return this.batch.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    private void submitBatches() {
+        while (this.pendingBatches.size() < this.maxPendingBatches &&
+                this.rawIterator.hasNext()) {
+            final List<RawRecord> records = new ArrayList<RawRecord>(this.batchSize);
+            while (records.size() < this.batchSize && this.rawIterator.hasNext()) {
+                records.add(ArrayRawRecord.copyOf(this.rawIterator.next()));
+            }
+            this.pendingBatches.add(this.executor.submit(new Callable<List<MetaCSVRecord>>() {
+                @Override
+                public List<MetaCSVRecord> call() {
+                    List<MetaCSVRecord> metaRecords =
+                            new ArrayList<MetaCSVRecord>(records.size());
+                    for (RawRecord record : records) {
+                        MetaCSVRecord metaRecord = processor.createRecord(record);
+                        metaRecord.decodeAll();
+                        metaRecords.add(metaRecord);
+                    }
+                    return metaRecords;
+                }
+            }));
+        }
+    }
+
+    private List<MetaCSVRecord> get(Future<List<MetaCSVRecord>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An error sink that writes the rejected rows, as they were read, to a quarantine MetaCSV
+ * file: same dialect, same header, all the columns as text. Only the counts are kept in
+ * memory.
+ */
+public class QuarantineErrorSink implements ErrorSink, Closeable {
+    private final MetaCSVWriter writer;
+    private long[] errorCounts;
+    private long rejectedRowCount;
+
+    /**
+     * @param csvFile the quarantine file. The MetaCSV file is written next to it.
+     * @param data    the data of the file read
+     * @throws IOException if the files can't be written
+     */
+    public QuarantineErrorSink(File csvFile, MetaCSVData data) throws IOException {
+        this.writer = new MetaCSVWriterBuilder().csvFile(csvFile).metaData(data.toTextData())
+                .build();
+        this.errorCounts = new long[0];
+    }
+
+    @Override
+    public void onHeader(RawRecord header) throws IOException {
+        this.writer.writeHeader(this.toList(header));
+    }
+
+    @Override
+    public void onCellError(long row, int col, long byteOffset, CharSequence raw) {
+        if (col >= this.errorCounts.length) {
+            long[] newCounts = new long[col + 1];
+            System.arraycopy(this.errorCounts, 0, newCounts, 0, this.errorCounts.length);
+            this.errorCounts = newCounts;
+        }
+        this.errorCounts[col]++;
+    }
+
+    @Override
+    public void onRejectedRow(long row, long byteOffset, RawRecord record) throws IOException {
+        this.rejectedRowCount++;
+        this.writer.writeRow(new ArrayList<Object>(this.toList(record)));
+    }
+
+    /**
+     * @param col the column index
+     * @return the number of values of this column that can't be decoded
+     */
+    public long getErrorCount(int col) {
+        if (col < this.errorCounts.length) {
+            return this.errorCounts[col];
+        }
+        return 0;
+    }
+
+    public long getRejectedRowCount() {
+        return this.rejectedRowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+
+    private List<String> toList(RawRecord record) {
+        int size = record.size();
+        List<String> values = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(record.get(i));
+        }
+        return values;
+    }
+}
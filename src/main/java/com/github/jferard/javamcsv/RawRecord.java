@@ -0,0 +1,58 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A record of raw CSV values. The values are not typed.
+ */
+public interface RawRecord {
+    /**
+     * @return the number of values
+     */
+    int size();
+
+    /**
+     * @param i the column index
+     * @return a copy of the value
+     */
+    String get(int i);
+
+    /**
+     * @param i the column index
+     * @return the value, possibly a view over the reader buffer: use `toString()` to keep it.
+     */
+    CharSequence getView(int i);
+
+    /**
+     * @param i the column index
+     * @return a reader on the value. Useful for huge fields that were not loaded into memory.
+     * @throws IOException if the value can't be read
+     */
+    Reader getReader(int i) throws IOException;
+
+    /**
+     * @return the record number, starting at 1
+     */
+    long getRecordNumber();
+}
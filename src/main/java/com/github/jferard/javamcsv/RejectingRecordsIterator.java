@@ -0,0 +1,106 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator that sends the rows with errors to an {@link ErrorSink} and returns the other
+ * rows.
+ */
+class RejectingRecordsIterator implements Iterator<MetaCSVRecord> {
+    private final Iterator<MetaCSVRecord> records;
+    private final MetaCSVReader reader;
+    private final ErrorSink sink;
+    private MetaCSVRecord current;
+    private long row;
+    private long byteOffset;
+
+    RejectingRecordsIterator(Iterator<MetaCSVRecord> records, MetaCSVReader reader,
+                             ErrorSink sink) {
+        this.records = records;
+        this.reader = reader;
+        this.sink = sink;
+        this.row = -1;
+        // after the BOM or at the resume point, -1 if unknown
+        this.byteOffset = reader.getRecordEndOffset();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.current != null) {
+            return true;
+        }
+        try {
+            while (this.records.hasNext()) {
+                MetaCSVRecord record = this.records.next();
+                this.row++;
+                long start = this.byteOffset;
+                this.byteOffset = this.reader.getRecordEndOffset();
+                if (this.row == 0) {
+                    this.sink.onHeader(record.getRawRecord());
+                    this.current = record;
+                    return true;
+                }
+                if (!record.isDecoded()) {
+                    record.decodeAll();
+                }
+                if (!record.hasErrors()) {
+                    this.current = record;
+                    return true;
+                }
+                this.reject(record, start);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    e.getClass().getSimpleName() + " sending a rejected row: " + e, e);
+        }
+        return false;
+    }
+
+    private void reject(MetaCSVRecord record, long start) throws IOException {
+        RawRecord raw = record.getRawRecord();
+        int size = raw.size();
+        for (int c = 0; c < size; c++) {
+            if (record.hasError(c)) {
+                this.sink.onCellError(this.row, c, start, raw.getView(c));
+            }
+        }
+        this.sink.onRejectedRow(this.row, start, raw);
+    }
+
+    @Override
+    public MetaCSVRecord next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("No more CSV records available");
+        }
+        MetaCSVRecord record = this.current;
+        this.current = null;
+        return record;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.processor.BooleanFieldProcessor;
+import com.github.jferard.javamcsv.processor.CSVRecordProcessor;
+import com.github.jferard.javamcsv.processor.DateFieldProcessor;
+import com.github.jferard.javamcsv.processor.FieldProcessor;
+import com.github.jferard.javamcsv.processor.FloatFieldProcessor;
+import com.github.jferard.javamcsv.processor.IntegerFieldProcessor;
+import com.github.jferard.javamcsv.processor.ProcessorProvider;
+import com.github.jferard.javamcsv.processor.TextFieldProcessor;
+
+/**
+ * Decode the raw records into the callbacks of a visitor.
+ */
+class RowDispatcher {
+    private final ProcessorProvider provider;
+    private final int offset;
+    private final RowVisitor visitor;
+    private char[] scratch;
+
+    RowDispatcher(CSVRecordProcessor processor, RowVisitor visitor) {
+        this.provider = processor.getProvider();
+        this.offset = processor.getOffset();
+        this.visitor = visitor;
+        this.scratch = new char[64];
+    }
+
+    void dispatch(long row, RawRecord record) {
+        this.visitor.startRow(row);
+        String nullValue = this.provider.getNullValue();
+        int size = record.size();
+        for (int c = 0; c < size; c++) {
+            CharSequence text = record.getView(c);
+            if (Util.contentEquals(text, nullValue)) {
+                this.visitor.onNull(c);
+                continue;
+            }
+            FieldProcessor<?> processor = this.provider.getProcessor(c);
+            try {
+                if (processor instanceof TextFieldProcessor) {
+                    this.onText(c, text);
+                } else if (processor instanceof IntegerFieldProcessor) {
+                    this.visitor.onLong(c, ((IntegerFieldProcessor) processor).toLong(text));
+                } else if (processor instanceof FloatFieldProcessor) {
+                    this.visitor.onDouble(c, ((FloatFieldProcessor) processor).toDouble(text));
+                } else if (processor instanceof DateFieldProcessor) {
+                    long epochMillis = ((DateFieldProcessor) processor).toEpochMillis(text);
+                    this.visitor.onEpochMillis(c, epochMillis + this.offset);
+                } else if (processor instanceof BooleanFieldProcessor) {
+                    this.onObject(c, ((BooleanFieldProcessor) processor).toBoolean(text));
+                } else {
+                    // the other types are decoded to objects anyway
+                    this.onObject(c, processor.toObject(text.toString()));
+                }
+            } catch (MetaCSVReadException e) {
+                this.visitor.onError(c, text);
+            }
+        }
+        this.visitor.endRow();
+    }
+
+    private void onObject(int c, Object value) {
+        if (value == null) {
+            this.visitor.onNull(c);
+        } else if (value instanceof Boolean) {
+            this.visitor.onBoolean(c, (Boolean) value);
+        } else {
+            this.visitor.onObject(c, value);
+        }
+    }
+
+    private void onText(int c, CharSequence text) {
+        if (text instanceof TextView) {
+            TextView view = (TextView) text;
+            this.visitor.onText(c, view.getBuffer(), view.getOffset(), view.length());
+            return;
+        }
+        int length = text.length();
+        if (length > this.scratch.length) {
+            this.scratch = new char[Math.max(length, 2 * this.scratch.length)];
+        }
+        if (text instanceof String) {
+            ((String) text).getChars(0, length, this.scratch, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                this.scratch[i] = text.charAt(i);
+            }
+        }
+        this.visitor.onText(c, this.scratch, 0, length);
+    }
+}
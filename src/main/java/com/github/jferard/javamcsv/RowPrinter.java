@@ -0,0 +1,49 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The backend of a {@link MetaCSVWriter}: quotes, encodes and writes the records.
+ */
+interface RowPrinter extends Closeable {
+    /**
+     * @param values the values, e.g. the header
+     * @throws IOException if the record can't be written
+     */
+    void printRecord(List<String> values) throws IOException;
+
+    /**
+     * @param row       the formatted fields, one after the other
+     * @param fieldEnds the end of each field in the row
+     * @param count     the number of fields
+     * @throws IOException if the row can't be written
+     */
+    void printRow(CharSequence row, int[] fieldEnds, int count) throws IOException;
+
+    /**
+     * @throws IOException if the pending bytes can't be written
+     */
+    void flush() throws IOException;
+}
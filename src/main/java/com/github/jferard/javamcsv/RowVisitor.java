@@ -0,0 +1,89 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+/**
+ * A push-style visitor of the rows (see {@link MetaCSVReader#accept(RowVisitor)}). The values
+ * are decoded straight into the callbacks: no record, and no boxing for the longs, doubles,
+ * booleans, dates and texts.
+ * <p>
+ * The header is row 0, and its values are texts.
+ */
+public interface RowVisitor {
+    /**
+     * @param row the row number (0 is the header)
+     */
+    void startRow(long row);
+
+    /**
+     * @param col   the column index
+     * @param value the value of an integer column
+     */
+    void onLong(int col, long value);
+
+    /**
+     * @param col   the column index
+     * @param value the value of a float column
+     */
+    void onDouble(int col, double value);
+
+    /**
+     * @param col   the column index
+     * @param value the value of a boolean column
+     */
+    void onBoolean(int col, boolean value);
+
+    /**
+     * @param col         the column index
+     * @param epochMillis the value of a date or datetime column, as returned by
+     *                    {@link MetaCSVRecord#getEpochMillis(int)}.
+     */
+    void onEpochMillis(int col, long epochMillis);
+
+    /**
+     * The chars are only valid during the call.
+     *
+     * @param col    the column index
+     * @param chars  the buffer
+     * @param offset the offset of the value in the buffer
+     * @param length the length of the value
+     */
+    void onText(int col, char[] chars, int offset, int length);
+
+    /**
+     * @param col   the column index
+     * @param value the value of another column (decimal, currency, percentage, object)
+     */
+    void onObject(int col, Object value);
+
+    /**
+     * @param col the column index
+     */
+    void onNull(int col);
+
+    /**
+     * @param col the column index
+     * @param raw the value that can't be decoded. Only valid during the call.
+     */
+    void onError(int col, CharSequence raw);
+
+    void endRow();
+}
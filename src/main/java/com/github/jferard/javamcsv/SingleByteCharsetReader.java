@@ -0,0 +1,110 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A reader for single-byte charsets (ISO-8859-1, windows-1252, ...) that decodes the bytes
+ * through a 256-entry table, instead of the generic decoder of an InputStreamReader.
+ * Unmappable bytes are replaced by U+FFFD, as with an InputStreamReader.
+ */
+public class SingleByteCharsetReader extends Reader {
+    /**
+     * @param charset the charset
+     * @return the decoding table, if the charset is a single-byte charset, otherwise null.
+     */
+    public static char[] createTable(Charset charset) {
+        if (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1.0f) {
+            return null;
+        }
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        char[] table = new char[256];
+        for (int b = 0; b < 256; b++) {
+            CharBuffer decoded;
+            try {
+                decoder.reset();
+                decoded = decoder.decode(ByteBuffer.wrap(new byte[]{(byte) b}));
+            } catch (CharacterCodingException e) {
+                return null;
+            }
+            if (decoded.remaining() != 1) {
+                return null;
+            }
+            table[b] = decoded.get();
+        }
+        return table;
+    }
+
+    /**
+     * @param in      the input stream
+     * @param charset the charset
+     * @return a table-driven reader for single-byte charsets, an InputStreamReader otherwise.
+     */
+    public static Reader create(InputStream in, Charset charset) {
+        char[] table = createTable(charset);
+        if (table == null) {
+            return new InputStreamReader(in, charset);
+        }
+        return new SingleByteCharsetReader(in, table);
+    }
+
+    private final InputStream in;
+    private final char[] table;
+    private final byte[] bytes;
+
+    public SingleByteCharsetReader(InputStream in, char[] table) {
+        this.in = in;
+        this.table = table;
+        this.bytes = new byte[8192];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int count = this.in.read(this.bytes, 0, Math.min(len, this.bytes.length));
+        if (count <= 0) {
+            return count;
+        }
+        for (int i = 0; i < count; i++) {
+            cbuf[off + i] = this.table[this.bytes[i] & 0xFF];
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The first stage of the byte scanner: find the structural bytes (delimiter, quote, escape, CR,
+ * LF and, if the surrounding spaces are ignored, the whitespaces) of a block of 64 bytes, eight
+ * bytes at a time (SWAR), and return them as a bitmap. The bitmap is not quote-aware: see
+ * {@link StructuralScanner}.
+ * <p>
+ * The structural chars must be ASCII chars, and the encoding must be ASCII-compatible
+ * (UTF-8, ISO-8859-x, ...).
+ */
+public class StructuralIndex {
+    public static final int BLOCK_SIZE = 64;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long MOVE_MASK = 0x0102040810204080L;
+    private static final int MAX_WHITESPACE = ' ';
+
+    /**
+     * @param format the format
+     * @return the index
+     * @throws IllegalArgumentException if a structural char is not ASCII or if the format has
+     *                                  a comment marker.
+     */
+    public static StructuralIndex create(CSVFormat format) {
+        if (format.getCommentMarker() != null) {
+            throw new IllegalArgumentException("Comment markers are not supported");
+        }
+        byte[] bytes = new byte[5];
+        int count = 0;
+        bytes[count++] = '\r';
+        bytes[count++] = '\n';
+        bytes[count++] = toByte(format.getDelimiter());
+        if (format.getQuoteCharacter() != null) {
+            bytes[count++] = toByte(format.getQuoteCharacter());
+        }
+        if (format.getEscapeCharacter() != null) {
+            bytes[count++] = toByte(format.getEscapeCharacter());
+        }
+        byte[] structuralBytes = new byte[count];
+        System.arraycopy(bytes, 0, structuralBytes, 0, count);
+        return new StructuralIndex(structuralBytes, format.getIgnoreSurroundingSpaces());
+    }
+
+    static byte toByte(char c) {
+        if (c >= 0x80) {
+            throw new IllegalArgumentException("Not an ASCII char: " + c);
+        }
+        return (byte) c;
+    }
+
+    /**
+     * @param x a word
+     * @return the word with the high bit set for each zero byte of x (and only them)
+     */
+    static long zeroBytes(long x) {
+        return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+    }
+
+    /**
+     * @param x a word
+     * @return the word with the high bit set for each byte of x lower or equal to ' ' (and only
+     * them).
+     */
+    static long whitespaceBytes(long x) {
+        return ~(((x & LOW_BITS) + ONES * (0x7F - MAX_WHITESPACE)) | x) & HIGH_BITS;
+    }
+
+    /**
+     * @param highBits a word where only high bits are set
+     * @return the eight high bits packed in a byte: bit i is the high bit of the i-th byte.
+     */
+    static long moveMask(long highBits) {
+        return ((highBits >>> 7) * MOVE_MASK) >>> 56;
+    }
+
+    private final long[] patterns;
+    private final boolean whitespaces;
+    private final boolean[] isStructural;
+
+    /**
+     * @param structuralBytes the bytes to find
+     * @param whitespaces     if true, find also the bytes lower or equal to ' '
+     */
+    public StructuralIndex(byte[] structuralBytes, boolean whitespaces) {
+        this.patterns = new long[structuralBytes.length];
+        this.whitespaces = whitespaces;
+        this.isStructural = new boolean[256];
+        for (int i = 0; i < structuralBytes.length; i++) {
+            this.patterns[i] = ONES * (structuralBytes[i] & 0xFF);
+            this.isStructural[structuralBytes[i] & 0xFF] = true;
+        }
+        if (whitespaces) {
+            for (int b = 0; b <= MAX_WHITESPACE; b++) {
+                this.isStructural[b] = true;
+            }
+        }
+    }
+
+    /**
+     * @param buffer   the buffer
+     * @param position the position of the block in the buffer
+     * @param length   the length of the block, at most 64
+     * @return the bitmap: the bit i is set if the byte at position + i is structural.
+     */
+    public long index(ByteBuffer buffer, int position, int length) {
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        long bitmap = 0;
+        int i = 0;
+        while (i + 8 <= length) {
+            long word = buffer.getLong(position + i);
+            if (bigEndian) {
+                word = Long.reverseBytes(word);
+            }
+            bitmap |= moveMask(this.match(word)) << i;
+            i += 8;
+        }
+        while (i < length) {
+            if (this.isStructural[buffer.get(position + i) & 0xFF]) {
+                bitmap |= 1L << i;
+            }
+            i++;
+        }
+        return bitmap;
+    }
+
+    private long match(long word) {
+        long highBits = 0;
+        for (long pattern : this.patterns) {
+            highBits |= zeroBytes(word ^ pattern);
+        }
+        if (this.whitespaces) {
+            highBits |= whitespaceBytes(word);
+        }
+        return highBits;
+    }
+}
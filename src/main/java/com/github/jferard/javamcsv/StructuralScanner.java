@@ -0,0 +1,518 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * The second stage of the byte scanner: walk the structural bitmaps of a
+ * {@link StructuralIndex} and derive the record and field boundaries, with the rules of the
+ * commons-csv lexer (quotes at the beginning of a field, doubled quotes, escapes, CR, LF and
+ * CRLF, empty lines). Only the structural bytes are visited, the values are neither copied nor
+ * decoded.
+ * <p>
+ * The boundaries are byte positions in the stream. The encoding must be ASCII-compatible. The
+ * input is expected to be valid for commons-csv: a malformed input (e.g. chars after a closing
+ * quote, or an unterminated quote) is split leniently.
+ * <p>
+ * The scanner either pulls the bytes from a stream or, in push mode, is fed with chunks of
+ * bytes (see {@link #feed(ByteBuffer)}): then a record is found only when it's complete.
+ */
+public class StructuralScanner {
+    /**
+     * @param charset the charset
+     * @return true if the structural ASCII bytes can't be part of another char (UTF-8, ASCII and
+     * the ASCII-compatible single byte charsets).
+     */
+    public static boolean isSupported(Charset charset) {
+        String name = charset.name();
+        if (name.equals("UTF-8") || name.equals("US-ASCII")) {
+            return true;
+        }
+        char[] table = SingleByteCharsetReader.createTable(charset);
+        if (table == null) {
+            return false;
+        }
+        for (int b = 0; b < 0x80; b++) {
+            if (table[b] != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final int BUFFER_SIZE = 65536;
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final int NONE = -1;
+
+    private static final int FIELD_START = 0;
+    private static final int SIMPLE = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_PENDING = 3;
+    private static final int AFTER_QUOTED = 4;
+
+    private static final int CONSUMED = 0;
+    private static final int RECORD = 1;
+    private static final int RECORD_BEFORE = 2;
+
+    private final InputStream in;
+    private final FileChannel channel;
+    private final long channelEnd;
+    private final StructuralIndex index;
+    private final int delimiter;
+    private final int quote;
+    private final int escape;
+    private final boolean ignoreSurroundingSpaces;
+    private final boolean ignoreEmptyLines;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private long bufferStart;
+    private int bufferLimit;
+    private int bufferPos;
+    private boolean eof;
+
+    private long bits;
+    private long blockBase;
+    private int blockPos;
+
+    private int state;
+    private long lineStart;
+    private long fieldStart;
+    private long skipPos;
+    private long quotePos;
+    private long pendingCR;
+    private boolean pendingRecord;
+
+    private long[] fieldEnds;
+    private int fieldCount;
+    private long recordStart;
+    private long recordEnd;
+    private long recordCount;
+    private boolean recordFound;
+    private boolean partial;
+
+    /**
+     * A scanner in push mode.
+     *
+     * @param format the format
+     * @throws IllegalArgumentException if a structural char is not ASCII or if the format has
+     *                                  a comment marker.
+     */
+    public StructuralScanner(CSVFormat format) {
+        this(null, format);
+    }
+
+    /**
+     * @param in     the input stream
+     * @param format the format
+     * @throws IllegalArgumentException if a structural char is not ASCII or if the format has
+     *                                  a comment marker.
+     */
+    public StructuralScanner(InputStream in, CSVFormat format) {
+        this(in, null, 0, 0, format);
+        this.bytes = new byte[BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap(this.bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * A scanner of a range of a file. The positions are positions in the file.
+     *
+     * @param channel the file channel, read with absolute positions (the channel may be
+     *                shared by several scanners)
+     * @param start   the start of the range
+     * @param end     the end of the range
+     * @param format  the format
+     * @param buffer  the buffer, typically a large direct buffer
+     * @throws IllegalArgumentException if a structural char is not ASCII or if the format has
+     *                                  a comment marker.
+     */
+    public StructuralScanner(FileChannel channel, long start, long end, CSVFormat format,
+                             ByteBuffer buffer) {
+        this(null, channel, start, end, format);
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private StructuralScanner(InputStream in, FileChannel channel, long start, long end,
+                              CSVFormat format) {
+        this.in = in;
+        this.channel = channel;
+        this.bufferStart = start;
+        this.lineStart = start;
+        this.fieldStart = start;
+        this.channelEnd = end;
+        this.index = StructuralIndex.create(format);
+        this.delimiter = StructuralIndex.toByte(format.getDelimiter());
+        this.quote = format.getQuoteCharacter() == null ? NONE :
+                StructuralIndex.toByte(format.getQuoteCharacter());
+        this.escape = format.getEscapeCharacter() == null ? NONE :
+                StructuralIndex.toByte(format.getEscapeCharacter());
+        this.ignoreSurroundingSpaces = format.getIgnoreSurroundingSpaces();
+        this.ignoreEmptyLines = format.getIgnoreEmptyLines();
+        this.state = FIELD_START;
+        this.skipPos = NONE;
+        this.pendingCR = NONE;
+        this.fieldEnds = new long[16];
+    }
+
+    /**
+     * Push mode: add bytes to scan.
+     *
+     * @param src the bytes. The position is moved to the limit.
+     */
+    public void feed(ByteBuffer src) {
+        int keep = this.bits == 0 ? this.bufferPos : this.blockPos;
+        int kept = this.bufferLimit - keep;
+        int size = kept + src.remaining();
+        if (size > this.bytes.length) {
+            byte[] newBytes = new byte[Math.max(size, 2 * this.bytes.length)];
+            System.arraycopy(this.bytes, keep, newBytes, 0, kept);
+            this.bytes = newBytes;
+            this.buffer = ByteBuffer.wrap(this.bytes).order(ByteOrder.LITTLE_ENDIAN);
+        } else {
+            System.arraycopy(this.bytes, keep, this.bytes, 0, kept);
+        }
+        this.bufferStart += keep;
+        this.bufferPos -= keep;
+        this.blockPos -= keep;
+        this.bufferLimit = size;
+        src.get(this.bytes, kept, src.remaining());
+    }
+
+    /**
+     * Push mode: there is no more byte to scan.
+     */
+    public void endOfInput() {
+        this.eof = true;
+    }
+
+    /**
+     * Start the scan in the middle of a record, after a line break that was part of a field.
+     *
+     * @param quoted true if the line break was in a quoted field, false if it was escaped in a
+     *               simple field.
+     */
+    void startInField(boolean quoted) {
+        this.state = quoted ? QUOTED : SIMPLE;
+    }
+
+    /**
+     * @return true if the scan ended at a record boundary, false if it ended in a field (see
+     * {@link #isInQuotedField()}).
+     */
+    boolean isAtRecordStart() {
+        return this.state == FIELD_START && this.fieldCount == 0 &&
+                this.bufferStart + this.bufferLimit == this.lineStart;
+    }
+
+    /**
+     * @return true if the scan ended in a quoted field.
+     */
+    boolean isInQuotedField() {
+        return this.state == QUOTED || this.state == QUOTE_PENDING;
+    }
+
+    /**
+     * Count the records up to the end of the input, without building them.
+     *
+     * @param partial true if the input is a part of a file that is not the last part: a
+     *                trailing partial record is not counted.
+     * @return the number of records found
+     * @throws IOException if the stream can't be read
+     */
+    long countRecords(boolean partial) throws IOException {
+        this.partial = partial;
+        while (this.nextRecord()) {
+            // only the count is needed
+        }
+        return this.recordCount;
+    }
+
+    /**
+     * Find the next record.
+     *
+     * @return false if there is no record left or, in push mode, if there is no complete record
+     * in the bytes fed so far.
+     * @throws IOException if the stream can't be read
+     */
+    public boolean nextRecord() throws IOException {
+        if (this.recordFound) { // else, keep the fields of the partial record
+            this.fieldCount = 0;
+        }
+        this.recordFound = this.findRecord();
+        return this.recordFound;
+    }
+
+    private boolean findRecord() throws IOException {
+        while (true) {
+            while (this.bits == 0) {
+                if (!this.nextBlock()) {
+                    return this.eof && !this.partial && this.finish();
+                }
+            }
+            int i = Long.numberOfTrailingZeros(this.bits);
+            long p = this.blockBase + i;
+            int b = this.buffer.get(this.blockPos + i) & 0xFF;
+            switch (this.handle(p, b)) {
+                case CONSUMED:
+                    this.bits &= this.bits - 1;
+                    break;
+                case RECORD:
+                    this.bits &= this.bits - 1;
+                    return true;
+                default: // RECORD_BEFORE
+                    return true;
+            }
+        }
+    }
+
+    /**
+     * @return the number of fields of the current record
+     */
+    public int getFieldCount() {
+        return this.fieldCount;
+    }
+
+    /**
+     * @param i the field index
+     * @return the position of the delimiter or line terminator that ends the field (or the end of
+     * the stream).
+     */
+    public long getFieldEnd(int i) {
+        if (i < 0 || i >= this.fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + i + " of " + this.fieldCount);
+        }
+        return this.fieldEnds[i];
+    }
+
+    /**
+     * @return the position of the first byte of the current record
+     */
+    public long getRecordStart() {
+        return this.recordStart;
+    }
+
+    /**
+     * @return the position after the line terminator of the current record
+     */
+    public long getRecordEnd() {
+        return this.recordEnd;
+    }
+
+    /**
+     * @return the number of records found so far
+     */
+    public long getRecordCount() {
+        return this.recordCount;
+    }
+
+    private int handle(long p, int b) {
+        if (this.pendingCR != NONE) {
+            long cr = this.pendingCR;
+            this.pendingCR = NONE;
+            if (p == cr + 1 && b == LF) {
+                return this.endLine(p + 1) ? RECORD : CONSUMED;
+            }
+            if (this.endLine(cr + 1)) {
+                return RECORD_BEFORE;
+            }
+        }
+        if (p == this.skipPos) { // escaped
+            return CONSUMED;
+        }
+        switch (this.state) {
+            case FIELD_START:
+                if (p != this.fieldStart) {
+                    this.state = SIMPLE;
+                    return this.handleSimple(p, b);
+                } else if (b == this.quote) {
+                    this.state = QUOTED;
+                } else if (b == this.delimiter || b == CR || b == LF || b == this.escape) {
+                    return this.handleSimple(p, b);
+                } else if (this.ignoreSurroundingSpaces && isWhitespace(b)) {
+                    this.fieldStart = p + 1;
+                } else {
+                    this.state = SIMPLE;
+                }
+                return CONSUMED;
+            case SIMPLE:
+                return this.handleSimple(p, b);
+            case QUOTED:
+                if (b == this.quote) {
+                    this.quotePos = p;
+                    this.state = QUOTE_PENDING;
+                } else if (b == this.escape) {
+                    this.skipPos = p + 1;
+                }
+                return CONSUMED;
+            case QUOTE_PENDING:
+                if (p == this.quotePos + 1 && b == this.quote) { // doubled quote
+                    this.state = QUOTED;
+                    return CONSUMED;
+                }
+                this.state = AFTER_QUOTED;
+                return this.handleAfterQuoted(p, b);
+            default: // AFTER_QUOTED
+                return this.handleAfterQuoted(p, b);
+        }
+    }
+
+    private int handleSimple(long p, int b) {
+        if (b == this.escape) {
+            this.state = SIMPLE;
+            this.skipPos = p + 1;
+            return CONSUMED;
+        }
+        return this.handleAfterQuoted(p, b);
+    }
+
+    private int handleAfterQuoted(long p, int b) {
+        if (b == this.delimiter) {
+            this.addFieldEnd(p);
+            this.state = FIELD_START;
+            this.fieldStart = p + 1;
+            return CONSUMED;
+        } else if (b == CR || b == LF) {
+            boolean emptyLine = this.ignoreEmptyLines && this.state == FIELD_START &&
+                    this.fieldCount == 0 && p == this.lineStart;
+            if (!emptyLine) {
+                this.addFieldEnd(p);
+            }
+            this.state = FIELD_START;
+            this.pendingRecord = !emptyLine;
+            if (b == CR) {
+                this.pendingCR = p;
+                return CONSUMED;
+            }
+            return this.endLine(p + 1) ? RECORD : CONSUMED;
+        }
+        return CONSUMED; // a literal char
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+
+    private void addFieldEnd(long p) {
+        if (this.fieldCount == this.fieldEnds.length) {
+            long[] newFieldEnds = new long[2 * this.fieldCount];
+            System.arraycopy(this.fieldEnds, 0, newFieldEnds, 0, this.fieldCount);
+            this.fieldEnds = newFieldEnds;
+        }
+        this.fieldEnds[this.fieldCount++] = p;
+    }
+
+    /**
+     * @param end the position after the line terminator
+     * @return true if a record ends here
+     */
+    private boolean endLine(long end) {
+        boolean record = this.pendingRecord;
+        if (record) {
+            this.recordStart = this.lineStart;
+            this.recordEnd = end;
+            this.recordCount++;
+        }
+        this.pendingRecord = false;
+        this.lineStart = end;
+        this.fieldStart = end;
+        return record;
+    }
+
+    private boolean finish() {
+        if (this.pendingCR != NONE) {
+            long cr = this.pendingCR;
+            this.pendingCR = NONE;
+            if (this.endLine(cr + 1)) {
+                return true;
+            }
+        }
+        long end = this.bufferStart + this.bufferLimit;
+        if (this.fieldCount > 0 || end > this.lineStart) {
+            this.addFieldEnd(end);
+            this.pendingRecord = true;
+            this.state = FIELD_START;
+            return this.endLine(end);
+        }
+        return false;
+    }
+
+    private boolean nextBlock() throws IOException {
+        if (this.bufferPos == this.bufferLimit) {
+            if (this.channel != null) {
+                return !this.eof && this.readChannel() && this.nextBlock();
+            }
+            if (this.eof || this.in == null) {
+                return false;
+            }
+            this.bufferStart += this.bufferLimit;
+            this.bufferPos = 0;
+            this.bufferLimit = 0;
+            int count = this.in.read(this.bytes, 0, BUFFER_SIZE);
+            while (count == 0) {
+                count = this.in.read(this.bytes, 0, BUFFER_SIZE);
+            }
+            if (count == -1) {
+                this.eof = true;
+                return false;
+            }
+            this.bufferLimit = count;
+        }
+        int length = Math.min(StructuralIndex.BLOCK_SIZE, this.bufferLimit - this.bufferPos);
+        this.bits = this.index.index(this.buffer, this.bufferPos, length);
+        this.blockBase = this.bufferStart + this.bufferPos;
+        this.blockPos = this.bufferPos;
+        this.bufferPos += length;
+        return true;
+    }
+
+    private boolean readChannel() throws IOException {
+        this.bufferStart += this.bufferLimit;
+        this.bufferPos = 0;
+        this.bufferLimit = 0;
+        long remaining = this.channelEnd - this.bufferStart;
+        if (remaining <= 0) {
+            this.eof = true;
+            return false;
+        }
+        this.buffer.clear();
+        this.buffer.limit((int) Math.min(this.buffer.capacity(), remaining));
+        while (this.buffer.hasRemaining()) {
+            int count = this.channel.read(this.buffer, this.bufferStart + this.buffer.position());
+            if (count == -1) {
+                break;
+            }
+        }
+        this.bufferLimit = this.buffer.position();
+        if (this.bufferLimit == 0) {
+            this.eof = true;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+/**
+ * A lightweight view over a char buffer. The view is only valid until the buffer is
+ * reused (for the readers: until the next record is read). Use `toString()` to get a copy
+ * of the value.
+ * <p>
+ * A view is equal to another view with the same chars, never to a String, although the hash
+ * codes match: don't mix views and Strings in the keys of a map or a set. Use
+ * {@link #contentEquals(CharSequence)} to compare a view to a String.
+ */
+public class TextView implements CharSequence {
+    private final char[] chars;
+    private final int offset;
+    private final int length;
+
+    public TextView(char[] chars, int offset, int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return the shared buffer. Do not modify it.
+     */
+    public char[] getBuffer() {
+        return this.chars;
+    }
+
+    /**
+     * @return the offset of the view in the buffer
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return this.chars[this.offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException("Range: " + start + "-" + end);
+        }
+        return new TextView(this.chars, this.offset + start, end - start);
+    }
+
+    /**
+     * @param other a char sequence
+     * @return true if the chars are the same
+     */
+    public boolean contentEquals(CharSequence other) {
+        if (other == null || other.length() != this.length) {
+            return false;
+        }
+        for (int i = 0; i < this.length; i++) {
+            if (this.chars[this.offset + i] != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param o an object
+     * @return true if the object is a view with the same chars. Always false for a String (see
+     * {@link #contentEquals(CharSequence)}).
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof TextView)) {
+            return false;
+        }
+        return this.contentEquals((TextView) o);
+    }
+
+    /**
+     * @return the same hash code as the String value. A view is still not equal to the String
+     * value (see {@link #equals(Object)}).
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = this.offset; i < this.offset + this.length; i++) {
+            h = 31 * h + this.chars[i];
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return new String(this.chars, this.offset, this.length);
+    }
+}
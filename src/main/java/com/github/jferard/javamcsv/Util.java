@@ -180,66 +180,185 @@ public class Util {
     }
 
     public static String formatLong(long n, String thousandsSeparator) {
-        String text = Long.toString(n);
         if (thousandsSeparator == null || thousandsSeparator.isEmpty()) {
-            return text;
+            return Long.toString(n);
         }
-        boolean isNegative = n < 0;
-        int len = text.length();
         StringBuilder ret = new StringBuilder();
-        appendIntegerPart(ret, text, isNegative, len, thousandsSeparator);
+        appendLong(ret, n, thousandsSeparator);
         return ret.toString();
     }
 
     public static String formatDouble(double d, String thousandsSeparator,
                                       String decimalSeparator) {
-        String text = Double.toString(d);
-        boolean isNegative = d < 0;
-        return formatNumber(text, isNegative, thousandsSeparator, decimalSeparator);
+        StringBuilder ret = new StringBuilder();
+        appendDouble(ret, d, thousandsSeparator, decimalSeparator);
+        return ret.toString();
     }
 
     public static String formatBigDecimal(BigDecimal bd, String thousandsSeparator,
                                           String decimalSeparator) {
-        String text = bd.toString();
-        if (!text.contains(".")) {
-            text += ".0";
+        StringBuilder ret = new StringBuilder();
+        appendBigDecimal(ret, bd, thousandsSeparator, decimalSeparator);
+        return ret.toString();
+    }
+
+    /**
+     * Append a long to a buffer. The digits are generated from the end, and the thousands
+     * separators are inserted during the generation: there is no intermediate String.
+     *
+     * @param out                the buffer
+     * @param n                  the value
+     * @param thousandsSeparator the thousands separator, may be null or empty
+     */
+    public static void appendLong(StringBuilder out, long n, String thousandsSeparator) {
+        if (thousandsSeparator == null || thousandsSeparator.isEmpty()) {
+            out.append(n);
+            return;
+        }
+        // work on the negative value: Long.MIN_VALUE has no positive counterpart
+        if (n < 0) {
+            out.append('-');
+        } else {
+            n = -n;
+        }
+        int digits = 1;
+        for (long m = n / 10; m != 0; m /= 10) {
+            digits++;
+        }
+        int sepLen = thousandsSeparator.length();
+        int pos = out.length() + digits + (digits - 1) / 3 * sepLen;
+        out.setLength(pos);
+        int count = 0;
+        while (true) {
+            out.setCharAt(--pos, (char) ('0' - (int) (n % 10)));
+            n /= 10;
+            if (n == 0) {
+                break;
+            }
+            if (++count == 3) {
+                count = 0;
+                for (int i = sepLen - 1; i >= 0; i--) {
+                    out.setCharAt(--pos, thousandsSeparator.charAt(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Append the shortest representation of a double to a buffer. See
+     * {@link DoubleFormatter#appendShortest(StringBuilder, double, String, String)}.
+     *
+     * @param out                the buffer
+     * @param d                  the value
+     * @param thousandsSeparator the thousands separator, may be null or empty
+     * @param decimalSeparator   the decimal separator, may be null
+     */
+    public static void appendDouble(StringBuilder out, double d, String thousandsSeparator,
+                                    String decimalSeparator) {
+        DoubleFormatter.appendShortest(out, d, thousandsSeparator, decimalSeparator);
+    }
+
+    /**
+     * Append a BigDecimal to a buffer, without the trailing zeros (but at least one decimal
+     * digit), then put the separators in place.
+     *
+     * @param out                the buffer
+     * @param bd                 the value
+     * @param thousandsSeparator the thousands separator, may be null or empty
+     * @param decimalSeparator   the decimal separator, may be null
+     */
+    public static void appendBigDecimal(StringBuilder out, BigDecimal bd,
+                                        String thousandsSeparator, String decimalSeparator) {
+        int start = out.length();
+        out.append(bd.toString());
+        if (out.indexOf(".", start) == -1) {
+            out.append(".0");
         } else {
-            int i = text.length() - 1;
-            while (i >= 0 && text.charAt(i) == '0') {
+            int i = out.length() - 1;
+            while (out.charAt(i) == '0') {
                 i--;
             }
-            if (text.charAt(i) == '.') {
-                text = text.substring(0, i + 2);
+            if (out.charAt(i) == '.') {
+                out.setLength(i + 2);
             } else {
-                text = text.substring(0, i + 1);
+                out.setLength(i + 1);
             }
         }
-        boolean isNegative = bd.signum() == -1;
-        return formatNumber(text, isNegative, thousandsSeparator, decimalSeparator);
+        applySeparators(out, start, thousandsSeparator, decimalSeparator);
     }
 
-    private static String formatNumber(String text, boolean isNegative, String thousandsSeparator,
-                                       String decimalSeparator) {
-        boolean defaultThousandsSeparator =
-                thousandsSeparator == null || thousandsSeparator.isEmpty();
-        boolean defaultDecimalSeparator = decimalSeparator == null || decimalSeparator.equals(".");
-        if (defaultThousandsSeparator && defaultDecimalSeparator) {
-            return text;
+    /**
+     * Append unscaled 10^-scale to a buffer, like
+     * {@link #appendBigDecimal(StringBuilder, BigDecimal, String, String)} would append
+     * BigDecimal.valueOf(unscaled, scale), but without the BigDecimal in the common case.
+     *
+     * @param out                the buffer
+     * @param unscaled           the unscaled value
+     * @param scale              the scale
+     * @param thousandsSeparator the thousands separator, may be null or empty
+     * @param decimalSeparator   the decimal separator, may be null
+     */
+    public static void appendDecimal(StringBuilder out, long unscaled, int scale,
+                                     String thousandsSeparator, String decimalSeparator) {
+        int start = out.length();
+        out.append(unscaled);
+        int digitsStart = unscaled < 0 ? start + 1 : start;
+        int digits = out.length() - digitsStart;
+        // BigDecimal.toString uses the scientific notation in those cases
+        if (scale < 0 || digits - 1 - scale < -6) {
+            out.setLength(start);
+            appendBigDecimal(out, BigDecimal.valueOf(unscaled, scale), thousandsSeparator,
+                    decimalSeparator);
+            return;
         }
-        int sepIndex = text.indexOf(".");
-        StringBuilder ret = new StringBuilder();
-        if (defaultThousandsSeparator) {
-            ret.append(text, 0, sepIndex);
+        if (scale == 0) {
+            out.append(".0");
         } else {
-            appendIntegerPart(ret, text, isNegative, sepIndex, thousandsSeparator);
+            for (int i = digits; i <= scale; i++) {
+                out.insert(digitsStart, '0');
+            }
+            out.insert(out.length() - scale, '.');
+            int i = out.length() - 1;
+            while (out.charAt(i) == '0') {
+                i--;
+            }
+            if (out.charAt(i) == '.') {
+                out.setLength(i + 2);
+            } else {
+                out.setLength(i + 1);
+            }
         }
-        if (defaultDecimalSeparator) {
-            ret.append(text, sepIndex, text.length());
-        } else {
-            ret.append(decimalSeparator);
-            ret.append(text, sepIndex + 1, text.length());
+        applySeparators(out, start, thousandsSeparator, decimalSeparator);
+    }
+
+    private static boolean isDefaultSeparators(String thousandsSeparator,
+                                               String decimalSeparator) {
+        return (thousandsSeparator == null || thousandsSeparator.isEmpty()) &&
+                (decimalSeparator == null || decimalSeparator.equals("."));
+    }
+
+    /**
+     * Replace the decimal point and insert the thousands separators, right to left so that
+     * the indices stay valid. The non finite values (no decimal point) are left as is.
+     */
+    private static void applySeparators(StringBuilder out, int start,
+                                        String thousandsSeparator, String decimalSeparator) {
+        if (isDefaultSeparators(thousandsSeparator, decimalSeparator)) {
+            return;
+        }
+        int sepIndex = out.indexOf(".", start);
+        if (sepIndex == -1) {
+            return;
+        }
+        if (decimalSeparator != null && !decimalSeparator.equals(".")) {
+            out.replace(sepIndex, sepIndex + 1, decimalSeparator);
+        }
+        if (thousandsSeparator != null && !thousandsSeparator.isEmpty()) {
+            int digitsStart = out.charAt(start) == '-' ? start + 1 : start;
+            for (int t = sepIndex - 3; t > digitsStart; t -= 3) {
+                out.insert(t, thousandsSeparator);
+            }
         }
-        return ret.toString();
     }
 
     public static void appendIntegerPart(StringBuilder ret, String text, boolean isNegative,
@@ -279,6 +398,123 @@ public class Util {
         return Long.parseLong(text);
     }
 
+    /**
+     * Parse a long without creating a String in the common case: ASCII digits with an optional
+     * minus sign and an optional one char thousands separator. Other cases are delegated to
+     * {@link #parseLong(String, String)}.
+     *
+     * @param s                  the text
+     * @param thousandsSeparator the thousands separator
+     * @return the value
+     * @throws NumberFormatException if the text is not a long
+     */
+    public static long parseLong(CharSequence s, String thousandsSeparator) {
+        int length = s.length();
+        int thousands = getSingleChar(thousandsSeparator);
+        if (thousands != MULTI_CHAR_SEPARATOR && thousands != '-' && length <= 18 + 6) {
+            int i = 0;
+            boolean negative = false;
+            if (length > 0 && s.charAt(0) == '-') {
+                negative = true;
+                i = 1;
+            }
+            long value = 0;
+            int digits = 0;
+            for (; i < length; i++) {
+                char c = s.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    digits++;
+                } else if (c != thousands) {
+                    break;
+                }
+            }
+            if (i == length && digits > 0 && digits <= 18) {
+                return negative ? -value : value;
+            }
+        }
+        return parseLong(s.toString(), thousandsSeparator);
+    }
+
+    /**
+     * Parse a double without creating a String in the common case: ASCII digits with an optional
+     * minus sign, an optional one char thousands separator, an optional one char decimal
+     * separator, no exponent and at most 15 digits. In this case, the mantissa and the power of
+     * ten are exact doubles, hence the division is correctly rounded. Other cases are delegated
+     * to {@link #parseDouble(String, String, String)}.
+     *
+     * @param s                  the text
+     * @param thousandsSeparator the thousands separator
+     * @param decimalSeparator   the decimal separator
+     * @return the value
+     * @throws NumberFormatException if the text is not a double
+     */
+    public static double parseDouble(CharSequence s, String thousandsSeparator,
+                                     String decimalSeparator) {
+        int length = s.length();
+        int thousands = getSingleChar(thousandsSeparator);
+        int decimal = getSingleChar(decimalSeparator);
+        if (decimal == NO_SEPARATOR) {
+            decimal = '.';
+        }
+        if (thousands != MULTI_CHAR_SEPARATOR && thousands != '-' &&
+                decimal != MULTI_CHAR_SEPARATOR && decimal != '-' && length <= 15 + 8) {
+            int i = 0;
+            boolean negative = false;
+            if (length > 0 && s.charAt(0) == '-') {
+                negative = true;
+                i = 1;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = -1;
+            for (; i < length; i++) {
+                char c = s.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else if (c == thousands) {
+                    continue;
+                } else if (c == decimal && fractionDigits == -1) {
+                    fractionDigits = 0;
+                } else {
+                    break;
+                }
+            }
+            if (i == length && digits > 0 && digits <= 15) {
+                double value = mantissa;
+                if (fractionDigits > 0) {
+                    value = value / POWERS_OF_TEN[fractionDigits];
+                }
+                return negative ? -value : value;
+            }
+        }
+        return parseDouble(s.toString(), thousandsSeparator, decimalSeparator);
+    }
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+            1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    private static final int NO_SEPARATOR = -1;
+    private static final int MULTI_CHAR_SEPARATOR = -2;
+
+    /**
+     * @param separator a separator
+     * @return the char if the separator is one char, NO_SEPARATOR or MULTI_CHAR_SEPARATOR
+     */
+    private static int getSingleChar(String separator) {
+        if (separator == null || separator.isEmpty()) {
+            return NO_SEPARATOR;
+        } else if (separator.length() == 1) {
+            return separator.charAt(0);
+        } else {
+            return MULTI_CHAR_SEPARATOR;
+        }
+    }
+
     public static double parseDouble(String s, String thousandsSeparator,
                                      String decimalSeparator) {
         String text = normalizeText(s, thousandsSeparator, decimalSeparator);
@@ -299,6 +535,101 @@ public class Util {
         return text;
     }
 
+    /**
+     * A check that costs less than the exception of a parse: a text that fails this check is
+     * not accepted by {@link #parseLong(String, String)} (fraction and exponent false) or
+     * {@link #parseBigDecimal(String, String, String)} (fraction and exponent true). A text
+     * that passes this check may still be out of range.
+     *
+     * @param s                  the text
+     * @param thousandsSeparator the thousands separator
+     * @param decimalSeparator   the decimal separator. The '.' is accepted too.
+     * @param fraction           true if a fraction is accepted
+     * @param exponent           true if an exponent is accepted
+     * @return false if the text is not a number
+     */
+    public static boolean isNumberText(CharSequence s, String thousandsSeparator,
+                                       String decimalSeparator, boolean fraction,
+                                       boolean exponent) {
+        int length = s.length();
+        int i = 0;
+        if (i < length && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        boolean point = false;
+        while (i < length) {
+            char c = s.charAt(i);
+            if (Character.isDigit(c)) {
+                digits++;
+                i++;
+            } else if (regionMatches(s, i, thousandsSeparator)) {
+                i += thousandsSeparator.length();
+            } else if (fraction && !point && regionMatches(s, i, decimalSeparator)) {
+                point = true;
+                i += decimalSeparator.length();
+            } else if (fraction && !point && c == '.') {
+                point = true;
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (exponent && i < length && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && Character.isDigit(s.charAt(i))) {
+                exponentDigits++;
+                i++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    /**
+     * @param s a text that fails {@link #isNumberText(CharSequence, String, String, boolean,
+     *          boolean)}
+     * @return false if the text is not accepted by {@link Double#parseDouble(String)} either:
+     * no surrounding space, no NaN, no Infinity, no hexadecimal value, no type suffix.
+     */
+    public static boolean mayBeJavaDouble(String s) {
+        String text = s.trim();
+        if (text.length() != s.length()) {
+            return true;
+        }
+        if (text.startsWith("-") || text.startsWith("+")) {
+            text = text.substring(1);
+        }
+        if (text.isEmpty()) {
+            return false;
+        }
+        char last = text.charAt(text.length() - 1);
+        return text.equals("NaN") || text.equals("Infinity") || text.startsWith("0x") ||
+                text.startsWith("0X") || last == 'd' || last == 'D' || last == 'f' ||
+                last == 'F';
+    }
+
+    private static boolean regionMatches(CharSequence s, int i, String separator) {
+        if (separator == null || separator.isEmpty() || i + separator.length() > s.length()) {
+            return false;
+        }
+        for (int j = 0; j < separator.length(); j++) {
+            if (s.charAt(i + j) != separator.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static BigDecimal parseBigDecimal(String s, String thousandsSeparator,
                                              String decimalSeparator) {
         String text = normalizeText(s, thousandsSeparator, decimalSeparator);
@@ -316,6 +647,49 @@ public class Util {
         return instance;
     }
 
+    /**
+     * Like Math.floorDiv in Java 8.
+     *
+     * @param x the dividend
+     * @param y the divisor
+     * @return the largest value that is less than or equal to x/y
+     */
+    public static long floorDiv(long x, long y) {
+        long q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            q--;
+        }
+        return q;
+    }
+
+    /**
+     * Like Math.floorMod in Java 8.
+     *
+     * @param x the dividend
+     * @param y the divisor
+     * @return x - floorDiv(x, y) * y
+     */
+    public static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
+
+    /**
+     * @param text  a text, possibly a view
+     * @param other another text
+     * @return true if both texts are not null and have the same chars.
+     */
+    public static boolean contentEquals(CharSequence text, CharSequence other) {
+        if (text == null || other == null || text.length() != other.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static boolean equal(Object o1, Object o2) {
         if (o1 == null) {
             return o2 == null;
@@ -46,12 +46,13 @@ public class DateFieldDescription implements FieldDescription<Date> {
         return new DateFieldDescription(format, locale);
     }
 
-    private SimpleDateFormat simpleDateFormat;
-    private String locale;
-    private String nullValue;
+    private final SimpleDateFormat simpleDateFormat;
+    private final String locale;
+    private final String nullValue;
 
     public DateFieldDescription(SimpleDateFormat simpleDateFormat, String locale) {
-        this.simpleDateFormat = simpleDateFormat;
+        // the format is only used as a prototype for the processors
+        this.simpleDateFormat = (SimpleDateFormat) simpleDateFormat.clone();
         this.locale = locale;
         this.nullValue = "";
     }
@@ -45,12 +45,13 @@ public class DatetimeFieldDescription implements FieldDescription<Date> {
         return new DatetimeFieldDescription(format, locale);
     }
 
-    private SimpleDateFormat simpleDateFormat;
-    private String locale;
-    private String nullValue;
+    private final SimpleDateFormat simpleDateFormat;
+    private final String locale;
+    private final String nullValue;
 
     public DatetimeFieldDescription(SimpleDateFormat simpleDateFormat, String locale) {
-        this.simpleDateFormat = simpleDateFormat;
+        // the format is only used as a prototype for the processors
+        this.simpleDateFormat = (SimpleDateFormat) simpleDateFormat.clone();
         this.locale = locale;
         this.nullValue = "";
     }
@@ -30,9 +30,9 @@ import java.math.BigDecimal;
 public class DecimalFieldDescription implements FieldDescription<BigDecimal> {
     public static final FieldDescription<BigDecimal> INSTANCE = new DecimalFieldDescription("", ".");
 
-    private String thousandsSeparator;
-    private String decimalSeparator;
-    private String nullValue;
+    private final String thousandsSeparator;
+    private final String decimalSeparator;
+    private final String nullValue;
 
     public DecimalFieldDescription(String thousandsSeparator, String decimalSeparator) {
         this.thousandsSeparator = thousandsSeparator;
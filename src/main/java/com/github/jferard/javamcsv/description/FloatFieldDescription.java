@@ -29,14 +29,29 @@ import java.io.IOException;
 public class FloatFieldDescription implements FieldDescription<Double> {
     public static final FieldDescription<Double> INSTANCE = new FloatFieldDescription("", ".");
 
-    private String thousandsSeparator;
-    private String decimalSeparator;
-    private String nullValue;
+    private final String thousandsSeparator;
+    private final String decimalSeparator;
+    private final String nullValue;
+    private final int precision;
 
     public FloatFieldDescription(String thousandsSeparator, String decimalSeparator) {
+        this(thousandsSeparator, decimalSeparator, -1);
+    }
+
+    /**
+     * The precision is a write option: it is not rendered in the MetaCSV file.
+     *
+     * @param thousandsSeparator the thousands separator
+     * @param decimalSeparator   the decimal separator
+     * @param precision          the number of decimals written, or -1 for the shortest
+     *                           representation
+     */
+    public FloatFieldDescription(String thousandsSeparator, String decimalSeparator,
+                                 int precision) {
         this.thousandsSeparator = thousandsSeparator;
         this.decimalSeparator = decimalSeparator;
         this.nullValue = "";
+        this.precision = precision;
     }
 
     @Override
@@ -51,7 +66,8 @@ public class FloatFieldDescription implements FieldDescription<Double> {
 
     @Override
     public FieldProcessor<Double> toFieldProcessor(String nullValue) {
-        return new FloatFieldProcessor(this.thousandsSeparator, this.decimalSeparator, nullValue);
+        return new FloatFieldProcessor(this.thousandsSeparator, this.decimalSeparator, nullValue,
+                this.precision);
     }
 
     @Override
@@ -27,7 +27,7 @@ import com.github.jferard.javamcsv.processor.FieldProcessor;
 import java.io.IOException;
 
 public class IntegerFieldDescription implements FieldDescription<Long> {
-    public static IntegerFieldDescription INSTANCE = new IntegerFieldDescription(null);
+    public static final IntegerFieldDescription INSTANCE = new IntegerFieldDescription(null);
 
     private final String thousandsSeparator;
 
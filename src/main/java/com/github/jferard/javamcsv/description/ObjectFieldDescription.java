@@ -32,7 +32,7 @@ public class ObjectFieldDescription implements FieldDescription<Object> {
     public static final FieldDescription<?> INSTANCE = new ObjectFieldDescription(
             Collections.<String>emptyList());
     private final String nullValue;
-    private List<String> parameters;
+    private final List<String> parameters;
 
     public ObjectFieldDescription(List<String> parameters) {
         this.parameters = parameters;
@@ -24,7 +24,8 @@ import com.github.jferard.javamcsv.MetaCSVReadException;
 
 import java.util.Date;
 
-public class BooleanFieldProcessor implements FieldProcessor<Boolean> {
+public class BooleanFieldProcessor
+        implements FieldProcessor<Boolean>, FieldAppender<Boolean>, FieldDecoder {
     private final String trueWord;
     private final String falseWord;
     private final String nullValue;
@@ -50,6 +51,68 @@ public class BooleanFieldProcessor implements FieldProcessor<Boolean> {
         }
     }
 
+    @Override
+    public Object decode(String text) {
+        if (text == null || text.trim().equals(this.nullValue)) {
+            return null;
+        }
+        text = text.trim();
+        if (text.equalsIgnoreCase(this.trueWord)) {
+            return true;
+        } else if (text.equalsIgnoreCase(this.falseWord)) {
+            return false;
+        } else {
+            return INVALID;
+        }
+    }
+
+    /**
+     * A version of toObject that does not need a String.
+     *
+     * @param text the CSV value, not null
+     * @return the value, or null
+     * @throws MetaCSVReadException if the text is not a boolean
+     */
+    public Boolean toBoolean(CharSequence text) throws MetaCSVReadException {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (this.nullValue != null && regionEquals(text, start, end, this.nullValue, false)) {
+            return null;
+        } else if (regionEquals(text, start, end, this.trueWord, true)) {
+            return true;
+        } else if (regionEquals(text, start, end, this.falseWord, true)) {
+            return false;
+        } else {
+            throw new MetaCSVReadException("Unknown boolean: " + text.subSequence(start, end) +
+                    " (" + this.trueWord + "/" + this.falseWord + ")");
+        }
+    }
+
+    private static boolean regionEquals(CharSequence text, int start, int end, String word,
+                                        boolean ignoreCase) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c1 = text.charAt(i);
+            char c2 = word.charAt(i - start);
+            if (c1 == c2) {
+                continue;
+            }
+            if (!ignoreCase || (Character.toUpperCase(c1) != Character.toUpperCase(c2) &&
+                    Character.toLowerCase(c1) != Character.toLowerCase(c2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public String toString(Boolean value) {
         if (value == null) {
@@ -61,6 +124,11 @@ public class BooleanFieldProcessor implements FieldProcessor<Boolean> {
         }
     }
 
+    @Override
+    public void appendTo(StringBuilder out, Boolean value) {
+        out.append(this.toString(value));
+    }
+
     @Override
     public Boolean cast(Object o) {
         if (o == null || o instanceof Boolean) {
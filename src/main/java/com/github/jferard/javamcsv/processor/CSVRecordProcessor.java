@@ -20,51 +20,67 @@
 
 package com.github.jferard.javamcsv.processor;
 
+import com.github.jferard.javamcsv.CSVRecordRawRecord;
 import com.github.jferard.javamcsv.MetaCSVReadException;
 import com.github.jferard.javamcsv.MetaCSVRecord;
 import com.github.jferard.javamcsv.OnError;
+import com.github.jferard.javamcsv.RawRecord;
 import org.apache.commons.csv.CSVRecord;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.TimeZone;
 
+import static com.github.jferard.javamcsv.Util.UTC_TIME_ZONE;
+
+/**
+ * A record processor may be shared between readers (see
+ * {@link com.github.jferard.javamcsv.CSVRecordsIterator#HEADER_PROCESSOR}): it is immutable.
+ */
 public class CSVRecordProcessor {
     private final ProcessorProvider provider;
-    private final TimeZone timeZone;
-    private int maxSize;
-    private ReadProcessorProvider readProcessorProvider;
-    private OnError onError;
-    private final HashMap<Integer, ReadFieldProcessor<?>> processorByIndex;
+    private final int offset;
+    private final ReadProcessorProvider readProcessorProvider;
 
     public CSVRecordProcessor(ProcessorProvider provider,
-                              ReadProcessorProvider readProcessorProvider, OnError onError,
-                              TimeZone timeZone) {
+                              ReadProcessorProvider readProcessorProvider, TimeZone timeZone) {
         this.provider = provider;
         this.readProcessorProvider = readProcessorProvider;
-        this.onError = onError;
-        this.maxSize = 0;
-        processorByIndex = new HashMap<Integer, ReadFieldProcessor<?>>();
-        this.timeZone = timeZone;
+        this.offset = UTC_TIME_ZONE.getRawOffset() - timeZone.getRawOffset();
     }
 
-    public MetaCSVRecord createRecord(CSVRecord record) {
-        if (this.maxSize < record.size()) {
-            updateProcessorByIndex(record);
-            this.maxSize = record.size();
-        }
-        return new MetaCSVRecord(record, this.provider, this.readProcessorProvider, processorByIndex,
-                timeZone);
+    /**
+     * @deprecated the error policy is given by the read processor provider: use
+     * {@link #CSVRecordProcessor(ProcessorProvider, ReadProcessorProvider, TimeZone)}
+     */
+    @Deprecated
+    public CSVRecordProcessor(ProcessorProvider provider,
+                              ReadProcessorProvider readProcessorProvider, OnError onError,
+                              TimeZone timeZone) {
+        this(provider, readProcessorProvider, timeZone);
+    }
+
+    public ProcessorProvider getProvider() {
+        return this.provider;
     }
 
-    private void updateProcessorByIndex(CSVRecord record) {
-        for (int i = this.maxSize; i < record.size(); i++) {
-            ReadFieldProcessor<?> processor = processorByIndex.get(i);
-            if (processor == null) {
-                processor = this.readProcessorProvider.getProcessor(i);
-                processorByIndex.put(i, processor);
-            }
-        }
+    /**
+     * @return the offset between UTC and the time zone, in millis.
+     */
+    public int getOffset() {
+        return this.offset;
     }
 
+    public MetaCSVRecord createRecord(CSVRecord record) {
+        return this.createRecord(new CSVRecordRawRecord(record));
+    }
+
+    /**
+     * The record size is not used: a lazy record is not split here.
+     *
+     * @param record the raw record
+     * @return the typed record
+     */
+    public MetaCSVRecord createRecord(RawRecord record) {
+        return new MetaCSVRecord(record, this.provider, this.readProcessorProvider, this.offset);
+    }
 }
@@ -24,7 +24,8 @@ import com.github.jferard.javamcsv.MetaCSVReadException;
 
 import java.math.BigDecimal;
 
-public class CurrencyDecimalFieldProcessor implements FieldProcessor<BigDecimal> {
+public class CurrencyDecimalFieldProcessor
+        implements FieldProcessor<BigDecimal>, FieldAppender<BigDecimal>, FieldDecoder {
     private final boolean pre;
     private final String symbol;
     private final FieldProcessor<BigDecimal> numberProcessor;
@@ -61,6 +62,18 @@ public class CurrencyDecimalFieldProcessor implements FieldProcessor<BigDecimal>
         return this.numberProcessor.toObject(text);
     }
 
+    @Override
+    public Object decode(String text) {
+        if (text == null || text.equals(this.nullValue)) {
+            return null;
+        }
+        String number = FieldProcessors.stripSymbol(text.trim(), this.pre, this.symbol);
+        if (number == null) {
+            return INVALID;
+        }
+        return FieldProcessors.decode(this.numberProcessor, number);
+    }
+
     @Override
     public String toString(BigDecimal value) {
         if (value == null) {
@@ -74,6 +87,21 @@ public class CurrencyDecimalFieldProcessor implements FieldProcessor<BigDecimal>
         }
     }
 
+    @Override
+    public void appendTo(StringBuilder out, BigDecimal value) {
+        if (value == null) {
+            out.append(this.nullValue);
+            return;
+        }
+        if (this.pre) {
+            out.append(this.symbol);
+            FieldProcessors.appendTo(this.numberProcessor, out, value);
+        } else {
+            FieldProcessors.appendTo(this.numberProcessor, out, value);
+            out.append(" ").append(this.symbol);
+        }
+    }
+
     @Override
     public BigDecimal cast(Object o) {
         return this.numberProcessor.cast(o);
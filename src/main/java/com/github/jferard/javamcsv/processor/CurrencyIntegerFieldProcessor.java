@@ -22,7 +22,8 @@ package com.github.jferard.javamcsv.processor;
 
 import com.github.jferard.javamcsv.MetaCSVReadException;
 
-public class CurrencyIntegerFieldProcessor implements FieldProcessor<Long> {
+public class CurrencyIntegerFieldProcessor
+        implements FieldProcessor<Long>, FieldAppender<Long>, FieldDecoder {
     private final boolean pre;
     private final String symbol;
     private final FieldProcessor<Long> numberProcessor;
@@ -59,6 +60,18 @@ public class CurrencyIntegerFieldProcessor implements FieldProcessor<Long> {
         return this.numberProcessor.toObject(text);
     }
 
+    @Override
+    public Object decode(String text) {
+        if (text == null || text.equals(this.nullValue)) {
+            return null;
+        }
+        String number = FieldProcessors.stripSymbol(text.trim(), this.pre, this.symbol);
+        if (number == null) {
+            return INVALID;
+        }
+        return FieldProcessors.decode(this.numberProcessor, number);
+    }
+
     @Override
     public String toString(Long value) {
         if (value == null) {
@@ -72,6 +85,21 @@ public class CurrencyIntegerFieldProcessor implements FieldProcessor<Long> {
         }
     }
 
+    @Override
+    public void appendTo(StringBuilder out, Long value) {
+        if (value == null) {
+            out.append(this.nullValue);
+            return;
+        }
+        if (this.pre) {
+            out.append(this.symbol);
+            FieldProcessors.appendTo(this.numberProcessor, out, value);
+        } else {
+            FieldProcessors.appendTo(this.numberProcessor, out, value);
+            out.append(" ").append(this.symbol);
+        }
+    }
+
     @Override
     public Long cast(Object o) {
         return this.numberProcessor.cast(o);
@@ -23,17 +23,37 @@ package com.github.jferard.javamcsv.processor;
 import com.github.jferard.javamcsv.MetaCSVReadException;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
-public class DateFieldProcessor implements FieldProcessor<Date> {
-    private final SimpleDateFormat simpleDateFormat;
+/**
+ * A date or datetime processor. SimpleDateFormat is not thread safe: every thread gets its own
+ * copy of the format, hence the processor may be shared.
+ *
+ * Common numeric patterns are parsed without the SimpleDateFormat (and its Calendar).
+ */
+public class DateFieldProcessor implements FieldProcessor<Date>, FieldAppender<Date>, FieldDecoder {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final ThreadLocal<SimpleDateFormat> simpleDateFormat;
+    private final FastDateParser fastParser;
+    private final TimeZone timeZone;
     private final String locale;
     private final String nullValue;
 
     public DateFieldProcessor(SimpleDateFormat simpleDateFormat, String locale, String nullValue) {
-        this.simpleDateFormat = simpleDateFormat;
+        final SimpleDateFormat prototype = (SimpleDateFormat) simpleDateFormat.clone();
+        this.simpleDateFormat = new ThreadLocal<SimpleDateFormat>() {
+            @Override
+            protected SimpleDateFormat initialValue() {
+                return (SimpleDateFormat) prototype.clone();
+            }
+        };
+        this.fastParser = FastDateParser.create(prototype);
+        this.timeZone = prototype.getTimeZone();
         this.locale = locale;
         this.nullValue = nullValue;
     }
@@ -46,11 +66,64 @@ public class DateFieldProcessor implements FieldProcessor<Date> {
      */
     @Override
     public Date toObject(String text) throws MetaCSVReadException {
-        if (text == null || text.equals(this.nullValue)) {
+        if (this.isNull(text)) {
+            return null;
+        }
+        return new Date(this.toEpochMillis(text));
+    }
+
+    @Override
+    public Object decode(String text) {
+        if (this.isNull(text)) {
             return null;
         }
+        if (this.fastParser != null) {
+            long epochMillis = this.fastParser.parse(text);
+            if (epochMillis != FastDateParser.UNPARSEABLE) {
+                return new Date(epochMillis);
+            }
+        }
+        Date date = this.simpleDateFormat.get().parse(text, new ParsePosition(0));
+        if (date == null) {
+            return INVALID;
+        }
+        return date;
+    }
+
+    /**
+     * @param text the CSV value
+     * @return true if the value is null
+     */
+    public boolean isNull(String text) {
+        return text == null || text.equals(this.nullValue);
+    }
+
+    /**
+     * @param text the CSV value, not null
+     * @return the UTC epoch millis
+     * @throws MetaCSVReadException if the text can't be converted to a date.
+     */
+    public long toEpochMillis(String text) throws MetaCSVReadException {
+        return this.toEpochMillis((CharSequence) text);
+    }
+
+    /**
+     * A version of toEpochMillis that does not need a String: the common numeric patterns are
+     * parsed in place, the other patterns need a copy of the text.
+     *
+     * @param text the CSV value, not null
+     * @return the UTC epoch millis
+     * @throws MetaCSVReadException if the text can't be converted to a date.
+     */
+    public long toEpochMillis(CharSequence text) throws MetaCSVReadException {
+        if (this.fastParser != null) {
+            long epochMillis = this.fastParser.parse(text);
+            if (epochMillis != FastDateParser.UNPARSEABLE) {
+                return epochMillis;
+            }
+        }
         try {
-            return simpleDateFormat.parse(text);
+            return this.simpleDateFormat.get().parse(text.toString()).getTime();
         } catch (ParseException e) {
             throw new MetaCSVReadException(e);
         }
@@ -61,7 +134,47 @@ public class DateFieldProcessor implements FieldProcessor<Date> {
         if (date == null) {
             return this.nullValue;
         }
-        return simpleDateFormat.format(date);
+        return this.simpleDateFormat.get().format(date);
+    }
+
+    @Override
+    public void appendTo(StringBuilder out, Date date) {
+        if (date == null) {
+            out.append(this.nullValue);
+        } else {
+            this.appendEpochMillis(out, date.getTime());
+        }
+    }
+
+    /**
+     * A version of appendTo that does not need a Date. Common numeric patterns are formatted
+     * without the SimpleDateFormat.
+     *
+     * @param out         the buffer
+     * @param epochMillis the epoch millis
+     */
+    public void appendEpochMillis(StringBuilder out, long epochMillis) {
+        if (this.fastParser == null || !this.fastParser.format(out, epochMillis)) {
+            out.append(this.simpleDateFormat.get().format(new Date(epochMillis)));
+        }
+    }
+
+    /**
+     * @return true if the values are formatted without the SimpleDateFormat: the output is
+     * made of digits and of the literals of the pattern.
+     */
+    public boolean hasFastFormat() {
+        return this.fastParser != null;
+    }
+
+    /**
+     * @param out      the buffer
+     * @param epochDay the number of days since 1970-01-01, written as the midnight of this
+     *                 day in the time zone of the format
+     */
+    public void appendEpochDay(StringBuilder out, long epochDay) {
+        long epochMillis = epochDay * DAY_MILLIS;
+        this.appendEpochMillis(out, epochMillis - this.timeZone.getOffset(epochMillis));
     }
 
     @Override
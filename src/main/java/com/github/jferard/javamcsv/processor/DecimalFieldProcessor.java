@@ -25,7 +25,8 @@ import com.github.jferard.javamcsv.Util;
 
 import java.math.BigDecimal;
 
-public class DecimalFieldProcessor implements FieldProcessor<BigDecimal> {
+public class DecimalFieldProcessor
+        implements FieldProcessor<BigDecimal>, FieldAppender<BigDecimal>, FieldDecoder {
     private final String thousandsSeparator;
     private final String decimalSeparator;
     private final String nullValue;
@@ -49,6 +50,22 @@ public class DecimalFieldProcessor implements FieldProcessor<BigDecimal> {
         }
     }
 
+    @Override
+    public Object decode(String text) {
+        if (text == null || text.equals(this.nullValue)) {
+            return null;
+        }
+        if (!Util.isNumberText(text, this.thousandsSeparator, this.decimalSeparator, true,
+                true)) {
+            return INVALID;
+        }
+        try {
+            return this.toObject(text);
+        } catch (MetaCSVReadException e) {
+            return INVALID;
+        }
+    }
+
     @Override
     public String toString(BigDecimal bd) {
         if (bd == null) {
@@ -57,6 +74,26 @@ public class DecimalFieldProcessor implements FieldProcessor<BigDecimal> {
         return Util.formatBigDecimal(bd, this.thousandsSeparator, decimalSeparator);
     }
 
+    @Override
+    public void appendTo(StringBuilder out, BigDecimal bd) {
+        if (bd == null) {
+            out.append(this.nullValue);
+        } else {
+            Util.appendBigDecimal(out, bd, this.thousandsSeparator, this.decimalSeparator);
+        }
+    }
+
+    /**
+     * A version of appendTo that does not need a BigDecimal.
+     *
+     * @param out      the buffer
+     * @param unscaled the unscaled value
+     * @param scale    the scale: the value is unscaled 10^-scale
+     */
+    public void appendDecimal(StringBuilder out, long unscaled, int scale) {
+        Util.appendDecimal(out, unscaled, scale, this.thousandsSeparator, this.decimalSeparator);
+    }
+
     @Override
     public BigDecimal cast(Object o) {
         if (o == null || o instanceof BigDecimal) {
@@ -0,0 +1,325 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv.processor;
+
+import com.github.jferard.javamcsv.Util;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * A parser for the most common numeric date patterns (yyyy, MM, dd, HH, mm, ss, SSS and
+ * literals), that computes the UTC epoch millis without any Calendar. It only accepts
+ * well formed values: for anything else, {@link #parse(CharSequence)} returns
+ * {@link #UNPARSEABLE} and the caller must fall back to the SimpleDateFormat, whose
+ * (lenient) result is the reference.
+ *
+ * The same patterns are formatted by {@link #format(StringBuilder, long)}.
+ */
+class FastDateParser {
+    /**
+     * The value returned when the text can't be parsed. It's not a valid result since
+     * the year is restricted to 1583-9999.
+     */
+    static final long UNPARSEABLE = Long.MIN_VALUE;
+
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int MILLISECOND = 6;
+    private static final int LITERAL = 7;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final long FIRST_DAY = -141349; // 1583-01-01
+    private static final long END_DAY = 2932897; // 10000-01-01
+
+    /**
+     * @param format the format
+     * @return the parser, or null if the format is not supported.
+     */
+    static FastDateParser create(SimpleDateFormat format) {
+        TimeZone timeZone = format.getTimeZone();
+        if (timeZone.getRawOffset() != 0 || timeZone.useDaylightTime() ||
+                format.getCalendar().getClass() != GregorianCalendar.class) {
+            return null;
+        }
+        return FastDateParser.compile(format.toPattern());
+    }
+
+    /**
+     * @param pattern the SimpleDateFormat pattern
+     * @return the parser, or null if the pattern is not supported.
+     */
+    static FastDateParser compile(String pattern) {
+        List<Integer> kinds = new ArrayList<Integer>();
+        List<String> literals = new ArrayList<String>();
+        boolean hasYear = false;
+        int i = 0;
+        int len = pattern.length();
+        while (i < len) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int j = pattern.indexOf('\'', i + 1);
+                if (j == -1 || j == i + 1) { // unfinished literal or escaped quote
+                    return null;
+                }
+                addLiteral(kinds, literals, pattern.substring(i + 1, j));
+                i = j + 1;
+            } else if ('a' <= c && c <= 'z' || 'A' <= c && c <= 'Z') {
+                int j = i + 1;
+                while (j < len && pattern.charAt(j) == c) {
+                    j++;
+                }
+                int kind = getKind(c, j - i);
+                if (kind == -1) {
+                    return null;
+                }
+                if (kind == YEAR) {
+                    hasYear = true;
+                }
+                kinds.add(kind);
+                literals.add(null);
+                i = j;
+            } else {
+                addLiteral(kinds, literals, String.valueOf(c));
+                i++;
+            }
+        }
+        if (!hasYear) {
+            return null;
+        }
+        int size = kinds.size();
+        int[] kindArray = new int[size];
+        for (int k = 0; k < size; k++) {
+            kindArray[k] = kinds.get(k);
+        }
+        return new FastDateParser(kindArray, literals.toArray(new String[size]));
+    }
+
+    private static void addLiteral(List<Integer> kinds, List<String> literals, String literal) {
+        int last = kinds.size() - 1;
+        if (last >= 0 && kinds.get(last) == LITERAL) {
+            literals.set(last, literals.get(last) + literal);
+        } else {
+            kinds.add(LITERAL);
+            literals.add(literal);
+        }
+    }
+
+    private static int getKind(char c, int width) {
+        switch (c) {
+            case 'y':
+                return width == 4 ? YEAR : -1;
+            case 'M':
+                return width == 2 ? MONTH : -1;
+            case 'd':
+                return width == 2 ? DAY : -1;
+            case 'H':
+                return width == 2 ? HOUR : -1;
+            case 'm':
+                return width == 2 ? MINUTE : -1;
+            case 's':
+                return width == 2 ? SECOND : -1;
+            case 'S':
+                return width == 3 ? MILLISECOND : -1;
+            default:
+                return -1;
+        }
+    }
+
+    private static int getWidth(int kind) {
+        switch (kind) {
+            case YEAR:
+                return 4;
+            case MILLISECOND:
+                return 3;
+            default:
+                return 2;
+        }
+    }
+
+    /**
+     * @param y the year
+     * @param m the month (1-12)
+     * @param d the day of month (1-31)
+     * @return the number of days since 1970-01-01 in the proleptic Gregorian calendar
+     */
+    static long daysFromCivil(int y, int m, int d) {
+        long year = m <= 2 ? y - 1 : y;
+        long era = (year >= 0 ? year : year - 399) / 400;
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + d - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int daysInMonth(int y, int m) {
+        switch (m) {
+            case 2:
+                return (y % 4 == 0 && y % 100 != 0) || y % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private final int[] kinds;
+    private final String[] literals;
+
+    private FastDateParser(int[] kinds, String[] literals) {
+        this.kinds = kinds;
+        this.literals = literals;
+    }
+
+    /**
+     * Like SimpleDateFormat.parse(String), the trailing chars are ignored.
+     *
+     * @param text the text
+     * @return the UTC epoch millis or {@link #UNPARSEABLE}
+     */
+    long parse(CharSequence text) {
+        int[] values = {1970, 1, 1, 0, 0, 0, 0};
+        int len = text.length();
+        int pos = 0;
+        for (int k = 0; k < this.kinds.length; k++) {
+            int kind = this.kinds[k];
+            if (kind == LITERAL) {
+                String literal = this.literals[k];
+                int literalLen = literal.length();
+                if (pos + literalLen > len) {
+                    return UNPARSEABLE;
+                }
+                for (int j = 0; j < literalLen; j++) {
+                    if (text.charAt(pos + j) != literal.charAt(j)) {
+                        return UNPARSEABLE;
+                    }
+                }
+                pos += literalLen;
+            } else {
+                int end = pos + getWidth(kind);
+                if (end > len) {
+                    return UNPARSEABLE;
+                }
+                int value = 0;
+                for (int j = pos; j < end; j++) {
+                    char c = text.charAt(j);
+                    if (c < '0' || c > '9') {
+                        return UNPARSEABLE;
+                    }
+                    value = value * 10 + c - '0';
+                }
+                pos = end;
+                // SimpleDateFormat reads all the digits of a field that is not followed by
+                // another numeric field
+                boolean abutting = k + 1 < this.kinds.length && this.kinds[k + 1] != LITERAL;
+                if (!abutting && pos < len && Character.isDigit(text.charAt(pos))) {
+                    return UNPARSEABLE;
+                }
+                values[kind] = value;
+            }
+        }
+        return this.toEpochMillis(values);
+    }
+
+    /**
+     * Format a UTC date like the SimpleDateFormat would.
+     *
+     * @param out         the buffer
+     * @param epochMillis the UTC epoch millis
+     * @return false if the year is not in 1583-9999 (nothing was appended), true otherwise
+     */
+    boolean format(StringBuilder out, long epochMillis) {
+        long days = Util.floorDiv(epochMillis, DAY_MILLIS);
+        if (days < FIRST_DAY || days >= END_DAY) {
+            return false;
+        }
+        int millisOfDay = (int) (epochMillis - days * DAY_MILLIS);
+        // the inverse of daysFromCivil, for positive eras
+        long z = days + 719468;
+        long era = z / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra =
+                (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        for (int k = 0; k < this.kinds.length; k++) {
+            int value;
+            switch (this.kinds[k]) {
+                case YEAR:
+                    value = year;
+                    break;
+                case MONTH:
+                    value = month;
+                    break;
+                case DAY:
+                    value = day;
+                    break;
+                case HOUR:
+                    value = millisOfDay / 3600000;
+                    break;
+                case MINUTE:
+                    value = millisOfDay / 60000 % 60;
+                    break;
+                case SECOND:
+                    value = millisOfDay / 1000 % 60;
+                    break;
+                case MILLISECOND:
+                    value = millisOfDay % 1000;
+                    break;
+                default:
+                    out.append(this.literals[k]);
+                    continue;
+            }
+            int width = getWidth(this.kinds[k]);
+            for (int pow = width == 4 ? 1000 : (width == 3 ? 100 : 10); pow > 0; pow /= 10) {
+                out.append((char) ('0' + value / pow % 10));
+            }
+        }
+        return true;
+    }
+
+    private long toEpochMillis(int[] values) {
+        int year = values[YEAR];
+        int month = values[MONTH];
+        int day = values[DAY];
+        // before 1583, GregorianCalendar uses the Julian calendar
+        if (year < 1583 || month < 1 || month > 12 || day < 1 ||
+                day > daysInMonth(year, month) || values[HOUR] > 23 || values[MINUTE] > 59 ||
+                values[SECOND] > 59) {
+            return UNPARSEABLE;
+        }
+        return daysFromCivil(year, month, day) * DAY_MILLIS +
+                ((values[HOUR] * 60L + values[MINUTE]) * 60L + values[SECOND]) * 1000L +
+                values[MILLISECOND];
+    }
+}
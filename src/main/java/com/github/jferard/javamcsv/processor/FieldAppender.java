@@ -0,0 +1,38 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv.processor;
+
+/**
+ * A processor that is able to append the representation of a value to a buffer, without
+ * creating an intermediate String. Implemented by the built-in processors; the writer falls
+ * back to {@link FieldProcessor#toString(Object)} for the other ones.
+ *
+ * @param <T> the type of the values
+ */
+public interface FieldAppender<T> {
+    /**
+     * Append a value to a buffer.
+     *
+     * @param out   the buffer
+     * @param value the value, may be null (the null value is appended)
+     */
+    void appendTo(StringBuilder out, T value);
+}
@@ -110,6 +110,17 @@ public class FieldProcessorFactory {
                                 return nullValue;
                             }
                         }
+
+                        @Override
+                        public void appendTo(StringBuilder out, Object o) {
+                            int mark = out.length();
+                            try {
+                                FieldProcessors.appendTo(rawProcessor, out, rawProcessor.cast(o));
+                            } catch (ClassCastException e) {
+                                out.setLength(mark);
+                                out.append(nullValue);
+                            }
+                        }
                     };
                 case TEXT:
                     return new WriteFieldProcessor() {
@@ -122,6 +133,17 @@ public class FieldProcessorFactory {
                                 return o.toString();
                             }
                         }
+
+                        @Override
+                        public void appendTo(StringBuilder out, Object o) {
+                            int mark = out.length();
+                            try {
+                                FieldProcessors.appendTo(rawProcessor, out, rawProcessor.cast(o));
+                            } catch (ClassCastException e) {
+                                out.setLength(mark);
+                                out.append(o.toString());
+                            }
+                        }
                     };
                 default:
                     return new WriteFieldProcessor() {
@@ -130,6 +152,11 @@ public class FieldProcessorFactory {
                             T value = rawProcessor.cast(o);
                             return rawProcessor.toString(value);
                         }
+
+                        @Override
+                        public void appendTo(StringBuilder out, Object o) {
+                            FieldProcessors.appendTo(rawProcessor, out, rawProcessor.cast(o));
+                        }
                     };
             }
         } else {
@@ -147,6 +174,17 @@ public class FieldProcessorFactory {
                                 return nullValue;
                             }
                         }
+
+                        @Override
+                        public void appendTo(StringBuilder out, Object o) {
+                            int mark = out.length();
+                            try {
+                                FieldProcessors.appendUnchecked(rawProcessor, out, o);
+                            } catch (ClassCastException e) {
+                                out.setLength(mark);
+                                out.append(nullValue);
+                            }
+                        }
                     };
                 case TEXT:
                     return new WriteFieldProcessor() {
@@ -159,6 +197,17 @@ public class FieldProcessorFactory {
                                 return o.toString();
                             }
                         }
+
+                        @Override
+                        public void appendTo(StringBuilder out, Object o) {
+                            int mark = out.length();
+                            try {
+                                FieldProcessors.appendUnchecked(rawProcessor, out, o);
+                            } catch (ClassCastException e) {
+                                out.setLength(mark);
+                                out.append(o.toString());
+                            }
+                        }
                     };
                 default:
                     return new WriteFieldProcessor() {
@@ -167,6 +216,11 @@ public class FieldProcessorFactory {
                             T value = (T) o;
                             return rawProcessor.toString(value);
                         }
+
+                        @Override
+                        public void appendTo(StringBuilder out, Object o) {
+                            FieldProcessors.appendUnchecked(rawProcessor, out, o);
+                        }
                     };
             }
         }
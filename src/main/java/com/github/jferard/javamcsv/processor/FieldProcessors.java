@@ -0,0 +1,97 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv.processor;
+
+import com.github.jferard.javamcsv.MetaCSVReadException;
+
+class FieldProcessors {
+    /**
+     * Decode a value, directly if the processor is a {@link FieldDecoder}, via
+     * {@link FieldProcessor#toObject(String)} otherwise.
+     *
+     * @param processor the processor
+     * @param text      the CSV value
+     * @return the value, null or {@link FieldDecoder#INVALID}
+     */
+    static Object decode(FieldProcessor<?> processor, String text) {
+        if (processor instanceof FieldDecoder) {
+            return ((FieldDecoder) processor).decode(text);
+        }
+        try {
+            return processor.toObject(text);
+        } catch (MetaCSVReadException e) {
+            return FieldDecoder.INVALID;
+        }
+    }
+
+    /**
+     * @param text   the trimmed CSV value
+     * @param pre    true if the symbol is before the number
+     * @param symbol the symbol
+     * @return the trimmed number, or null if the symbol is missing
+     */
+    static String stripSymbol(String text, boolean pre, String symbol) {
+        if (pre) {
+            if (text.startsWith(symbol)) {
+                return text.substring(symbol.length()).trim();
+            }
+        } else {
+            if (text.endsWith(symbol)) {
+                return text.substring(0, text.length() - symbol.length()).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Append a value to a buffer, directly if the processor is a {@link FieldAppender}, via
+     * {@link FieldProcessor#toString(Object)} otherwise.
+     *
+     * @param processor the processor
+     * @param out       the buffer
+     * @param value     the value
+     * @param <T>       the type of the value
+     */
+    @SuppressWarnings("unchecked")
+    static <T> void appendTo(FieldProcessor<T> processor, StringBuilder out, T value) {
+        if (processor instanceof FieldAppender) {
+            ((FieldAppender<T>) processor).appendTo(out, value);
+        } else {
+            out.append(processor.toString(value));
+        }
+    }
+
+    /**
+     * Same as {@link #appendTo(FieldProcessor, StringBuilder, Object)}, without a check of the
+     * type of the value: the processor throws a {@code ClassCastException} if the value has
+     * the wrong type.
+     *
+     * @param processor the processor
+     * @param out       the buffer
+     * @param value     the value
+     * @param <T>       the type of the value
+     */
+    @SuppressWarnings("unchecked")
+    static <T> void appendUnchecked(FieldProcessor<T> processor, StringBuilder out,
+                                    Object value) {
+        appendTo(processor, out, (T) value);
+    }
+}
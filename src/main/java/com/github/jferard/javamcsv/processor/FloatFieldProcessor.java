@@ -20,20 +20,36 @@
 
 package com.github.jferard.javamcsv.processor;
 
+import com.github.jferard.javamcsv.DoubleFormatter;
 import com.github.jferard.javamcsv.MetaCSVReadException;
 import com.github.jferard.javamcsv.Util;
 import com.github.jferard.javamcsv.processor.FieldProcessor;
 
-public class FloatFieldProcessor implements FieldProcessor<Double> {
+public class FloatFieldProcessor
+        implements FieldProcessor<Double>, FieldAppender<Double>, FieldDecoder {
     private final String thousandsSeparator;
     private final String decimalSeparator;
     private final String nullValue;
+    private final int precision;
 
     public FloatFieldProcessor(String thousandsSeparator, String decimalSeparator,
                                String nullValue) {
+        this(thousandsSeparator, decimalSeparator, nullValue, -1);
+    }
+
+    /**
+     * @param thousandsSeparator the thousands separator
+     * @param decimalSeparator   the decimal separator
+     * @param nullValue          the null value
+     * @param precision          the number of decimals written, or -1 for the shortest
+     *                           representation that reads back to the same double
+     */
+    public FloatFieldProcessor(String thousandsSeparator, String decimalSeparator,
+                               String nullValue, int precision) {
         this.thousandsSeparator = thousandsSeparator;
         this.decimalSeparator = decimalSeparator;
         this.nullValue = nullValue;
+        this.precision = precision;
     }
 
     @Override
@@ -41,6 +57,33 @@ public class FloatFieldProcessor implements FieldProcessor<Double> {
         if (text == null || text.equals(this.nullValue)) {
             return null;
         }
+        return this.toDouble(text);
+    }
+
+    @Override
+    public Object decode(String text) {
+        if (text == null || text.equals(this.nullValue)) {
+            return null;
+        }
+        if (!Util.isNumberText(text, this.thousandsSeparator, this.decimalSeparator, true,
+                true) && !Util.mayBeJavaDouble(text)) {
+            return INVALID;
+        }
+        try {
+            return this.toDouble(text);
+        } catch (MetaCSVReadException e) {
+            return INVALID;
+        }
+    }
+
+    /**
+     * A version of toObject that does not box the value.
+     *
+     * @param text the CSV value (possibly a view), not null
+     * @return the value
+     * @throws MetaCSVReadException if the text is not a double
+     */
+    public double toDouble(CharSequence text) throws MetaCSVReadException {
         try {
             return Util.parseDouble(text, thousandsSeparator, decimalSeparator);
         } catch (NumberFormatException e) {
@@ -53,7 +96,36 @@ public class FloatFieldProcessor implements FieldProcessor<Double> {
         if (d == null) {
             return this.nullValue;
         }
-        return Util.formatDouble(d, this.thousandsSeparator, decimalSeparator);
+        if (this.precision < 0) {
+            return Util.formatDouble(d, this.thousandsSeparator, decimalSeparator);
+        }
+        StringBuilder sb = new StringBuilder();
+        this.appendTo(sb, d);
+        return sb.toString();
+    }
+
+    @Override
+    public void appendTo(StringBuilder out, Double d) {
+        if (d == null) {
+            out.append(this.nullValue);
+        } else {
+            this.appendDouble(out, d);
+        }
+    }
+
+    /**
+     * A version of appendTo that does not box the value.
+     *
+     * @param out the buffer
+     * @param d   the value
+     */
+    public void appendDouble(StringBuilder out, double d) {
+        if (this.precision < 0) {
+            Util.appendDouble(out, d, this.thousandsSeparator, this.decimalSeparator);
+        } else {
+            DoubleFormatter.appendFixed(out, d, this.precision, this.thousandsSeparator,
+                    this.decimalSeparator);
+        }
     }
 
     @Override
@@ -24,7 +24,8 @@ import com.github.jferard.javamcsv.MetaCSVReadException;
 import com.github.jferard.javamcsv.Util;
 import com.github.jferard.javamcsv.processor.FieldProcessor;
 
-public class IntegerFieldProcessor implements FieldProcessor<Long> {
+public class IntegerFieldProcessor
+        implements FieldProcessor<Long>, FieldAppender<Long>, FieldDecoder {
     private final String thousandsSeparator;
     private final String nullValue;
 
@@ -38,6 +39,32 @@ public class IntegerFieldProcessor implements FieldProcessor<Long> {
         if (text == null || text.equals(this.nullValue)) {
             return null;
         }
+        return this.toLong(text);
+    }
+
+    @Override
+    public Object decode(String text) {
+        if (text == null || text.equals(this.nullValue)) {
+            return null;
+        }
+        if (!Util.isNumberText(text, this.thousandsSeparator, null, false, false)) {
+            return INVALID;
+        }
+        try {
+            return this.toLong(text);
+        } catch (MetaCSVReadException e) {
+            return INVALID;
+        }
+    }
+
+    /**
+     * A version of toObject that does not box the value.
+     *
+     * @param text the CSV value (possibly a view), not null
+     * @return the value
+     * @throws MetaCSVReadException if the text is not a long
+     */
+    public long toLong(CharSequence text) throws MetaCSVReadException {
         try {
             return Util.parseLong(text, this.thousandsSeparator);
         } catch (NumberFormatException e) {
@@ -53,6 +80,25 @@ public class IntegerFieldProcessor implements FieldProcessor<Long> {
         return Util.formatLong(n, this.thousandsSeparator);
     }
 
+    @Override
+    public void appendTo(StringBuilder out, Long n) {
+        if (n == null) {
+            out.append(this.nullValue);
+        } else {
+            Util.appendLong(out, n, this.thousandsSeparator);
+        }
+    }
+
+    /**
+     * A version of appendTo that does not box the value.
+     *
+     * @param out the buffer
+     * @param n   the value
+     */
+    public void appendLong(StringBuilder out, long n) {
+        Util.appendLong(out, n, this.thousandsSeparator);
+    }
+
     @Override
     public Long cast(Object o) {
         if (o == null || o instanceof Long) {
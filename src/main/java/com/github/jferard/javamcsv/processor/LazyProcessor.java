@@ -0,0 +1,44 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+package com.github.jferard.javamcsv.processor;
+
+/**
+ * The processor of the columns that are not described, created on first use: the providers
+ * may be created with null parameters when their getProcessor is overridden.
+ * <p>
+ * Thread safe without a lock: the processors are immutable, hence a lost update just means that
+ * the processor is created again.
+ *
+ * @param <P> the type of the processor
+ */
+abstract class LazyProcessor<P> {
+    private volatile P processor;
+
+    P get() {
+        P processor = this.processor;
+        if (processor == null) {
+            processor = this.create();
+            this.processor = processor;
+        }
+        return processor;
+    }
+
+    protected abstract P create();
+}
@@ -25,7 +25,8 @@ import com.github.jferard.javamcsv.processor.FieldProcessor;
 
 import java.math.BigDecimal;
 
-public class PercentageDecimalFieldProcessor implements FieldProcessor<BigDecimal> {
+public class PercentageDecimalFieldProcessor
+        implements FieldProcessor<BigDecimal>, FieldAppender<BigDecimal>, FieldDecoder {
     public static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
     private final boolean pre;
     private final String symbol;
@@ -62,6 +63,22 @@ public class PercentageDecimalFieldProcessor implements FieldProcessor<BigDecima
         return this.numberProcessor.toObject(text).divide(HUNDRED);
     }
 
+    @Override
+    public Object decode(String text) {
+        if (text == null || text.equals(this.nullValue)) {
+            return null;
+        }
+        String number = FieldProcessors.stripSymbol(text.trim(), this.pre, this.symbol);
+        if (number == null) {
+            return INVALID;
+        }
+        Object value = FieldProcessors.decode(this.numberProcessor, number);
+        if (value == null || value == INVALID) {
+            return value;
+        }
+        return ((BigDecimal) value).divide(HUNDRED);
+    }
+
     @Override
     public String toString(BigDecimal value) {
         if (value == null) {
@@ -76,6 +93,21 @@ public class PercentageDecimalFieldProcessor implements FieldProcessor<BigDecima
         }
     }
 
+    @Override
+    public void appendTo(StringBuilder out, BigDecimal value) {
+        if (value == null) {
+            out.append(this.nullValue);
+            return;
+        }
+        if (this.pre) {
+            out.append(this.symbol);
+            FieldProcessors.appendTo(this.numberProcessor, out, value.multiply(HUNDRED));
+        } else {
+            FieldProcessors.appendTo(this.numberProcessor, out, value.multiply(HUNDRED));
+            out.append(this.symbol);
+        }
+    }
+
     @Override
     public BigDecimal cast(Object o) {
         return this.numberProcessor.cast(o);
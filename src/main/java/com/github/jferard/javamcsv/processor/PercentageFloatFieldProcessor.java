@@ -23,7 +23,8 @@ package com.github.jferard.javamcsv.processor;
 import com.github.jferard.javamcsv.MetaCSVReadException;
 import com.github.jferard.javamcsv.processor.FieldProcessor;
 
-public class PercentageFloatFieldProcessor implements FieldProcessor<Double> {
+public class PercentageFloatFieldProcessor
+        implements FieldProcessor<Double>, FieldAppender<Double>, FieldDecoder {
     private final boolean pre;
     private final String symbol;
     private final FieldProcessor<Double> numberProcessor;
@@ -59,6 +60,22 @@ public class PercentageFloatFieldProcessor implements FieldProcessor<Double> {
         return this.numberProcessor.toObject(text) / 100.0;
     }
 
+    @Override
+    public Object decode(String text) {
+        if (text == null || text.equals(this.nullValue)) {
+            return null;
+        }
+        String number = FieldProcessors.stripSymbol(text.trim(), this.pre, this.symbol);
+        if (number == null) {
+            return INVALID;
+        }
+        Object value = FieldProcessors.decode(this.numberProcessor, number);
+        if (value == null || value == INVALID) {
+            return value;
+        }
+        return (Double) value / 100.0;
+    }
+
     @Override
     public String toString(Double value) {
         if (value == null) {
@@ -73,6 +90,21 @@ public class PercentageFloatFieldProcessor implements FieldProcessor<Double> {
         }
     }
 
+    @Override
+    public void appendTo(StringBuilder out, Double value) {
+        if (value == null) {
+            out.append(this.nullValue);
+            return;
+        }
+        if (this.pre) {
+            out.append(this.symbol);
+            FieldProcessors.appendTo(this.numberProcessor, out, value * 100.0);
+        } else {
+            FieldProcessors.appendTo(this.numberProcessor, out, value * 100.0);
+            out.append(this.symbol);
+        }
+    }
+
     @Override
     public Double cast(Object o) {
         return this.numberProcessor.cast(o);
@@ -23,39 +23,75 @@ package com.github.jferard.javamcsv.processor;
 import com.github.jferard.javamcsv.description.TextFieldDescription;
 import com.github.jferard.javamcsv.description.FieldDescription;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 import java.util.Map;
 
 public class ProcessorProvider {
     private final Map<Integer, FieldDescription<?>> descriptionByColIndex;
     private final String nullValue;
-    private final List<FieldProcessor<?>> processors;
+    private final FieldProcessor<?>[] processors;
+    private final LazyProcessor<FieldProcessor<?>> defaultProcessor =
+            new LazyProcessor<FieldProcessor<?>>() {
+                @Override
+                protected FieldProcessor<?> create() {
+                    return createProcessor(TextFieldDescription.INSTANCE);
+                }
+            };
 
     public ProcessorProvider(Map<Integer, FieldDescription<?>> descriptionByColIndex,
                              String nullValue) {
         this.descriptionByColIndex = descriptionByColIndex;
         this.nullValue = nullValue;
-        this.processors = new ArrayList<FieldProcessor<?>>();
+        this.processors = this.createProcessors();
     }
 
+    /**
+     * O(1) and thread safe: the processors of the described columns are precomputed, the
+     * other columns share the text processor.
+     *
+     * @param c the column index
+     * @return the processor
+     */
     public FieldProcessor<?> getProcessor(int c) {
-        while (c >= this.processors.size()) {
-            this.processors.add(null);
+        if (c < this.processors.length) {
+            FieldProcessor<?> processor = this.processors[c];
+            if (processor != null) {
+                return processor;
+            }
         }
-        FieldProcessor<?> processor = this.processors.get(c);
-        if (processor == null) {
-            processor = createProcessor(c);
-            this.processors.set(c, processor);
-        }
-        return processor;
+        return this.defaultProcessor.get();
+    }
+
+    /**
+     * Decode a value without an exception if the processor is a built-in one (see
+     * {@link FieldDecoder}).
+     *
+     * @param c    the column index
+     * @param text the CSV value
+     * @return the value, null or {@link FieldDecoder#INVALID}
+     */
+    public Object decode(int c, String text) {
+        return FieldProcessors.decode(this.getProcessor(c), text);
+    }
+
+    public String getNullValue() {
+        return this.nullValue;
     }
 
-    private FieldProcessor<?> createProcessor(int c) {
-        FieldDescription<?> fieldDescription = this.descriptionByColIndex.get(c);
-        if (fieldDescription == null) {
-            fieldDescription = TextFieldDescription.INSTANCE;
+    private FieldProcessor<?>[] createProcessors() {
+        if (this.descriptionByColIndex == null || this.descriptionByColIndex.isEmpty()) {
+            return new FieldProcessor<?>[0];
+        }
+        int size = Collections.max(this.descriptionByColIndex.keySet()) + 1;
+        FieldProcessor<?>[] processors = new FieldProcessor<?>[size];
+        for (Map.Entry<Integer, FieldDescription<?>> entry : this.descriptionByColIndex
+                .entrySet()) {
+            processors[entry.getKey()] = this.createProcessor(entry.getValue());
         }
+        return processors;
+    }
+
+    private FieldProcessor<?> createProcessor(FieldDescription<?> fieldDescription) {
         return fieldDescription.toFieldProcessor(nullValue);
     }
 }
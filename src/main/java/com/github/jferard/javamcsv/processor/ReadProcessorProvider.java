@@ -24,42 +24,62 @@ import com.github.jferard.javamcsv.OnError;
 import com.github.jferard.javamcsv.description.TextFieldDescription;
 import com.github.jferard.javamcsv.description.FieldDescription;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 import java.util.Map;
 
 public class ReadProcessorProvider {
     private final Map<Integer, FieldDescription<?>> descriptionByColIndex;
     private final String nullValue;
     private final OnError onError;
-    private final List<ReadFieldProcessor<?>> processors;
     private final FieldProcessorFactory fieldProcessorFactory;
+    private final ReadFieldProcessor<?>[] processors;
+    private final LazyProcessor<ReadFieldProcessor<?>> defaultProcessor =
+            new LazyProcessor<ReadFieldProcessor<?>>() {
+                @Override
+                protected ReadFieldProcessor<?> create() {
+                    return createProcessor(TextFieldDescription.INSTANCE);
+                }
+            };
 
     public ReadProcessorProvider(Map<Integer, FieldDescription<?>> descriptionByColIndex, String nullValue, OnError onError) {
         this.descriptionByColIndex = descriptionByColIndex;
         this.nullValue = nullValue;
         this.onError = onError;
         this.fieldProcessorFactory = new FieldProcessorFactory();
-        this.processors = new ArrayList<ReadFieldProcessor<?>>();
+        this.processors = this.createProcessors();
     }
 
+    /**
+     * O(1) and thread safe: the processors of the described columns are precomputed, the
+     * other columns share the text processor.
+     *
+     * @param c the column index
+     * @return the processor
+     */
     public ReadFieldProcessor<?> getProcessor(int c) {
-        while (c >= this.processors.size()) {
-            this.processors.add(null);
+        if (c < this.processors.length) {
+            ReadFieldProcessor<?> processor = this.processors[c];
+            if (processor != null) {
+                return processor;
+            }
         }
-        ReadFieldProcessor<?> processor = this.processors.get(c);
-        if (processor == null) {
-            processor = createProcessor(c);
-            this.processors.set(c, processor);
-        }
-        return processor;
+        return this.defaultProcessor.get();
     }
 
-    private ReadFieldProcessor<?> createProcessor(int c) {
-        FieldDescription<?> fieldDescription = this.descriptionByColIndex.get(c);
-        if (fieldDescription == null) {
-            fieldDescription = TextFieldDescription.INSTANCE;
+    private ReadFieldProcessor<?>[] createProcessors() {
+        if (this.descriptionByColIndex == null || this.descriptionByColIndex.isEmpty()) {
+            return new ReadFieldProcessor<?>[0];
+        }
+        int size = Collections.max(this.descriptionByColIndex.keySet()) + 1;
+        ReadFieldProcessor<?>[] processors = new ReadFieldProcessor<?>[size];
+        for (Map.Entry<Integer, FieldDescription<?>> entry : this.descriptionByColIndex
+                .entrySet()) {
+            processors[entry.getKey()] = this.createProcessor(entry.getValue());
         }
+        return processors;
+    }
+
+    private ReadFieldProcessor<?> createProcessor(FieldDescription<?> fieldDescription) {
         return this.fieldProcessorFactory
                 .toReadFieldProcessor(fieldDescription, nullValue, onError);
     }
@@ -21,7 +21,8 @@
 package com.github.jferard.javamcsv.processor;
 
 public class TextFieldProcessor
-        implements ReadFieldProcessor<String>, FieldProcessor<String> {
+        implements ReadFieldProcessor<String>, FieldProcessor<String>, FieldAppender<String>,
+        FieldDecoder {
     private final String nullValue;
 
     public TextFieldProcessor(String nullValue) {
@@ -36,6 +37,11 @@ public class TextFieldProcessor
         return text;
     }
 
+    @Override
+    public Object decode(String text) {
+        return this.toObject(text);
+    }
+
     @Override
     public String toString(String value) {
         if (value == null) {
@@ -44,6 +50,15 @@ public class TextFieldProcessor
         return value;
     }
 
+    @Override
+    public void appendTo(StringBuilder out, String value) {
+        if (value == null) {
+            out.append(this.nullValue);
+        } else {
+            out.append(value);
+        }
+    }
+
     @Override
     public String cast(Object o) {
         if (o == null || o instanceof String) {
@@ -27,4 +27,13 @@ public interface WriteFieldProcessor {
      * @throws RuntimeException if the value can't be converted to T.
      */
     String toString(Object value);
+
+    /**
+     * Append the representation of a value to a buffer. On error, the buffer is left as it
+     * was before the call.
+     * @param out the buffer
+     * @param value the value
+     * @throws RuntimeException if the value can't be converted to T.
+     */
+    void appendTo(StringBuilder out, Object value);
 }
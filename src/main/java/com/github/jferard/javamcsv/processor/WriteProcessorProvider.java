@@ -24,8 +24,7 @@ import com.github.jferard.javamcsv.OnError;
 import com.github.jferard.javamcsv.description.TextFieldDescription;
 import com.github.jferard.javamcsv.description.FieldDescription;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 import java.util.Map;
 
 public class WriteProcessorProvider {
@@ -33,7 +32,22 @@ public class WriteProcessorProvider {
     private final String nullValue;
     private final OnError onError;
     private final FieldProcessorFactory fieldProcessorFactory;
-    private final List<WriteFieldProcessor> processors;
+    private final WriteFieldProcessor[] processors;
+    private final FieldProcessor<?>[] fieldProcessors;
+    private final LazyProcessor<WriteFieldProcessor> defaultProcessor =
+            new LazyProcessor<WriteFieldProcessor>() {
+                @Override
+                protected WriteFieldProcessor create() {
+                    return createProcessor(TextFieldDescription.INSTANCE);
+                }
+            };
+    private final LazyProcessor<FieldProcessor<?>> defaultFieldProcessor =
+            new LazyProcessor<FieldProcessor<?>>() {
+                @Override
+                protected FieldProcessor<?> create() {
+                    return TextFieldDescription.INSTANCE.toFieldProcessor(nullValue);
+                }
+            };
 
     public WriteProcessorProvider(Map<Integer, FieldDescription<?>> descriptionByColIndex,
                                   String nullValue, OnError onError) {
@@ -41,26 +55,69 @@ public class WriteProcessorProvider {
         this.nullValue = nullValue;
         this.onError = onError;
         this.fieldProcessorFactory = new FieldProcessorFactory();
-        this.processors = new ArrayList<WriteFieldProcessor>();
+        this.processors = this.createProcessors();
+        this.fieldProcessors = this.createFieldProcessors();
     }
 
+    /**
+     * O(1) and thread safe: the processors of the described columns are precomputed, the
+     * other columns share the text processor.
+     *
+     * @param c the column index
+     * @return the processor
+     */
     public WriteFieldProcessor getProcessor(int c) {
-        while (c >= this.processors.size()) {
-            this.processors.add(null);
+        if (c < this.processors.length) {
+            WriteFieldProcessor processor = this.processors[c];
+            if (processor != null) {
+                return processor;
+            }
         }
-        WriteFieldProcessor processor = this.processors.get(c);
-        if (processor == null) {
-            processor = createProcessor(c);
-            this.processors.set(c, processor);
+        return this.defaultProcessor.get();
+    }
+
+    /**
+     * The raw processor of a column, for the writers that format the primitive values
+     * without boxing them. Same contract as {@link #getProcessor(int)}.
+     *
+     * @param c the column index
+     * @return the processor
+     */
+    public FieldProcessor<?> getFieldProcessor(int c) {
+        if (c < this.fieldProcessors.length) {
+            FieldProcessor<?> processor = this.fieldProcessors[c];
+            if (processor != null) {
+                return processor;
+            }
+        }
+        return this.defaultFieldProcessor.get();
+    }
+
+    private WriteFieldProcessor[] createProcessors() {
+        if (this.descriptionByColIndex == null || this.descriptionByColIndex.isEmpty()) {
+            return new WriteFieldProcessor[0];
+        }
+        int size = Collections.max(this.descriptionByColIndex.keySet()) + 1;
+        WriteFieldProcessor[] processors = new WriteFieldProcessor[size];
+        for (Map.Entry<Integer, FieldDescription<?>> entry : this.descriptionByColIndex
+                .entrySet()) {
+            processors[entry.getKey()] = this.createProcessor(entry.getValue());
         }
-        return processor;
+        return processors;
     }
 
-    private WriteFieldProcessor createProcessor(int c) {
-        FieldDescription<?> fieldDescription = this.descriptionByColIndex.get(c);
-        if (fieldDescription == null) {
-            fieldDescription = TextFieldDescription.INSTANCE;
+    private FieldProcessor<?>[] createFieldProcessors() {
+        FieldProcessor<?>[] fieldProcessors = new FieldProcessor<?>[this.processors.length];
+        if (this.descriptionByColIndex != null) {
+            for (Map.Entry<Integer, FieldDescription<?>> entry : this.descriptionByColIndex
+                    .entrySet()) {
+                fieldProcessors[entry.getKey()] = entry.getValue().toFieldProcessor(nullValue);
+            }
         }
+        return fieldProcessors;
+    }
+
+    private WriteFieldProcessor createProcessor(FieldDescription<?> fieldDescription) {
         return this.fieldProcessorFactory
                 .toWriteFieldProcessor(fieldDescription, nullValue, onError, true);
     }
@@ -28,7 +28,6 @@ import com.github.jferard.javamcsv.Util;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.ResultSet;
@@ -315,7 +314,14 @@ public class MetaCSVReaderResultSet extends AbstractResultSet {
 
     @Override
     public Reader getCharacterStream(int columnIndex) throws SQLException {
-        return new StringReader(this.getString(columnIndex));
+        Reader reader;
+        try {
+            reader = this.cur.getCharacterStream(columnIndex - 1);
+        } catch (MetaCSVReadException e) {
+            throw new SQLException(e);
+        }
+        this.wasNull = reader == null;
+        return reader;
     }
 
     @Override
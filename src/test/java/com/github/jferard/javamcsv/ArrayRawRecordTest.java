@@ -0,0 +1,45 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class ArrayRawRecordTest {
+    @Test
+    public void testCopyOf() throws IOException {
+        CSVTokenizer tokenizer =
+                new CSVTokenizer(new StringReader("a,b\r\nc,d\r\n"), CSVFormat.DEFAULT, true);
+        RawRecord copy = ArrayRawRecord.copyOf(tokenizer.nextRecord());
+        tokenizer.nextRecord();
+        Assert.assertEquals(2, copy.size());
+        Assert.assertEquals("a", copy.get(0));
+        Assert.assertEquals("b", copy.getView(1));
+        Assert.assertEquals('a', copy.getReader(0).read());
+        Assert.assertEquals(1, copy.getRecordNumber());
+        Assert.assertEquals("RawRecord [recordNumber=1, values=[a, b]]", copy.toString());
+        Assert.assertSame(copy, ArrayRawRecord.copyOf(copy));
+    }
+}
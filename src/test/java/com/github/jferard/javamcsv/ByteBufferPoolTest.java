@@ -0,0 +1,44 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class ByteBufferPoolTest {
+    @Test
+    public void testPool() {
+        ByteBufferPool pool = new ByteBufferPool(16, 1);
+        ByteBuffer buffer1 = pool.acquire();
+        ByteBuffer buffer2 = pool.acquire();
+        Assert.assertNotSame(buffer1, buffer2);
+        Assert.assertEquals(16, buffer1.capacity());
+        buffer1.put((byte) 1);
+        pool.release(buffer1);
+        pool.release(buffer2);
+        ByteBuffer buffer3 = pool.acquire();
+        Assert.assertSame(buffer1, buffer3);
+        Assert.assertEquals(0, buffer3.position());
+        Assert.assertNotSame(buffer2, pool.acquire());
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.BooleanFieldDescription;
+import com.github.jferard.javamcsv.description.DateFieldDescription;
+import com.github.jferard.javamcsv.description.DecimalFieldDescription;
+import com.github.jferard.javamcsv.description.FloatFieldDescription;
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+public class ByteRowPrinterTest {
+    private static final String CHARS = "ab1 ,;\"'#\t\r\n-éà€ā😀\uD800";
+
+    @Test
+    public void testSameAsCSVPrinter() throws IOException {
+        Random random = new Random(0);
+        List<Charset> charsets = Arrays.asList(Util.UTF_8_CHARSET, Charset.forName("ISO-8859-1"),
+                Charset.forName("windows-1252"));
+        List<CSVFormat> formats = Arrays.asList(CSVFormat.DEFAULT,
+                CSVFormat.DEFAULT.withDelimiter(';').withQuote('\'').withRecordSeparator("\n"));
+        for (Charset charset : charsets) {
+            for (CSVFormat format : formats) {
+                Assert.assertTrue(ByteRowPrinter.isSupported(format, charset));
+                List<List<String>> records = new ArrayList<List<String>>();
+                for (int i = 0; i < 500; i++) {
+                    List<String> record = new ArrayList<String>();
+                    int size = random.nextInt(5);
+                    for (int j = 0; j < size; j++) {
+                        StringBuilder sb = new StringBuilder();
+                        int len = random.nextInt(6);
+                        for (int k = 0; k < len; k++) {
+                            sb.append(CHARS.charAt(random.nextInt(CHARS.length())));
+                        }
+                        record.add(sb.toString());
+                    }
+                    records.add(record);
+                }
+                Assert.assertArrayEquals(printWithCSVPrinter(format, charset, records),
+                        printWithByteRowPrinter(format, charset, records));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupported() {
+        Assert.assertFalse(ByteRowPrinter.isSupported(CSVFormat.DEFAULT.withQuote(null),
+                Util.UTF_8_CHARSET));
+        Assert.assertFalse(ByteRowPrinter.isSupported(CSVFormat.DEFAULT,
+                Charset.forName("UTF-16")));
+    }
+
+    @Test
+    public void testScanFlags() throws MetaCSVDataException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(Util.UTC_TIME_ZONE);
+        MetaCSVData data = new MetaCSVDataBuilder().
+                colType(0, new IntegerFieldDescription(" ")).
+                colType(1, new FloatFieldDescription(" ", ",")).
+                colType(2, new BooleanFieldDescription("T", "F")).
+                colType(3, new DateFieldDescription(dateFormat, null)).
+                colType(4, new DateFieldDescription(new SimpleDateFormat("EEE dd MMM yyyy"),
+                        null)).
+                colType(6, new DecimalFieldDescription("", ".")).
+                build();
+        CSVFormat format = CSVFormatHelper.getCSVFormat(data);
+        boolean[] scan = ByteRowPrinter.createScanFlags(data,
+                data.toWriteProcessorProvider(OnError.EXCEPTION), OnError.EXCEPTION, format);
+        Assert.assertArrayEquals(new boolean[]{false, true, false, false, true, true, false},
+                scan);
+        scan = ByteRowPrinter.createScanFlags(data,
+                data.toWriteProcessorProvider(OnError.TEXT), OnError.TEXT, format);
+        Assert.assertArrayEquals(new boolean[]{true, true, true, true, true, true, true}, scan);
+    }
+
+    @Test
+    public void testWriter() throws IOException, MetaCSVDataException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(Util.UTC_TIME_ZONE);
+        MetaCSVData data = new MetaCSVDataBuilder().encoding("ISO-8859-1").nullValue("NULL").
+                colType(0, new IntegerFieldDescription(" ")).
+                colType(1, new FloatFieldDescription(" ", ",")).
+                colType(2, new DecimalFieldDescription("", ".")).
+                colType(3, new DateFieldDescription(dateFormat, null)).
+                build();
+        List<List<Object>> rows = new ArrayList<List<Object>>();
+        rows.add(Arrays.<Object>asList(-1234567L, 1234.5, new BigDecimal("1.50"),
+                new Date(1606815055000L), "é,\"€\"", " x"));
+        rows.add(Arrays.<Object>asList(null, null, null, null, null, ""));
+        rows.add(Arrays.<Object>asList(12L, -0.5, new BigDecimal("-7"), new Date(0), "#"));
+        Assert.assertEquals(write(data, rows, false), write(data, rows, true));
+    }
+
+    private static String write(MetaCSVData data, List<List<Object>> rows, boolean byteEncoder)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetaCSVWriter writer = new MetaCSVWriterBuilder().out(out)
+                .metaOut(new ByteArrayOutputStream()).metaData(data).byteEncoder(byteEncoder)
+                .build();
+        try {
+            writer.writeHeader(Arrays.asList("a", "b", "c", "d", "e", "f"));
+            for (List<Object> row : rows) {
+                writer.writeRow(row);
+            }
+        } finally {
+            writer.close();
+        }
+        return out.toString("ISO-8859-1");
+    }
+
+    private static byte[] printWithCSVPrinter(CSVFormat format, Charset charset,
+                                              List<List<String>> records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CSVPrinter printer = new CSVPrinter(new OutputStreamWriter(out, charset), format);
+        for (List<String> record : records) {
+            printer.printRecord(record);
+        }
+        printer.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] printWithByteRowPrinter(CSVFormat format, Charset charset,
+                                                  List<List<String>> records)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteRowPrinter printer = new ByteRowPrinter(Channels.newChannel(out), format, charset,
+                new boolean[0], 16);
+        StringBuilder row = new StringBuilder();
+        int[] fieldEnds = new int[5];
+        for (int i = 0; i < records.size(); i++) {
+            List<String> record = records.get(i);
+            if (i % 2 == 0) {
+                printer.printRecord(record);
+            } else {
+                row.setLength(0);
+                for (int j = 0; j < record.size(); j++) {
+                    row.append(record.get(j));
+                    fieldEnds[j] = row.length();
+                }
+                printer.printRow(row, fieldEnds, record.size());
+            }
+        }
+        printer.close();
+        return out.toByteArray();
+    }
+}
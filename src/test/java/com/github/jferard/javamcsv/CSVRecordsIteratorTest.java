@@ -43,7 +43,7 @@ public class CSVRecordsIteratorTest {
                 .colType(1, IntegerFieldDescription.INSTANCE).nullValue(null).build();
         CSVRecordProcessor processor = new CSVRecordProcessor(metaData.toProcessorProvider(null),
                 metaData.toReadProcessorProvider(OnError.EXCEPTION),
-                OnError.WRAP, TimeZone.getTimeZone("UTC"));
+                TimeZone.getTimeZone("UTC"));
         final Iterator<MetaCSVRecord> it = new CSVRecordsIterator(wrappedIterator, processor);
         Assert.assertTrue(it.hasNext());
         TestHelper.assertMetaEquals(TestHelper.createMetaRecord("foo", "bar", "baz"), it.next());
@@ -68,7 +68,7 @@ public class CSVRecordsIteratorTest {
                 new CSVRecordsIterator(wrappedIterator,
                         new CSVRecordProcessor(metaData.toProcessorProvider(null),
                                 metaData.toReadProcessorProvider(OnError.WRAP),
-                                OnError.WRAP, TimeZone.getTimeZone("UTC")));
+                                TimeZone.getTimeZone("UTC")));
         Assert.assertTrue(it.hasNext());
         TestHelper.assertMetaEquals(TestHelper.createMetaRecord("foo", "bar", "baz"), it.next());
         Assert.assertTrue(it.hasNext());
@@ -88,7 +88,7 @@ public class CSVRecordsIteratorTest {
         Iterator<MetaCSVRecord> it =
                 new CSVRecordsIterator(wrappedIterator,
                         new CSVRecordProcessor(metaData.toProcessorProvider(null),
-                                metaData.toReadProcessorProvider(OnError.WRAP), OnError.WRAP,
+                                metaData.toReadProcessorProvider(OnError.WRAP),
                                 TimeZone.getTimeZone("UTC")));
         Assert.assertTrue(it.hasNext());
         TestHelper.assertMetaEquals(TestHelper.createMetaRecord("foo", "bar", "baz"),
@@ -0,0 +1,250 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class CSVTokenizerTest {
+    @Test
+    public void testRecords() throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(
+                new StringReader("a,\"b,\"\"c\"\"\"\r\n\r\n,d,\n\"e\nf\",g"), CSVFormat.DEFAULT);
+        Assert.assertEquals("RawRecord [recordNumber=1, values=[a, b,\"c\"]]",
+                tokenizer.nextRecord().toString());
+        RawRecord record = tokenizer.nextRecord();
+        Assert.assertEquals(3, record.size());
+        Assert.assertEquals("", record.get(0));
+        Assert.assertEquals("d", record.getView(1).toString());
+        Assert.assertEquals("", record.get(2));
+        Assert.assertEquals(2, record.getRecordNumber());
+        Assert.assertEquals("RawRecord [recordNumber=3, values=[e\nf, g]]",
+                tokenizer.nextRecord().toString());
+        Assert.assertNull(tokenizer.nextRecord());
+        Assert.assertEquals(3, tokenizer.getRecordNumber());
+    }
+
+    @Test
+    public void testUnfinishedQuote() {
+        final CSVTokenizer tokenizer =
+                new CSVTokenizer(new StringReader("a,\"b"), CSVFormat.DEFAULT);
+        Assert.assertThrows(IllegalStateException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                tokenizer.iterator().next();
+            }
+        });
+    }
+
+    @Test
+    public void testSameAsCommonsCSV() throws IOException {
+        Random random = new Random(42);
+        String alphabet = "ab ;,\"\\\r\n\t";
+        CSVFormat[] formats = {CSVFormat.DEFAULT,
+                CSVFormat.DEFAULT.withDelimiter(';').withIgnoreSurroundingSpaces(true),
+                CSVFormat.DEFAULT.withQuote(null).withEscape('\\'),
+                CSVFormat.DEFAULT.withQuote('\'').withEscape('\\')};
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(20);
+            for (int j = 0; j < len; j++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = sb.toString();
+            for (CSVFormat format : formats) {
+                List<String> expected = this.parseWithCommonsCSV(text, format);
+                Assert.assertEquals(text, expected, this.parseWithTokenizer(text, format, false));
+                Assert.assertEquals(text, expected, this.parseWithTokenizer(text, format, true));
+            }
+        }
+    }
+
+    private List<String> parseWithCommonsCSV(String text, CSVFormat format) {
+        List<String> ret = new ArrayList<String>();
+        try {
+            CSVParser parser = format.parse(new StringReader(text));
+            for (CSVRecord record : parser) {
+                ret.add(record.getRecordNumber() + ":" + toList(record));
+            }
+        } catch (RuntimeException e) {
+            ret.add("error");
+        } catch (IOException e) {
+            ret.add("error");
+        }
+        return ret;
+    }
+
+    private List<String> parseWithTokenizer(String text, CSVFormat format, boolean lazy) {
+        List<String> ret = new ArrayList<String>();
+        try {
+            Iterator<RawRecord> it =
+                    new CSVTokenizer(new StringReader(text), format, lazy).iterator();
+            while (it.hasNext()) {
+                RawRecord record = it.next();
+                List<String> values = new ArrayList<String>();
+                for (int i = 0; i < record.size(); i++) {
+                    values.add(record.get(i));
+                }
+                ret.add(record.getRecordNumber() + ":" + values);
+            }
+        } catch (IllegalStateException e) {
+            ret.add("error");
+        }
+        return ret;
+    }
+
+    @Test
+    public void testLazy() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 10000; c++) {
+                if (c > 0) {
+                    sb.append(',');
+                }
+                sb.append("\"").append(r).append('-').append(c).append("\"");
+            }
+            sb.append("\r\n");
+        }
+        CSVTokenizer tokenizer =
+                new CSVTokenizer(new StringReader(sb.toString()), CSVFormat.DEFAULT, true);
+        RawRecord record = tokenizer.nextRecord();
+        Assert.assertEquals("0-5", record.getView(5).toString());
+        Assert.assertEquals("0-2", record.get(2));
+        record = tokenizer.nextRecord();
+        Assert.assertEquals("1-9999", record.get(9999));
+        Assert.assertEquals(10000, record.size());
+        record = tokenizer.nextRecord();
+        Assert.assertEquals(10000, record.size());
+        Assert.assertEquals("2-0", record.get(0));
+        Assert.assertNull(tokenizer.nextRecord());
+    }
+
+    @Test
+    public void testLazyOutOfBounds() throws IOException {
+        CSVTokenizer tokenizer =
+                new CSVTokenizer(new StringReader("a,b\r\n"), CSVFormat.DEFAULT, true);
+        final RawRecord record = tokenizer.nextRecord();
+        Assert.assertThrows(ArrayIndexOutOfBoundsException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                record.get(2);
+            }
+        });
+    }
+
+    @Test
+    public void testSpill() throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(
+                new StringReader("a,\"0123456789\"\"\",b\r\nc,d\r\n"), CSVFormat.DEFAULT,
+                false, Integer.MAX_VALUE, 5);
+        RawRecord record = tokenizer.nextRecord();
+        Assert.assertEquals("a", record.get(0));
+        Assert.assertEquals(11, record.getView(1).length());
+        Assert.assertEquals("0123456789\"", TestHelper.readReader(record.getReader(1)));
+        Assert.assertEquals("0123456789\"", record.get(1));
+        Assert.assertEquals("b", TestHelper.readReader(record.getReader(2)));
+        record = tokenizer.nextRecord();
+        Assert.assertEquals("RawRecord [recordNumber=2, values=[c, d]]", record.toString());
+        tokenizer.close();
+    }
+
+    @Test
+    public void testSpillLoneSurrogate() throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(
+                new StringReader("a,0123\uD800456\uDC00789\uD83D\uDE00,b\r\n"), CSVFormat.DEFAULT,
+                false, Integer.MAX_VALUE, 5);
+        RawRecord record = tokenizer.nextRecord();
+        String expected = "0123\uD800456\uDC00789\uD83D\uDE00";
+        CharSequence view = record.getView(1);
+        Assert.assertEquals(expected.length(), view.length());
+        Assert.assertEquals('\uDC00', view.charAt(8));
+        Assert.assertEquals("\uDC00789", view.subSequence(8, 12));
+        Assert.assertEquals(expected, view.toString());
+        Assert.assertEquals(expected, record.get(1));
+        Assert.assertEquals(expected, TestHelper.readReader(record.getReader(1)));
+        Assert.assertEquals("b", record.get(2));
+        tokenizer.close();
+    }
+
+    @Test
+    public void testSpillLongField() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        String expected = sb.toString();
+        CSVTokenizer tokenizer = new CSVTokenizer(
+                new StringReader("x," + expected + "\r\n"), CSVFormat.DEFAULT,
+                false, Integer.MAX_VALUE, 5);
+        RawRecord record = tokenizer.nextRecord();
+        CharSequence view = record.getView(1);
+        Assert.assertEquals(20000, view.length());
+        Assert.assertEquals(expected.charAt(19999), view.charAt(19999));
+        Assert.assertEquals(expected.charAt(3), view.charAt(3));
+        Assert.assertEquals(expected.substring(8000, 8500), view.subSequence(8000, 8500));
+        Assert.assertEquals(expected, record.get(1));
+        tokenizer.close();
+    }
+
+    @Test
+    public void testSpillTrim() throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(
+                new StringReader(" 01234 56789  ; x \r\n"),
+                CSVFormat.DEFAULT.withDelimiter(';').withIgnoreSurroundingSpaces(true),
+                false, Integer.MAX_VALUE, 5);
+        RawRecord record = tokenizer.nextRecord();
+        Assert.assertEquals("01234 56789", record.get(0));
+        Assert.assertEquals("x", record.get(1));
+        tokenizer.close();
+    }
+
+    @Test
+    public void testMaxFieldSize() {
+        final CSVTokenizer tokenizer = new CSVTokenizer(
+                new StringReader("a,0123456789\r\n"), CSVFormat.DEFAULT, true, 5,
+                Integer.MAX_VALUE);
+        Assert.assertThrows(IOException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws IOException {
+                tokenizer.nextRecord();
+            }
+        });
+    }
+
+    private static List<String> toList(CSVRecord record) {
+        List<String> values = new ArrayList<String>();
+        for (String value : record) {
+            values.add(value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+public class DoubleFormatterTest {
+    @Test
+    public void testShortest() {
+        Assert.assertEquals("0.0", shortest(0.0));
+        Assert.assertEquals("-0.0", shortest(-0.0));
+        Assert.assertEquals("0.1", shortest(0.1));
+        Assert.assertEquals("100.0", shortest(100.0));
+        Assert.assertEquals("0.001", shortest(0.001));
+        Assert.assertEquals("1.0E-4", shortest(0.0001));
+        Assert.assertEquals("9999999.0", shortest(9999999.0));
+        Assert.assertEquals("1.0E7", shortest(1.0E7));
+        Assert.assertEquals("1.0E23", shortest(1.0E23));
+        Assert.assertEquals("0.002", shortest(0.002));
+        Assert.assertEquals("4.9E-324", shortest(Double.MIN_VALUE));
+        Assert.assertEquals("1.7976931348623157E308", shortest(Double.MAX_VALUE));
+        Assert.assertEquals("2.2250738585072014E-308", shortest(Double.MIN_NORMAL));
+        Assert.assertEquals("NaN", shortest(Double.NaN));
+        Assert.assertEquals("-Infinity", shortest(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void testShortestSeparators() {
+        StringBuilder sb = new StringBuilder();
+        DoubleFormatter.appendShortest(sb, -1234567.25, " ", ",");
+        sb.append('|');
+        DoubleFormatter.appendShortest(sb, 123.5, " ", ",");
+        sb.append('|');
+        DoubleFormatter.appendShortest(sb, 1.5E10, " ", ",");
+        Assert.assertEquals("-1 234 567,25|123,5|1,5E10", sb.toString());
+    }
+
+    @Test
+    public void testShortestRoundTrip() {
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                continue;
+            }
+            String s = shortest(d);
+            Assert.assertEquals(s, d, Double.parseDouble(s), 0.0);
+            Assert.assertTrue(s, digitCount(s) <= digitCount(Double.toString(d)));
+        }
+    }
+
+    @Test
+    public void testFixed() {
+        Assert.assertEquals("1.00", fixed(1.005, 2));
+        Assert.assertEquals("0.12", fixed(0.125, 2));
+        Assert.assertEquals("2.67", fixed(2.675, 2));
+        Assert.assertEquals("2", fixed(2.5, 0));
+        Assert.assertEquals("0.000", fixed(-0.0001, 3));
+        Assert.assertEquals("-0.001", fixed(-0.001, 3));
+        Assert.assertEquals("NaN", fixed(Double.NaN, 3));
+        Assert.assertEquals("100000000000000000000.0", fixed(1.0E20, 1));
+
+        StringBuilder sb = new StringBuilder();
+        DoubleFormatter.appendFixed(sb, -1234567.125, 2, " ", ",");
+        sb.append('|');
+        DoubleFormatter.appendFixed(sb, 1.0E20, 0, " ", ",");
+        Assert.assertEquals("-1 234 567,12|100 000 000 000 000 000 000", sb.toString());
+    }
+
+    @Test
+    public void testFixedExact() {
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            double d = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 10);
+            int precision = random.nextInt(25);
+            String expected = new BigDecimal(d).setScale(precision, RoundingMode.HALF_EVEN)
+                    .toPlainString();
+            Assert.assertEquals(expected, fixed(d, precision));
+        }
+    }
+
+    @Test
+    public void testNegativePrecision() {
+        Assert.assertThrows(IllegalArgumentException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                fixed(1.0, -1);
+            }
+        });
+    }
+
+    private static String shortest(double d) {
+        StringBuilder sb = new StringBuilder();
+        DoubleFormatter.appendShortest(sb, d, null, null);
+        return sb.toString();
+    }
+
+    private static String fixed(double d, int precision) {
+        StringBuilder sb = new StringBuilder();
+        DoubleFormatter.appendFixed(sb, d, precision, null, null);
+        return sb.toString();
+    }
+
+    private static int digitCount(String s) {
+        int e = s.indexOf('E');
+        String mantissa = e == -1 ? s : s.substring(0, e);
+        mantissa = mantissa.replace("-", "").replace(".", "");
+        int start = 0;
+        while (start < mantissa.length() - 1 && mantissa.charAt(start) == '0') {
+            start++;
+        }
+        int end = mantissa.length();
+        while (end > start + 1 && mantissa.charAt(end - 1) == '0') {
+            end--;
+        }
+        return end - start;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class MetaCSVChannelReaderTest {
+    @Test
+    public void testManyFiles() throws Exception {
+        MetaCSVData data = new MetaCSVDataBuilder()
+                .colType(0, IntegerFieldDescription.INSTANCE).build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ByteBufferPool pool = new ByteBufferPool(16, 2);
+        int fileCount = 20;
+        List<MetaCSVChannelReader> readers = new ArrayList<MetaCSVChannelReader>();
+        List<List<List<Object>>> rowsByFile = new ArrayList<List<List<Object>>>();
+        try {
+            for (int f = 0; f < fileCount; f++) {
+                File csvFile = this.createFile("n,text\r\n", f);
+                final List<List<Object>> rows = new ArrayList<List<Object>>();
+                rowsByFile.add(rows);
+                readers.add(new MetaCSVReaderBuilder().csvFile(csvFile).metaData(data)
+                        .buildChannelReader(new RecordHandler() {
+                            @Override
+                            public void onRecord(MetaCSVRecord record) {
+                                rows.add(record.toList());
+                            }
+                        }, executor, pool));
+            }
+            for (MetaCSVChannelReader reader : readers) {
+                reader.start();
+            }
+            for (MetaCSVChannelReader reader : readers) {
+                reader.await();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (int f = 0; f < fileCount; f++) {
+            List<List<Object>> rows = rowsByFile.get(f);
+            Assert.assertEquals(101, rows.size());
+            Assert.assertEquals("[n, text]", rows.get(0).toString());
+            for (int r = 0; r < 100; r++) {
+                Assert.assertEquals("[" + r + ", file " + f + ", row é" + r + "]",
+                        rows.get(r + 1).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testError() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final MetaCSVChannelReader reader = new MetaCSVReaderBuilder()
+                    .csvFile(this.createFile("n,text\r\n\"", 0))
+                    .metaData(new MetaCSVDataBuilder().build())
+                    .buildChannelReader(new RecordHandler() {
+                        @Override
+                        public void onRecord(MetaCSVRecord record) {
+                        }
+                    }, executor, new ByteBufferPool(1024, 1));
+            reader.start();
+            Assert.assertThrows(MetaCSVReadException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    reader.await();
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testRejected() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Executor rejectingExecutor = new Executor() {
+                private int count;
+
+                @Override
+                public synchronized void execute(Runnable command) {
+                    if (this.count++ > 0) {
+                        throw new RejectedExecutionException("shut down");
+                    }
+                    executor.execute(command);
+                }
+            };
+            final MetaCSVChannelReader reader = new MetaCSVReaderBuilder()
+                    .csvFile(this.createFile("n,text\r\n", 0))
+                    .metaData(new MetaCSVDataBuilder().build())
+                    .buildChannelReader(new RecordHandler() {
+                        @Override
+                        public void onRecord(MetaCSVRecord record) {
+                        }
+                    }, rejectingExecutor, new ByteBufferPool(16, 1));
+            reader.start();
+            MetaCSVReadException e = Assert.assertThrows(MetaCSVReadException.class,
+                    new ThrowingRunnable() {
+                        @Override
+                        public void run() throws Throwable {
+                            reader.await();
+                        }
+                    });
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private File createFile(String header, int f) throws Exception {
+        File csvFile = File.createTempFile("test", ".csv");
+        csvFile.deleteOnExit();
+        Writer w = new OutputStreamWriter(new FileOutputStream(csvFile),
+                TestHelper.UTF_8_CHARSET);
+        w.write(header);
+        for (int r = 0; r < 100; r++) {
+            w.write(r + ",\"file " + f + ", row é" + r + "\"\r\n");
+        }
+        w.close();
+        return csvFile;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.DateFieldDescription;
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MetaCSVFeedParserTest {
+    private static final String CSV = "n,date,text\r\n1,2020-01-02,\"Saint-\r\nÉtienne\"\r\n" +
+            "2,NULL,\"a,\"\"b\"\"\"\n\n3,2021-12-31,日本\r\n4,2022-01-01,";
+
+    @Test
+    public void testFeed()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        MetaCSVData data = new MetaCSVDataBuilder().nullValue("NULL")
+                .colType(0, IntegerFieldDescription.INSTANCE)
+                .colType(1, DateFieldDescription.INSTANCE).build();
+        List<List<Object>> expected = new ArrayList<List<Object>>();
+        MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream(CSV)).metaData(data).build();
+        for (MetaCSVRecord record : reader) {
+            expected.add(record.toList());
+        }
+        reader.close();
+        Assert.assertEquals(5, expected.size());
+
+        byte[] bytes = CSV.getBytes("UTF-8");
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            final List<List<Object>> actual = new ArrayList<List<Object>>();
+            MetaCSVFeedParser parser = new MetaCSVReaderBuilder().metaData(data)
+                    .buildFeedParser(new RecordHandler() {
+                        @Override
+                        public void onRecord(MetaCSVRecord record) {
+                            actual.add(record.toList());
+                        }
+                    });
+            int pos = 0;
+            while (pos < bytes.length) {
+                int length = Math.min(bytes.length - pos, 1 + random.nextInt(8));
+                ByteBuffer chunk = ByteBuffer.wrap(bytes, pos, length);
+                parser.feed(chunk);
+                Assert.assertFalse(chunk.hasRemaining());
+                pos += length;
+            }
+            Assert.assertEquals(expected.subList(0, 4), actual);
+            parser.endOfInput();
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testBOM()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        final List<List<Object>> actual = new ArrayList<List<Object>>();
+        MetaCSVFeedParser parser = new MetaCSVReaderBuilder()
+                .metaData(new MetaCSVDataBuilder().bom(true).build())
+                .buildFeedParser(new RecordHandler() {
+                    @Override
+                    public void onRecord(MetaCSVRecord record) {
+                        actual.add(record.toList());
+                    }
+                });
+        parser.feed(ByteBuffer.wrap(new byte[]{(byte) 0xEF, (byte) 0xBB}));
+        parser.feed(ByteBuffer.wrap(new byte[]{(byte) 0xBF, 'a', '\n', 'b'}));
+        parser.endOfInput();
+        Assert.assertEquals("[[a], [b]]", actual.toString());
+    }
+
+    @Test
+    public void testUnterminatedQuote()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        final MetaCSVFeedParser parser = new MetaCSVReaderBuilder()
+                .metaData(new MetaCSVDataBuilder().build())
+                .buildFeedParser(new RecordHandler() {
+                    @Override
+                    public void onRecord(MetaCSVRecord record) {
+                    }
+                });
+        parser.feed(ByteBuffer.wrap("a\r\n\"b\r\n".getBytes("UTF-8")));
+        Assert.assertThrows(MetaCSVReadException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                parser.endOfInput();
+            }
+        });
+    }
+
+    @Test
+    public void testUTF16() {
+        Assert.assertThrows(MetaCSVDataException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                new MetaCSVReaderBuilder()
+                        .metaData(new MetaCSVDataBuilder().encoding("UTF-16").build())
+                        .buildFeedParser(null);
+            }
+        });
+    }
+}
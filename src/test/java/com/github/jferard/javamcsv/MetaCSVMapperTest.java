@@ -0,0 +1,216 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.BooleanFieldDescription;
+import com.github.jferard.javamcsv.description.DateFieldDescription;
+import com.github.jferard.javamcsv.description.DecimalFieldDescription;
+import com.github.jferard.javamcsv.description.FloatFieldDescription;
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimeZone;
+
+public class MetaCSVMapperTest {
+    private static final String CSV = "id,name,score,active,birth,amount,comment\r\n" +
+            "1,Foo,1.5,true,21/11/2020,10.25,x\r\n" +
+            "2,NULL,NULL,NULL,NULL,NULL,y\r\n";
+
+    private MetaCSVData data;
+
+    @Before
+    public void setUp() throws MetaCSVDataException {
+        this.data = new MetaCSVDataBuilder().nullValue("NULL")
+                .colType(0, IntegerFieldDescription.INSTANCE)
+                .colType(2, FloatFieldDescription.INSTANCE)
+                .colType(3, BooleanFieldDescription.INSTANCE)
+                .colType(4, DateFieldDescription.create("dd/MM/yyyy"))
+                .colType(5, DecimalFieldDescription.INSTANCE).build();
+    }
+
+    @Test
+    public void testRead()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(TestHelper.utf8InputStream(CSV))
+                .metaData(this.data).textViews(true).build();
+        try {
+            Iterator<MetaCSVRecord> it = reader.iterator();
+            List<String> header = Util.header(it.next());
+            MetaCSVMapper<Person> mapper =
+                    MetaCSVMapper.create(Person.class, header, reader.getMetaData());
+
+            Person person = mapper.read(it.next());
+            Assert.assertEquals(1, person.id);
+            Assert.assertEquals("Foo", person.name);
+            Assert.assertEquals(1.5, person.value, 0.0);
+            Assert.assertTrue(person.active);
+            Assert.assertEquals(18587L * 24 * 60 * 60 * 1000, person.birth);
+            Assert.assertEquals(new BigDecimal("10.25"), person.amount);
+            Assert.assertNull(person.comment);
+
+            mapper.fill(it.next(), person);
+            Assert.assertEquals(2, person.id);
+            Assert.assertNull(person.name);
+            Assert.assertEquals(0.0, person.value, 0.0);
+            Assert.assertFalse(person.active);
+            Assert.assertEquals(0L, person.birth);
+            Assert.assertNull(person.amount);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testWrite() throws IOException, MetaCSVDataException {
+        List<String> header = Arrays.asList("id", "name", "score", "active", "birth", "amount",
+                "comment");
+        MetaCSVMapper<Person> mapper =
+                MetaCSVMapper.create(Person.class, header, this.data.getMetaData());
+        Person person = new Person();
+        person.id = 1;
+        person.name = "Foo";
+        person.value = 1.5;
+        person.active = true;
+        person.birth = 18587L * 24 * 60 * 60 * 1000;
+        person.amount = new BigDecimal("10.25");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetaCSVWriter writer = MetaCSVWriter.create(out, new ByteArrayOutputStream(), this.data);
+        try {
+            writer.writeHeader(mapper.getHeader());
+            mapper.write(writer, person);
+        } finally {
+            writer.close();
+        }
+        Assert.assertEquals("id,name,score,active,birth,amount,comment\r\n" +
+                "1,Foo,1.5,true,21/11/2020,10.25,NULL\r\n", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void testRoundTripWithTimeZone()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        TimeZone timeZone = TimeZone.getTimeZone("Asia/Tokyo");
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(TestHelper.utf8InputStream(CSV))
+                .metaData(this.data).timeZone(timeZone).build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetaCSVWriter writer = MetaCSVWriter.create(out, new ByteArrayOutputStream(), this.data);
+        try {
+            Iterator<MetaCSVRecord> it = reader.iterator();
+            List<String> header = Util.header(it.next());
+            MetaCSVMapper<Person> mapper =
+                    MetaCSVMapper.create(Person.class, header, reader.getMetaData(), timeZone);
+            writer.writeHeader(mapper.getHeader());
+            Person person = mapper.read(it.next());
+            Assert.assertEquals(18587L * 24 * 60 * 60 * 1000 - 9 * 60 * 60 * 1000,
+                    person.birth);
+            mapper.write(writer, person);
+            person.birth += 20 * 60 * 60 * 1000;
+            mapper.write(writer, person);
+        } finally {
+            reader.close();
+            writer.close();
+        }
+        Assert.assertEquals("id,name,score,active,birth,amount,comment\r\n" +
+                "1,Foo,1.5,true,21/11/2020,10.25,NULL\r\n" +
+                "1,Foo,1.5,true,21/11/2020,10.25,NULL\r\n", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void testBadType() {
+        final List<String> header = Arrays.asList("id", "name");
+        Assert.assertThrows(MetaCSVDataException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                MetaCSVMapper.create(BadPerson.class, header, data.getMetaData());
+            }
+        });
+    }
+
+    @Test
+    public void testUnknownColumn() {
+        final List<String> header = Arrays.asList("id", "name");
+        Assert.assertThrows(MetaCSVDataException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                MetaCSVMapper.create(Person.class, header, data.getMetaData());
+            }
+        });
+    }
+
+    @Test
+    public void testDoubleToIntegerColumn() {
+        final List<String> header = Arrays.asList("id", "name");
+        MetaCSVDataException e = Assert.assertThrows(MetaCSVDataException.class,
+                new ThrowingRunnable() {
+                    @Override
+                    public void run() throws Throwable {
+                        MetaCSVMapper.create(DoubleId.class, header, data.getMetaData());
+                    }
+                });
+        Assert.assertEquals("Can't bind field id (double) to column 0 (INTEGER)", e.getMessage());
+    }
+
+    @Test
+    public void testUnknownColumnIndex() {
+        final List<String> header = Arrays.asList("id", "name");
+        MetaCSVDataException e = Assert.assertThrows(MetaCSVDataException.class,
+                new ThrowingRunnable() {
+                    @Override
+                    public void run() throws Throwable {
+                        MetaCSVMapper.create(BadIndex.class, header, data.getMetaData());
+                    }
+                });
+        Assert.assertEquals("Unknown column index: 5", e.getMessage());
+    }
+
+    private static class Person {
+        private int id;
+        private String name;
+        @MetaCSVColumn(name = "score")
+        private double value;
+        private boolean active;
+        @MetaCSVColumn(index = 4)
+        private long birth;
+        private BigDecimal amount;
+        private transient String comment;
+    }
+
+    private static class BadPerson {
+        private boolean name;
+    }
+
+    private static class DoubleId {
+        private double id;
+    }
+
+    private static class BadIndex {
+        @MetaCSVColumn(index = 5)
+        private String name;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.BooleanFieldDescription;
+import com.github.jferard.javamcsv.description.DateFieldDescription;
+import com.github.jferard.javamcsv.description.DecimalFieldDescription;
+import com.github.jferard.javamcsv.description.FloatFieldDescription;
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+public class MetaCSVParallelWriterTest {
+    private static final List<String> HEADER = Arrays.asList("a", "b", "c", "d", "e", "f");
+    private MetaCSVData data;
+    private List<List<Object>> rows;
+
+    @Before
+    public void setUp() throws MetaCSVDataException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(Util.UTC_TIME_ZONE);
+        this.data = new MetaCSVDataBuilder().nullValue("NULL").
+                colType(0, new IntegerFieldDescription(" ")).
+                colType(1, new FloatFieldDescription(" ", ",")).
+                colType(2, new DecimalFieldDescription("", ".")).
+                colType(3, new DateFieldDescription(dateFormat, null)).
+                colType(4, new BooleanFieldDescription("T", "F")).
+                build();
+        Random random = new Random(0);
+        this.rows = new ArrayList<List<Object>>();
+        for (int i = 0; i < 5000; i++) {
+            if (i % 100 == 0) {
+                this.rows.add(Arrays.<Object>asList(null, null, null, null, null, null));
+            } else {
+                this.rows.add(Arrays.<Object>asList(random.nextLong(), random.nextGaussian(),
+                        BigDecimal.valueOf(random.nextInt(), 2),
+                        new Date(random.nextInt() * 1000L), random.nextBoolean(),
+                        "x,\"" + i));
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsSequentialWriter() throws IOException {
+        for (boolean byteEncoder : new boolean[]{false, true}) {
+            byte[] expected = this.writeSequential(byteEncoder);
+            for (int batchSize : new int[]{1, 7, 1024}) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                MetaCSVParallelWriter writer = new MetaCSVWriterBuilder().out(out)
+                        .metaData(this.data).byteEncoder(byteEncoder).formattingThreads(3)
+                        .formattingBatchSize(batchSize).buildParallel();
+                writer.writeHeader(HEADER);
+                for (List<Object> row : this.rows) {
+                    writer.writeRow(row);
+                }
+                writer.close();
+                Assert.assertArrayEquals(expected, out.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void testColumns() throws IOException {
+        int rowCount = this.rows.size();
+        long[] longs = new long[rowCount];
+        double[] doubles = new double[rowCount];
+        Object[] decimals = new Object[rowCount];
+        Object[] dates = new Object[rowCount];
+        boolean[] booleans = new boolean[rowCount];
+        Object[] texts = new Object[rowCount];
+        List<List<Object>> expectedRows = new ArrayList<List<Object>>();
+        for (int r = 0; r < rowCount; r++) {
+            List<Object> row = this.rows.get(r);
+            if (row.get(0) == null) {
+                expectedRows.add(Arrays.<Object>asList(0L, 0.0, null, null, false, null));
+            } else {
+                longs[r] = (Long) row.get(0);
+                doubles[r] = (Double) row.get(1);
+                booleans[r] = (Boolean) row.get(4);
+                expectedRows.add(row);
+            }
+            decimals[r] = row.get(2);
+            dates[r] = row.get(3);
+            texts[r] = row.get(5);
+        }
+        this.rows = expectedRows;
+        for (boolean byteEncoder : new boolean[]{false, true}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            MetaCSVParallelWriter writer = new MetaCSVWriterBuilder().out(out)
+                    .metaData(this.data).byteEncoder(byteEncoder).formattingThreads(2)
+                    .formattingBatchSize(100).buildParallel();
+            writer.writeHeader(HEADER);
+            writer.writeColumns(1000, longs, doubles, decimals, dates, booleans, texts);
+            for (int r = 1000; r < 1010; r++) {
+                writer.writeRow(expectedRows.get(r));
+            }
+            writer.writeColumns(rowCount - 1010,
+                    Arrays.copyOfRange(longs, 1010, rowCount),
+                    Arrays.copyOfRange(doubles, 1010, rowCount),
+                    Arrays.copyOfRange(decimals, 1010, rowCount),
+                    Arrays.copyOfRange(dates, 1010, rowCount),
+                    Arrays.copyOfRange(booleans, 1010, rowCount),
+                    Arrays.copyOfRange(texts, 1010, rowCount));
+            writer.close();
+            Assert.assertArrayEquals(this.writeSequential(byteEncoder), out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testUnsupportedColumn() throws IOException {
+        final MetaCSVParallelWriter writer = new MetaCSVWriterBuilder()
+                .out(new ByteArrayOutputStream()).metaData(this.data).buildParallel();
+        Assert.assertThrows(IllegalArgumentException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                writer.writeColumns(1, new float[]{1.0f});
+            }
+        });
+        writer.close();
+    }
+
+    @Test
+    public void testError() throws IOException {
+        List<List<Object>> rows = new ArrayList<List<Object>>();
+        for (Object value : new Object[]{1L, "not a long", 2L, 3L, "nor this", 4L}) {
+            rows.add(Collections.singletonList(value));
+        }
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        MetaCSVWriter sequentialWriter = new MetaCSVWriterBuilder().out(expected)
+                .metaData(this.data).build();
+        int errorCount = 0;
+        for (List<Object> row : rows) {
+            try {
+                sequentialWriter.writeRow(row);
+            } catch (ClassCastException e) {
+                errorCount++;
+            }
+        }
+        sequentialWriter.close();
+        Assert.assertEquals(2, errorCount);
+        Assert.assertEquals("1\r\n2\r\n3\r\n4\r\n", expected.toString("UTF-8"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MetaCSVParallelWriter writer = new MetaCSVWriterBuilder().out(out)
+                .metaData(this.data).formattingThreads(1).formattingBatchSize(4)
+                .buildParallel();
+        for (List<Object> row : rows) {
+            writer.writeRow(row);
+        }
+        Assert.assertThrows(ClassCastException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                writer.flush();
+            }
+        });
+        Assert.assertEquals("1\r\n", out.toString("UTF-8"));
+        Assert.assertThrows(ClassCastException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                writer.flush();
+            }
+        });
+        Assert.assertEquals("1\r\n2\r\n3\r\n", out.toString("UTF-8"));
+        writer.flush();
+        writer.close();
+        Assert.assertArrayEquals(expected.toByteArray(), out.toByteArray());
+    }
+
+    @Test
+    public void testCloseThrowsFirstError() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MetaCSVParallelWriter writer = new MetaCSVWriterBuilder().out(out)
+                .metaData(this.data).formattingThreads(2).formattingBatchSize(1)
+                .byteEncoder(true).buildParallel();
+        writer.writeRow(Arrays.<Object>asList("not a long"));
+        writer.writeRow(Arrays.<Object>asList(1L));
+        writer.writeRow(Arrays.<Object>asList("nor this"));
+        writer.writeRow(Arrays.<Object>asList(2L));
+        ClassCastException e = Assert.assertThrows(ClassCastException.class,
+                new ThrowingRunnable() {
+                    @Override
+                    public void run() throws Throwable {
+                        writer.close();
+                    }
+                });
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("String"));
+        Assert.assertEquals("1\r\n2\r\n", out.toString("UTF-8"));
+    }
+
+    private byte[] writeSequential(boolean byteEncoder) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetaCSVWriter writer = new MetaCSVWriterBuilder().out(out).metaData(this.data)
+                .byteEncoder(byteEncoder).build();
+        writer.writeHeader(HEADER);
+        for (List<Object> row : this.rows) {
+            writer.writeRow(row);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class MetaCSVPublisherTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        this.executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        Flow.Publisher<MetaCSVRecord> publisher = this.createReader().toPublisher(this.executor);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        this.waitIdle();
+        Assert.assertEquals(0, subscriber.items.size());
+        subscriber.subscription.request(2);
+        this.waitIdle();
+        Assert.assertEquals("[[a, b], [1, x]]", subscriber.items.toString());
+        Assert.assertFalse(subscriber.completed);
+        subscriber.subscription.request(10);
+        this.waitIdle();
+        Assert.assertEquals("[[a, b], [1, x], [2, y], [3, z]]", subscriber.items.toString());
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        Flow.Publisher<MetaCSVRecord> publisher = this.createReader().toPublisher(this.executor);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        this.waitIdle();
+        Assert.assertTrue(subscriber.items.size() <= 1);
+        Assert.assertFalse(subscriber.completed);
+        Assert.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testBadRequest() throws Exception {
+        Flow.Publisher<MetaCSVRecord> publisher = this.createReader().toPublisher(this.executor);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        this.waitIdle();
+        Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testTwoSubscribers() throws Exception {
+        Flow.Publisher<MetaCSVRecord> publisher = this.createReader().toPublisher(this.executor);
+        publisher.subscribe(new TestSubscriber());
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        Assert.assertTrue(subscriber.error instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testRejected() throws Exception {
+        this.executor.shutdown();
+        Flow.Publisher<MetaCSVRecord> publisher = this.createReader().toPublisher(this.executor);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        Assert.assertTrue(subscriber.error instanceof RejectedExecutionException);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        Assert.assertEquals(0, subscriber.items.size());
+        Assert.assertFalse(subscriber.completed);
+    }
+
+    private MetaCSVReader createReader() throws Exception {
+        return new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream("a,b\r\n1,x\r\n2,y\r\n3,z\r\n"))
+                .metaData(new MetaCSVDataBuilder().colType(0, IntegerFieldDescription.INSTANCE)
+                        .build()).build();
+    }
+
+    private void waitIdle() throws ExecutionException, InterruptedException {
+        this.executor.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get();
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<MetaCSVRecord> {
+        private final List<List<Object>> items = new ArrayList<List<Object>>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(MetaCSVRecord item) {
+            this.items.add(item.toList());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+}
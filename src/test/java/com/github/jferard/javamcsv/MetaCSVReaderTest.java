@@ -20,10 +20,16 @@
 
 package com.github.jferard.javamcsv;
 
+import com.github.jferard.javamcsv.description.BooleanFieldDescription;
 import com.github.jferard.javamcsv.description.CurrencyDecimalFieldDescription;
+import com.github.jferard.javamcsv.description.DateFieldDescription;
+import com.github.jferard.javamcsv.description.DatetimeFieldDescription;
+import com.github.jferard.javamcsv.description.DecimalFieldDescription;
+import com.github.jferard.javamcsv.description.FloatFieldDescription;
 import com.github.jferard.javamcsv.description.IntegerFieldDescription;
 import org.junit.Assert;
 import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -33,11 +39,15 @@ import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
 
 public class MetaCSVReaderTest {
     @Test
@@ -290,4 +300,436 @@ public class MetaCSVReaderTest {
             reader.close();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        StringBuilder sb = new StringBuilder("a,b\r\n");
+        for (int i = 0; i < 500; i++) {
+            sb.append(i).append(",").append(String.format("2020-%02d-%02d", 1 + i % 12, 1 + i % 28))
+                    .append("\r\n");
+        }
+        final byte[] bytes = sb.toString().getBytes(TestHelper.UTF_8_CHARSET);
+        final MetaCSVData data =
+                new MetaCSVDataBuilder().colType(0, IntegerFieldDescription.INSTANCE)
+                        .colType(1, DateFieldDescription.INSTANCE).build();
+        TestHelper.runConcurrently(8, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                MetaCSVReader reader = MetaCSVReader.create(new ByteArrayInputStream(bytes), data);
+                try {
+                    Iterator<MetaCSVRecord> it = reader.iterator();
+                    Assert.assertEquals(Arrays.asList("a", "b"), it.next().toList());
+                    Calendar c = GregorianCalendar.getInstance(Util.UTC_TIME_ZONE);
+                    for (int i = 0; i < 500; i++) {
+                        c.setTimeInMillis(0);
+                        c.set(2020, i % 12, 1 + i % 28);
+                        Assert.assertEquals(Arrays.<Object>asList((long) i, c.getTime()),
+                                it.next().toList());
+                    }
+                    Assert.assertFalse(it.hasNext());
+                } finally {
+                    reader.close();
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testEpoch()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        InputStream in = TestHelper.utf8InputStream(
+                "date,datetime\r\n" +
+                        "21/11/2020,2020-11-21 22:30:15\r\n" +
+                        "NULL,NULL\r\n");
+        MetaCSVData data = new MetaCSVDataBuilder().nullValue("NULL")
+                .colType(0, DateFieldDescription.create("dd/MM/yyyy"))
+                .colType(1, DatetimeFieldDescription.create("yyyy-MM-dd HH:mm:ss")).build();
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(in).metaData(data)
+                .timeZone(TimeZone.getTimeZone("GMT+02:00")).build();
+        try {
+            final Iterator<MetaCSVRecord> it = reader.iterator();
+            it.next();
+            MetaCSVRecord record = it.next();
+            Assert.assertFalse(record.isNull(0));
+            // the offset is applied before the time is dropped
+            Assert.assertEquals(18586L, record.getEpochDay(0));
+            Assert.assertEquals(record.getDate(0).getTime(), 18586L * 24 * 60 * 60 * 1000);
+            Assert.assertEquals(18587L, record.getEpochDay(1));
+            Assert.assertEquals(record.getDatetime(1).getTime(), record.getEpochMillis(1));
+            Assert.assertEquals(1605997815000L - 2 * 60 * 60 * 1000, record.getEpochMillis(1));
+
+            final MetaCSVRecord nullRecord = it.next();
+            Assert.assertTrue(nullRecord.isNull(0));
+            Assert.assertTrue(nullRecord.isNull(1));
+            Assert.assertThrows(NullPointerException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    nullRecord.getEpochMillis(1);
+                }
+            });
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testTextViews()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        InputStream in = TestHelper.utf8InputStream(
+                "key,value\r\n" +
+                        "\"a,\"\"b\"\"\",1\r\n" +
+                        "NULL,2\r\n");
+        MetaCSVData data = new MetaCSVDataBuilder().nullValue("NULL")
+                .colType(1, IntegerFieldDescription.INSTANCE).build();
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(in).metaData(data)
+                .textViews(true).build();
+        try {
+            Iterator<MetaCSVRecord> it = reader.iterator();
+            MetaCSVRecord header = it.next();
+            Assert.assertEquals("key", header.getText(0).toString());
+            MetaCSVRecord record = it.next();
+            CharSequence key = record.getText(0);
+            Assert.assertTrue(key instanceof TextView);
+            Assert.assertEquals("a,\"b\"", key.toString());
+            Assert.assertEquals("a,\"b\"".hashCode(), key.hashCode());
+            Assert.assertEquals(1L, (long) record.getInteger(1));
+            Assert.assertEquals(Arrays.<Object>asList("a,\"b\"", 1L), record.toList());
+            Assert.assertEquals(1L, reader.getRow());
+            MetaCSVRecord nullRecord = it.next();
+            Assert.assertNull(nullRecord.getText(0));
+            Assert.assertTrue(nullRecord.isNull(0));
+            Assert.assertFalse(it.hasNext());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testWideTable()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 20000; c++) {
+                if (c > 0) {
+                    sb.append(',');
+                }
+                sb.append(r == 0 ? "col" + c : String.valueOf(r * c));
+            }
+            sb.append("\r\n");
+        }
+        MetaCSVData data = new MetaCSVDataBuilder()
+                .colType(19999, IntegerFieldDescription.INSTANCE).build();
+        MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream(sb.toString())).metaData(data)
+                .wideTable(true).build();
+        try {
+            Iterator<MetaCSVRecord> it = reader.iterator();
+            Assert.assertEquals("col19999", it.next().getText(19999).toString());
+            MetaCSVRecord record = it.next();
+            Assert.assertEquals("10", record.getText(10).toString());
+            Assert.assertEquals(19999L, (long) record.getInteger(19999));
+            record = it.next();
+            Assert.assertEquals(39998L, (long) record.getInteger(19999));
+            Assert.assertEquals(20000, record.size());
+            Assert.assertFalse(it.hasNext());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testSpillThreshold()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append("log line ").append(i).append('\n');
+        }
+        String log = sb.toString();
+        InputStream in = TestHelper.utf8InputStream(
+                "id,log\r\n" +
+                        "1,\"" + log + "\"\r\n" +
+                        "2,NULL\r\n");
+        MetaCSVData data = new MetaCSVDataBuilder().nullValue("NULL").build();
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(in).metaData(data)
+                .spillThreshold(1024).build();
+        try {
+            Iterator<MetaCSVRecord> it = reader.iterator();
+            it.next();
+            MetaCSVRecord record = it.next();
+            Assert.assertEquals("1", record.getText(0).toString());
+            Assert.assertFalse(record.isNull(1));
+            Assert.assertEquals(log, TestHelper.readReader(record.getCharacterStream(1)));
+            Assert.assertNull(it.next().getCharacterStream(1));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testMaxFieldSize()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        InputStream in = TestHelper.utf8InputStream("id,log\r\n1,0123456789\r\n");
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(in)
+                .metaData(new MetaCSVDataBuilder().build()).maxFieldSize(5).build();
+        try {
+            final Iterator<MetaCSVRecord> it = reader.iterator();
+            it.next();
+            Assert.assertThrows(IllegalStateException.class, new ThrowingRunnable() {
+                @Override
+                public void run() {
+                    it.next();
+                }
+            });
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testRawIterator()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        for (boolean textViews : new boolean[]{false, true}) {
+            InputStream in = TestHelper.utf8InputStream("a,b\r\n1,\"x,y\"\r\n");
+            MetaCSVData data = new MetaCSVDataBuilder()
+                    .colType(0, IntegerFieldDescription.INSTANCE).build();
+            MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(in).metaData(data)
+                    .textViews(textViews).build();
+            try {
+                Iterator<RawRecord> it = reader.rawIterator();
+                RawRecord header = it.next();
+                Assert.assertEquals("a", header.get(0));
+                RawRecord record = it.next();
+                Assert.assertEquals(2, record.size());
+                Assert.assertEquals("1", record.getView(0).toString());
+                Assert.assertEquals("x,y", record.get(1));
+                Assert.assertEquals(2, record.getRecordNumber());
+                Assert.assertFalse(it.hasNext());
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    @Test
+    public void testAccept()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        for (boolean textViews : new boolean[]{false, true}) {
+            InputStream in = TestHelper.utf8InputStream(
+                    "a,b,c,d,e,f\r\n1,2.5,true,2020-01-02,x,1.5\r\nNA,foo,NA,NA,NA,NA\r\n");
+            MetaCSVData data = new MetaCSVDataBuilder().nullValue("NA")
+                    .colType(0, IntegerFieldDescription.INSTANCE)
+                    .colType(1, FloatFieldDescription.INSTANCE)
+                    .colType(2, BooleanFieldDescription.INSTANCE)
+                    .colType(3, DateFieldDescription.INSTANCE)
+                    .colType(5, new DecimalFieldDescription("", "."))
+                    .build();
+            MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(in).metaData(data)
+                    .textViews(textViews).build();
+            final StringBuilder sb = new StringBuilder();
+            try {
+                reader.accept(new RowVisitor() {
+                    @Override
+                    public void startRow(long row) {
+                        sb.append(row).append(":");
+                    }
+
+                    @Override
+                    public void onLong(int col, long value) {
+                        sb.append(" L").append(value);
+                    }
+
+                    @Override
+                    public void onDouble(int col, double value) {
+                        sb.append(" D").append(value);
+                    }
+
+                    @Override
+                    public void onBoolean(int col, boolean value) {
+                        sb.append(" B").append(value);
+                    }
+
+                    @Override
+                    public void onEpochMillis(int col, long epochMillis) {
+                        sb.append(" M").append(epochMillis);
+                    }
+
+                    @Override
+                    public void onText(int col, char[] chars, int offset, int length) {
+                        sb.append(" T").append(chars, offset, length);
+                    }
+
+                    @Override
+                    public void onObject(int col, Object value) {
+                        sb.append(" O").append(value);
+                    }
+
+                    @Override
+                    public void onNull(int col) {
+                        sb.append(" N").append(col);
+                    }
+
+                    @Override
+                    public void onError(int col, CharSequence raw) {
+                        sb.append(" E").append(raw);
+                    }
+
+                    @Override
+                    public void endRow() {
+                        sb.append(";");
+                    }
+                });
+            } finally {
+                reader.close();
+            }
+            Assert.assertEquals("0: Ta Tb Tc Td Te Tf;" +
+                    "1: L1 D2.5 Btrue M1577923200000 Tx O1.5;" +
+                    "2: N0 Efoo N2 N3 N4 N5;", sb.toString());
+        }
+    }
+
+    @Test
+    public void testCheckpoint()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        StringBuilder sb = new StringBuilder("n,text\r\n");
+        for (int r = 0; r < 3000; r++) {
+            sb.append(r).append(",\"é\r\n").append(r).append(" \u20AC \uD83D\uDE00\"\r\n");
+            if (r % 100 == 0) {
+                sb.append("\r\n");
+            }
+        }
+        String csv = sb.toString();
+        MetaCSVData data = new MetaCSVDataBuilder().bom(true)
+                .colType(0, IntegerFieldDescription.INSTANCE).build();
+        for (boolean wideTable : new boolean[]{false, true}) {
+            List<List<Object>> expected = new ArrayList<List<Object>>();
+            List<MetaCSVCheckpoint> checkpoints = new ArrayList<MetaCSVCheckpoint>();
+            MetaCSVReader reader = new MetaCSVReaderBuilder()
+                    .csvIn(TestHelper.bomUtf8InputStream(csv)).metaData(data)
+                    .wideTable(wideTable).checkpoints(true).build();
+            for (MetaCSVRecord record : reader) {
+                expected.add(record.toList());
+                checkpoints.add(reader.getCheckpoint());
+            }
+            reader.close();
+            Assert.assertEquals(3001, expected.size());
+            Assert.assertEquals(Arrays.asList("n", "text"), checkpoints.get(0).getHeader());
+            Assert.assertTrue(checkpoints.get(0).isUtf8BOM());
+            Assert.assertEquals(3 + 8, checkpoints.get(0).getByteOffset());
+
+            for (int k = 0; k < 3001; k += 97) {
+                MetaCSVCheckpoint checkpoint = checkpoints.get(k);
+                Assert.assertEquals(k + 1, checkpoint.getRecordNumber());
+                reader = new MetaCSVReaderBuilder()
+                        .csvIn(TestHelper.bomUtf8InputStream(csv)).metaData(data)
+                        .wideTable(wideTable).resumeFrom(checkpoint).build();
+                List<List<Object>> actual = new ArrayList<List<Object>>();
+                int i = k;
+                for (MetaCSVRecord record : reader) {
+                    actual.add(record.toList());
+                    if (i > k) {
+                        Assert.assertEquals(checkpoints.get(i), reader.getCheckpoint());
+                    }
+                    i++;
+                }
+                reader.close();
+                List<List<Object>> remaining = new ArrayList<List<Object>>();
+                remaining.add(expected.get(0));
+                remaining.addAll(expected.subList(k + 1, expected.size()));
+                Assert.assertEquals(remaining, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testCheckpointErrors()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        final MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream("a,b\r\n1,2\r\n"))
+                .metaData(new MetaCSVDataBuilder().build()).build();
+        Assert.assertThrows(IllegalStateException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                reader.getCheckpoint();
+            }
+        });
+        Assert.assertThrows(MetaCSVDataException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                new MetaCSVReaderBuilder().csvIn(TestHelper.utf8InputStream("a,b\r\n"))
+                        .metaData(new MetaCSVDataBuilder().encoding("UTF-16").build())
+                        .checkpoints(true).build();
+            }
+        });
+    }
+
+    @Test
+    public void testTypingThreads()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        StringBuilder sb = new StringBuilder("n,date,amount,text\r\n");
+        for (int r = 0; r < 5000; r++) {
+            sb.append(r).append(",2020-01-").append(r % 28 + 1).append(",").append(r)
+                    .append(".25,\"x,").append(r).append("\"\r\n");
+        }
+        sb.append("5000,bad,1,z\r\n");
+        MetaCSVData data = new MetaCSVDataBuilder()
+                .colType(0, IntegerFieldDescription.INSTANCE)
+                .colType(1, DateFieldDescription.INSTANCE)
+                .colType(2, new DecimalFieldDescription("", "."))
+                .build();
+        List<List<Object>> expected = new ArrayList<List<Object>>();
+        MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream(sb.toString())).metaData(data).build();
+        for (MetaCSVRecord record : reader) {
+            expected.add(record.toList());
+        }
+        reader.close();
+
+        for (boolean textViews : new boolean[]{false, true}) {
+            reader = new MetaCSVReaderBuilder()
+                    .csvIn(TestHelper.utf8InputStream(sb.toString())).metaData(data)
+                    .textViews(textViews).typingThreads(3).typingBatchSize(7).build();
+            List<List<Object>> actual = new ArrayList<List<Object>>();
+            final List<MetaCSVRecord> records = new ArrayList<MetaCSVRecord>();
+            try {
+                for (MetaCSVRecord record : reader) {
+                    actual.add(record.toList());
+                    records.add(record);
+                }
+            } finally {
+                reader.close();
+            }
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals("x,4999", records.get(5000).getText(3).toString());
+            Assert.assertEquals(4999L, records.get(5000).getLong(0));
+            Assert.assertEquals(new BigDecimal("4999.25"), records.get(5000).getDecimal(2));
+            Assert.assertThrows(MetaCSVReadException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    records.get(5001).getDate(1);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testSingleByteCharset()
+            throws IOException, MetaCSVReadException, MetaCSVDataException, MetaCSVParseException {
+        InputStream in = new ByteArrayInputStream(
+                "commune,population\r\nSaint-Étienne,172 565\r\n".getBytes("ISO-8859-1"));
+        MetaCSVData data = new MetaCSVDataBuilder().encoding("ISO-8859-1")
+                .colType(1, new IntegerFieldDescription(" ")).build();
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvIn(in).metaData(data)
+                .textViews(true).build();
+        try {
+            Iterator<MetaCSVRecord> it = reader.iterator();
+            it.next();
+            MetaCSVRecord record = it.next();
+            Assert.assertEquals("Saint-Étienne", record.getText(0).toString());
+            Assert.assertEquals(172565L, record.getLong(1));
+            Assert.assertEquals(172565.0, record.getDouble(1), 0.0);
+        } finally {
+            reader.close();
+        }
+    }
+}
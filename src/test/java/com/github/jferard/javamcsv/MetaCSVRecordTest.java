@@ -20,13 +20,20 @@
 
 package com.github.jferard.javamcsv;
 
+import com.github.jferard.javamcsv.description.BooleanFieldDescription;
+import com.github.jferard.javamcsv.description.DateFieldDescription;
+import com.github.jferard.javamcsv.description.FloatFieldDescription;
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import com.github.jferard.javamcsv.description.PercentageFloatFieldDescription;
 import org.junit.Assert;
 import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.Iterator;
 import java.util.TimeZone;
 
 public class MetaCSVRecordTest {
@@ -38,6 +45,50 @@ public class MetaCSVRecordTest {
                 metaRecord.toString());
     }
 
+    @Test
+    public void testDecodeAll() throws Exception {
+        MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream(
+                        "n,x,d,b,p\r\n1,1.5,2020-01-02,true,10%\r\nN/A,1.5f,bad,maybe,10\r\n"))
+                .metaData(new MetaCSVDataBuilder()
+                        .colType(0, IntegerFieldDescription.INSTANCE)
+                        .colType(1, FloatFieldDescription.INSTANCE)
+                        .colType(2, DateFieldDescription.INSTANCE)
+                        .colType(3, BooleanFieldDescription.INSTANCE)
+                        .colType(4, new PercentageFloatFieldDescription(false, "%",
+                                FloatFieldDescription.INSTANCE)).build()).build();
+        Iterator<MetaCSVRecord> it = reader.iterator();
+        it.next();
+        MetaCSVRecord valid = it.next();
+        valid.decodeAll();
+        Assert.assertFalse(valid.hasErrors());
+        Assert.assertEquals(1L, valid.getLong(0));
+        Assert.assertEquals(0.1, valid.getDouble(4), 0.0);
+
+        final MetaCSVRecord invalid = it.next();
+        invalid.decodeAll();
+        reader.close();
+        Assert.assertTrue(invalid.hasErrors());
+        Assert.assertTrue(invalid.hasError(0));
+        Assert.assertFalse(invalid.hasError(1));
+        Assert.assertTrue(invalid.hasError(2));
+        Assert.assertTrue(invalid.hasError(3));
+        Assert.assertTrue(invalid.hasError(4));
+        Assert.assertEquals(1.5, invalid.getDouble(1), 0.0);
+        Assert.assertThrows(MetaCSVReadException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                invalid.getLong(0);
+            }
+        });
+        Assert.assertThrows(MetaCSVReadException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                invalid.getDate(2);
+            }
+        });
+    }
+
     @Test
     public void testSize() throws IOException {
         MetaCSVRecord metaRecord = TestHelper.createMetaRecord("foo", "bar", 1);
@@ -177,4 +228,37 @@ public class MetaCSVRecordTest {
         Assert.assertNull(metaRecord.getInteger(0));
         Assert.assertNull(metaRecord.getText(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEpoch() throws IOException, MetaCSVReadException {
+        Calendar cal = GregorianCalendar.getInstance(Util.UTC_TIME_ZONE);
+        cal.setTimeInMillis(1234567891011L);
+        MetaCSVRecord metaRecord = TestHelper.createMetaRecord("foo", cal.getTime());
+        Assert.assertEquals(1234567891011L, metaRecord.getEpochMillis(1));
+        Assert.assertEquals(14288L, metaRecord.getEpochDay(1));
+        Assert.assertEquals(metaRecord.getDate(1).getTime(),
+                metaRecord.getEpochDay(1) * 24 * 60 * 60 * 1000);
+        Assert.assertFalse(metaRecord.isNull(1));
+    }
+
+    @Test(expected = MetaCSVCastException.class)
+    public void testNotEpoch() throws IOException, MetaCSVReadException {
+        MetaCSVRecord metaRecord = TestHelper.createMetaRecord("foo", "bar");
+        metaRecord.getEpochMillis(1);
+    }
+
+    @Test
+    public void testPrimitives() throws IOException, MetaCSVReadException {
+        MetaCSVRecord metaRecord = TestHelper.createMetaRecord("foo", 10L, 1.5);
+        Assert.assertEquals(10L, metaRecord.getLong(1));
+        Assert.assertEquals(10.0, metaRecord.getDouble(1), 0.0);
+        Assert.assertEquals(1.5, metaRecord.getDouble(2), 0.0);
+        Assert.assertEquals(1L, metaRecord.getLong(2));
+    }
+
+    @Test(expected = MetaCSVCastException.class)
+    public void testNotLong() throws IOException, MetaCSVReadException {
+        MetaCSVRecord metaRecord = TestHelper.createMetaRecord("foo", "bar");
+        metaRecord.getLong(1);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+public class MetaCSVRowCounterTest {
+    @Test
+    public void testSameAsCommonsCSV() throws IOException {
+        Random random = new Random(42);
+        String alphabet = "ab ;,\"'\\\r\n\n\né";
+        CSVFormat[] formats = {CSVFormat.DEFAULT,
+                CSVFormat.DEFAULT.withIgnoreEmptyLines(false),
+                CSVFormat.DEFAULT.withDelimiter(';').withIgnoreSurroundingSpaces(true),
+                CSVFormat.DEFAULT.withQuote(null).withEscape('\\'),
+                CSVFormat.DEFAULT.withQuote('\'').withEscape('\\')};
+        MetaCSVRowCounter[] counters = new MetaCSVRowCounter[formats.length];
+        for (int f = 0; f < formats.length; f++) {
+            counters[f] = new MetaCSVRowCounter(formats[f], 3, 64, 16);
+        }
+        for (int i = 0; i < 300; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(2000);
+            for (int j = 0; j < len; j++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = sb.toString();
+            File file = this.createFile(text);
+            for (int f = 0; f < formats.length; f++) {
+                long expected = this.countWithCommonsCSV(text, formats[f]);
+                if (expected >= 0) {
+                    Assert.assertEquals(text, expected, counters[f].countRows(file));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultilineFields() throws Exception {
+        StringBuilder sb = new StringBuilder("n,text\r\n");
+        for (int r = 0; r < 5000; r++) {
+            sb.append(r).append(",\"a\r\n").append(r).append(",b\n\"\"c\"\"\r\n\"\r\n");
+            if (r % 10 == 0) {
+                sb.append("\r\n");
+            }
+        }
+        sb.append("last,no eol");
+        File file = this.createFile(sb.toString());
+        Assert.assertEquals(5001,
+                new MetaCSVRowCounter(CSVFormat.DEFAULT, 4, 1024, 1024).countRows(file));
+        Assert.assertEquals(5001, new MetaCSVRowCounter(CSVFormat.DEFAULT, 1).countRows(file));
+
+        File metaFile = Util.withExtension(file, ".mcsv");
+        metaFile.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(metaFile);
+        out.write("domain,key,value\r\n".getBytes("UTF-8"));
+        out.close();
+        Assert.assertEquals(5001, MetaCSVReader.countRows(file));
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        File file = this.createFile("a\r\n1\r\n2\r\n");
+        MetaCSVRowCounter counter = new MetaCSVRowCounter(CSVFormat.DEFAULT, 1);
+        Assert.assertEquals(2, counter.countRows(file));
+        long lastModified = file.lastModified();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write("a\r\n1\r\n2\r\n3\r\n".getBytes("UTF-8"));
+        out.close();
+        Assert.assertTrue(file.setLastModified(lastModified));
+        Assert.assertEquals(3, counter.countRows(file)); // new size
+
+        Assert.assertEquals(0, counter.countRows(this.createFile("")));
+    }
+
+    private File createFile(String text) throws IOException {
+        File file = File.createTempFile("test", ".csv");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(text.getBytes("UTF-8"));
+        out.close();
+        return file;
+    }
+
+    private long countWithCommonsCSV(String text, CSVFormat format) {
+        long count = 0;
+        try {
+            CSVParser parser = format.parse(new StringReader(text));
+            for (CSVRecord ignored : parser) {
+                count++;
+            }
+        } catch (RuntimeException e) {
+            return -1;
+        } catch (IOException e) {
+            return -1;
+        }
+        return count == 0 ? 0 : count - 1;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class MetaCSVSamplerTest {
+    private static final int ROWS = 2000;
+
+    @Test
+    public void testSample() throws Exception {
+        File csvFile = this.createFile();
+        List<List<Object>> expected = this.readAll(csvFile);
+        MetaCSVSampler sampler = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(this.createData()).buildSampler(new Random(42));
+        List<MetaCSVRecord> sample = sampler.sample(300);
+        Assert.assertEquals(300, sample.size());
+        this.check(expected, sample);
+        int low = 0;
+        for (MetaCSVRecord record : sample) {
+            if (record.getLong(0) < ROWS / 2) {
+                low++;
+            }
+        }
+        Assert.assertTrue(low > 100 && low < 200);
+    }
+
+    @Test
+    public void testSampleAll() throws Exception {
+        File csvFile = this.createFile();
+        List<List<Object>> expected = this.readAll(csvFile);
+        MetaCSVSampler sampler = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(this.createData()).buildSampler(new Random(7));
+        List<MetaCSVRecord> sample = sampler.sample(ROWS + 10);
+        Assert.assertTrue(sample.size() > ROWS / 2 && sample.size() <= ROWS);
+        this.check(expected, sample);
+    }
+
+    @Test
+    public void testReservoirSample() throws Exception {
+        File csvFile = this.createFile();
+        List<List<Object>> expected = this.readAll(csvFile);
+        for (boolean textViews : new boolean[]{false, true}) {
+            MetaCSVReader reader = new MetaCSVReaderBuilder().csvFile(csvFile)
+                    .metaData(this.createData()).textViews(textViews).build();
+            List<MetaCSVRecord> sample =
+                    MetaCSVSampler.reservoirSample(reader, 50, new Random(1));
+            reader.close();
+            Assert.assertEquals(50, sample.size());
+            this.check(expected, sample);
+        }
+
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(this.createData()).build();
+        List<MetaCSVRecord> sample =
+                MetaCSVSampler.reservoirSample(reader, ROWS + 10, new Random(1));
+        reader.close();
+        Assert.assertEquals(ROWS, sample.size());
+        this.check(expected, sample);
+    }
+
+    @Test
+    public void testNewlineAtTheEndOfTheWindow() throws Exception {
+        // the drawn offset is 10: the CRLF ends at the last byte of the window, then the CR is
+        // the last byte of the window
+        for (int size : new int[]{65534, 65535}) {
+            File csvFile = File.createTempFile("test", ".csv");
+            csvFile.deleteOnExit();
+            StringBuilder sb = new StringBuilder("id,text\r\n0,");
+            for (int i = 0; i < size; i++) {
+                sb.append('x');
+            }
+            sb.append("\r\n1,a\r\n2,b\r\n3,c\r\n");
+            FileOutputStream out = new FileOutputStream(csvFile);
+            out.write(sb.toString().getBytes("UTF-8"));
+            out.close();
+            double value = (10 - 7 + 0.5) / (csvFile.length() - 7);
+            MetaCSVSampler sampler = new MetaCSVReaderBuilder().csvFile(csvFile)
+                    .metaData(this.createData()).buildSampler(new FixedRandom(value));
+            List<MetaCSVRecord> sample = sampler.sample(1);
+            Assert.assertEquals(1, sample.size());
+            Assert.assertEquals("[1, a]", sample.get(0).toList().toString());
+        }
+    }
+
+    private void check(List<List<Object>> expected, List<MetaCSVRecord> sample)
+            throws MetaCSVReadException, MetaCSVCastException {
+        Set<Long> ids = new HashSet<Long>();
+        for (MetaCSVRecord record : sample) {
+            long id = record.getLong(0);
+            Assert.assertTrue(ids.add(id));
+            Assert.assertEquals(expected.get((int) id + 1), record.toList());
+        }
+    }
+
+    private File createFile() throws IOException {
+        File csvFile = File.createTempFile("test", ".csv");
+        csvFile.deleteOnExit();
+        StringBuilder sb = new StringBuilder("id,text,tail\r\n");
+        for (int r = 0; r < ROWS; r++) {
+            sb.append(r).append(',');
+            if (r % 3 == 0) {
+                sb.append("plain");
+            } else {
+                // the quoted field contains lines that look like rows
+                sb.append("\"x\n").append(r + 1).append(",a \"\"b\"\",c\nz\"");
+            }
+            sb.append(",t").append(r).append("\r\n");
+        }
+        FileOutputStream out = new FileOutputStream(csvFile);
+        out.write(sb.toString().getBytes("UTF-8"));
+        out.close();
+        return csvFile;
+    }
+
+    private MetaCSVData createData() throws MetaCSVDataException {
+        return new MetaCSVDataBuilder().colType(0, IntegerFieldDescription.INSTANCE).build();
+    }
+
+    private List<List<Object>> readAll(File csvFile) throws Exception {
+        List<List<Object>> rows = new ArrayList<List<Object>>();
+        MetaCSVReader reader = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(this.createData()).build();
+        for (MetaCSVRecord record : reader) {
+            rows.add(record.toList());
+        }
+        reader.close();
+        return rows;
+    }
+
+    private static class FixedRandom extends Random {
+        private static final long serialVersionUID = 1L;
+
+        private final double value;
+
+        FixedRandom(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double nextDouble() {
+            return this.value;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MetaCSVSubscriberTest {
+    @Test
+    public void testWrite() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetaCSVSubscriber subscriber = this.createSubscriber(out);
+        final List<Long> requests = new ArrayList<Long>();
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requests.add(n);
+            }
+
+            @Override
+            public void cancel() {
+                Assert.fail();
+            }
+        });
+        subscriber.onNext(Arrays.asList("a", "b"));
+        subscriber.onNext(Arrays.<Object>asList(1L, "x"));
+        subscriber.onNext(Arrays.<Object>asList(2L, null));
+        subscriber.onComplete();
+        subscriber.await();
+        Assert.assertEquals("a,b\r\n1,x\r\n2,\r\n", out.toString("UTF-8"));
+        Assert.assertEquals(Arrays.asList(2L, 2L), requests);
+    }
+
+    @Test
+    public void testFromPublisher() throws Exception {
+        String csv = "a,b\r\n1,x\r\n2,\r\n3,\"z,\"\"\"\r\n";
+        MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream(csv))
+                .metaData(new MetaCSVDataBuilder().colType(0, IntegerFieldDescription.INSTANCE)
+                        .build()).build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            MetaCSVSubscriber subscriber = this.createSubscriber(out);
+            reader.toPublisher(executor).subscribe(subscriber);
+            subscriber.await();
+            Assert.assertEquals(csv, out.toString("UTF-8"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testError() throws Exception {
+        final MetaCSVSubscriber subscriber = this.createSubscriber(new ByteArrayOutputStream());
+        subscriber.onError(new IllegalStateException("foo"));
+        Assert.assertThrows(IOException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                subscriber.await();
+            }
+        });
+    }
+
+    private MetaCSVSubscriber createSubscriber(ByteArrayOutputStream out)
+            throws IOException, MetaCSVDataException {
+        MetaCSVData data = new MetaCSVDataBuilder()
+                .colType(0, IntegerFieldDescription.INSTANCE).build();
+        return new MetaCSVSubscriber(
+                MetaCSVWriter.create(out, new ByteArrayOutputStream(), data), 2);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MetaCSVTailerTest {
+    @Test
+    public void testTail() throws Exception {
+        File csvFile = File.createTempFile("test", ".csv");
+        csvFile.deleteOnExit();
+        final List<List<Object>> rows = new ArrayList<List<Object>>();
+        MetaCSVTailer tailer = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(new MetaCSVDataBuilder().colType(0, IntegerFieldDescription.INSTANCE)
+                        .build())
+                .buildTailer(new RecordHandler() {
+                    @Override
+                    public void onRecord(MetaCSVRecord record) {
+                        rows.add(record.toList());
+                    }
+                });
+        Assert.assertFalse(tailer.poll());
+
+        this.write(csvFile, "n,text\r\n1,a\r\n2,\"b", false);
+        Assert.assertTrue(tailer.poll());
+        Assert.assertEquals("[[n, text], [1, a]]", rows.toString());
+        Assert.assertFalse(tailer.poll());
+
+        this.write(csvFile, "\r\nc\"\r\n3,d\r\n", true);
+        Assert.assertTrue(tailer.poll());
+        Assert.assertEquals("[[n, text], [1, a], [2, b\r\nc], [3, d]]", rows.toString());
+
+        // truncation
+        rows.clear();
+        this.write(csvFile, "n,text\r\n4,e\r\n", false);
+        Assert.assertTrue(tailer.poll());
+        Assert.assertEquals("[[n, text], [4, e]]", rows.toString());
+
+        // rotation: a longer file with another header
+        rows.clear();
+        this.write(csvFile, "m,other\r\n5,f\r\n6,g\r\n7,h\r\n8,i\r\n", false);
+        Assert.assertTrue(tailer.poll());
+        Assert.assertEquals("[[m, other], [5, f], [6, g], [7, h], [8, i]]", rows.toString());
+
+        // missing file
+        Assert.assertTrue(csvFile.delete());
+        Assert.assertFalse(tailer.poll());
+        tailer.close();
+        tailer.follow(1);
+    }
+
+    @Test
+    public void testRotationWithTheSameHeader() throws Exception {
+        File csvFile = File.createTempFile("test", ".csv");
+        csvFile.deleteOnExit();
+        final List<List<Object>> rows = new ArrayList<List<Object>>();
+        MetaCSVTailer tailer = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(new MetaCSVDataBuilder().colType(0, IntegerFieldDescription.INSTANCE)
+                        .build())
+                .buildTailer(new RecordHandler() {
+                    @Override
+                    public void onRecord(MetaCSVRecord record) {
+                        rows.add(record.toList());
+                    }
+                });
+        // the header is longer than the checked prefix
+        String header = "number_of_the_row_in_the_file,text_of_the_row_in_the_file_for_tests\r\n";
+        this.write(csvFile, header + "1,a\r\n2,b\r\n", false);
+        Assert.assertTrue(tailer.poll());
+        Assert.assertEquals(3, rows.size());
+
+        // rotation: a longer file with the same header
+        rows.clear();
+        this.write(csvFile, header + "10,xx\r\n11,yy\r\n12,zz\r\n", false);
+        Assert.assertTrue(tailer.poll());
+        Assert.assertEquals(4, rows.size());
+        Assert.assertEquals("[[10, xx], [11, yy], [12, zz]]", rows.subList(1, 4).toString());
+
+        // appending is not a rotation
+        rows.clear();
+        this.write(csvFile, "13,ww\r\n", true);
+        Assert.assertTrue(tailer.poll());
+        Assert.assertEquals("[[13, ww]]", rows.toString());
+        tailer.close();
+    }
+
+    private void write(File file, String text, boolean append) throws IOException {
+        FileOutputStream out = new FileOutputStream(file, append);
+        out.write(text.getBytes("UTF-8"));
+        out.close();
+    }
+}
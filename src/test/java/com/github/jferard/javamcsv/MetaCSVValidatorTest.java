@@ -0,0 +1,158 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.DateFieldDescription;
+import com.github.jferard.javamcsv.description.FloatFieldDescription;
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+public class MetaCSVValidatorTest {
+    @Test
+    public void testValidate() throws Exception {
+        StringBuilder sb = new StringBuilder("n,date,x,text\r\n");
+        for (int r = 1; r <= 10000; r++) {
+            String n = r % 1000 == 0 ? "bad" + r : String.valueOf(r);
+            String date = r % 3000 == 0 ? "no date" : "2020-01-02";
+            String x = r % 2 == 0 ? "NULL" : "1.5";
+            sb.append(n).append(',').append(date).append(',').append(x)
+                    .append(",\"é\r\n,\"");
+            if (r % 4000 == 0) {
+                sb.append(",extra");
+            }
+            sb.append("\r\n");
+        }
+        File csvFile = this.createFile(sb.toString());
+        MetaCSVData data = new MetaCSVDataBuilder().nullValue("NULL").bom(true)
+                .colType(0, IntegerFieldDescription.INSTANCE)
+                .colType(1, DateFieldDescription.INSTANCE)
+                .colType(2, FloatFieldDescription.INSTANCE).build();
+
+        MetaCSVValidationReport report = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(data).buildValidator(3, 5).validate();
+        Assert.assertFalse(report.isValid());
+        Assert.assertEquals(10000, report.getRowCount());
+        Assert.assertEquals(10, report.getValueErrorCount(0));
+        Assert.assertEquals(3, report.getValueErrorCount(1));
+        Assert.assertEquals(0, report.getValueErrorCount(2));
+        Assert.assertEquals(0, report.getValueErrorCount(3));
+        Assert.assertEquals(2, report.getColumnCountErrorCount());
+        Assert.assertEquals(0, report.getParseErrorCount());
+
+        List<MetaCSVValidationReport.Violation> violations = report.getViolations();
+        Assert.assertEquals(5, violations.size());
+        long[] rows = {1000, 2000, 3000, 3000};
+        int[] columns = {0, 0, 0, 1};
+        byte[] bytes = sb.toString().getBytes("UTF-8");
+        for (int i = 0; i < 4; i++) {
+            MetaCSVValidationReport.Violation violation = violations.get(i);
+            Assert.assertEquals(MetaCSVValidationReport.ViolationType.VALUE, violation.getType());
+            Assert.assertEquals(rows[i], violation.getRow());
+            Assert.assertEquals(columns[i], violation.getColumn());
+            String line = new String(bytes, (int) violation.getByteOffset() - 3, 8, "UTF-8");
+            Assert.assertTrue(line, line.startsWith("bad" + rows[i] + ","));
+        }
+        Assert.assertEquals(MetaCSVValidationReport.ViolationType.COLUMN_COUNT,
+                violations.get(4).getType());
+        Assert.assertEquals(4000, violations.get(4).getRow());
+        Assert.assertEquals(-1, violations.get(4).getColumn());
+
+        MetaCSVValidationReport singleThreadReport = new MetaCSVReaderBuilder()
+                .csvFile(csvFile).metaData(data).buildValidator(1, 5).validate();
+        Assert.assertEquals(report.toString(), singleThreadReport.toString());
+
+        MetaCSVValidationReport allViolations = new MetaCSVReaderBuilder()
+                .csvFile(csvFile).metaData(data).buildValidator(2, 100).validate();
+        Assert.assertEquals(15, allViolations.getViolations().size());
+        Assert.assertEquals(10000, allViolations.getViolations().get(14).getRow());
+    }
+
+    @Test
+    public void testParseError() throws Exception {
+        File csvFile = this.createFile("a,b\r\n1,2\r\n\"3\"x,4\r\n");
+        MetaCSVValidationReport report = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(new MetaCSVDataBuilder().bom(true).build())
+                .buildValidator(1, 5).validate();
+        Assert.assertEquals(1, report.getRowCount());
+        Assert.assertEquals(1, report.getParseErrorCount());
+        Assert.assertEquals(MetaCSVValidationReport.ViolationType.PARSE,
+                report.getViolations().get(0).getType());
+        Assert.assertEquals(2, report.getViolations().get(0).getRow());
+        Assert.assertEquals(13, report.getViolations().get(0).getByteOffset());
+    }
+
+    @Test
+    public void testParseErrorInTheMiddleOfABatch() throws Exception {
+        StringBuilder sb = new StringBuilder("a,b\r\n");
+        for (int r = 1; r <= 100; r++) {
+            if (r == 50) {
+                sb.append("\"3\"x,4\r\n");
+            } else {
+                sb.append(r % 20 == 0 ? "bad" : String.valueOf(r)).append(",2\r\n");
+            }
+        }
+        File csvFile = this.createFile(sb.toString());
+        MetaCSVData data = new MetaCSVDataBuilder().bom(true)
+                .colType(0, IntegerFieldDescription.INSTANCE).build();
+        for (int threads = 1; threads <= 2; threads++) {
+            MetaCSVValidationReport report = new MetaCSVReaderBuilder().csvFile(csvFile)
+                    .metaData(data).buildValidator(threads, 10).validate();
+            Assert.assertEquals(99, report.getRowCount());
+            Assert.assertEquals(1, report.getParseErrorCount());
+            Assert.assertEquals(5, report.getValueErrorCount(0));
+            List<MetaCSVValidationReport.Violation> violations = report.getViolations();
+            Assert.assertEquals(6, violations.size());
+            Assert.assertEquals(MetaCSVValidationReport.ViolationType.PARSE,
+                    violations.get(2).getType());
+            Assert.assertEquals(50, violations.get(2).getRow());
+            Assert.assertEquals(MetaCSVValidationReport.ViolationType.VALUE,
+                    violations.get(3).getType());
+            Assert.assertEquals(60, violations.get(3).getRow());
+        }
+    }
+
+    @Test
+    public void testValid() throws Exception {
+        File csvFile = this.createFile("a,b\r\n1,2\r\n");
+        MetaCSVValidationReport report = new MetaCSVReaderBuilder().csvFile(csvFile)
+                .metaData(new MetaCSVDataBuilder().bom(true)
+                        .colType(0, IntegerFieldDescription.INSTANCE).build())
+                .buildValidator(2, 5).validate();
+        Assert.assertTrue(report.isValid());
+        Assert.assertEquals(1, report.getRowCount());
+    }
+
+    private File createFile(String text) throws IOException {
+        File file = File.createTempFile("test", ".csv");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        out.write(text.getBytes("UTF-8"));
+        out.close();
+        return file;
+    }
+}
@@ -39,6 +39,7 @@ import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Locale;
 
@@ -122,6 +123,142 @@ public class MetaCSVWriterTest {
         });
     }
 
+    @Test
+    public void testFailedRowIsNotWritten() throws MetaCSVDataException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream metaOut = new ByteArrayOutputStream();
+        MetaCSVData data =
+                new MetaCSVDataBuilder().colType(1, new IntegerFieldDescription(" ")).build();
+        final MetaCSVWriter writer =
+                new MetaCSVWriterBuilder().out(out).metaOut(metaOut).metaData(data).build();
+        try {
+            writer.writeRow(Arrays.<Object>asList("a,b", 12345L));
+            Assert.assertThrows(ClassCastException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    writer.writeRow(Arrays.<Object>asList("c", "d"));
+                }
+            });
+            writer.writeRow(Arrays.<Object>asList("e", null, "f"));
+        } finally {
+            writer.close();
+        }
+        Assert.assertEquals("\"a,b\",12 345\r\ne,,f\r\n",
+                out.toString(TestHelper.UTF_8_CHARSET_NAME));
+    }
+
+    @Test
+    public void testTextOnError() throws MetaCSVDataException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream metaOut = new ByteArrayOutputStream();
+        MetaCSVData data =
+                new MetaCSVDataBuilder().colType(0, new IntegerFieldDescription(" ")).build();
+        MetaCSVWriter writer =
+                new MetaCSVWriterBuilder().out(out).metaOut(metaOut).metaData(data)
+                        .onError(OnError.TEXT).build();
+        try {
+            writer.writeRow(Arrays.<Object>asList("foo", "bar"));
+            writer.writeRow(Arrays.<Object>asList(1234, "baz"));
+        } finally {
+            writer.close();
+        }
+        Assert.assertEquals("foo,bar\r\n1 234,baz\r\n",
+                out.toString(TestHelper.UTF_8_CHARSET_NAME));
+    }
+
+    @Test
+    public void testRowBuilder() throws MetaCSVDataException, IOException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(Util.UTC_TIME_ZONE);
+        MetaCSVData data =
+                new MetaCSVDataBuilder().nullValue("NULL").
+                        colType(0, new IntegerFieldDescription(" ")).
+                        colType(1, new FloatFieldDescription(" ", ",")).
+                        colType(2, new DecimalFieldDescription(" ", ",")).
+                        colType(3, new DateFieldDescription(dateFormat, null)).
+                        colType(4, new BooleanFieldDescription("T", "F")).
+                        colType(5, new CurrencyDecimalFieldDescription(true, "$",
+                                new DecimalFieldDescription(",", "."))).
+                        build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetaCSVWriter writer =
+                new MetaCSVWriterBuilder().out(out).metaOut(new ByteArrayOutputStream())
+                        .metaData(data).build();
+        try {
+            writer.startRow();
+            writer.writeLong(-1234567L);
+            writer.writeDouble(1234.5);
+            writer.writeDecimal(123456, 2);
+            writer.writeEpochDay(18597);
+            writer.writeBoolean(true);
+            writer.writeDecimal(-190050, 2);
+            writer.writeText("a,b");
+            writer.writeLong(7L);
+            writer.endRow();
+
+            writer.startRow();
+            writer.writeNull();
+            writer.writeLong(10L);
+            writer.writeDouble(2.5);
+            writer.writeEpochMillis(1606815055000L);
+            writer.writeNull();
+            writer.endRow();
+
+            writer.writeRow(Arrays.<Object>asList(-1234567L, 1234.5, new BigDecimal("1234.56"),
+                    new Date(18597L * 86400000L), true, new BigDecimal("-1900.50"), "a,b", 7L));
+        } finally {
+            writer.close();
+        }
+        String row = "\"-1 234 567\",\"1 234,5\",\"1 234,56\",2020-12-01,T," +
+                "\"$-1,900.5\",\"a,b\",7\r\n";
+        Assert.assertEquals(row + "NULL,\"10,0\",\"2,5\",2020-12-01,NULL\r\n" + row,
+                out.toString(TestHelper.UTF_8_CHARSET_NAME));
+    }
+
+    @Test
+    public void testRowBuilderState() throws MetaCSVDataException, IOException {
+        MetaCSVData data =
+                new MetaCSVDataBuilder().colType(0, new IntegerFieldDescription("")).build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MetaCSVWriter writer =
+                new MetaCSVWriterBuilder().out(out).metaOut(new ByteArrayOutputStream())
+                        .metaData(data).build();
+        try {
+            Assert.assertThrows(IllegalStateException.class, new ThrowingRunnable() {
+                @Override
+                public void run() {
+                    writer.writeLong(1L);
+                }
+            });
+            writer.startRow();
+            Assert.assertThrows(IllegalStateException.class, new ThrowingRunnable() {
+                @Override
+                public void run() {
+                    writer.startRow();
+                }
+            });
+            Assert.assertThrows(ClassCastException.class, new ThrowingRunnable() {
+                @Override
+                public void run() {
+                    writer.writeText("foo");
+                }
+            });
+            // the row was dropped
+            Assert.assertThrows(IllegalStateException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    writer.endRow();
+                }
+            });
+            writer.startRow();
+            writer.writeLong(12L);
+            writer.endRow();
+        } finally {
+            writer.close();
+        }
+        Assert.assertEquals("12\r\n", out.toString(TestHelper.UTF_8_CHARSET_NAME));
+    }
+
     @Test
     public void testCsvFile()
             throws MetaCSVDataException, MetaCSVReadException, MetaCSVParseException, IOException {
@@ -0,0 +1,155 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import com.github.jferard.javamcsv.description.FloatFieldDescription;
+import com.github.jferard.javamcsv.description.IntegerFieldDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class QuarantineErrorSinkTest {
+    @Test
+    public void testQuarantine() throws Exception {
+        String csv = "n,x,text\r\n" +
+                "1,1.5,a\r\n" +
+                "bad,2.5,\"b\r\nc\"\r\n" +
+                "3,NULL,d\r\n" +
+                "bad,bad,é\r\n" +
+                "5,5.5,f\r\n";
+        MetaCSVData data = new MetaCSVDataBuilder().nullValue("NULL")
+                .colType(0, IntegerFieldDescription.INSTANCE)
+                .colType(1, FloatFieldDescription.INSTANCE).build();
+        File quarantineFile = File.createTempFile("quarantine", ".csv");
+        quarantineFile.deleteOnExit();
+        Util.withExtension(quarantineFile, ".mcsv").deleteOnExit();
+        QuarantineErrorSink sink = new QuarantineErrorSink(quarantineFile, data);
+        final List<String> events = new ArrayList<String>();
+        MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream(csv)).metaData(data).checkpoints(true)
+                .errorSink(new TeeErrorSink(sink, events)).build();
+        List<List<Object>> rows = new ArrayList<List<Object>>();
+        for (MetaCSVRecord record : reader) {
+            rows.add(record.toList());
+        }
+        reader.close();
+        sink.close();
+
+        Assert.assertEquals("[[n, x, text], [1, 1.5, a], [3, null, d], [5, 5.5, f]]",
+                rows.toString());
+        Assert.assertEquals("[cell 2 0 19 bad, row 2 19, cell 4 0 45 bad, cell 4 1 45 bad, " +
+                "row 4 45]", events.toString());
+        Assert.assertEquals(2, sink.getRejectedRowCount());
+        Assert.assertEquals(2, sink.getErrorCount(0));
+        Assert.assertEquals(1, sink.getErrorCount(1));
+        Assert.assertEquals(0, sink.getErrorCount(2));
+
+        FileInputStream in = new FileInputStream(quarantineFile);
+        byte[] bytes = new byte[(int) quarantineFile.length()];
+        Assert.assertEquals(bytes.length, in.read(bytes));
+        in.close();
+        Assert.assertEquals("n,x,text\r\nbad,2.5,\"b\r\nc\"\r\nbad,bad,é\r\n",
+                new String(bytes, "UTF-8"));
+
+        MetaCSVReader quarantineReader = MetaCSVReader.create(quarantineFile);
+        rows.clear();
+        for (MetaCSVRecord record : quarantineReader) {
+            rows.add(record.toList());
+        }
+        quarantineReader.close();
+        Assert.assertEquals("[[n, x, text], [bad, 2.5, b\r\nc], [bad, bad, é]]",
+                rows.toString());
+    }
+
+    @Test
+    public void testWithoutOffsets() throws Exception {
+        final List<String> events = new ArrayList<String>();
+        MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream("n\r\n1\r\nx\r\n"))
+                .metaData(new MetaCSVDataBuilder()
+                        .colType(0, IntegerFieldDescription.INSTANCE).build())
+                .errorSink(new TeeErrorSink(null, events)).build();
+        int count = 0;
+        for (MetaCSVRecord ignored : reader) {
+            count++;
+        }
+        reader.close();
+        Assert.assertEquals(2, count);
+        Assert.assertEquals("[cell 2 0 -1 x, row 2 -1]", events.toString());
+    }
+
+    @Test
+    public void testOffsetsWithBOM() throws Exception {
+        final List<String> events = new ArrayList<String>();
+        MetaCSVReader reader = new MetaCSVReaderBuilder()
+                .csvIn(TestHelper.utf8InputStream("\uFEFFn\r\n1\r\nx\r\n"))
+                .metaData(new MetaCSVDataBuilder().bom(true)
+                        .colType(0, IntegerFieldDescription.INSTANCE).build())
+                .checkpoints(true).errorSink(new TeeErrorSink(null, events)).build();
+        int count = 0;
+        for (MetaCSVRecord ignored : reader) {
+            count++;
+        }
+        reader.close();
+        Assert.assertEquals(2, count);
+        Assert.assertEquals("[cell 2 0 9 x, row 2 9]", events.toString());
+    }
+
+    private static class TeeErrorSink implements ErrorSink {
+        private final ErrorSink sink;
+        private final List<String> events;
+
+        TeeErrorSink(ErrorSink sink, List<String> events) {
+            this.sink = sink;
+            this.events = events;
+        }
+
+        @Override
+        public void onHeader(RawRecord header) throws IOException {
+            if (this.sink != null) {
+                this.sink.onHeader(header);
+            }
+        }
+
+        @Override
+        public void onCellError(long row, int col, long byteOffset, CharSequence raw)
+                throws IOException {
+            this.events.add("cell " + row + " " + col + " " + byteOffset + " " + raw);
+            if (this.sink != null) {
+                this.sink.onCellError(row, col, byteOffset, raw);
+            }
+        }
+
+        @Override
+        public void onRejectedRow(long row, long byteOffset, RawRecord record)
+                throws IOException {
+            this.events.add("row " + row + " " + byteOffset);
+            if (this.sink != null) {
+                this.sink.onRejectedRow(row, byteOffset, record);
+            }
+        }
+    }
+}
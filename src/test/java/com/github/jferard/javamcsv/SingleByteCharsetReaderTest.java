@@ -0,0 +1,63 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+public class SingleByteCharsetReaderTest {
+    @Test
+    public void testTable() {
+        Assert.assertNull(SingleByteCharsetReader.createTable(Charset.forName("UTF-8")));
+        Assert.assertNull(SingleByteCharsetReader.createTable(Charset.forName("UTF-16")));
+        char[] latin1 = SingleByteCharsetReader.createTable(Charset.forName("ISO-8859-1"));
+        for (int b = 0; b < 256; b++) {
+            Assert.assertEquals(b, latin1[b]);
+        }
+        char[] cp1252 = SingleByteCharsetReader.createTable(Charset.forName("windows-1252"));
+        Assert.assertEquals('€', cp1252[0x80]);
+        Assert.assertEquals('é', cp1252[0xe9]);
+    }
+
+    @Test
+    public void testSameAsInputStreamReader() throws IOException {
+        byte[] bytes = new byte[70000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        for (String name : new String[]{"ISO-8859-1", "windows-1252", "US-ASCII",
+                "ISO-8859-15"}) {
+            Charset charset = Charset.forName(name);
+            Reader reader = SingleByteCharsetReader.create(new ByteArrayInputStream(bytes),
+                    charset);
+            Assert.assertTrue(reader instanceof SingleByteCharsetReader);
+            Assert.assertEquals(name, TestHelper.readReader(
+                    new InputStreamReader(new ByteArrayInputStream(bytes), charset)),
+                    TestHelper.readReader(reader));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class StructuralIndexTest {
+    @Test
+    public void testZeroBytes() {
+        Assert.assertEquals(0x8000000000000080L, StructuralIndex.zeroBytes(0x0001010101010100L));
+        Assert.assertEquals(0L, StructuralIndex.zeroBytes(0x8080808001FF7F10L));
+        Assert.assertEquals(0x8080808080808080L, StructuralIndex.zeroBytes(0L));
+    }
+
+    @Test
+    public void testMoveMask() {
+        Assert.assertEquals(0x81L, StructuralIndex.moveMask(0x8000000000000080L));
+        Assert.assertEquals(0xFFL, StructuralIndex.moveMask(0x8080808080808080L));
+        Assert.assertEquals(0x02L, StructuralIndex.moveMask(0x0000000000008000L));
+    }
+
+    @Test
+    public void testIndex() {
+        Random random = new Random(42);
+        CSVFormat[] formats = {CSVFormat.DEFAULT,
+                CSVFormat.DEFAULT.withDelimiter(';').withIgnoreSurroundingSpaces(true),
+                CSVFormat.DEFAULT.withQuote(null).withEscape('\\')};
+        byte[] alphabet = "ab ;,\"\\\r\n\t\u0001".getBytes();
+        byte[] bytes = new byte[200];
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j < bytes.length; j++) {
+                if (random.nextBoolean()) {
+                    bytes[j] = alphabet[random.nextInt(alphabet.length)];
+                } else {
+                    bytes[j] = (byte) random.nextInt(256);
+                }
+            }
+            int position = random.nextInt(100);
+            int length = random.nextInt(65);
+            for (CSVFormat format : formats) {
+                StructuralIndex index = StructuralIndex.create(format);
+                long expected = this.naiveIndex(format, bytes, position, length);
+                for (ByteOrder order : new ByteOrder[]{ByteOrder.LITTLE_ENDIAN,
+                        ByteOrder.BIG_ENDIAN}) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(order);
+                    Assert.assertEquals(expected, index.index(buffer, position, length));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCommentMarker() {
+        Assert.assertThrows(IllegalArgumentException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                StructuralIndex.create(CSVFormat.DEFAULT.withCommentMarker('#'));
+            }
+        });
+    }
+
+    @Test
+    public void testNonASCII() {
+        Assert.assertThrows(IllegalArgumentException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                StructuralIndex.create(CSVFormat.DEFAULT.withDelimiter('§'));
+            }
+        });
+    }
+
+    private long naiveIndex(CSVFormat format, byte[] bytes, int position, int length) {
+        long bitmap = 0;
+        for (int i = 0; i < length; i++) {
+            int b = bytes[position + i] & 0xFF;
+            if (b == '\r' || b == '\n' || b == format.getDelimiter() ||
+                    (format.getQuoteCharacter() != null && b == format.getQuoteCharacter()) ||
+                    (format.getEscapeCharacter() != null && b == format.getEscapeCharacter()) ||
+                    (format.getIgnoreSurroundingSpaces() && b <= ' ')) {
+                bitmap |= 1L << i;
+            }
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class StructuralScannerTest {
+    @Test
+    public void testBoundaries() throws IOException {
+        StructuralScanner scanner = new StructuralScanner(
+                TestHelper.utf8InputStream("a,\"b,\"\"c\"\"\"\r\n\r\n,é,\n\"e\nf\",g"),
+                CSVFormat.DEFAULT);
+        Assert.assertTrue(scanner.nextRecord());
+        Assert.assertEquals(0, scanner.getRecordStart());
+        Assert.assertEquals(2, scanner.getFieldCount());
+        Assert.assertEquals(1, scanner.getFieldEnd(0));
+        Assert.assertEquals(11, scanner.getFieldEnd(1));
+        Assert.assertEquals(13, scanner.getRecordEnd());
+        Assert.assertTrue(scanner.nextRecord());
+        Assert.assertEquals(15, scanner.getRecordStart());
+        Assert.assertEquals(3, scanner.getFieldCount());
+        Assert.assertEquals(20, scanner.getRecordEnd());
+        Assert.assertTrue(scanner.nextRecord());
+        Assert.assertEquals(2, scanner.getFieldCount());
+        Assert.assertEquals(25, scanner.getFieldEnd(0));
+        Assert.assertEquals(27, scanner.getFieldEnd(1));
+        Assert.assertEquals(27, scanner.getRecordEnd());
+        Assert.assertFalse(scanner.nextRecord());
+        Assert.assertEquals(3, scanner.getRecordCount());
+    }
+
+    @Test
+    public void testPush() throws IOException {
+        byte[] bytes = "a,\"b\r\nc\"\r\n\r\nd,é\r".getBytes("UTF-8");
+        StructuralScanner scanner = new StructuralScanner(CSVFormat.DEFAULT);
+        List<String> boundaries = new ArrayList<String>();
+        for (byte b : bytes) {
+            scanner.feed(ByteBuffer.wrap(new byte[]{b}));
+            while (scanner.nextRecord()) {
+                boundaries.add(scanner.getRecordStart() + "-" + scanner.getRecordEnd() + ":" +
+                        scanner.getFieldCount());
+            }
+        }
+        Assert.assertEquals(Arrays.asList("0-10:2"), boundaries);
+        scanner.endOfInput();
+        Assert.assertTrue(scanner.nextRecord());
+        Assert.assertEquals(12, scanner.getRecordStart());
+        Assert.assertEquals(2, scanner.getFieldCount());
+        Assert.assertEquals(13, scanner.getFieldEnd(0));
+        Assert.assertEquals(16, scanner.getFieldEnd(1));
+        Assert.assertEquals(17, scanner.getRecordEnd());
+        Assert.assertFalse(scanner.nextRecord());
+    }
+
+    @Test
+    public void testIsSupported() {
+        Assert.assertTrue(StructuralScanner.isSupported(Charset.forName("UTF-8")));
+        Assert.assertTrue(StructuralScanner.isSupported(Charset.forName("ISO-8859-1")));
+        Assert.assertFalse(StructuralScanner.isSupported(Charset.forName("UTF-16")));
+    }
+
+    @Test
+    public void testSameAsCommonsCSV() throws IOException {
+        Random random = new Random(42);
+        String alphabet = "ab ;,\"'\\\r\n\té";
+        CSVFormat[] formats = {CSVFormat.DEFAULT,
+                CSVFormat.DEFAULT.withIgnoreEmptyLines(false),
+                CSVFormat.DEFAULT.withDelimiter(';').withIgnoreSurroundingSpaces(true),
+                CSVFormat.DEFAULT.withQuote(null).withEscape('\\'),
+                CSVFormat.DEFAULT.withQuote('\'').withEscape('\\')};
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(i < 4000 ? 20 : 300);
+            for (int j = 0; j < len; j++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = sb.toString();
+            for (CSVFormat format : formats) {
+                List<String> expected = this.parseWithCommonsCSV(text, format);
+                if (expected != null) {
+                    Assert.assertEquals(text, expected, this.scan(text, format));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargeInput() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < 10000; r++) {
+            sb.append(r).append(",\"multi\r\nline, \"\"quoted\"\"\",é\r\n");
+        }
+        StructuralScanner scanner = new StructuralScanner(
+                TestHelper.utf8InputStream(sb.toString()), CSVFormat.DEFAULT);
+        long end = 0;
+        while (scanner.nextRecord()) {
+            Assert.assertEquals(3, scanner.getFieldCount());
+            Assert.assertEquals(end, scanner.getRecordStart());
+            end = scanner.getRecordEnd();
+        }
+        Assert.assertEquals(10000, scanner.getRecordCount());
+        Assert.assertEquals(sb.toString().getBytes("UTF-8").length, end);
+    }
+
+    private List<String> parseWithCommonsCSV(String text, CSVFormat format) {
+        List<String> ret = new ArrayList<String>();
+        try {
+            CSVParser parser = format.parse(new StringReader(text));
+            for (CSVRecord record : parser) {
+                List<String> values = new ArrayList<String>();
+                for (String value : record) {
+                    values.add(value);
+                }
+                ret.add(this.normalize(values, format));
+            }
+        } catch (RuntimeException e) {
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+        return ret;
+    }
+
+    private List<String> scan(String text, CSVFormat format) throws IOException {
+        byte[] bytes = text.getBytes("UTF-8");
+        StructuralScanner scanner =
+                new StructuralScanner(new ByteArrayInputStream(bytes), format);
+        List<String> ret = new ArrayList<String>();
+        while (scanner.nextRecord()) {
+            List<String> values = new ArrayList<String>();
+            long start = scanner.getRecordStart();
+            for (int i = 0; i < scanner.getFieldCount(); i++) {
+                long end = scanner.getFieldEnd(i);
+                values.add(new String(bytes, (int) start, (int) (end - start), "UTF-8"));
+                start = end + 1;
+            }
+            ret.add(this.normalize(values, format));
+        }
+        return ret;
+    }
+
+    /**
+     * Only the field count can be compared for every format. For the default format, the
+     * raw values are unquoted.
+     */
+    private String normalize(List<String> values, CSVFormat format) {
+        if (format != CSVFormat.DEFAULT) {
+            return String.valueOf(values.size());
+        }
+        List<String> ret = new ArrayList<String>();
+        for (String value : values) {
+            if (value.startsWith("\"")) {
+                value = value.substring(1, value.lastIndexOf('"')).replace("\"\"", "\"");
+            }
+            ret.add(value);
+        }
+        return ret.toString();
+    }
+}
@@ -49,6 +49,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TestHelper {
     public static String UTF_8_CHARSET_NAME = Util.UTF_8_CHARSET_NAME;
@@ -141,7 +147,7 @@ public class TestHelper {
                 };
             }
         };
-        return new MetaCSVRecord(csvRecord, provider, readProvider, null, TimeZone.getTimeZone("UTC"));
+        return new MetaCSVRecord(csvRecord, provider, readProvider, TimeZone.getTimeZone("UTC"));
     }
 
     public static <T> List<T> toList(Iterable<T> iterable) {
@@ -253,4 +259,42 @@ public class TestHelper {
             }
         };
     }
+
+    /**
+     * Run the same task on several threads at once, and fail if one of the tasks fails.
+     *
+     * @param threadCount the number of threads
+     * @param task        the task
+     * @throws Exception the first exception thrown by a task
+     */
+    public static void runConcurrently(int threadCount, final Callable<?> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<Future<?>>(threadCount);
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        start.await();
+                        return task.call();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw new AssertionError(cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
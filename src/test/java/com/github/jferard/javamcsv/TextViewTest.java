@@ -0,0 +1,60 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+public class TextViewTest {
+    @Test
+    public void testView() {
+        TextView view = new TextView("foobarbaz".toCharArray(), 3, 3);
+        Assert.assertEquals(3, view.length());
+        Assert.assertEquals('a', view.charAt(1));
+        Assert.assertEquals("bar", view.toString());
+        Assert.assertEquals("ar", view.subSequence(1, 3).toString());
+        Assert.assertEquals("bar".hashCode(), view.hashCode());
+        Assert.assertTrue(view.contentEquals("bar"));
+        Assert.assertFalse(view.contentEquals("baz"));
+        Assert.assertFalse(view.contentEquals(null));
+        Assert.assertEquals(new TextView("bar".toCharArray(), 0, 3), view);
+        Assert.assertNotEquals("bar", view);
+        Assert.assertFalse(view.equals("bar"));
+    }
+
+    @Test
+    public void testOutOfBounds() {
+        final TextView view = new TextView("foobarbaz".toCharArray(), 3, 3);
+        Assert.assertThrows(IndexOutOfBoundsException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                view.charAt(3);
+            }
+        });
+        Assert.assertThrows(IndexOutOfBoundsException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                view.subSequence(2, 4);
+            }
+        });
+    }
+}
@@ -28,7 +28,9 @@ import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.Random;
 
 public class UtilTest extends TestCase {
     @Test
@@ -44,6 +46,58 @@ public class UtilTest extends TestCase {
 
     }
 
+    @Test
+    public void testIsNumberText() {
+        List<String> texts = Arrays.asList("", "-", "+", "1", "-12", "+12", "1 234", "1.5",
+                "1,5", ".5", "5.", "1e5", "1.5E-3", "1e", "1e+", "abc", "N/A", "1.2.3", "12a",
+                " 1", "1 ", "NaN", "-Infinity", "0x1p3", "1.5f", "2d", "\u0661\u0662", "1,2,3",
+                "99999999999999999999", "1 2", "e5");
+        for (String text : texts) {
+            if (!Util.isNumberText(text, " ", ",", false, false)) {
+                assertNotLong(text);
+            }
+            if (!Util.isNumberText(text, " ", ",", true, true)) {
+                assertNotBigDecimal(text);
+                if (!Util.mayBeJavaDouble(text)) {
+                    assertNotDouble(text);
+                }
+            }
+        }
+        Assert.assertTrue(Util.isNumberText("-1 234,5e3", " ", ",", true, true));
+        Assert.assertFalse(Util.isNumberText("1,5", " ", ",", false, false));
+        Assert.assertFalse(Util.isNumberText("1e5", "", ".", true, false));
+        Assert.assertFalse(Util.isNumberText("N/A", "", ".", true, true));
+        Assert.assertFalse(Util.mayBeJavaDouble("N/A"));
+        Assert.assertTrue(Util.mayBeJavaDouble("NaN"));
+    }
+
+    private static void assertNotLong(String text) {
+        try {
+            Util.parseLong(text, " ");
+            Assert.fail(text);
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
+    private static void assertNotBigDecimal(String text) {
+        try {
+            Util.parseBigDecimal(text, " ", ",");
+            Assert.fail(text);
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
+    private static void assertNotDouble(String text) {
+        try {
+            Util.parseDouble(text, " ", ",");
+            Assert.fail(text);
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testParse() {
         Assert.assertEquals(Arrays.asList("a", "b\\c/d", "e"), Util.parse("a/b\\\\c\\/d/e"));
@@ -90,6 +144,47 @@ public class UtilTest extends TestCase {
         Assert.assertEquals("-123~~456", Util.formatLong(-123456L, "~~"));
     }
 
+    @Test
+    public void testAppendLong() {
+        StringBuilder sb = new StringBuilder("x");
+        Util.appendLong(sb, 1234567L, "~~");
+        Util.appendLong(sb, -123L, "~~");
+        Util.appendLong(sb, 0L, "~~");
+        Util.appendLong(sb, 1234L, null);
+        Assert.assertEquals("x1~~234~~567-12301234", sb.toString());
+        Assert.assertEquals("-9 223 372 036 854 775 808", Util.formatLong(Long.MIN_VALUE, " "));
+        Assert.assertEquals("9 223 372 036 854 775 807", Util.formatLong(Long.MAX_VALUE, " "));
+    }
+
+    @Test
+    public void testAppendDoubleAndBigDecimal() {
+        StringBuilder sb = new StringBuilder("x");
+        Util.appendDouble(sb, -1234.5, " ", ",");
+        sb.append('|');
+        Util.appendBigDecimal(sb, new BigDecimal("1234567.500"), ".", ",");
+        sb.append('|');
+        Util.appendDouble(sb, Double.NaN, " ", ",");
+        Assert.assertEquals("x-1 234,5|1.234.567,5|NaN", sb.toString());
+    }
+
+    @Test
+    public void testAppendDecimal() {
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            long unscaled =
+                    random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(100000) - 50000;
+            int scale = random.nextInt(30) - 5;
+            StringBuilder sb = new StringBuilder();
+            Util.appendDecimal(sb, unscaled, scale, " ", ",");
+            Assert.assertEquals(
+                    Util.formatBigDecimal(BigDecimal.valueOf(unscaled, scale), " ", ","),
+                    sb.toString());
+        }
+        StringBuilder sb = new StringBuilder();
+        Util.appendDecimal(sb, -123456700, 4, " ", ",");
+        Assert.assertEquals("-12 345,67", sb.toString());
+    }
+
     @Test
     public void testParseLong() {
         Assert.assertEquals(123456L, Util.parseLong("123456", null));
@@ -188,4 +283,69 @@ public class UtilTest extends TestCase {
     public void testReplaceChar() {
         Assert.assertEquals("foo", Util.replaceChar("foo", null, "a"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFloorDiv() {
+        Assert.assertEquals(2, Util.floorDiv(7, 3));
+        Assert.assertEquals(-3, Util.floorDiv(-7, 3));
+        Assert.assertEquals(-3, Util.floorDiv(7, -3));
+        Assert.assertEquals(-2, Util.floorDiv(-6, 3));
+        Assert.assertEquals(1, Util.floorMod(7, 3));
+        Assert.assertEquals(2, Util.floorMod(-7, 3));
+        Assert.assertEquals(0, Util.floorMod(-6, 3));
+    }
+
+    @Test
+    public void testParseCharSequence() {
+        Random random = new Random(7);
+        String alphabet = "0123456789-., e+";
+        String[][] separators = {{null, null}, {"", "."}, {" ", ","}, {".", ","}, {"::", "."},
+                {",", ".."}};
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(22);
+            for (int j = 0; j < len; j++) {
+                int k = random.nextInt(alphabet.length() + 10);
+                sb.append(alphabet.charAt(k < alphabet.length() ? k : k - alphabet.length()));
+            }
+            String text = sb.toString();
+            CharSequence view = new TextView(("#" + text + "#").toCharArray(), 1, text.length());
+            for (String[] separator : separators) {
+                Assert.assertEquals(text, parseLong(text, separator[0]),
+                        parseLong(view, separator[0]));
+                Assert.assertEquals(text, parseDouble(text, separator[0], separator[1]),
+                        parseDouble(view, separator[0], separator[1]));
+            }
+        }
+        Assert.assertEquals(-0.0, Util.parseDouble((CharSequence) "-0", null, null), 0.0);
+        Assert.assertEquals(0.1, Util.parseDouble((CharSequence) "0.1", null, null), 0.0);
+        Assert.assertEquals(123456789012345678L,
+                Util.parseLong((CharSequence) "123 456 789 012 345 678", " "));
+    }
+
+    private static String parseLong(CharSequence text, String thousandsSeparator) {
+        try {
+            if (text instanceof String) {
+                return String.valueOf(Util.parseLong((String) text, thousandsSeparator));
+            }
+            return String.valueOf(Util.parseLong(text, thousandsSeparator));
+        } catch (NumberFormatException e) {
+            return "error";
+        }
+    }
+
+    private static String parseDouble(CharSequence text, String thousandsSeparator,
+                                      String decimalSeparator) {
+        try {
+            double value;
+            if (text instanceof String) {
+                value = Util.parseDouble((String) text, thousandsSeparator, decimalSeparator);
+            } else {
+                value = Util.parseDouble(text, thousandsSeparator, decimalSeparator);
+            }
+            return String.valueOf(Double.doubleToRawLongBits(value));
+        } catch (NumberFormatException e) {
+            return "error";
+        }
+    }
+}
@@ -23,14 +23,18 @@ package com.github.jferard.javamcsv.description;
 import com.github.jferard.javamcsv.DataType;
 import com.github.jferard.javamcsv.TestHelper;
 import com.github.jferard.javamcsv.Util;
+import com.github.jferard.javamcsv.processor.FieldProcessor;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.concurrent.Callable;
 
 public class DateFieldDescriptionTest {
     private SimpleDateFormat dateFormat;
@@ -68,4 +72,25 @@ public class DateFieldDescriptionTest {
     public void testJavaType() throws IOException {
         Assert.assertEquals(Date.class, fieldDescription.getJavaType());
     }
+
+    @Test
+    public void testConcurrentDefaultInstance() throws Exception {
+        @SuppressWarnings("unchecked")
+        final FieldDescription<Date> description =
+                (FieldDescription<Date>) DataType.DATE.getDefaultDescription();
+        TestHelper.runConcurrently(8, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                FieldProcessor<Date> processor = description.toFieldProcessor("");
+                Calendar cal = GregorianCalendar.getInstance(Util.UTC_TIME_ZONE);
+                for (int i = 0; i < 2000; i++) {
+                    cal.setTimeInMillis(0);
+                    cal.set(1970 + i % 100, i % 12, 1 + i % 28);
+                    Assert.assertEquals(cal.getTime(),
+                            processor.toObject(processor.toString(cal.getTime())));
+                }
+                return null;
+            }
+        });
+    }
 }
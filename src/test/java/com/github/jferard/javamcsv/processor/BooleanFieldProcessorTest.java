@@ -51,6 +51,20 @@ public class BooleanFieldProcessorTest {
         Assert.assertFalse(processor.toObject("foo"));
     }
 
+    @Test
+    public void testToBoolean() throws MetaCSVReadException {
+        final BooleanFieldProcessor bProcessor = (BooleanFieldProcessor) processor;
+        Assert.assertNull(bProcessor.toBoolean(new StringBuilder(" NULL ")));
+        Assert.assertTrue(bProcessor.toBoolean(new StringBuilder("t")));
+        Assert.assertFalse(bProcessor.toBoolean(new StringBuilder(" F")));
+        Assert.assertThrows(MetaCSVReadException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                bProcessor.toBoolean(new StringBuilder("TF"));
+            }
+        });
+    }
+
     @Test
     public void testToString() {
         Assert.assertEquals("NULL", processor.toString(null));
@@ -21,6 +21,7 @@
 package com.github.jferard.javamcsv.processor;
 
 import com.github.jferard.javamcsv.MetaCSVReadException;
+import com.github.jferard.javamcsv.TestHelper;
 import com.github.jferard.javamcsv.Util;
 import com.github.jferard.javamcsv.description.DateFieldDescription;
 import com.github.jferard.javamcsv.description.DatetimeFieldDescription;
@@ -36,6 +37,7 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
 
 public class DateFieldProcessorTest {
 
@@ -164,4 +166,40 @@ public class DateFieldProcessorTest {
             }
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConcurrentToObject() throws Exception {
+        final FieldProcessor<Date> processor =
+                DatetimeFieldDescription.create("yyyy-MM-dd'T'HH:mm:ss", "en_US")
+                        .toFieldProcessor("NULL");
+        TestHelper.runConcurrently(8, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                Calendar cal = GregorianCalendar.getInstance(Util.UTC_TIME_ZONE);
+                for (int i = 0; i < 2000; i++) {
+                    cal.setTimeInMillis(0);
+                    cal.set(2000 + i % 50, i % 12, 1 + i % 28, i % 24, i % 60, i % 60);
+                    Date date = cal.getTime();
+                    String text = processor.toString(date);
+                    Assert.assertEquals(date, processor.toObject(text));
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testEpochMillis() throws MetaCSVReadException {
+        DateFieldProcessor processor = (DateFieldProcessor) DatetimeFieldDescription.create(
+                "yyyy-MM-dd'T'HH:mm:ss", "en_US").toFieldProcessor("NULL");
+        Assert.assertTrue(processor.isNull("NULL"));
+        Assert.assertFalse(processor.isNull("2020-11-21T03:02:01"));
+        Assert.assertEquals(1605927721000L, processor.toEpochMillis("2020-11-21T03:02:01"));
+        // lenient fallback
+        Assert.assertEquals(1605927721000L, processor.toEpochMillis("2020-11-20T27:02:01"));
+        Assert.assertEquals(1605927721000L,
+                processor.toEpochMillis(new StringBuilder("2020-11-21T03:02:01")));
+        Assert.assertEquals(1605927721000L,
+                processor.toEpochMillis(new StringBuilder("2020-11-20T27:02:01")));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * java-mcsv - A MetaCSV library for Java
+ *     Copyright (C) 2020-2021 J. Férard <https://github.com/jferard>
+ *
+ * This file is part of java-mcsv.
+ *
+ * java-mcsv is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * java-mcsv is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses />.
+ */
+
+package com.github.jferard.javamcsv.processor;
+
+import com.github.jferard.javamcsv.Util;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class FastDateParserTest {
+    @Test
+    public void testUnsupportedPatterns() {
+        Assert.assertNull(FastDateParser.compile("yy-MM-dd"));
+        Assert.assertNull(FastDateParser.compile("yyyy-MMM-dd"));
+        Assert.assertNull(FastDateParser.compile("EEE yyyy-MM-dd"));
+        Assert.assertNull(FastDateParser.compile("MM-dd"));
+        Assert.assertNull(FastDateParser.compile("yyyy-MM-dd''"));
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("Europe/Paris"));
+        Assert.assertNull(FastDateParser.create(format));
+    }
+
+    @Test
+    public void testDaysFromCivil() {
+        Assert.assertEquals(0, FastDateParser.daysFromCivil(1970, 1, 1));
+        Assert.assertEquals(-1, FastDateParser.daysFromCivil(1969, 12, 31));
+        Assert.assertEquals(18587, FastDateParser.daysFromCivil(2020, 11, 21));
+        Assert.assertEquals(11016, FastDateParser.daysFromCivil(2000, 2, 29));
+    }
+
+    @Test
+    public void testParse() {
+        FastDateParser parser = FastDateParser.compile("yyyy-MM-dd'T'HH:mm:ss.SSS");
+        Assert.assertEquals(1605917045123L, parser.parse("2020-11-21T00:04:05.123"));
+        Assert.assertEquals(1605917045123L, parser.parse("2020-11-21T00:04:05.123Z"));
+        Assert.assertEquals(FastDateParser.UNPARSEABLE, parser.parse("2020-11-21T00:04:05.1234"));
+        Assert.assertEquals(FastDateParser.UNPARSEABLE, parser.parse("2020-11-21T00:04:05"));
+        Assert.assertEquals(FastDateParser.UNPARSEABLE, parser.parse("2020-11-31T00:04:05.123"));
+        Assert.assertEquals(FastDateParser.UNPARSEABLE, parser.parse("2020-11-21 00:04:05.123"));
+    }
+
+    @Test
+    public void testSameAsSimpleDateFormat() {
+        List<String> patterns = Arrays.asList("yyyy-MM-dd", "dd/MM/yyyy", "yyyyMMdd",
+                "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd HH:mm:ss.SSS", "HH:mm dd.MM.yyyy");
+        Random random = new Random(42);
+        for (String pattern : patterns) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            format.setTimeZone(Util.UTC_TIME_ZONE);
+            FastDateParser parser = FastDateParser.create(format);
+            Assert.assertNotNull(pattern, parser);
+            for (int i = 0; i < 5000; i++) {
+                long epochMillis = (random.nextLong() % 10000000000000L);
+                String text = format.format(epochMillis);
+                if (i % 5 == 0) { // some invalid or unusual values
+                    char[] chars = text.toCharArray();
+                    String replacements = "0123456789/-: x";
+                    chars[random.nextInt(chars.length)] =
+                            replacements.charAt(random.nextInt(replacements.length()));
+                    text = new String(chars) + (i % 2 == 0 ? "" : "7");
+                }
+                long expected;
+                try {
+                    expected = format.parse(text).getTime();
+                } catch (ParseException e) {
+                    expected = FastDateParser.UNPARSEABLE;
+                }
+                long actual = parser.parse(text);
+                if (actual != FastDateParser.UNPARSEABLE) {
+                    Assert.assertEquals(pattern + ": " + text, expected, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatSameAsSimpleDateFormat() {
+        List<String> patterns = Arrays.asList("yyyy-MM-dd", "dd/MM/yyyy", "yyyyMMdd",
+                "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd HH:mm:ss.SSS", "HH:mm dd.MM.yyyy");
+        Random random = new Random(42);
+        for (String pattern : patterns) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            format.setTimeZone(Util.UTC_TIME_ZONE);
+            FastDateParser parser = FastDateParser.create(format);
+            for (int i = 0; i < 5000; i++) {
+                long epochMillis = (random.nextLong() % 300000000000000L);
+                StringBuilder sb = new StringBuilder();
+                if (parser.format(sb, epochMillis)) {
+                    Assert.assertEquals(pattern, format.format(epochMillis), sb.toString());
+                } else {
+                    Assert.assertEquals(0, sb.length());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatLimits() {
+        FastDateParser parser = FastDateParser.compile("yyyy-MM-dd HH:mm:ss.SSS");
+        StringBuilder sb = new StringBuilder();
+        Assert.assertTrue(parser.format(sb, -12212553600000L));
+        sb.append('|');
+        Assert.assertTrue(parser.format(sb, 253402300799999L));
+        Assert.assertEquals("1583-01-01 00:00:00.000|9999-12-31 23:59:59.999", sb.toString());
+        Assert.assertFalse(parser.format(sb, -12212553600001L));
+        Assert.assertFalse(parser.format(sb, 253402300800000L));
+    }
+}
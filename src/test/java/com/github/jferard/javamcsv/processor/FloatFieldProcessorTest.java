@@ -61,6 +61,16 @@ public class FloatFieldProcessorTest {
         Assert.assertEquals("17,2", processor.toString(17.2));
     }
 
+    @Test
+    public void testPrecisionToString() {
+        FieldProcessor<Double> fixedProcessor =
+                new FloatFieldDescription(" ", ",", 3).toFieldProcessor("NULL");
+        Assert.assertEquals("12 345,679", fixedProcessor.toString(12345.6789));
+        Assert.assertEquals("-0,125", fixedProcessor.toString(-0.125));
+        Assert.assertEquals("1,000", fixedProcessor.toString(1.0));
+        Assert.assertEquals("NULL", fixedProcessor.toString(null));
+    }
+
     @Test
     public void testCast() {
         Assert.assertEquals(17.0, processor.cast(17L), 0.01);
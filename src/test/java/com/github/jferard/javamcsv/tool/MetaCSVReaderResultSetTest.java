@@ -257,6 +257,8 @@ public class MetaCSVReaderResultSetTest {
         Assert.assertTrue(rs.next());
         Assert.assertNull(rs.getAsciiStream(4));
         Assert.assertNull(rs.getBinaryStream(4));
+        Assert.assertNull(rs.getCharacterStream(4));
+        Assert.assertTrue(rs.wasNull());
     }
 
     @Test